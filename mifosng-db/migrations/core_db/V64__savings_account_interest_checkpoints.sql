@@ -0,0 +1,13 @@
+CREATE TABLE `m_savings_account_interest_checkpoint` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `savings_account_id` bigint(20) NOT NULL,
+  `period_start_date` date NOT NULL,
+  `period_end_date` date NOT NULL,
+  `opening_balance` decimal(19,6) NOT NULL,
+  `closing_balance` decimal(19,6) NOT NULL,
+  `interest_earned_unrounded` decimal(40,20) NOT NULL,
+  `cumulative_compounded_interest` decimal(40,20) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `FKSAIC000000001` (`savings_account_id`, `period_end_date`),
+  CONSTRAINT `FKSAIC000000001` FOREIGN KEY (`savings_account_id`) REFERENCES `m_savings_account` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
@@ -0,0 +1,10 @@
+CREATE TABLE `m_savings_interest_posting_checkpoint` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `posting_date` date NOT NULL,
+  `last_savings_account_id` bigint(20) NOT NULL DEFAULT 0,
+  `accounts_posted` int(11) NOT NULL DEFAULT 0,
+  `accounts_failed` int(11) NOT NULL DEFAULT 0,
+  `is_completed` tinyint(1) NOT NULL DEFAULT 0,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `posting_date_UNIQUE` (`posting_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
@@ -0,0 +1,30 @@
+CREATE TABLE `m_search_index` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `entity_type` varchar(20) NOT NULL,
+  `entity_id` bigint(20) NOT NULL,
+  `office_id` bigint(20) NOT NULL,
+  `term` varchar(200) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `entity_type_entity_id` (`entity_type`,`entity_id`),
+  KEY `term` (`term`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+CREATE TABLE `m_search_index_gram` (
+  `search_index_id` bigint(20) NOT NULL,
+  `gram` char(3) NOT NULL,
+  PRIMARY KEY (`gram`,`search_index_id`),
+  KEY `FK_m_search_index_gram_m_search_index` (`search_index_id`),
+  CONSTRAINT `FK_m_search_index_gram_m_search_index` FOREIGN KEY (`search_index_id`) REFERENCES `m_search_index` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+CREATE TABLE `m_search_index_status` (
+  `id` bigint(20) NOT NULL,
+  `is_built` tinyint(1) NOT NULL DEFAULT 0,
+  `lastbuilt_date` datetime DEFAULT NULL,
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+INSERT INTO `m_search_index_status` (`id`, `is_built`, `lastbuilt_date`) VALUES (1, 0, NULL);
+
+INSERT INTO `m_permission` (`grouping`, `code`, `entity_name`, `action_name`, `can_maker_checker`)
+VALUES ('portfolio', 'REBUILD_SEARCHINDEX', 'SEARCHINDEX', 'REBUILD', 0);
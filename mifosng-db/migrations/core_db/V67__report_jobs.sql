@@ -0,0 +1,18 @@
+CREATE TABLE `m_report_job` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `report_name` varchar(100) NOT NULL,
+  `output_type` varchar(10) NOT NULL,
+  `status` varchar(20) NOT NULL,
+  `submitted_by_appuser_id` bigint(20) NOT NULL,
+  `submitted_date` datetime NOT NULL,
+  `started_date` datetime DEFAULT NULL,
+  `completed_date` datetime DEFAULT NULL,
+  `duration_ms` bigint(20) DEFAULT NULL,
+  `row_count` bigint(20) DEFAULT NULL,
+  `output_bytes` bigint(20) DEFAULT NULL,
+  `output_location` varchar(500) DEFAULT NULL,
+  `error_message` varchar(1000) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `FK_m_report_job_m_appuser` (`submitted_by_appuser_id`),
+  CONSTRAINT `FK_m_report_job_m_appuser` FOREIGN KEY (`submitted_by_appuser_id`) REFERENCES `m_appuser` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
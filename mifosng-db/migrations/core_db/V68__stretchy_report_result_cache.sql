@@ -0,0 +1,2 @@
+ALTER TABLE `stretchy_report` 
+ADD COLUMN `cache_ttl_seconds` INT(11) NULL DEFAULT NULL AFTER `use_report`;
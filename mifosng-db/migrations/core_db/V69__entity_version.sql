@@ -0,0 +1,7 @@
+CREATE TABLE `m_entity_version` (
+  `entity_type` varchar(20) NOT NULL,
+  `entity_id` bigint(20) NOT NULL,
+  `version` bigint(20) NOT NULL,
+  `lastmodified_date` datetime NOT NULL,
+  PRIMARY KEY (`entity_type`, `entity_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
@@ -0,0 +1,2 @@
+ALTER TABLE `m_loan`
+  ADD COLUMN `version` bigint(20) NOT NULL DEFAULT 1;
@@ -0,0 +1,6 @@
+DROP TABLE IF EXISTS `m_savings_account_interest_checkpoint`;
+
+ALTER TABLE `m_savings_account`
+  ADD COLUMN `interest_checkpoint_date` date NULL DEFAULT NULL,
+  ADD COLUMN `interest_checkpoint_closing_balance` decimal(19,6) NULL DEFAULT NULL,
+  ADD COLUMN `interest_checkpoint_compounded_interest` decimal(40,20) NULL DEFAULT NULL;
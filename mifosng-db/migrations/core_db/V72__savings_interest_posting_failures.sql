@@ -0,0 +1,7 @@
+CREATE TABLE `m_savings_interest_posting_failure` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `posting_date` date NOT NULL,
+  `savings_account_id` bigint(20) NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `posting_date_savings_account_UNIQUE` (`posting_date`, `savings_account_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
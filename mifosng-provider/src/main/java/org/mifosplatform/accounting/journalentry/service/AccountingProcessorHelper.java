@@ -385,7 +385,7 @@ public class AccountingProcessorHelper {
         final boolean manualEntry = false;
         final JournalEntry journalEntry = JournalEntry.createNew(office, account, transactionId, manualEntry, transactionDate,
                 JournalEntryType.CREDIT, amount, null, PortfolioProductType.LOAN.getValue(), loanId, null);
-        this.glJournalEntryRepository.saveAndFlush(journalEntry);
+        this.glJournalEntryRepository.save(journalEntry);
     }
 
     private void createCreditJournalEntryForSavings(final Office office, final GLAccount account, final Long savingsId,
@@ -393,7 +393,7 @@ public class AccountingProcessorHelper {
         final boolean manualEntry = false;
         final JournalEntry journalEntry = JournalEntry.createNew(office, account, transactionId, manualEntry, transactionDate,
                 JournalEntryType.CREDIT, amount, null, PortfolioProductType.SAVING.getValue(), savingsId, null);
-        this.glJournalEntryRepository.saveAndFlush(journalEntry);
+        this.glJournalEntryRepository.save(journalEntry);
     }
 
     private void createDebitJournalEntryForLoan(final Office office, final GLAccount account, final Long loanId,
@@ -401,7 +401,7 @@ public class AccountingProcessorHelper {
         final boolean manualEntry = false;
         final JournalEntry journalEntry = JournalEntry.createNew(office, account, transactionId, manualEntry, transactionDate,
                 JournalEntryType.DEBIT, amount, null, PortfolioProductType.LOAN.getValue(), loanId, null);
-        this.glJournalEntryRepository.saveAndFlush(journalEntry);
+        this.glJournalEntryRepository.save(journalEntry);
     }
 
     private void createDebitJournalEntryForSavings(final Office office, final GLAccount account, final Long savingsId,
@@ -409,7 +409,7 @@ public class AccountingProcessorHelper {
         final boolean manualEntry = false;
         final JournalEntry journalEntry = JournalEntry.createNew(office, account, transactionId, manualEntry, transactionDate,
                 JournalEntryType.DEBIT, amount, null, PortfolioProductType.SAVING.getValue(), savingsId, null);
-        this.glJournalEntryRepository.saveAndFlush(journalEntry);
+        this.glJournalEntryRepository.save(journalEntry);
     }
 
     private GLAccount getLinkedGLAccountForLoanProduct(final Long loanProductId, final int accountMappingTypeId, final Long paymentTypeId) {
@@ -112,6 +112,10 @@ public class CommandWrapper {
         return (this.actionName.equalsIgnoreCase("CREATE") && this.href.startsWith("/datatables/") && this.entityId == null);
     }
 
+    public boolean isCreateDatatableEntries() {
+        return (this.actionName.equalsIgnoreCase("CREATE") && this.href.startsWith("/datatables/") && this.href.endsWith("/bulk"));
+    }
+
     public boolean isDeleteDatatable() {
         return (this.actionName.equalsIgnoreCase("DELETE") && this.href.startsWith("/datatables/") && this.entityId == null);
     }
@@ -529,6 +533,10 @@ public class CommandWrapper {
         return this.entityName.equalsIgnoreCase("HOLIDAY");
     }
 
+    public boolean isSearchIndexResource() {
+        return this.entityName.equalsIgnoreCase("SEARCHINDEX");
+    }
+
     public boolean isAccountingRuleResource() {
         return this.entityName.equalsIgnoreCase("ACCOUNTINGRULE");
     }
@@ -0,0 +1,42 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.commands.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts commands that were re-run after losing an optimistic lock or a
+ * database deadlock to a concurrent command.
+ */
+@Component
+@ManagedResource(objectName = "org.mifosplatform:type=CommandRetries", description = "Command retries on concurrency failures")
+public class CommandRetryStatistics {
+
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong retriesExhausted = new AtomicLong();
+
+    public void recordRetry() {
+        this.retries.incrementAndGet();
+    }
+
+    public void recordRetriesExhausted() {
+        this.retriesExhausted.incrementAndGet();
+    }
+
+    @ManagedAttribute(description = "Number of times a command was retried after a concurrency failure")
+    public long getRetries() {
+        return this.retries.get();
+    }
+
+    @ManagedAttribute(description = "Number of commands that still failed after the last retry")
+    public long getRetriesExhausted() {
+        return this.retriesExhausted.get();
+    }
+}
@@ -389,6 +389,14 @@ public class CommandWrapperBuilder {
         return this;
     }
 
+    public CommandWrapperBuilder createDatatableEntries(final String datatable) {
+        this.actionName = "CREATE";
+        this.entityName = datatable;
+        this.entityId = null;
+        this.href = "/datatables/" + datatable + "/bulk";
+        return this;
+    }
+
     public CommandWrapperBuilder updateDatatable(final String datatable, final Long apptableId, final Long datatableId) {
         this.actionName = "UPDATE";
         commonDatatableSettings(datatable, apptableId, datatableId);
@@ -1027,6 +1035,14 @@ public class CommandWrapperBuilder {
         return this;
     }
 
+    public CommandWrapperBuilder rebuildSearchIndex() {
+        this.actionName = "REBUILD";
+        this.entityName = "SEARCHINDEX";
+        this.entityId = null;
+        this.href = "/search/index";
+        return this;
+    }
+
     public CommandWrapperBuilder assignRole(Long groupId) {
         this.actionName = "ASSIGNROLE";
         this.entityName = "GROUP";
@@ -5,6 +5,10 @@
  */
 package org.mifosplatform.commands.service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
 import org.mifosplatform.commands.domain.CommandSource;
 import org.mifosplatform.commands.domain.CommandSourceRepository;
 import org.mifosplatform.commands.domain.CommandWrapper;
@@ -15,7 +19,11 @@ import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.serialization.FromJsonHelper;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.mifosplatform.portfolio.loanaccount.service.LoanLockingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,19 +32,32 @@ import com.google.gson.JsonElement;
 @Service
 public class PortfolioCommandSourceWritePlatformServiceImpl implements PortfolioCommandSourceWritePlatformService {
 
+    private final static Logger logger = LoggerFactory.getLogger(PortfolioCommandSourceWritePlatformServiceImpl.class);
+
+    /**
+     * Number of times a command is attempted when it loses an optimistic lock
+     * or a database deadlock to a concurrent command.
+     */
+    private static final int MAX_ATTEMPTS_ON_CONCURRENCY_FAILURE = 3;
+
     private final PlatformSecurityContext context;
     private final CommandSourceRepository commandSourceRepository;
     private final FromJsonHelper fromApiJsonHelper;
     private final CommandProcessingService processAndLogCommandService;
+    private final CommandRetryStatistics commandRetryStatistics;
+    private final LoanLockingService loanLockingService;
 
     @Autowired
     public PortfolioCommandSourceWritePlatformServiceImpl(final PlatformSecurityContext context,
             final CommandSourceRepository commandSourceRepository, final FromJsonHelper fromApiJsonHelper,
-            final CommandProcessingService processAndLogCommandService) {
+            final CommandProcessingService processAndLogCommandService, final CommandRetryStatistics commandRetryStatistics,
+            final LoanLockingService loanLockingService) {
         this.context = context;
         this.commandSourceRepository = commandSourceRepository;
         this.fromApiJsonHelper = fromApiJsonHelper;
         this.processAndLogCommandService = processAndLogCommandService;
+        this.commandRetryStatistics = commandRetryStatistics;
+        this.loanLockingService = loanLockingService;
     }
 
     @Override
@@ -65,7 +86,7 @@ public class PortfolioCommandSourceWritePlatformServiceImpl implements Portfolio
                     wrapper.getSavingsId(), wrapper.getCodeId(), wrapper.getSupportedEntityType(), wrapper.getSupportedEntityId(),
                     wrapper.getTransactionId(), wrapper.getHref());
 
-            result = this.processAndLogCommandService.processAndLogCommand(wrapper, command, isApprovedByChecker);
+            result = processAndLogCommandWithRetry(wrapper, command, isApprovedByChecker);
         } catch (RollbackTransactionAsCommandIsNotApprovedByCheckerException e) {
 
             result = this.processAndLogCommandService.logCommand(e.getCommandSourceResult());
@@ -89,7 +110,46 @@ public class PortfolioCommandSourceWritePlatformServiceImpl implements Portfolio
                 commandSourceInput.subresourceId(), commandSourceInput.getResourceGetUrl());
 
         final boolean makerCheckerApproval = true;
-        return this.processAndLogCommandService.processAndLogCommand(wrapper, command, makerCheckerApproval);
+        return processAndLogCommandWithRetry(wrapper, command, makerCheckerApproval);
+    }
+
+    /**
+     * Each attempt runs in its own transaction, so a command that lost a race
+     * with a concurrent command is rolled back completely before it is run
+     * again against the committed state.
+     * 
+     * The command's loan is locked before any attempt starts its transaction,
+     * so the transaction's snapshot already includes the previous change to
+     * the loan; the lock is released only once the last attempt has
+     * committed or rolled back.
+     */
+    private CommandProcessingResult processAndLogCommandWithRetry(final CommandWrapper wrapper, final JsonCommand command,
+            final boolean isApprovedByChecker) {
+        final List<Long> loanIds = new ArrayList<Long>(1);
+        if (command.getLoanId() != null) {
+            loanIds.add(command.getLoanId());
+        }
+
+        final List<Lock> loanLocks = this.loanLockingService.lock(loanIds);
+        try {
+            int attempt = 1;
+            while (true) {
+                try {
+                    return this.processAndLogCommandService.processAndLogCommand(wrapper, command, isApprovedByChecker);
+                } catch (final ConcurrencyFailureException e) {
+                    if (attempt >= MAX_ATTEMPTS_ON_CONCURRENCY_FAILURE) {
+                        this.commandRetryStatistics.recordRetriesExhausted();
+                        throw e;
+                    }
+                    this.commandRetryStatistics.recordRetry();
+                    logger.info("Retrying command " + wrapper.actionName() + " " + wrapper.entityName()
+                            + " after concurrency failure: " + e.getMessage());
+                    attempt++;
+                }
+            }
+        } finally {
+            this.loanLockingService.unlock(loanLocks);
+        }
     }
 
     @Transactional
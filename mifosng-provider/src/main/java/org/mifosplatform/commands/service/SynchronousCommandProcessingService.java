@@ -19,6 +19,7 @@ import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.mifosplatform.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.mifosplatform.infrastructure.core.service.EntityVersionService;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.useradministration.domain.AppUser;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,11 +35,12 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
     private final ToApiJsonSerializer<Map<String, Object>> toApiJsonSerializer;
     private CommandSourceRepository commandSourceRepository;
     private final ConfigurationDomainService configurationDomainService;
+    private final EntityVersionService entityVersionService;
 
     @Autowired
     public SynchronousCommandProcessingService(final PlatformSecurityContext context, final ApplicationContext applicationContext,
             final ToApiJsonSerializer<Map<String, Object>> toApiJsonSerializer, final CommandSourceRepository commandSourceRepository,
-            final ConfigurationDomainService configurationDomainService) {
+            final ConfigurationDomainService configurationDomainService, final EntityVersionService entityVersionService) {
         this.context = context;
         this.context = context;
         this.applicationContext = applicationContext;
@@ -46,6 +48,7 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
         this.commandSourceRepository = commandSourceRepository;
         this.commandSourceRepository = commandSourceRepository;
         this.configurationDomainService = configurationDomainService;
+        this.entityVersionService = entityVersionService;
     }
 
     @Transactional
@@ -86,6 +89,8 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
             this.commandSourceRepository.save(commandSourceResult);
         }
 
+        this.entityVersionService.recordChanges(result);
+
         if (rollbackTransaction) { throw new RollbackTransactionAsCommandIsNotApprovedByCheckerException(commandSourceResult); }
 
         return result;
@@ -108,7 +113,9 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
         if (wrapper.isConfigurationResource()) {
             handler = this.applicationContext.getBean("updateGlobalConfigurationCommandHandler", NewCommandSourceHandler.class);
         } else if (wrapper.isDatatableResource()) {
-            if (wrapper.isCreateDatatable()) {
+            if (wrapper.isCreateDatatableEntries()) {
+                handler = this.applicationContext.getBean("createDatatableEntriesCommandHandler", NewCommandSourceHandler.class);
+            } else if (wrapper.isCreateDatatable()) {
                 handler = this.applicationContext.getBean("createDatatableCommandHandler", NewCommandSourceHandler.class);
             } else if (wrapper.isDeleteDatatable()) {
                 handler = this.applicationContext.getBean("deleteDatatableCommandHandler", NewCommandSourceHandler.class);
@@ -475,6 +482,8 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
             if (wrapper.isCreate()) {
                 handler = applicationContext.getBean("createHolidayCommandHandler", NewCommandSourceHandler.class);
             }
+        } else if (wrapper.isSearchIndexResource()) {
+            handler = applicationContext.getBean("rebuildSearchIndexCommandHandler", NewCommandSourceHandler.class);
         } else {
             throw new UnsupportedCommandException(wrapper.commandName());
         }
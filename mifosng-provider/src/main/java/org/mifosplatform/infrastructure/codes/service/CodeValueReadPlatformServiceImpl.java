@@ -8,8 +8,11 @@ package org.mifosplatform.infrastructure.codes.service;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.concurrent.Callable;
 
 import org.mifosplatform.infrastructure.codes.data.CodeValueData;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataCache;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataType;
 import org.mifosplatform.infrastructure.core.service.TenantAwareRoutingDataSource;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,11 +25,14 @@ public class CodeValueReadPlatformServiceImpl implements CodeValueReadPlatformSe
 
     private final JdbcTemplate jdbcTemplate;
     private final PlatformSecurityContext context;
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
-    public CodeValueReadPlatformServiceImpl(final PlatformSecurityContext context, final TenantAwareRoutingDataSource dataSource) {
+    public CodeValueReadPlatformServiceImpl(final PlatformSecurityContext context, final TenantAwareRoutingDataSource dataSource,
+            final ReferenceDataCache referenceDataCache) {
         this.context = context;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.referenceDataCache = referenceDataCache;
     }
 
     private static final class CodeValueDataMapper implements RowMapper<CodeValueData> {
@@ -52,10 +58,16 @@ public class CodeValueReadPlatformServiceImpl implements CodeValueReadPlatformSe
 
         context.authenticatedUser();
 
-        final CodeValueDataMapper rm = new CodeValueDataMapper();
-        final String sql = "select " + rm.schema() + "where c.code_name like ? order by position";
+        return this.referenceDataCache.retrieve(ReferenceDataType.CODE_VALUES, code, new Callable<Collection<CodeValueData>>() {
+
+            @Override
+            public Collection<CodeValueData> call() {
+                final CodeValueDataMapper rm = new CodeValueDataMapper();
+                final String sql = "select " + rm.schema() + "where c.code_name like ? order by position";
 
-        return this.jdbcTemplate.query(sql, rm, new Object[] { code });
+                return CodeValueReadPlatformServiceImpl.this.jdbcTemplate.query(sql, rm, new Object[] { code });
+            }
+        });
     }
 
     @Override
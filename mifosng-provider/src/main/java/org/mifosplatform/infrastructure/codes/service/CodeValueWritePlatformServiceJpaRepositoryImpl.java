@@ -18,6 +18,8 @@ import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataCache;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataType;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,16 +38,19 @@ public class CodeValueWritePlatformServiceJpaRepositoryImpl implements CodeValue
     private final CodeValueRepository codeValueRepository;
     private final CodeRepository codeRepository;
     private final CodeValueCommandFromApiJsonDeserializer fromApiJsonDeserializer;
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
     public CodeValueWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context, final CodeRepository codeRepository,
             final CodeValueRepositoryWrapper codeValueRepositoryWrapper, final CodeValueRepository codeValueRepository,
-            final CodeValueCommandFromApiJsonDeserializer fromApiJsonDeserializer) {
+            final CodeValueCommandFromApiJsonDeserializer fromApiJsonDeserializer,
+            final ReferenceDataCache referenceDataCache) {
         this.context = context;
         this.codeRepository = codeRepository;
         this.codeValueRepositoryWrapper = codeValueRepositoryWrapper;
         this.codeValueRepository = codeValueRepository;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Transactional
@@ -61,6 +66,9 @@ public class CodeValueWritePlatformServiceJpaRepositoryImpl implements CodeValue
             final Code code = this.codeRepository.findOne(codeId);
             final CodeValue codeValue = CodeValue.fromJson(code, command);
             this.codeValueRepository.save(codeValue);
+            this.referenceDataCache.invalidate(ReferenceDataType.CODE_VALUES);
+            // datatable columns carry the options of their codes
+            this.referenceDataCache.invalidate(ReferenceDataType.DATATABLE_COLUMNS);
 
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
@@ -105,6 +113,8 @@ public class CodeValueWritePlatformServiceJpaRepositoryImpl implements CodeValue
 
             if (!changes.isEmpty()) {
                 this.codeValueRepository.saveAndFlush(codeValue);
+                this.referenceDataCache.invalidate(ReferenceDataType.CODE_VALUES);
+                this.referenceDataCache.invalidate(ReferenceDataType.DATATABLE_COLUMNS);
             }
 
             return new CommandProcessingResultBuilder() //
@@ -136,6 +146,8 @@ public class CodeValueWritePlatformServiceJpaRepositoryImpl implements CodeValue
             boolean removed = code.remove(codeValueToDelete);
             if (removed) {
                 this.codeRepository.save(code);
+                this.referenceDataCache.invalidate(ReferenceDataType.CODE_VALUES);
+                this.referenceDataCache.invalidate(ReferenceDataType.DATATABLE_COLUMNS);
             }
 
             return new CommandProcessingResultBuilder() //
@@ -16,6 +16,8 @@ import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataCache;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataType;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,13 +34,16 @@ public class CodeWritePlatformServiceJpaRepositoryImpl implements CodeWritePlatf
     private final PlatformSecurityContext context;
     private final CodeRepository codeRepository;
     private final CodeCommandFromApiJsonDeserializer fromApiJsonDeserializer;
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
     public CodeWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context, final CodeRepository codeRepository,
-            final CodeCommandFromApiJsonDeserializer fromApiJsonDeserializer) {
+            final CodeCommandFromApiJsonDeserializer fromApiJsonDeserializer,
+            final ReferenceDataCache referenceDataCache) {
         this.context = context;
         this.codeRepository = codeRepository;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Transactional
@@ -73,6 +78,9 @@ public class CodeWritePlatformServiceJpaRepositoryImpl implements CodeWritePlatf
 
             if (!changes.isEmpty()) {
                 this.codeRepository.save(code);
+                this.referenceDataCache.invalidate(ReferenceDataType.CODE_VALUES);
+                // datatable columns carry the options of their codes
+                this.referenceDataCache.invalidate(ReferenceDataType.DATATABLE_COLUMNS);
             }
 
             return new CommandProcessingResultBuilder() //
@@ -96,6 +104,8 @@ public class CodeWritePlatformServiceJpaRepositoryImpl implements CodeWritePlatf
         if (code.isSystemDefined()) { throw new SystemDefinedCodeCannotBeChangedException(); }
 
         this.codeRepository.delete(code);
+        this.referenceDataCache.invalidate(ReferenceDataType.CODE_VALUES);
+        this.referenceDataCache.invalidate(ReferenceDataType.DATATABLE_COLUMNS);
 
         return new CommandProcessingResultBuilder().withEntityId(codeId).build();
     }
@@ -0,0 +1,48 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.api;
+
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+
+import org.mifosplatform.infrastructure.core.data.EntityVersion;
+
+/**
+ * Answers <code>If-None-Match</code> and <code>If-Modified-Since</code> for
+ * read resources from an {@link EntityVersion}.
+ */
+public final class ConditionalGetHelper {
+
+    private ConditionalGetHelper() {
+        //
+    }
+
+    /**
+     * Returns the <code>304 Not Modified</code> response when the client's
+     * copy is current, otherwise <code>null</code>.
+     */
+    public static Response notModified(final Request request, final EntityVersion version) {
+        final ResponseBuilder builder = request.evaluatePreconditions(version.lastModified(), new EntityTag(version.tag()));
+        if (builder == null) { return null; }
+        return withValidators(builder, version).build();
+    }
+
+    public static Response ok(final Object entity, final EntityVersion version) {
+        return withValidators(Response.ok(entity), version).build();
+    }
+
+    private static ResponseBuilder withValidators(final ResponseBuilder builder, final EntityVersion version) {
+        // responses depend on the user so may be stored only by the client,
+        // and must be revalidated before use
+        final CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+        return builder.tag(new EntityTag(version.tag())).lastModified(version.lastModified()).cacheControl(cacheControl);
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.data;
+
+import java.util.Date;
+
+/**
+ * Identifies the state of the data behind a read resource: <code>tag</code>
+ * changes whenever the representation may have changed and
+ * <code>lastModified</code> is when that last happened.
+ */
+public class EntityVersion {
+
+    private final String tag;
+    private final Date lastModified;
+
+    public EntityVersion(final String tag, final Date lastModified) {
+        this.tag = tag;
+        this.lastModified = lastModified;
+    }
+
+    public String tag() {
+        return this.tag;
+    }
+
+    public Date lastModified() {
+        return this.lastModified;
+    }
+}
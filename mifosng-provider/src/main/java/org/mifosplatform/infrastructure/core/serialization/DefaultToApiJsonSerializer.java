@@ -5,14 +5,21 @@
  */
 package org.mifosplatform.infrastructure.core.serialization;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.util.Collection;
 import java.util.Set;
 
+import javax.ws.rs.core.StreamingOutput;
+
 import org.mifosplatform.infrastructure.core.service.Page;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An abstract helper implementation of {@link ToApiJsonSerializer} for
@@ -25,17 +32,19 @@ public final class DefaultToApiJsonSerializer<T> implements ToApiJsonSerializer<
     private final ExcludeNothingWithPrettyPrintingOnJsonSerializerGoogleGson excludeNothingWithPrettyPrintingOn;
     private final CommandProcessingResultJsonSerializer commandProcessingResultSerializer;
     private final GoogleGsonSerializerHelper helper;
+    private final SerializationStatistics serializationStatistics;
 
     @Autowired
     public DefaultToApiJsonSerializer(
             final ExcludeNothingWithPrettyPrintingOffJsonSerializerGoogleGson excludeNothingWithPrettyPrintingOff,
             final ExcludeNothingWithPrettyPrintingOnJsonSerializerGoogleGson excludeNothingWithPrettyPrintingOn,
             final CommandProcessingResultJsonSerializer commandProcessingResultSerializer,
-            final GoogleGsonSerializerHelper helper) {
+            final GoogleGsonSerializerHelper helper, final SerializationStatistics serializationStatistics) {
         this.excludeNothingWithPrettyPrintingOff = excludeNothingWithPrettyPrintingOff;
         this.excludeNothingWithPrettyPrintingOn = excludeNothingWithPrettyPrintingOn;
         this.commandProcessingResultSerializer = commandProcessingResultSerializer;
         this.helper = helper;
+        this.serializationStatistics = serializationStatistics;
     }
     
     @Override
@@ -63,21 +72,132 @@ public final class DefaultToApiJsonSerializer<T> implements ToApiJsonSerializer<
     @Override
     public String serialize(final ApiRequestJsonSerializationSettings settings, final Collection<T> collection,
             final Set<String> supportedResponseParameters) {
+        final long startTime = System.nanoTime();
         final Gson delegatedSerializer = findAppropriateSerializer(settings, supportedResponseParameters);
-        return serializeWithSettings(delegatedSerializer, settings, collection.toArray());
+        final String json = serializeWithSettings(delegatedSerializer, settings, collection.toArray());
+        this.serializationStatistics.record(resourceOf(collection) + "[]", System.nanoTime() - startTime);
+        return json;
     }
 
     @Override
     public String serialize(final ApiRequestJsonSerializationSettings settings, final T singleObject,
             final Set<String> supportedResponseParameters) {
+        final long startTime = System.nanoTime();
         final Gson delegatedSerializer = findAppropriateSerializer(settings, supportedResponseParameters);
-        return serializeWithSettings(delegatedSerializer, settings, singleObject);
+        final String json = serializeWithSettings(delegatedSerializer, settings, singleObject);
+        this.serializationStatistics.record(singleObject == null ? "null" : singleObject.getClass().getSimpleName(), System.nanoTime()
+                - startTime);
+        return json;
     }
 
     @Override
     public String serialize(ApiRequestJsonSerializationSettings settings, Page<T> singleObject, Set<String> supportedResponseParameters) {
+        final long startTime = System.nanoTime();
         final Gson delegatedSerializer = findAppropriateSerializer(settings, supportedResponseParameters);
-        return serializeWithSettings(delegatedSerializer, settings, singleObject);
+        final String json = serializeWithSettings(delegatedSerializer, settings, singleObject);
+        this.serializationStatistics.record("Page<" + resourceOf(singleObject.getPageItems()) + ">", System.nanoTime() - startTime);
+        return json;
+    }
+
+    @Override
+    public StreamingOutput serializeStreaming(final ApiRequestJsonSerializationSettings settings, final Collection<T> collection,
+            final Set<String> supportedResponseParameters) {
+        final Gson gson = findStreamingSerializer(settings, supportedResponseParameters);
+        final String resource = resourceOf(collection) + "[]";
+        return new StreamingOutput() {
+
+            @Override
+            public void write(final OutputStream output) throws IOException {
+                final long startTime = System.nanoTime();
+                final JsonWriter writer = newJsonWriter(output, settings.isPrettyPrint());
+                writeArray(gson, collection, writer);
+                writer.flush();
+                DefaultToApiJsonSerializer.this.serializationStatistics.record(resource, System.nanoTime() - startTime);
+            }
+        };
+    }
+
+    @Override
+    public StreamingOutput serializeStreaming(final ApiRequestJsonSerializationSettings settings, final T singleObject,
+            final Set<String> supportedResponseParameters) {
+        final Gson gson = findStreamingSerializer(settings, supportedResponseParameters);
+        final String resource = singleObject == null ? "null" : singleObject.getClass().getSimpleName();
+        return new StreamingOutput() {
+
+            @Override
+            public void write(final OutputStream output) throws IOException {
+                final long startTime = System.nanoTime();
+                final JsonWriter writer = newJsonWriter(output, settings.isPrettyPrint());
+                writeValue(gson, singleObject, writer);
+                writer.flush();
+                DefaultToApiJsonSerializer.this.serializationStatistics.record(resource, System.nanoTime() - startTime);
+            }
+        };
+    }
+
+    @Override
+    public StreamingOutput serializeStreaming(final ApiRequestJsonSerializationSettings settings, final Page<T> page,
+            final Set<String> supportedResponseParameters) {
+        final Gson gson = findStreamingSerializer(settings, supportedResponseParameters);
+        final String resource = "Page<" + resourceOf(page.getPageItems()) + ">";
+        return new StreamingOutput() {
+
+            @Override
+            public void write(final OutputStream output) throws IOException {
+                final long startTime = System.nanoTime();
+                final JsonWriter writer = newJsonWriter(output, settings.isPrettyPrint());
+                writer.beginObject();
+                writer.name("totalFilteredRecords").value(page.getTotalFilteredRecords());
+                if (page.getPageItems() != null) {
+                    writer.name("pageItems");
+                    writeArray(gson, page.getPageItems(), writer);
+                }
+                writer.endObject();
+                writer.flush();
+                DefaultToApiJsonSerializer.this.serializationStatistics.record(resource, System.nanoTime() - startTime);
+            }
+        };
+    }
+
+    private Gson findStreamingSerializer(final ApiRequestJsonSerializationSettings settings, final Set<String> supportedResponseParameters) {
+        final Gson gson = findAppropriateSerializer(settings, supportedResponseParameters);
+        if (gson != null) { return gson; }
+        return this.helper.createGsonBuilder(settings.isPrettyPrint());
+    }
+
+    private static JsonWriter newJsonWriter(final OutputStream output, final boolean prettyPrint) throws IOException {
+        final JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(output, "UTF-8")));
+        writer.setLenient(true);
+        if (prettyPrint) {
+            writer.setIndent("  ");
+        }
+        return writer;
+    }
+
+    /**
+     * Elements are written one at a time using their runtime type, as gson
+     * does when serializing an <code>Object[]</code>.
+     */
+    private static void writeArray(final Gson gson, final Collection<?> collection, final JsonWriter writer) throws IOException {
+        writer.beginArray();
+        for (final Object element : collection) {
+            writeValue(gson, element, writer);
+        }
+        writer.endArray();
+    }
+
+    private static void writeValue(final Gson gson, final Object value, final JsonWriter writer) throws IOException {
+        if (value == null) {
+            writer.nullValue();
+        } else {
+            gson.toJson(value, value.getClass(), writer);
+        }
+    }
+
+    private static String resourceOf(final Collection<?> collection) {
+        if (collection == null || collection.isEmpty()) { return "empty"; }
+        final Object first = collection.iterator().next();
+        return first == null ? "null" : first.getClass().getSimpleName();
     }
     
     private String serializeWithSettings(final Gson gson, final ApiRequestJsonSerializationSettings settings, final Object[] dataObject) {
@@ -7,7 +7,10 @@ package org.mifosplatform.infrastructure.core.serialization;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
@@ -25,25 +28,38 @@ import com.google.gson.GsonBuilder;
 
 /**
  * Helper class for serialization of java objects into JSON using google-gson.
+ * 
+ * {@link Gson} instances are immutable and keep a cache of the type adapters
+ * they build by reflection, so configured instances are shared rather than
+ * created per request.
  */
 @Service
 public final class GoogleGsonSerializerHelper {
 
-    public Gson createGsonBuilder(final boolean prettyPrint) {
-        final GsonBuilder builder = new GsonBuilder();
-        builder.registerTypeAdapter(LocalDate.class, new JodaLocalDateAdapter());
-        builder.registerTypeAdapter(DateTime.class, new JodaDateTimeAdapter());
-        builder.registerTypeAdapter(MonthDay.class, new JodaMonthDayAdapter());
-        if (prettyPrint) {
-            builder.setPrettyPrinting();
+    private static final int MAX_PARTIAL_RESPONSE_SERIALIZERS = 256;
+
+    private final Gson serializer = newGsonBuilder(false).create();
+    private final Gson prettyPrintingSerializer = newGsonBuilder(true).create();
+
+    // keyed on pretty printing and the parameter names to skip
+    private final Map<String, Gson> partialResponseSerializers = new LinkedHashMap<String, Gson>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Gson> eldest) {
+            return size() > MAX_PARTIAL_RESPONSE_SERIALIZERS;
         }
-        return builder.create();
+    };
+
+    public Gson createGsonBuilder(final boolean prettyPrint) {
+        return prettyPrint ? this.prettyPrintingSerializer : this.serializer;
     }
 
     public Gson createGsonBuilderWithParameterExclusionSerializationStrategy(final Set<String> supportedParameters,
             final boolean prettyPrint, final Set<String> responseParameters) {
 
-        final Set<String> parameterNamesToSkip = new HashSet<String>();
+        final Set<String> parameterNamesToSkip = new TreeSet<String>();
 
         if (!responseParameters.isEmpty()) {
 
@@ -59,16 +75,19 @@ public final class GoogleGsonSerializerHelper {
             parameterNamesToSkip.removeAll(responseParameters);
         }
 
+        final String key = prettyPrint + ":" + parameterNamesToSkip;
+        synchronized (this.partialResponseSerializers) {
+            final Gson cached = this.partialResponseSerializers.get(key);
+            if (cached != null) { return cached; }
+        }
+
         final ExclusionStrategy strategy = new ParameterListExclusionStrategy(parameterNamesToSkip);
+        final Gson gson = newGsonBuilder(prettyPrint).addSerializationExclusionStrategy(strategy).create();
 
-        final GsonBuilder builder = new GsonBuilder().addSerializationExclusionStrategy(strategy);
-        builder.registerTypeAdapter(LocalDate.class, new JodaLocalDateAdapter());
-        builder.registerTypeAdapter(DateTime.class, new JodaDateTimeAdapter());
-        builder.registerTypeAdapter(MonthDay.class, new JodaMonthDayAdapter());
-        if (prettyPrint) {
-            builder.setPrettyPrinting();
+        synchronized (this.partialResponseSerializers) {
+            this.partialResponseSerializers.put(key, gson);
         }
-        return builder.create();
+        return gson;
     }
 
     public String serializedJsonFrom(final Gson serializer, final Object[] dataObjects) {
@@ -78,4 +97,15 @@ public final class GoogleGsonSerializerHelper {
     public String serializedJsonFrom(final Gson serializer, final Object singleDataObject) {
         return serializer.toJson(singleDataObject);
     }
-}
\ No newline at end of file
+
+    private static GsonBuilder newGsonBuilder(final boolean prettyPrint) {
+        final GsonBuilder builder = new GsonBuilder();
+        builder.registerTypeAdapter(LocalDate.class, new JodaLocalDateAdapter());
+        builder.registerTypeAdapter(DateTime.class, new JodaDateTimeAdapter());
+        builder.registerTypeAdapter(MonthDay.class, new JodaMonthDayAdapter());
+        if (prettyPrint) {
+            builder.setPrettyPrinting();
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.serialization;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times the serialization of api responses by the type of data returned, such
+ * as <code>ClientData</code> or <code>LoanAccountData[]</code>.
+ */
+@Component
+@ManagedResource(objectName = "org.mifosplatform:type=ApiSerialization", description = "Api response serialization timings")
+public class SerializationStatistics {
+
+    private final ConcurrentMap<String, Timings> timingsByResource = new ConcurrentHashMap<String, Timings>();
+
+    public void record(final String resource, final long elapsedNanos) {
+        Timings timings = this.timingsByResource.get(resource);
+        if (timings == null) {
+            final Timings newTimings = new Timings();
+            timings = this.timingsByResource.putIfAbsent(resource, newTimings);
+            if (timings == null) {
+                timings = newTimings;
+            }
+        }
+        timings.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+    }
+
+    @ManagedAttribute(description = "Count, average and longest serialization time in microseconds by type of data returned")
+    public String[] getTimingsByResource() {
+        final List<String> lines = new ArrayList<String>();
+        for (final Map.Entry<String, Timings> entry : new TreeMap<String, Timings>(this.timingsByResource).entrySet()) {
+            final Timings timings = entry.getValue();
+            final long count = timings.count.get();
+            final long average = count == 0 ? 0 : timings.totalMicros.get() / count;
+            lines.add(entry.getKey() + ": count=" + count + ", avgMicros=" + average + ", maxMicros=" + timings.maxMicros.get());
+        }
+        return lines.toArray(new String[lines.size()]);
+    }
+
+    private static final class Timings {
+
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalMicros = new AtomicLong();
+        private final AtomicLong maxMicros = new AtomicLong();
+
+        void record(final long micros) {
+            this.count.incrementAndGet();
+            this.totalMicros.addAndGet(micros);
+            long max = this.maxMicros.get();
+            while (micros > max && !this.maxMicros.compareAndSet(max, micros)) {
+                max = this.maxMicros.get();
+            }
+        }
+    }
+}
@@ -8,6 +8,8 @@ package org.mifosplatform.infrastructure.core.serialization;
 import java.util.Collection;
 import java.util.Set;
 
+import javax.ws.rs.core.StreamingOutput;
+
 import org.mifosplatform.infrastructure.core.service.Page;
 
 public interface ToApiJsonSerializer<T> {
@@ -23,4 +25,17 @@ public interface ToApiJsonSerializer<T> {
     String serialize(ApiRequestJsonSerializationSettings settings, T single, Set<String> supportedResponseParameters);
     
     String serialize(ApiRequestJsonSerializationSettings settings, Page<T> singleObject, Set<String> supportedResponseParameters);
+
+    /**
+     * Streaming variants of the settings based serialize methods: JSON is
+     * written to the response as it is produced rather than built up as a
+     * {@link String} first. Requested response parameters are checked before
+     * anything is written.
+     */
+    StreamingOutput serializeStreaming(ApiRequestJsonSerializationSettings settings, Collection<T> collection,
+            Set<String> supportedResponseParameters);
+
+    StreamingOutput serializeStreaming(ApiRequestJsonSerializationSettings settings, T single, Set<String> supportedResponseParameters);
+
+    StreamingOutput serializeStreaming(ApiRequestJsonSerializationSettings settings, Page<T> page, Set<String> supportedResponseParameters);
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.service;
+
+import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
+import org.mifosplatform.infrastructure.core.data.EntityVersion;
+
+/**
+ * Tracks versions of clients, groups and loans so read resources can answer
+ * conditional requests without running their read services.
+ * 
+ * Versions are bumped in the writing transaction. Commands are recorded by the
+ * command pipeline; writes made outside it must record their changes here.
+ */
+public interface EntityVersionService {
+
+    void recordChanges(CommandProcessingResult result);
+
+    void recordClientChange(Long clientId);
+
+    /**
+     * Bumps the tenant wide version, for writes outside the command pipeline
+     * that touch many clients or loans at once, such as scheduled jobs.
+     */
+    void recordTenantChange();
+
+    EntityVersion clientVersion(Long clientId);
+
+    EntityVersion groupVersion(Long groupId);
+
+    EntityVersion loanVersion(Long loanId);
+
+    /**
+     * Version of a template, optionally built for a client and/or group.
+     */
+    EntityVersion templateVersion(Long clientId, Long groupId);
+}
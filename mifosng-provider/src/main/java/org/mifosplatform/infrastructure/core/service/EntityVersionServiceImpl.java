@@ -0,0 +1,246 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
+import org.mifosplatform.infrastructure.core.data.EntityVersion;
+import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+
+/**
+ * Versions are kept in <code>m_entity_version</code>, one row per entity and
+ * one tenant wide row which is bumped by any change not tied to a client, a
+ * group or an account (offices, staff, products, configuration, users and so
+ * on) and by scheduled jobs that rewrite derived loan and savings figures.
+ * 
+ * A change to a loan or savings account bumps the account, its client and its
+ * group. A change to a client also bumps its groups, which list their members.
+ * A change to a group bumps the group and its parent. Rather than being bumped
+ * by every change to the entities they show, the tag of a client also covers
+ * its groups, the tag of a group its parent and the tag of a loan its client
+ * and group.
+ * 
+ * Related ids are read before any row is bumped, and rows are always bumped in
+ * the order tenant, group (by id), client, loan, savings to keep concurrent
+ * commands from deadlocking.
+ */
+@Service
+public class EntityVersionServiceImpl implements EntityVersionService {
+
+    private static final String TENANT = "TENANT";
+    private static final String GROUP = "GROUP";
+    private static final String CLIENT = "CLIENT";
+    private static final String LOAN = "LOAN";
+    private static final String SAVINGS = "SAVINGS";
+    private static final Long TENANT_ID = Long.valueOf(0);
+
+    private static final String BUMP_ON_DUPLICATE = " on duplicate key update version = version + 1, lastmodified_date = values(lastmodified_date)";
+
+    private final PlatformSecurityContext context;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public EntityVersionServiceImpl(final PlatformSecurityContext context, final TenantAwareRoutingDataSource dataSource) {
+        this.context = context;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void recordChanges(final CommandProcessingResult result) {
+        if (result == null) {
+            recordTenantChange();
+        } else if (result.getLoanId() != null || result.getSavingsId() != null) {
+            bump(GROUP, result.getGroupId());
+            bump(CLIENT, result.getClientId());
+            bump(LOAN, result.getLoanId());
+            bump(SAVINGS, result.getSavingsId());
+        } else if (result.getClientId() != null) {
+            recordClientChange(result.getClientId(), result.getGroupId());
+        } else if (result.getGroupId() != null) {
+            // memberships show up in the client tags through their groups
+            final SortedSet<Long> groupIds = new TreeSet<Long>(parentGroupIdsOf(result.getGroupId()));
+            groupIds.add(result.getGroupId());
+            bumpGroups(groupIds);
+        } else {
+            recordTenantChange();
+        }
+    }
+
+    @Override
+    public void recordClientChange(final Long clientId) {
+        recordClientChange(clientId, null);
+    }
+
+    private void recordClientChange(final Long clientId, final Long groupId) {
+        final SortedSet<Long> groupIds = new TreeSet<Long>(groupIdsOfClient(clientId));
+        if (groupId != null) {
+            groupIds.add(groupId);
+        }
+        bumpGroups(groupIds);
+        bump(CLIENT, clientId);
+    }
+
+    @Override
+    public void recordTenantChange() {
+        bump(TENANT, TENANT_ID);
+    }
+
+    @Override
+    public EntityVersion clientVersion(final Long clientId) {
+        final List<VersionedEntity> entities = new ArrayList<VersionedEntity>();
+        entities.add(new VersionedEntity(CLIENT, clientId));
+        for (final Long groupId : groupIdsOfClient(clientId)) {
+            entities.add(new VersionedEntity(GROUP, groupId));
+        }
+        return versionOf(entities);
+    }
+
+    @Override
+    public EntityVersion groupVersion(final Long groupId) {
+        final List<VersionedEntity> entities = new ArrayList<VersionedEntity>();
+        entities.add(new VersionedEntity(GROUP, groupId));
+        for (final Long parentId : parentGroupIdsOf(groupId)) {
+            entities.add(new VersionedEntity(GROUP, parentId));
+        }
+        return versionOf(entities);
+    }
+
+    @Override
+    public EntityVersion loanVersion(final Long loanId) {
+        final List<VersionedEntity> entities = new ArrayList<VersionedEntity>();
+        entities.add(new VersionedEntity(LOAN, loanId));
+        this.jdbcTemplate.query("select l.client_id as clientId, l.group_id as groupId from m_loan l where l.id = ?",
+                new RowCallbackHandler() {
+
+                    @Override
+                    public void processRow(final ResultSet rs) throws SQLException {
+                        final Long clientId = JdbcSupport.getLong(rs, "clientId");
+                        if (clientId != null) {
+                            entities.add(new VersionedEntity(CLIENT, clientId));
+                        }
+                        final Long groupId = JdbcSupport.getLong(rs, "groupId");
+                        if (groupId != null) {
+                            entities.add(new VersionedEntity(GROUP, groupId));
+                        }
+                    }
+                }, loanId);
+        return versionOf(entities);
+    }
+
+    @Override
+    public EntityVersion templateVersion(final Long clientId, final Long groupId) {
+        final List<VersionedEntity> entities = new ArrayList<VersionedEntity>();
+        if (clientId != null) {
+            entities.add(new VersionedEntity(CLIENT, clientId));
+        }
+        if (groupId != null) {
+            entities.add(new VersionedEntity(GROUP, groupId));
+        }
+        return versionOf(entities);
+    }
+
+    private List<Long> groupIdsOfClient(final Long clientId) {
+        return this.jdbcTemplate.queryForList("select gc.group_id from m_group_client gc where gc.client_id = ? order by gc.group_id",
+                Long.class, clientId);
+    }
+
+    private List<Long> parentGroupIdsOf(final Long groupId) {
+        return this.jdbcTemplate.queryForList("select g.parent_id from m_group g where g.id = ? and g.parent_id is not null", Long.class,
+                groupId);
+    }
+
+    private void bumpGroups(final SortedSet<Long> groupIds) {
+        for (final Long groupId : groupIds) {
+            bump(GROUP, groupId);
+        }
+    }
+
+    private void bump(final String entityType, final Long entityId) {
+        if (entityId == null) { return; }
+        this.jdbcTemplate.update("insert into m_entity_version (entity_type, entity_id, version, lastmodified_date) values (?, ?, 1, ?)"
+                + BUMP_ON_DUPLICATE, entityType, entityId, new Timestamp(System.currentTimeMillis()));
+    }
+
+    /**
+     * The tag also covers the current user, whose permissions shape the
+     * response, and the tenant's date, which amounts such as arrears depend
+     * on. Entities without a row are at version zero.
+     */
+    private EntityVersion versionOf(final List<VersionedEntity> entities) {
+
+        final Long userId = this.context.authenticatedUser().getId();
+        final Date startOfToday = DateUtils.getLocalDateOfTenant().toDateTimeAtStartOfDay().toDate();
+
+        entities.add(new VersionedEntity(TENANT, TENANT_ID));
+
+        final StringBuilder sql = new StringBuilder(
+                "select entity_type as entityType, entity_id as entityId, version, lastmodified_date as lastModified from m_entity_version where ");
+        final List<Object> params = new ArrayList<Object>();
+        for (final VersionedEntity entity : entities) {
+            if (!params.isEmpty()) {
+                sql.append(" or ");
+            }
+            sql.append("(entity_type = ? and entity_id = ?)");
+            params.add(entity.type);
+            params.add(entity.id);
+        }
+
+        final Map<String, Long> versions = new HashMap<String, Long>();
+        final Date[] lastModified = { startOfToday };
+        this.jdbcTemplate.query(sql.toString(), new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                versions.put(rs.getString("entityType") + ":" + rs.getLong("entityId"), rs.getLong("version"));
+                final Timestamp modified = rs.getTimestamp("lastModified");
+                if (modified != null && modified.after(lastModified[0])) {
+                    lastModified[0] = new Date(modified.getTime());
+                }
+            }
+        }, params.toArray());
+
+        final StringBuilder tagSource = new StringBuilder();
+        for (final VersionedEntity entity : entities) {
+            final String key = entity.type + ":" + entity.id;
+            final Long version = versions.get(key);
+            tagSource.append(key).append('=').append(version == null ? 0L : version.longValue()).append(';');
+        }
+        tagSource.append("user=").append(userId).append(";date=").append(DateUtils.getLocalDateOfTenant());
+
+        final Date now = new Date();
+        final Date modified = lastModified[0].after(now) ? now : lastModified[0];
+        return new EntityVersion(Hashing.md5().hashString(tagSource, Charsets.UTF_8).toString(), modified);
+    }
+
+    private static final class VersionedEntity {
+
+        private final String type;
+        private final Long id;
+
+        VersionedEntity(final String type, final Long id) {
+            this.type = type;
+            this.id = id;
+        }
+    }
+}
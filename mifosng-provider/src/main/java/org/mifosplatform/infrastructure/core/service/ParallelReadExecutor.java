@@ -0,0 +1,94 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs independent read-only queries of a single API request concurrently.
+ * 
+ * Each tenant gets its own small, bounded pool so one busy tenant cannot take
+ * all database connections from the others. When a tenant's pool and queue
+ * are saturated the read simply runs on the request thread.
+ */
+@Service
+public class ParallelReadExecutor implements DisposableBean {
+
+    private static final int THREADS_PER_TENANT = 8;
+    private static final int QUEUE_CAPACITY_PER_TENANT = 256;
+
+    private final ConcurrentMap<Long, ExecutorService> executorsByTenant = new ConcurrentHashMap<Long, ExecutorService>();
+
+    /**
+     * Starts a new set of reads that run with the tenant and security context
+     * of the calling thread.
+     */
+    public ParallelReads newParallelReads() {
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        return new ParallelReads(executorFor(tenant), tenant, SecurityContextHolder.getContext());
+    }
+
+    @Override
+    public void destroy() {
+        for (final ExecutorService executor : this.executorsByTenant.values()) {
+            executor.shutdownNow();
+        }
+        this.executorsByTenant.clear();
+    }
+
+    private ExecutorService executorFor(final MifosPlatformTenant tenant) {
+        final Long tenantId = tenant == null ? Long.valueOf(0) : tenant.getId();
+
+        ExecutorService executor = this.executorsByTenant.get(tenantId);
+        if (executor == null) {
+            final ExecutorService newExecutor = newBoundedExecutor(tenant == null ? "default" : tenant.getName());
+            executor = this.executorsByTenant.putIfAbsent(tenantId, newExecutor);
+            if (executor == null) {
+                executor = newExecutor;
+            } else {
+                newExecutor.shutdown();
+            }
+        }
+        return executor;
+    }
+
+    private static ExecutorService newBoundedExecutor(final String tenantName) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS_PER_TENANT, THREADS_PER_TENANT, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY_PER_TENANT), new ReadThreadFactory(tenantName),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static class ReadThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        ReadThreadFactory(final String tenantName) {
+            this.namePrefix = "parallel-read-" + tenantName + "-";
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, this.namePrefix + this.threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
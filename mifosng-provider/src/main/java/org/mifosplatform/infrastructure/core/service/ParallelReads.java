@@ -0,0 +1,124 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.exception.PlatformInternalServerException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * A set of named reads submitted to the {@link ParallelReadExecutor} on behalf
+ * of one request. Every read runs with the tenant and security context of the
+ * request that created it, and records how long it took. Once one read fails
+ * the reads still queued or running are cancelled, as the request will not
+ * use their results.
+ */
+public class ParallelReads {
+
+    private final ExecutorService executor;
+    private final MifosPlatformTenant tenant;
+    private final SecurityContext securityContext;
+    private final Map<String, Long> elapsedMillisByRead = new LinkedHashMap<String, Long>();
+    private final List<Future<?>> submittedReads = new ArrayList<Future<?>>();
+
+    ParallelReads(final ExecutorService executor, final MifosPlatformTenant tenant, final SecurityContext securityContext) {
+        this.executor = executor;
+        this.tenant = tenant;
+        this.securityContext = securityContext;
+    }
+
+    public <T> Future<T> submit(final String name, final Callable<T> read) {
+        final Future<T> future = this.executor.submit(new Callable<T>() {
+
+            @Override
+            public T call() throws Exception {
+                final MifosPlatformTenant previousTenant = ThreadLocalContextUtil.getTenant();
+                final SecurityContext previousSecurityContext = SecurityContextHolder.getContext();
+                final long startTime = System.currentTimeMillis();
+                try {
+                    if (ParallelReads.this.tenant != null) {
+                        ThreadLocalContextUtil.setTenant(ParallelReads.this.tenant);
+                    }
+                    SecurityContextHolder.setContext(ParallelReads.this.securityContext);
+                    return read.call();
+                } finally {
+                    recordElapsed(name, System.currentTimeMillis() - startTime);
+                    if (previousTenant == null) {
+                        ThreadLocalContextUtil.clearTenant();
+                    } else {
+                        ThreadLocalContextUtil.setTenant(previousTenant);
+                    }
+                    SecurityContextHolder.setContext(previousSecurityContext);
+                }
+            }
+        });
+        synchronized (this.submittedReads) {
+            this.submittedReads.add(future);
+        }
+        return future;
+    }
+
+    /**
+     * Waits for a submitted read; platform exceptions thrown by the read (not
+     * found, access denied and so on) are rethrown unchanged.
+     */
+    public <T> T get(final Future<T> future) {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelRemainingReads();
+            throw new PlatformInternalServerException("error.msg.parallel.read.interrupted", "Read was interrupted.");
+        } catch (final ExecutionException e) {
+            cancelRemainingReads();
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) { throw (RuntimeException) cause; }
+            if (cause instanceof Error) { throw (Error) cause; }
+            throw new PlatformInternalServerException("error.msg.parallel.read.failed", "Read failed: " + cause.getMessage());
+        }
+    }
+
+    /**
+     * Cancels every submitted read that has not completed, interrupting those
+     * already running so their pool threads and connections are freed.
+     */
+    public void cancelRemainingReads() {
+        synchronized (this.submittedReads) {
+            for (final Future<?> read : this.submittedReads) {
+                read.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Elapsed time of each completed read formatted for a response header, e.g.
+     * <code>transactions;dur=12, repaymentSchedule;dur=30</code>.
+     */
+    public synchronized String timingsAsHeaderValue() {
+        final StringBuilder header = new StringBuilder();
+        for (final Map.Entry<String, Long> entry : this.elapsedMillisByRead.entrySet()) {
+            if (header.length() > 0) {
+                header.append(", ");
+            }
+            header.append(entry.getKey()).append(";dur=").append(entry.getValue());
+        }
+        return header.toString();
+    }
+
+    private synchronized void recordElapsed(final String name, final long elapsedMillis) {
+        this.elapsedMillisByRead.put(name, Long.valueOf(elapsedMillis));
+    }
+}
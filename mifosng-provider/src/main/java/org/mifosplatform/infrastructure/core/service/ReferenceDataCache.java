@@ -0,0 +1,135 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tenant scoped cache of the small, rarely changing lookup lists used to build
+ * templates (products, charges, funds, code values, staff) and the column
+ * definitions of datatables.
+ * 
+ * Entries are versioned per tenant and {@link ReferenceDataType}: a write
+ * handler calls {@link #invalidate(ReferenceDataType)} which bumps the version,
+ * and a list loaded while an invalidation was in progress is never stored.
+ * Invalidation is repeated once the writing transaction completes so readers
+ * cannot re-cache the data as it was before the commit.
+ */
+@Service
+@ManagedResource(objectName = "org.mifosplatform:type=ReferenceDataCache", description = "Template reference data cache statistics")
+public class ReferenceDataCache {
+
+    private final ConcurrentMap<String, TypeEntries> entriesByTenantAndType = new ConcurrentHashMap<String, TypeEntries>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Returns the cached list for <code>key</code>, loading and caching it on
+     * a miss. Callers receive their own copy of the list.
+     */
+    public <T> Collection<T> retrieve(final ReferenceDataType type, final String key, final Callable<Collection<T>> loader) {
+
+        final TypeEntries typeEntries = typeEntriesForCurrentTenant(type);
+
+        @SuppressWarnings("unchecked")
+        final Collection<T> cached = (Collection<T>) typeEntries.entries.get(key);
+        if (cached != null) {
+            this.hits.incrementAndGet();
+            return new ArrayList<T>(cached);
+        }
+        this.misses.incrementAndGet();
+
+        final long versionBeforeLoad = typeEntries.version.get();
+        final Collection<T> loaded = load(loader);
+        final Collection<T> immutableCopy = Collections.unmodifiableList(new ArrayList<T>(loaded));
+        synchronized (typeEntries) {
+            if (typeEntries.version.get() == versionBeforeLoad) {
+                typeEntries.entries.put(key, immutableCopy);
+            }
+        }
+        return new ArrayList<T>(immutableCopy);
+    }
+
+    /**
+     * Discards all cached entries of the given type for the current tenant.
+     */
+    public void invalidate(final ReferenceDataType type) {
+        final TypeEntries typeEntries = typeEntriesForCurrentTenant(type);
+        typeEntries.invalidate();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    typeEntries.invalidate();
+                }
+            });
+        }
+    }
+
+    @ManagedAttribute(description = "Number of lookups served from the cache")
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    @ManagedAttribute(description = "Number of lookups that had to query the database")
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    private TypeEntries typeEntriesForCurrentTenant(final ReferenceDataType type) {
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final String cacheKey = (tenant == null ? "" : tenant.getId()) + ":" + type.name();
+
+        TypeEntries typeEntries = this.entriesByTenantAndType.get(cacheKey);
+        if (typeEntries == null) {
+            final TypeEntries newTypeEntries = new TypeEntries();
+            typeEntries = this.entriesByTenantAndType.putIfAbsent(cacheKey, newTypeEntries);
+            if (typeEntries == null) {
+                typeEntries = newTypeEntries;
+            }
+        }
+        return typeEntries;
+    }
+
+    private static <T> Collection<T> load(final Callable<Collection<T>> loader) {
+        try {
+            final Collection<T> loaded = loader.call();
+            if (loaded == null) { return Collections.emptyList(); }
+            return loaded;
+        } catch (final RuntimeException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class TypeEntries {
+
+        private final AtomicLong version = new AtomicLong();
+        private final ConcurrentMap<String, Collection<?>> entries = new ConcurrentHashMap<String, Collection<?>>();
+
+        synchronized void invalidate() {
+            this.version.incrementAndGet();
+            this.entries.clear();
+        }
+    }
+}
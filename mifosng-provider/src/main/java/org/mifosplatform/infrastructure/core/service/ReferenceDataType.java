@@ -0,0 +1,22 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.service;
+
+/**
+ * The kinds of reference data held by the {@link ReferenceDataCache}. Each is
+ * invalidated as a whole when any item of that kind changes.
+ */
+public enum ReferenceDataType {
+
+    LOAN_PRODUCTS, //
+    CHARGES, //
+    FUNDS, //
+    CODE_VALUES, //
+    STAFF, //
+    TRANSACTION_PROCESSING_STRATEGIES, //
+    DATATABLE_COLUMNS, //
+    DATATABLE_APPLICATION_TABLES;
+}
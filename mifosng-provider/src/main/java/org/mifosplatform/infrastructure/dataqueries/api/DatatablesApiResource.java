@@ -18,6 +18,8 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
 import org.mifosplatform.commands.domain.CommandWrapper;
@@ -147,6 +149,21 @@ public class DatatablesApiResource {
         return this.toApiJsonSerializer.serializePretty(prettyPrint, result);
     }
 
+    @GET
+    @Path("{datatable}/entries")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response getDatatableEntries(@PathParam("datatable") final String datatable,
+            @QueryParam("apptableIds") final String apptableIds, @QueryParam("sqlSearch") final String sqlSearch,
+            @QueryParam("order") final String order) {
+
+        context.authenticatedUser().validateHasDatatableReadPermission(datatable);
+
+        final StreamingOutput result = this.readWriteNonCoreDataService.retrieveDataTableEntries(datatable, apptableIds, sqlSearch, order);
+
+        return Response.ok().entity(result).type(MediaType.APPLICATION_JSON).build();
+    }
+
     @GET
     @Path("{datatable}/{apptableId}")
     @Consumes({ MediaType.APPLICATION_JSON })
@@ -212,6 +229,22 @@ public class DatatablesApiResource {
         return this.toApiJsonSerializer.serialize(result);
     }
 
+    @POST
+    @Path("{datatable}/bulk")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public String createDatatableEntries(@PathParam("datatable") final String datatable, final String apiRequestBodyAsJson) {
+
+        final CommandWrapper commandRequest = new CommandWrapperBuilder() //
+                .createDatatableEntries(datatable) //
+                .withJson(apiRequestBodyAsJson) //
+                .build();
+
+        final CommandProcessingResult result = this.commandsSourceWritePlatformService.logCommandSource(commandRequest);
+
+        return this.toApiJsonSerializer.serialize(result);
+    }
+
     @PUT
     @Path("{datatable}/{apptableId}")
     @Consumes({ MediaType.APPLICATION_JSON })
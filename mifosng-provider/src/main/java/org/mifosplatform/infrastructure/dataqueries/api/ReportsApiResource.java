@@ -44,7 +44,7 @@ public class ReportsApiResource {
 	private final Set<String> RESPONSE_DATA_PARAMETERS = new HashSet<String>(
 			Arrays.asList("id", "reportName", "reportType", "reportSubType",
 					"reportCategory", "description", "reportSql", "coreReport",
-					"useReport", "reportParameters"));
+					"useReport", "cacheTtlSeconds", "reportParameters"));
 
 	private final String resourceNameForPermissions = "REPORT";
 	private final PlatformSecurityContext context;
@@ -5,31 +5,38 @@
  */
 package org.mifosplatform.infrastructure.dataqueries.api;
 
-import java.io.File;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
-import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
 import org.mifosplatform.infrastructure.core.api.ApiParameterHelper;
+import org.mifosplatform.infrastructure.core.api.ApiRequestParameterHelper;
+import org.mifosplatform.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
 import org.mifosplatform.infrastructure.core.serialization.ToApiJsonSerializer;
-import org.mifosplatform.infrastructure.dataqueries.data.GenericResultsetData;
-import org.mifosplatform.infrastructure.dataqueries.data.ReportData;
-import org.mifosplatform.infrastructure.dataqueries.service.GenericDataService;
+import org.mifosplatform.infrastructure.dataqueries.data.ReportJobData;
 import org.mifosplatform.infrastructure.dataqueries.service.ReadReportingService;
+import org.mifosplatform.infrastructure.dataqueries.service.ReportJobReadPlatformService;
+import org.mifosplatform.infrastructure.dataqueries.service.ReportJobWritePlatformService;
+import org.mifosplatform.infrastructure.documentmanagement.api.FileDownloadHelper;
+import org.mifosplatform.infrastructure.documentmanagement.data.FileData;
 import org.mifosplatform.infrastructure.security.exception.NoAuthorizationException;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.useradministration.domain.AppUser;
@@ -42,18 +49,27 @@ import org.springframework.stereotype.Component;
 @Scope("singleton")
 public class RunreportsApiResource {
 
+    private final Set<String> JOB_RESPONSE_DATA_PARAMETERS = new HashSet<String>(Arrays.asList("id", "reportName", "outputType",
+            "status", "submittedDate", "startedDate", "completedDate", "durationInMillis", "rowCount", "outputBytes", "errorMessage"));
+
     private final PlatformSecurityContext context;
-    private final ToApiJsonSerializer<ReportData> toApiJsonSerializer;
     private final ReadReportingService readExtraDataAndReportingService;
-    private final GenericDataService genericDataService;
+    private final ReportJobReadPlatformService reportJobReadPlatformService;
+    private final ReportJobWritePlatformService reportJobWritePlatformService;
+    private final ToApiJsonSerializer<ReportJobData> toApiJsonSerializer;
+    private final ApiRequestParameterHelper apiRequestParameterHelper;
 
     @Autowired
     public RunreportsApiResource(final PlatformSecurityContext context, final ReadReportingService readExtraDataAndReportingService,
-            final GenericDataService genericDataService, final ToApiJsonSerializer<ReportData> toApiJsonSerializer) {
+            final ReportJobReadPlatformService reportJobReadPlatformService,
+            final ReportJobWritePlatformService reportJobWritePlatformService, final ToApiJsonSerializer<ReportJobData> toApiJsonSerializer,
+            final ApiRequestParameterHelper apiRequestParameterHelper) {
         this.context = context;
         this.readExtraDataAndReportingService = readExtraDataAndReportingService;
-        this.genericDataService = genericDataService;
+        this.reportJobReadPlatformService = reportJobReadPlatformService;
+        this.reportJobWritePlatformService = reportJobWritePlatformService;
         this.toApiJsonSerializer = toApiJsonSerializer;
+        this.apiRequestParameterHelper = apiRequestParameterHelper;
     }
 
     @GET
@@ -88,38 +104,24 @@ public class RunreportsApiResource {
 
         if (exportPdf) {
             Map<String, String> reportParams = getReportParams(queryParams, false);
-            String pdfFileName = this.readExtraDataAndReportingService.retrieveReportPDF(reportName, parameterTypeValue, reportParams);
-
-            File file = new File(pdfFileName);
-
-            ResponseBuilder response = Response.ok(file);
-            response.header("Content-Disposition", "attachment; filename=\"" + pdfFileName + "\"");
-            response.header("content-Type", "application/pdf");
+            final StreamingOutput result = this.readExtraDataAndReportingService.retrieveReportPDF(reportName, parameterTypeValue,
+                    reportParams);
 
-            return response.build();
+            return Response.ok().entity(result).type("application/pdf")
+                    .header("Content-Disposition", "attachment; filename=\"" + reportName.replaceAll(" ", "") + ".pdf\"").build();
 
         }
 
         if (!exportCsv) {
             Map<String, String> reportParams = getReportParams(queryParams, false);
 
-            GenericResultsetData result = this.readExtraDataAndReportingService.retrieveGenericResultset(reportName, parameterTypeValue,
-                    reportParams);
-
-            String json = "";
             final boolean genericResultSetIsPassed = ApiParameterHelper.genericResultSetPassed(uriInfo.getQueryParameters());
-            final boolean genericResultSet = ApiParameterHelper.genericResultSet(uriInfo.getQueryParameters());
-            if (genericResultSetIsPassed) {
-                if (genericResultSet) {
-                    json = this.toApiJsonSerializer.serializePretty(prettyPrint, result);
-                } else {
-                    json = this.genericDataService.generateJsonFromGenericResultsetData(result);
-                }
-            } else {
-                json = this.toApiJsonSerializer.serializePretty(prettyPrint, result);
-            }
+            final boolean genericResultSet = !genericResultSetIsPassed || ApiParameterHelper.genericResultSet(uriInfo.getQueryParameters());
+
+            final StreamingOutput result = this.readExtraDataAndReportingService.retrieveReportJson(reportName, parameterTypeValue,
+                    reportParams, genericResultSet, prettyPrint);
 
-            return Response.ok().entity(json).type(MediaType.APPLICATION_JSON).build();
+            return Response.ok().entity(result).type(MediaType.APPLICATION_JSON).build();
         }
 
         // CSV Export
@@ -130,6 +132,58 @@ public class RunreportsApiResource {
                 .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".csv").build();
     }
 
+    /**
+     * Runs the report in the background. Query parameters are the same as for
+     * running the report directly; <code>output-type</code> picks the format
+     * of the stored output.
+     */
+    @POST
+    @Path("{reportName}/jobs")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public String submitReportJob(@PathParam("reportName") final String reportName, @Context final UriInfo uriInfo) {
+
+        final MultivaluedMap<String, String> queryParams = uriInfo.getQueryParameters();
+
+        checkUserPermissionForReport(reportName, false);
+
+        final boolean isPentaho = this.readExtraDataAndReportingService.getReportType(reportName).equalsIgnoreCase("Pentaho");
+        final Map<String, String> reportParams = getReportParams(queryParams, isPentaho);
+        final Locale locale = ApiParameterHelper.extractLocale(queryParams);
+
+        final Long jobId = this.reportJobWritePlatformService.submitReportJob(reportName, queryParams.getFirst("output-type"),
+                reportParams, locale);
+
+        return serializeReportJob(jobId, uriInfo);
+    }
+
+    @GET
+    @Path("jobs/{jobId}")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public String retrieveReportJob(@PathParam("jobId") final Long jobId, @Context final UriInfo uriInfo) {
+        return serializeReportJob(jobId, uriInfo);
+    }
+
+    @GET
+    @Path("jobs/{jobId}/output")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_OCTET_STREAM })
+    public Response downloadReportJobOutput(@PathParam("jobId") final Long jobId, @Context final Request request,
+            @Context final HttpHeaders headers) {
+
+        final FileData fileData = this.reportJobReadPlatformService.retrieveReportJobOutput(jobId);
+
+        return FileDownloadHelper.download(request, headers, fileData, true);
+    }
+
+    private String serializeReportJob(final Long jobId, final UriInfo uriInfo) {
+        final ReportJobData reportJob = this.reportJobReadPlatformService.retrieveReportJob(jobId);
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.toApiJsonSerializer.serialize(settings, reportJob, this.JOB_RESPONSE_DATA_PARAMETERS);
+    }
+
     private void checkUserPermissionForReport(final String reportName, final boolean parameterType) {
 
         // Anyone can run a 'report' that is simply getting possible parameter
@@ -30,6 +30,8 @@ final public class ReportData {
 	@SuppressWarnings("unused")
 	private final Boolean useReport;
 	@SuppressWarnings("unused")
+	private final Integer cacheTtlSeconds;
+	@SuppressWarnings("unused")
 	private final Collection<ReportParameterData> reportParameters;
 
 	@SuppressWarnings("unused")
@@ -43,7 +45,7 @@ final public class ReportData {
 			final String reportType, final String reportSubType,
 			final String reportCategory, final String description,
 			final String reportSql, final Boolean coreReport,
-			final Boolean useReport,
+			final Boolean useReport, final Integer cacheTtlSeconds,
 			final Collection<ReportParameterData> reportParameters) {
 		this.id = id;
 		this.reportName = reportName;
@@ -55,6 +57,7 @@ final public class ReportData {
 		this.reportSql = reportSql;
 		this.coreReport = coreReport;
 		this.useReport = useReport;
+		this.cacheTtlSeconds = cacheTtlSeconds;
 		this.allowedReportTypes = null;
 		this.allowedReportSubTypes = null;
 		this.allowedParameters = null;
@@ -71,6 +74,7 @@ final public class ReportData {
 		this.reportSql = null;
 		this.coreReport = null;
 		this.useReport = null;
+		this.cacheTtlSeconds = null;
 		this.allowedReportTypes = null;
 		this.allowedReportSubTypes = null;
 		this.allowedParameters = null;
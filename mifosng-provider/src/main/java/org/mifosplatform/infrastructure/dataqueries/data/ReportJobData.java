@@ -0,0 +1,68 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.data;
+
+import org.joda.time.DateTime;
+
+/**
+ * Immutable data object representing a report run in the background.
+ */
+public final class ReportJobData {
+
+    private final Long id;
+    private final String reportName;
+    private final String outputType;
+    private final String status;
+    private final DateTime submittedDate;
+    @SuppressWarnings("unused")
+    private final DateTime startedDate;
+    @SuppressWarnings("unused")
+    private final DateTime completedDate;
+    @SuppressWarnings("unused")
+    private final Long durationInMillis;
+    @SuppressWarnings("unused")
+    private final Long rowCount;
+    @SuppressWarnings("unused")
+    private final Long outputBytes;
+    @SuppressWarnings("unused")
+    private final String errorMessage;
+
+    public ReportJobData(final Long id, final String reportName, final String outputType, final String status,
+            final DateTime submittedDate, final DateTime startedDate, final DateTime completedDate, final Long durationInMillis,
+            final Long rowCount, final Long outputBytes, final String errorMessage) {
+        this.id = id;
+        this.reportName = reportName;
+        this.outputType = outputType;
+        this.status = status;
+        this.submittedDate = submittedDate;
+        this.startedDate = startedDate;
+        this.completedDate = completedDate;
+        this.durationInMillis = durationInMillis;
+        this.rowCount = rowCount;
+        this.outputBytes = outputBytes;
+        this.errorMessage = errorMessage;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public String getReportName() {
+        return this.reportName;
+    }
+
+    public String getOutputType() {
+        return this.outputType;
+    }
+
+    public String getStatus() {
+        return this.status;
+    }
+
+    public DateTime getSubmittedDate() {
+        return this.submittedDate;
+    }
+}
@@ -16,6 +16,7 @@ final public class ReportParameterJoinData {
 	private final String reportSql;
 	private final Boolean coreReport;
 	private final Boolean useReport;
+	private final Integer cacheTtlSeconds;
 
 	private final Long reportParameterId;
 	private final Long parameterId;
@@ -27,7 +28,7 @@ final public class ReportParameterJoinData {
 			final String reportSubType, final String reportCategory,
 			final String description, final String reportSql,
 			final Boolean coreReport, final Boolean useReport,
-			final Long reportParameterId, final Long parameterId,
+			final Integer cacheTtlSeconds, final Long reportParameterId, final Long parameterId,
 			final String reportParameterName, final String parameterName) {
 		this.reportId = reportId;
 		this.reportName = reportName;
@@ -38,6 +39,7 @@ final public class ReportParameterJoinData {
 		this.reportSql = reportSql;
 		this.coreReport = coreReport;
 		this.useReport = useReport;
+		this.cacheTtlSeconds = cacheTtlSeconds;
 		this.reportParameterId = reportParameterId;
 		this.parameterId = parameterId;
 		this.reportParameterName = reportParameterName;
@@ -76,6 +78,10 @@ final public class ReportParameterJoinData {
 		return useReport;
 	}
 
+	public Integer getCacheTtlSeconds() {
+		return cacheTtlSeconds;
+	}
+
 	public Long getReportParameterId() {
 		return reportParameterId;
 	}
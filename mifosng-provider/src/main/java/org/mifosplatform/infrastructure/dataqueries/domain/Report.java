@@ -60,6 +60,9 @@ public final class Report extends AbstractPersistable<Long> {
     @Column(name = "report_sql")
     private String reportSql;
 
+    @Column(name = "cache_ttl_seconds")
+    private Integer cacheTtlSeconds;
+
     @LazyCollection(LazyCollectionOption.FALSE)
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "report", orphanRemoval = true)
     private final Set<ReportParameterUsage> reportParameterUsages = new HashSet<ReportParameterUsage>();
@@ -73,6 +76,7 @@ public final class Report extends AbstractPersistable<Long> {
         String description = null;
         boolean useReport = false;
         String reportSql = null;
+        Integer cacheTtlSeconds = null;
 
         if (command.parameterExists("reportName")) reportName = command.stringValueOfParameterNamed("reportName");
         if (command.parameterExists("reportType")) reportType = command.stringValueOfParameterNamed("reportType");
@@ -81,8 +85,9 @@ public final class Report extends AbstractPersistable<Long> {
         if (command.parameterExists("description")) description = command.stringValueOfParameterNamed("description");
         if (command.parameterExists("useReport")) useReport = command.booleanPrimitiveValueOfParameterNamed("useReport");
         if (command.parameterExists("reportSql")) reportSql = command.stringValueOfParameterNamed("reportSql");
+        if (command.parameterExists("cacheTtlSeconds")) cacheTtlSeconds = command.integerValueSansLocaleOfParameterNamed("cacheTtlSeconds");
 
-        return new Report(reportName, reportType, reportSubType, reportCategory, description, useReport, reportSql);
+        return new Report(reportName, reportType, reportSubType, reportCategory, description, useReport, reportSql, cacheTtlSeconds);
     }
 
     protected Report() {
@@ -90,7 +95,7 @@ public final class Report extends AbstractPersistable<Long> {
     }
 
     public Report(final String reportName, final String reportType, final String reportSubType, final String reportCategory,
-            final String description, final boolean useReport, final String reportSql) {
+            final String description, final boolean useReport, final String reportSql, final Integer cacheTtlSeconds) {
         this.reportName = reportName;
         this.reportType = reportType;
         this.reportSubType = reportSubType;
@@ -99,6 +104,7 @@ public final class Report extends AbstractPersistable<Long> {
         this.coreReport = false;
         this.useReport = useReport;
         this.reportSql = reportSql;
+        this.cacheTtlSeconds = cacheTtlSeconds;
         validate();
     }
 
@@ -148,6 +154,12 @@ public final class Report extends AbstractPersistable<Long> {
             actualChanges.put(paramName, newValue);
             this.reportSql = StringUtils.defaultIfEmpty(newValue, null);
         }
+        paramName = "cacheTtlSeconds";
+        if (command.isChangeInIntegerSansLocaleParameterNamed(paramName, this.cacheTtlSeconds)) {
+            final Integer newValue = command.integerValueSansLocaleOfParameterNamed(paramName);
+            actualChanges.put(paramName, newValue);
+            this.cacheTtlSeconds = newValue;
+        }
 
         final String reportParametersParamName = "reportParameters";
         if (command.hasParameter(reportParametersParamName)) {
@@ -162,9 +174,9 @@ public final class Report extends AbstractPersistable<Long> {
         if (!actualChanges.isEmpty()) {
             if (isCoreReport()) {
                 for (final String key : actualChanges.keySet()) {
-                    if (!(key.equals("useReport"))) { throw new PlatformDataIntegrityException(
+                    if (!(key.equals("useReport") || key.equals("cacheTtlSeconds"))) { throw new PlatformDataIntegrityException(
                             "error.msg.only.use.report.can.be.updated.for.core.report",
-                            "Only the Use Report field can be updated for Core Reports", key); }
+                            "Only the Use Report and Cache TTL fields can be updated for Core Reports", key); }
                 }
             }
         }
@@ -221,6 +233,8 @@ public final class Report extends AbstractPersistable<Long> {
                         .mustBeBlankWhenParameterProvidedIs("reportType", this.reportType);
             }
         }
+
+        baseDataValidator.reset().parameter("cacheTtlSeconds").value(this.cacheTtlSeconds).ignoreIfNull().notLessThanMin(0);
         throwExceptionIfValidationWarningsExist(dataValidationErrors);
     }
 
@@ -0,0 +1,42 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.domain;
+
+import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
+
+/**
+ * The formats a report job can write its output in.
+ */
+public enum ReportJobOutputType {
+
+    CSV("csv", "application/x-msdownload"), //
+    PDF("pdf", "application/pdf"), //
+    XLS("xls", "application/vnd.ms-excel"), //
+    HTML("html", "text/html");
+
+    private final String fileExtension;
+    private final String contentType;
+
+    private ReportJobOutputType(final String fileExtension, final String contentType) {
+        this.fileExtension = fileExtension;
+        this.contentType = contentType;
+    }
+
+    public static ReportJobOutputType fromCode(final String code) {
+        for (final ReportJobOutputType type : values()) {
+            if (type.name().equalsIgnoreCase(code)) { return type; }
+        }
+        throw new PlatformDataIntegrityException("error.msg.invalid.outputType", "No matching Output Type: " + code, code);
+    }
+
+    public String fileExtension() {
+        return this.fileExtension;
+    }
+
+    public String contentType() {
+        return this.contentType;
+    }
+}
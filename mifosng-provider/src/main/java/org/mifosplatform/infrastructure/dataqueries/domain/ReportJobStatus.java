@@ -0,0 +1,22 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.domain;
+
+/**
+ * The states of a report run in the background, as stored in
+ * <code>m_report_job.status</code>.
+ */
+public enum ReportJobStatus {
+
+    QUEUED, //
+    RUNNING, //
+    COMPLETED, //
+    FAILED;
+
+    public boolean isCompleted() {
+        return this == COMPLETED;
+    }
+}
@@ -0,0 +1,18 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.exception;
+
+import org.mifosplatform.infrastructure.core.exception.AbstractPlatformResourceNotFoundException;
+
+/**
+ * A {@link RuntimeException} thrown when a report job is not found.
+ */
+public class ReportJobNotFoundException extends AbstractPlatformResourceNotFoundException {
+
+    public ReportJobNotFoundException(final Long id) {
+        super("error.msg.report.job.id.invalid", "Report job with identifier " + id + " does not exist", id);
+    }
+}
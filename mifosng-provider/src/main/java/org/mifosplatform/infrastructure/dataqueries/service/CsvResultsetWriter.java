@@ -0,0 +1,82 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import org.apache.commons.lang.StringUtils;
+import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+
+/**
+ * Writes a resultset as CSV with a header line of column names, flushing the
+ * writer every <code>flushInterval</code> rows so the output reaches the client
+ * while the rest of the resultset is read.
+ */
+public final class CsvResultsetWriter implements GenericResultsetWriter {
+
+    private static final String doubleQuote = "\"";
+    private static final String twoDoubleQuotes = doubleQuote + doubleQuote;
+
+    private final Writer writer;
+    private final int flushInterval;
+    private boolean[] unquotedColumns;
+    private long rowsWritten = 0;
+
+    public CsvResultsetWriter(final Writer writer, final int flushInterval) {
+        this.writer = writer;
+        this.flushInterval = flushInterval;
+    }
+
+    @Override
+    public void writeColumnHeaders(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+
+        final int chSize = columnHeaders.size();
+        this.unquotedColumns = new boolean[chSize];
+        for (int i = 0; i < chSize; i++) {
+            final String columnType = columnHeaders.get(i).getColumnType();
+            this.unquotedColumns[i] = columnType.equals("DECIMAL") || columnType.equals("DOUBLE") || columnType.equals("BIGINT")
+                    || columnType.equals("SMALLINT") || columnType.equals("INT");
+
+            this.writer.append('"').append(columnHeaders.get(i).getColumnName()).append('"');
+            if (i < (chSize - 1)) this.writer.append(',');
+        }
+        this.writer.append('\n');
+    }
+
+    @Override
+    public void writeRow(final List<String> row) throws IOException {
+
+        final int rSize = row.size();
+        for (int j = 0; j < rSize; j++) {
+            final String currVal = row.get(j);
+            if (currVal != null) {
+                if (this.unquotedColumns[j]) {
+                    this.writer.append(currVal);
+                } else {
+                    this.writer.append('"').append(StringUtils.replace(currVal, doubleQuote, twoDoubleQuotes)).append('"');
+                }
+            }
+            if (j < (rSize - 1)) this.writer.append(',');
+        }
+        this.writer.append('\n');
+
+        this.rowsWritten++;
+        if (this.rowsWritten % this.flushInterval == 0) {
+            this.writer.flush();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        this.writer.flush();
+    }
+
+    public long rowsWritten() {
+        return this.rowsWritten;
+    }
+}
@@ -5,6 +5,7 @@
  */
 package org.mifosplatform.infrastructure.dataqueries.service;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.mifosplatform.infrastructure.dataqueries.data.GenericResultsetData;
@@ -16,6 +17,9 @@ public interface GenericDataService {
 
     String generateJsonFromGenericResultsetData(GenericResultsetData grs);
 
+    void writeResultset(String sql, Object[] args, List<ResultsetColumnHeaderData> columnHeaders, GenericResultsetWriter resultsetWriter)
+            throws IOException;
+
     String replace(String str, String pattern, String replace);
 
     String wrapSQL(String sql);
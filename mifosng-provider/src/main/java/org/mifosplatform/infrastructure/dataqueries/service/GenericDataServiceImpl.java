@@ -5,12 +5,23 @@
  */
 package org.mifosplatform.infrastructure.dataqueries.service;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import javax.sql.DataSource;
 
-import org.joda.time.LocalDate;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataCache;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataType;
 import org.mifosplatform.infrastructure.core.service.TenantAwareRoutingDataSource;
 import org.mifosplatform.infrastructure.dataqueries.data.GenericResultsetData;
 import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
@@ -19,8 +30,10 @@ import org.mifosplatform.infrastructure.dataqueries.data.ResultsetRowData;
 import org.mifosplatform.infrastructure.dataqueries.exception.DatatableNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.SqlProvider;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
-import org.springframework.jdbc.support.rowset.SqlRowSetMetaData;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -28,45 +41,81 @@ public class GenericDataServiceImpl implements GenericDataService {
 
     private final JdbcTemplate jdbcTemplate;
     private final DataSource dataSource;
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
-    public GenericDataServiceImpl(final TenantAwareRoutingDataSource dataSource) {
+    public GenericDataServiceImpl(final TenantAwareRoutingDataSource dataSource, final ReferenceDataCache referenceDataCache) {
         this.dataSource = dataSource;
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Override
     public GenericResultsetData fillGenericResultSet(final String sql) {
 
-        final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(sql);
+        final CollectingResultsetWriter collector = new CollectingResultsetWriter();
+        try {
+            writeResultset(sql, new Object[] {}, null, collector);
+        } catch (final IOException e) {
+            // not thrown when collecting rows
+            throw new IllegalStateException(e);
+        }
 
-        final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<ResultsetColumnHeaderData>();
-        final List<ResultsetRowData> resultsetDataRows = new ArrayList<ResultsetRowData>();
+        return new GenericResultsetData(collector.columnHeaders, collector.resultsetDataRows);
+    }
 
-        final SqlRowSetMetaData rsmd = rs.getMetaData();
+    /**
+     * Reads the resultset with a forward only cursor that the MySQL driver
+     * streams from the server instead of loading the whole resultset, and
+     * hands each row to the resultset writer as it is read. Column headers
+     * are built from the resultset metadata when not passed in.
+     */
+    @Override
+    public void writeResultset(final String sql, final Object[] args, final List<ResultsetColumnHeaderData> columnHeaders,
+            final GenericResultsetWriter resultsetWriter) throws IOException {
+
+        try {
+            this.jdbcTemplate.query(new StreamingPreparedStatementCreator(sql, args), new ResultSetExtractor<Void>() {
+
+                @Override
+                public Void extractData(final ResultSet rs) throws SQLException {
+
+                    final List<ResultsetColumnHeaderData> headers = columnHeaders == null ? columnHeadersOf(rs.getMetaData())
+                            : columnHeaders;
+                    final int columnCount = headers.size();
+                    final List<String> row = Arrays.asList(new String[columnCount]);
+                    try {
+                        resultsetWriter.writeColumnHeaders(headers);
+                        while (rs.next()) {
+                            for (int i = 0; i < columnCount; i++) {
+                                row.set(i, rs.getString(i + 1));
+                            }
+                            resultsetWriter.writeRow(row);
+                        }
+                        resultsetWriter.finish();
+                    } catch (final IOException e) {
+                        throw new ResultSetWriteException(e);
+                    }
+                    return null;
+                }
+            });
+        } catch (final ResultSetWriteException e) {
+            throw e.getCause();
+        }
+    }
+
+    private List<ResultsetColumnHeaderData> columnHeadersOf(final ResultSetMetaData rsmd) throws SQLException {
 
+        final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<ResultsetColumnHeaderData>();
         for (int i = 0; i < rsmd.getColumnCount(); i++) {
 
-            final String columnName = rsmd.getColumnName(i + 1);
+            final String columnName = rsmd.getColumnLabel(i + 1);
             final String columnType = rsmd.getColumnTypeName(i + 1);
 
             final ResultsetColumnHeaderData columnHeader = ResultsetColumnHeaderData.basic(columnName, columnType);
             columnHeaders.add(columnHeader);
         }
-
-        while (rs.next()) {
-            final List<String> columnValues = new ArrayList<String>();
-            for (int i = 0; i < rsmd.getColumnCount(); i++) {
-                final String columnName = rsmd.getColumnName(i + 1);
-                final String columnValue = rs.getString(columnName);
-                columnValues.add(columnValue);
-            }
-
-            final ResultsetRowData resultsetDataRow = ResultsetRowData.create(columnValues);
-            resultsetDataRows.add(resultsetDataRow);
-        }
-
-        return new GenericResultsetData(columnHeaders, resultsetDataRows);
+        return columnHeaders;
     }
 
     @Override
@@ -101,74 +150,42 @@ public class GenericDataServiceImpl implements GenericDataService {
     @Override
     public String generateJsonFromGenericResultsetData(final GenericResultsetData grs) {
 
-        StringBuffer writer = new StringBuffer();
-
-        writer.append("[");
-
-        final List<ResultsetColumnHeaderData> columnHeaders = grs.getColumnHeaders();
-
-        List<ResultsetRowData> data = grs.getData();
-        List<String> row;
-        Integer rSize;
-        String doubleQuote = "\"";
-        String slashDoubleQuote = "\\\"";
-        String currColType;
-        String currVal;
-
-        for (int i = 0; i < data.size(); i++) {
-            writer.append("\n{");
-
-            row = data.get(i).getRow();
-            rSize = row.size();
-            for (int j = 0; j < rSize; j++) {
-
-                writer.append(doubleQuote + columnHeaders.get(j).getColumnName() + doubleQuote + ": ");
-                currColType = columnHeaders.get(j).getColumnDisplayType();
-                final String colType = columnHeaders.get(j).getColumnType();
-                if (currColType == null && colType.equalsIgnoreCase("INT")) {
-                    currColType = "INTEGER";
-                }
-                if (currColType == null && colType.equalsIgnoreCase("VARCHAR")) {
-                    currColType = "VARCHAR";
-                }
-                if (currColType == null && colType.equalsIgnoreCase("DATE")) {
-                    currColType = "DATE";
-                }
-                currVal = row.get(j);
-                if (currVal != null && currColType != null) {
-                    if (currColType.equals("DECIMAL") || currColType.equals("INTEGER")) {
-                        writer.append(currVal);
-                    } else {
-                        if (currColType.equals("DATE")) {
-                            LocalDate localDate = new LocalDate(currVal);
-                            writer.append("[" + localDate.getYear() + ", " + localDate.getMonthOfYear() + ", " + localDate.getDayOfMonth()
-                                    + "]");
-                        } else {
-
-                            writer.append(doubleQuote + replace(currVal, doubleQuote, slashDoubleQuote) + doubleQuote);
-                        }
-                    }
-                } else {
-                    writer.append("null");
-                }
-                if (j < (rSize - 1)) writer.append(",\n");
-            }
-
-            if (i < (data.size() - 1)) {
-                writer.append("},");
-            } else {
-                writer.append("}");
+        final StringWriter writer = new StringWriter();
+        final GenericResultsetWriter resultsetWriter = new JsonObjectsResultsetWriter(writer);
+        try {
+            resultsetWriter.writeColumnHeaders(grs.getColumnHeaders());
+            for (final ResultsetRowData row : grs.getData()) {
+                resultsetWriter.writeRow(row.getRow());
             }
+            resultsetWriter.finish();
+        } catch (final IOException e) {
+            // not thrown by a StringWriter
+            throw new IllegalStateException(e);
         }
 
-        writer.append("\n]");
         return writer.toString();
-
     }
 
+    /**
+     * Column definitions are cached per tenant until a datatable or code is
+     * changed, as reading <code>INFORMATION_SCHEMA</code> is slow.
+     */
     @Override
     public List<ResultsetColumnHeaderData> fillResultsetColumnHeaders(final String datatable) {
 
+        final Collection<ResultsetColumnHeaderData> columnHeaders = this.referenceDataCache.retrieve(ReferenceDataType.DATATABLE_COLUMNS,
+                datatable, new Callable<Collection<ResultsetColumnHeaderData>>() {
+
+                    @Override
+                    public Collection<ResultsetColumnHeaderData> call() {
+                        return retrieveResultsetColumnHeaders(datatable);
+                    }
+                });
+        return new ArrayList<ResultsetColumnHeaderData>(columnHeaders);
+    }
+
+    private List<ResultsetColumnHeaderData> retrieveResultsetColumnHeaders(final String datatable) {
+
         final SqlRowSet columnDefinitions = getDatatableMetaData(datatable);
 
         final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<ResultsetColumnHeaderData>();
@@ -200,10 +217,6 @@ public class GenericDataServiceImpl implements GenericDataService {
         return columnHeaders;
     }
 
-    /*
-     * Candidate for using caching there to get allowed 'column values' from
-     * code/codevalue tables
-     */
     private List<ResultsetColumnValueData> retreiveColumnValues(final String columnName, final String code_suffix) {
 
         final List<ResultsetColumnValueData> columnValues = new ArrayList<ResultsetColumnValueData>();
@@ -240,4 +253,70 @@ public class GenericDataServiceImpl implements GenericDataService {
 
         throw new DatatableNotFoundException(datatable);
     }
-}
\ No newline at end of file
+
+    private static final class CollectingResultsetWriter implements GenericResultsetWriter {
+
+        private List<ResultsetColumnHeaderData> columnHeaders;
+        private final List<ResultsetRowData> resultsetDataRows = new ArrayList<ResultsetRowData>();
+
+        @Override
+        public void writeColumnHeaders(final List<ResultsetColumnHeaderData> columnHeaders) {
+            this.columnHeaders = columnHeaders;
+        }
+
+        @Override
+        public void writeRow(final List<String> row) {
+            this.resultsetDataRows.add(ResultsetRowData.create(new ArrayList<String>(row)));
+        }
+
+        @Override
+        public void finish() {
+            //
+        }
+    }
+
+    private static final class StreamingPreparedStatementCreator implements PreparedStatementCreator, SqlProvider {
+
+        private final String sql;
+        private final Object[] args;
+
+        public StreamingPreparedStatementCreator(final String sql, final Object[] args) {
+            this.sql = sql;
+            this.args = args;
+        }
+
+        @Override
+        public PreparedStatement createPreparedStatement(final Connection connection) throws SQLException {
+            final PreparedStatement ps = connection.prepareStatement(this.sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // tells the MySQL driver to stream rows rather than read them all
+            ps.setFetchSize(Integer.MIN_VALUE);
+            for (int i = 0; i < this.args.length; i++) {
+                ps.setObject(i + 1, this.args[i]);
+            }
+            return ps;
+        }
+
+        @Override
+        public String getSql() {
+            return this.sql;
+        }
+    }
+
+    /**
+     * Carries an {@link IOException} from the resultset writer out of a
+     * {@link ResultSetExtractor}.
+     */
+    private static final class ResultSetWriteException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public ResultSetWriteException(final IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import org.mifosplatform.infrastructure.dataqueries.data.GenericResultsetData;
+import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Writes a resultset in the form {@link GenericResultsetData} is serialized
+ * to: the column headers followed by one <code>row</code> array per row.
+ */
+public final class GenericResultsetJsonWriter implements GenericResultsetWriter {
+
+    private static final Type columnHeadersType = new TypeToken<List<ResultsetColumnHeaderData>>() {}.getType();
+
+    private final Gson gson;
+    private final JsonWriter jsonWriter;
+
+    public GenericResultsetJsonWriter(final Writer writer, final Gson gson, final boolean prettyPrint) {
+        this.gson = gson;
+        this.jsonWriter = new JsonWriter(writer);
+        this.jsonWriter.setHtmlSafe(true);
+        if (prettyPrint) {
+            this.jsonWriter.setIndent("  ");
+        }
+    }
+
+    @Override
+    public void writeColumnHeaders(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+        this.jsonWriter.beginObject();
+        this.jsonWriter.name("columnHeaders");
+        this.gson.toJson(columnHeaders, columnHeadersType, this.jsonWriter);
+        this.jsonWriter.name("data");
+        this.jsonWriter.beginArray();
+    }
+
+    @Override
+    public void writeRow(final List<String> row) throws IOException {
+        this.jsonWriter.beginObject();
+        this.jsonWriter.name("row");
+        this.jsonWriter.beginArray();
+        for (final String value : row) {
+            this.jsonWriter.value(value);
+        }
+        this.jsonWriter.endArray();
+        this.jsonWriter.endObject();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        this.jsonWriter.endArray();
+        this.jsonWriter.endObject();
+        this.jsonWriter.flush();
+    }
+}
@@ -0,0 +1,27 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+
+/**
+ * Receives a resultset one row at a time from
+ * {@link GenericDataService#writeResultset}.
+ * 
+ * The row passed to {@link #writeRow(List)} is reused for the next row so must
+ * not be kept.
+ */
+public interface GenericResultsetWriter {
+
+    void writeColumnHeaders(List<ResultsetColumnHeaderData> columnHeaders) throws IOException;
+
+    void writeRow(List<String> row) throws IOException;
+
+    void finish() throws IOException;
+}
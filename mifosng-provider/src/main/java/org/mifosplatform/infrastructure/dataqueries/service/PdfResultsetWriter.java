@@ -0,0 +1,104 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+
+/**
+ * Writes a resultset as a PDF table, repeating the column names on every
+ * page. The table is added to the document as incomplete every
+ * <code>flushInterval</code> rows, which lays out and writes the finished
+ * pages and drops their rows, so only the rows of the current page are held.
+ * 
+ * A resultset without rows gives a table of just the column names. The
+ * output stream is flushed but not closed.
+ */
+public final class PdfResultsetWriter implements GenericResultsetWriter {
+
+    private final OutputStream out;
+    private final int flushInterval;
+    private Document document;
+    private PdfPTable table;
+    private long rowsWritten = 0;
+
+    public PdfResultsetWriter(final OutputStream out, final int flushInterval) {
+        this.out = out;
+        this.flushInterval = flushInterval;
+    }
+
+    @Override
+    public void writeColumnHeaders(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+
+        this.document = new Document(PageSize.B0.rotate());
+        try {
+            final PdfWriter pdfWriter = PdfWriter.getInstance(this.document, this.out);
+            pdfWriter.setCloseStream(false);
+        } catch (final DocumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        this.document.open();
+
+        this.table = new PdfPTable(columnHeaders.size());
+        this.table.setWidthPercentage(100);
+        this.table.setHeaderRows(1);
+        this.table.setComplete(false);
+
+        for (final ResultsetColumnHeaderData columnHeader : columnHeaders) {
+            this.table.addCell(columnHeader.getColumnName());
+        }
+    }
+
+    @Override
+    public void writeRow(final List<String> row) throws IOException {
+
+        for (final String currVal : row) {
+            // an empty cell keeps the following values in their columns
+            this.table.addCell(currVal == null ? "" : currVal);
+        }
+
+        this.rowsWritten++;
+        if (this.rowsWritten % this.flushInterval == 0) {
+            addTableToDocument();
+            this.out.flush();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (this.rowsWritten == 0) {
+            // a table holding only header rows is not added, which would leave
+            // the document without pages, so the column names become a
+            // plain row
+            this.table.setHeaderRows(0);
+        }
+        this.table.setComplete(true);
+        addTableToDocument();
+        this.document.close();
+        this.out.flush();
+    }
+
+    public long rowsWritten() {
+        return this.rowsWritten;
+    }
+
+    private void addTableToDocument() throws IOException {
+        try {
+            this.document.add(this.table);
+        } catch (final DocumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.mifosplatform.infrastructure.documentmanagement.contentrepository.FileSystemContentRepository;
+import org.pentaho.reporting.engine.classic.core.ClassicEngineBoot;
+import org.pentaho.reporting.engine.classic.core.MasterReport;
+import org.pentaho.reporting.engine.classic.core.ReportProcessingException;
+import org.pentaho.reporting.engine.classic.core.modules.output.pageable.pdf.PdfReportUtil;
+import org.pentaho.reporting.engine.classic.core.modules.output.table.csv.CSVReportUtil;
+import org.pentaho.reporting.engine.classic.core.modules.output.table.html.HtmlReportUtil;
+import org.pentaho.reporting.engine.classic.core.modules.output.table.xls.ExcelReportUtil;
+import org.pentaho.reporting.libraries.resourceloader.Resource;
+import org.pentaho.reporting.libraries.resourceloader.ResourceException;
+import org.pentaho.reporting.libraries.resourceloader.ResourceManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+/**
+ * Loads and renders Pentaho reports.
+ * 
+ * Parsed report definitions are kept until their <code>.prpt</code> file
+ * changes and each request works on its own copy. Rendering runs on a small
+ * bounded pool so a burst of report requests cannot take every request
+ * thread; once the pool and its queue are full further requests are refused.
+ * A request reserves its place with {@link #reserveRenderSlot()} before its
+ * response is committed, so it can still be refused with an error status.
+ */
+@Service
+public class PentahoReportRenderer implements DisposableBean {
+
+    private final static Logger logger = LoggerFactory.getLogger(PentahoReportRenderer.class);
+
+    private static final int RENDER_THREADS = 4;
+    private static final int RENDER_QUEUE_CAPACITY = 16;
+
+    private final ResourceManager resourceManager;
+    private final ConcurrentMap<String, ReportDefinition> definitionsByPath = new ConcurrentHashMap<String, ReportDefinition>();
+    private final ThreadPoolExecutor renderExecutor;
+    private final Semaphore renderSlots = new Semaphore(RENDER_THREADS + RENDER_QUEUE_CAPACITY);
+
+    public PentahoReportRenderer() {
+        // kick off pentaho reports server
+        ClassicEngineBoot.getInstance().start();
+
+        this.resourceManager = new ResourceManager();
+        this.resourceManager.registerDefaults();
+
+        this.renderExecutor = new ThreadPoolExecutor(RENDER_THREADS, RENDER_THREADS, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(RENDER_QUEUE_CAPACITY), new RenderThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        this.renderExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * A copy of the report's definition that the caller can set parameters
+     * on.
+     */
+    public MasterReport loadReport(final String reportName) {
+
+        final String reportPath = FileSystemContentRepository.MIFOSX_BASE_DIR + File.separator + "pentahoReports" + File.separator
+                + reportName + ".prpt";
+
+        final long lastModified = new File(reportPath).lastModified();
+        ReportDefinition definition = this.definitionsByPath.get(reportPath);
+        if (definition == null || definition.lastModified != lastModified) {
+            logger.info("Report path: " + reportPath);
+            try {
+                final Resource res = this.resourceManager.createDirectly(reportPath, MasterReport.class);
+                definition = new ReportDefinition((MasterReport) res.getResource(), lastModified);
+            } catch (ResourceException e) {
+                throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
+            }
+            this.definitionsByPath.put(reportPath, definition);
+        }
+
+        return (MasterReport) definition.report.clone();
+    }
+
+    /**
+     * Reserves a place on the render pool for one report, failing straight
+     * away when the pool and its queue are full.
+     */
+    public RenderSlot reserveRenderSlot() {
+        if (!this.renderSlots.tryAcquire()) { throw new PlatformDataIntegrityException("error.msg.reporting.busy",
+                "Too many reports are being run, try again later."); }
+        return new RenderSlot(this.renderSlots);
+    }
+
+    /**
+     * Renders the report to the output stream on the render pool, waiting for
+     * it to finish, and then releases <code>slot</code>.
+     */
+    public void render(final RenderSlot slot, final MasterReport report, final String outputType, final OutputStream out) {
+
+        try {
+            final Future<Void> rendering;
+            try {
+                rendering = this.renderExecutor.submit(new Callable<Void>() {
+
+                    @Override
+                    public Void call() throws Exception {
+                        write(report, outputType, out);
+                        return null;
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                throw new PlatformDataIntegrityException("error.msg.reporting.busy", "Too many reports are being run, try again later.");
+            }
+
+            try {
+                rendering.get();
+            } catch (InterruptedException e) {
+                rendering.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new PlatformDataIntegrityException("error.msg.reporting.error", "Report rendering was interrupted.");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) { throw (RuntimeException) e.getCause(); }
+                throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getCause().getMessage());
+            }
+        } finally {
+            slot.release();
+        }
+    }
+
+    /**
+     * Renders the report to the output stream on the calling thread, for
+     * callers that already limit how many reports they run.
+     */
+    public void write(final MasterReport report, final String outputType, final OutputStream out) throws IOException {
+        try {
+            if ("PDF".equalsIgnoreCase(outputType)) {
+                PdfReportUtil.createPDF(report, out);
+            } else if ("XLS".equalsIgnoreCase(outputType)) {
+                ExcelReportUtil.createXLS(report, out);
+            } else if ("CSV".equalsIgnoreCase(outputType)) {
+                CSVReportUtil.createCSV(report, out, "UTF-8");
+            } else if ("HTML".equalsIgnoreCase(outputType)) {
+                HtmlReportUtil.createStreamHTML(report, out);
+            } else {
+                throw new PlatformDataIntegrityException("error.msg.invalid.outputType", "No matching Output Type: " + outputType);
+            }
+        } catch (ReportProcessingException e) {
+            throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
+        }
+        out.flush();
+    }
+
+    @Override
+    public void destroy() {
+        this.renderExecutor.shutdownNow();
+        this.definitionsByPath.clear();
+    }
+
+    /**
+     * A place on the render pool held by one report request.
+     */
+    public static final class RenderSlot {
+
+        private final Semaphore renderSlots;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        RenderSlot(final Semaphore renderSlots) {
+            this.renderSlots = renderSlots;
+        }
+
+        public void release() {
+            if (this.released.compareAndSet(false, true)) {
+                this.renderSlots.release();
+            }
+        }
+    }
+
+    private static final class ReportDefinition {
+
+        private final MasterReport report;
+        private final long lastModified;
+
+        public ReportDefinition(final MasterReport report, final long lastModified) {
+            this.report = report;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private static class RenderThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "pentaho-render-" + this.threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -5,6 +5,8 @@
  */
 package org.mifosplatform.infrastructure.dataqueries.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collection;
 import java.util.Locale;
 import java.util.Map;
@@ -20,11 +22,21 @@ public interface ReadReportingService {
 
     StreamingOutput retrieveReportCSV(String name, String type, Map<String, String> extractedQueryParams);
 
+    long writeReportCSV(String name, String type, Map<String, String> extractedQueryParams, OutputStream out) throws IOException;
+
     GenericResultsetData retrieveGenericResultset(String name, String type, Map<String, String> extractedQueryParams);
 
+    StreamingOutput retrieveReportJson(String name, String type, Map<String, String> extractedQueryParams, boolean genericResultSet,
+            boolean prettyPrint);
+
     Response processPentahoRequest(String reportName, String outputType, Map<String, String> queryParams, Locale locale);
 
-    String retrieveReportPDF(String name, String type, Map<String, String> extractedQueryParams);
+    void writePentahoReport(String reportName, String outputType, Map<String, String> queryParams, Locale locale, OutputStream out)
+            throws IOException;
+
+    StreamingOutput retrieveReportPDF(String name, String type, Map<String, String> extractedQueryParams);
+
+    long writeReportPDF(String name, String type, Map<String, String> extractedQueryParams, OutputStream out) throws IOException;
 
     String getReportType(String reportName);
 
@@ -5,118 +5,106 @@
  */
 package org.mifosplatform.infrastructure.dataqueries.service;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.FileOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.sql.Connection;
 import java.sql.Date;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
+import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
 
 import javax.sql.DataSource;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.commons.lang.StringUtils;
-import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
 import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.mifosplatform.infrastructure.core.serialization.GoogleGsonSerializerHelper;
 import org.mifosplatform.infrastructure.core.service.TenantAwareRoutingDataSource;
 import org.mifosplatform.infrastructure.dataqueries.data.GenericResultsetData;
 import org.mifosplatform.infrastructure.dataqueries.data.ReportData;
 import org.mifosplatform.infrastructure.dataqueries.data.ReportParameterData;
 import org.mifosplatform.infrastructure.dataqueries.data.ReportParameterJoinData;
-import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
-import org.mifosplatform.infrastructure.dataqueries.data.ResultsetRowData;
 import org.mifosplatform.infrastructure.dataqueries.exception.ReportNotFoundException;
-import org.mifosplatform.infrastructure.documentmanagement.contentrepository.FileSystemContentRepository;
+import org.mifosplatform.infrastructure.dataqueries.service.PentahoReportRenderer.RenderSlot;
+import org.mifosplatform.infrastructure.dataqueries.service.ReportDefinitionRegistry.ReportDefinition;
+import org.mifosplatform.infrastructure.dataqueries.service.ReportResultCache.CachedReportResult;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.mifosplatform.organisation.office.service.OfficeHierarchyCache;
 import org.mifosplatform.useradministration.domain.AppUser;
-import org.pentaho.reporting.engine.classic.core.ClassicEngineBoot;
 import org.pentaho.reporting.engine.classic.core.DefaultReportEnvironment;
 import org.pentaho.reporting.engine.classic.core.MasterReport;
-import org.pentaho.reporting.engine.classic.core.ReportProcessingException;
-import org.pentaho.reporting.engine.classic.core.modules.output.pageable.pdf.PdfReportUtil;
-import org.pentaho.reporting.engine.classic.core.modules.output.table.csv.CSVReportUtil;
-import org.pentaho.reporting.engine.classic.core.modules.output.table.html.HtmlReportUtil;
-import org.pentaho.reporting.engine.classic.core.modules.output.table.xls.ExcelReportUtil;
 import org.pentaho.reporting.engine.classic.core.parameters.ParameterDefinitionEntry;
 import org.pentaho.reporting.engine.classic.core.parameters.ReportParameterDefinition;
 import org.pentaho.reporting.engine.classic.core.util.ReportParameterValues;
-import org.pentaho.reporting.libraries.resourceloader.Resource;
-import org.pentaho.reporting.libraries.resourceloader.ResourceException;
-import org.pentaho.reporting.libraries.resourceloader.ResourceManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Service;
 
-import com.lowagie.text.Document;
-import com.lowagie.text.PageSize;
-import com.lowagie.text.pdf.PdfPTable;
-import com.lowagie.text.pdf.PdfWriter;
-
 @Service
 public class ReadReportingServiceImpl implements ReadReportingService {
 
     private final static Logger logger = LoggerFactory.getLogger(ReadReportingServiceImpl.class);
 
-    private final JdbcTemplate jdbcTemplate;
+    // rows written to a CSV export between flushes of the response
+    private final static int CSV_FLUSH_INTERVAL_ROWS = 1000;
+    // rows added to a PDF table between writes of its finished pages
+    private final static int PDF_FLUSH_INTERVAL_ROWS = 500;
+    // pentaho output types and their content types
+    private final static Map<String, String> PENTAHO_CONTENT_TYPES = new HashMap<String, String>();
+    static {
+        PENTAHO_CONTENT_TYPES.put("HTML", "text/html");
+        PENTAHO_CONTENT_TYPES.put("PDF", "application/pdf");
+        PENTAHO_CONTENT_TYPES.put("XLS", "application/vnd.ms-excel");
+        PENTAHO_CONTENT_TYPES.put("CSV", "application/x-msdownload");
+    }
+
     private final DataSource dataSource;
     private final PlatformSecurityContext context;
     private final GenericDataService genericDataService;
+    private final OfficeHierarchyCache officeHierarchyCache;
+    private final GoogleGsonSerializerHelper gsonSerializerHelper;
+    private final PentahoReportRenderer pentahoReportRenderer;
+    private final ReportResultCache reportResultCache;
+    private final ReportDefinitionRegistry reportDefinitionRegistry;
     private boolean noPentaho = false;
 
     @Autowired
     public ReadReportingServiceImpl(final PlatformSecurityContext context, final TenantAwareRoutingDataSource dataSource,
-            final GenericDataService genericDataService) {
-        // kick off pentaho reports server
-        ClassicEngineBoot.getInstance().start();
+            final GenericDataService genericDataService, final OfficeHierarchyCache officeHierarchyCache,
+            final GoogleGsonSerializerHelper gsonSerializerHelper, final PentahoReportRenderer pentahoReportRenderer,
+            final ReportResultCache reportResultCache, final ReportDefinitionRegistry reportDefinitionRegistry) {
         noPentaho = false;
 
         this.context = context;
         this.dataSource = dataSource;
-        this.jdbcTemplate = new JdbcTemplate(this.dataSource);
         this.genericDataService = genericDataService;
+        this.officeHierarchyCache = officeHierarchyCache;
+        this.gsonSerializerHelper = gsonSerializerHelper;
+        this.pentahoReportRenderer = pentahoReportRenderer;
+        this.reportResultCache = reportResultCache;
+        this.reportDefinitionRegistry = reportDefinitionRegistry;
     }
 
     @Override
     public StreamingOutput retrieveReportCSV(final String name, final String type, final Map<String, String> queryParams) {
 
+        final ReportQuery query = prepareReportQuery(name, type, queryParams);
+
         return new StreamingOutput() {
 
             @Override
             public void write(final OutputStream out) {
                 try {
-
-                    GenericResultsetData result = retrieveGenericResultset(name, type, queryParams);
-                    StringBuffer sb = generateCsvFileBuffer(result);
-
-                    InputStream in = new ByteArrayInputStream(sb.toString().getBytes("UTF-8"));
-
-                    byte[] outputByte = new byte[4096];
-                    Integer readLen = in.read(outputByte, 0, 4096);
-
-                    while (readLen != -1) {
-                        out.write(outputByte, 0, readLen);
-                        readLen = in.read(outputByte, 0, 4096);
-                    }
-                    // in.close();
-                    // out.flush();
-                    // out.close();
-                } catch (Exception e) {
+                    writeCSV(type, query, out);
+                } catch (final IOException e) {
                     throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage());
                 }
             }
@@ -124,48 +112,67 @@ public class ReadReportingServiceImpl implements ReadReportingService {
 
     }
 
-    private StringBuffer generateCsvFileBuffer(final GenericResultsetData result) {
-        StringBuffer writer = new StringBuffer();
+    @Override
+    public long writeReportCSV(final String name, final String type, final Map<String, String> queryParams, final OutputStream out)
+            throws IOException {
+        return writeCSV(type, prepareReportQuery(name, type, queryParams), out);
+    }
 
-        List<ResultsetColumnHeaderData> columnHeaders = result.getColumnHeaders();
-        logger.info("NO. of Columns: " + columnHeaders.size());
-        Integer chSize = columnHeaders.size();
-        for (int i = 0; i < chSize; i++) {
-            writer.append('"' + columnHeaders.get(i).getColumnName() + '"');
-            if (i < (chSize - 1)) writer.append(",");
-        }
-        writer.append('\n');
-
-        List<ResultsetRowData> data = result.getData();
-        List<String> row;
-        Integer rSize;
-        // String currCol;
-        String currColType;
-        String currVal;
-        String doubleQuote = "\"";
-        String twoDoubleQuotes = doubleQuote + doubleQuote;
-        logger.info("NO. of Rows: " + data.size());
-        for (int i = 0; i < data.size(); i++) {
-            row = data.get(i).getRow();
-            rSize = row.size();
-            for (int j = 0; j < rSize; j++) {
-                // currCol = columnHeaders.get(j).getColumnName();
-                currColType = columnHeaders.get(j).getColumnType();
-                currVal = row.get(j);
-                if (currVal != null) {
-                    if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
-                            || currColType.equals("SMALLINT") || currColType.equals("INT"))
-                        writer.append(currVal);
-                    else
-                        writer.append('"' + genericDataService.replace(currVal, doubleQuote, twoDoubleQuotes) + '"');
+    private long writeCSV(final String type, final ReportQuery query, final OutputStream out) throws IOException {
+
+        final String name = query.reportName;
+        final long startTime = System.currentTimeMillis();
+        logger.info("STARTING REPORT: " + name + "   Type: " + type);
+
+        final CsvResultsetWriter resultsetWriter = new CsvResultsetWriter(new BufferedWriter(new OutputStreamWriter(out,
+                Charset.forName("UTF-8"))), CSV_FLUSH_INTERVAL_ROWS);
+        writeReportResultset(query, resultsetWriter);
 
+        final long elapsed = System.currentTimeMillis() - startTime;
+        final long rowsPerSecond = resultsetWriter.rowsWritten() * 1000 / Math.max(elapsed, 1);
+        logger.info("FINISHING Report/Request Name: " + name + " - " + type + "     Elapsed Time: " + elapsed + "     Rows: "
+                + resultsetWriter.rowsWritten() + " (" + rowsPerSecond + " rows/sec)");
+
+        return resultsetWriter.rowsWritten();
+    }
+
+    /**
+     * Writes the report rows as they are read rather than building a
+     * {@link GenericResultsetData} first, in the same formats the api returns
+     * for a {@link GenericResultsetData}.
+     */
+    @Override
+    public StreamingOutput retrieveReportJson(final String name, final String type, final Map<String, String> queryParams,
+            final boolean genericResultSet, final boolean prettyPrint) {
+
+        final ReportQuery query = prepareReportQuery(name, type, queryParams);
+
+        return new StreamingOutput() {
+
+            @Override
+            public void write(final OutputStream out) {
+
+                final long startTime = System.currentTimeMillis();
+                logger.info("STARTING REPORT: " + name + "   Type: " + type);
+
+                try {
+                    final Writer writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+                    GenericResultsetWriter resultsetWriter = null;
+                    if (genericResultSet) {
+                        resultsetWriter = new GenericResultsetJsonWriter(writer,
+                                ReadReportingServiceImpl.this.gsonSerializerHelper.createGsonBuilder(prettyPrint), prettyPrint);
+                    } else {
+                        resultsetWriter = new JsonObjectsResultsetWriter(writer);
+                    }
+                    writeReportResultset(query, resultsetWriter);
+                } catch (final IOException e) {
+                    throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage());
                 }
-                if (j < (rSize - 1)) writer.append(",");
-            }
-            writer.append('\n');
-        }
 
-        return writer;
+                final long elapsed = System.currentTimeMillis() - startTime;
+                logger.info("FINISHING Report/Request Name: " + name + " - " + type + "     Elapsed Time: " + elapsed);
+            }
+        };
     }
 
     @Override
@@ -174,62 +181,100 @@ public class ReadReportingServiceImpl implements ReadReportingService {
         long startTime = System.currentTimeMillis();
         logger.info("STARTING REPORT: " + name + "   Type: " + type);
 
-        String sql = getSQLtoRun(name, type, queryParams);
+        final ReportQuery query = prepareReportQuery(name, type, queryParams);
 
-        GenericResultsetData result = genericDataService.fillGenericResultSet(sql);
+        GenericResultsetData result = genericDataService.fillGenericResultSet(query.sql);
 
         long elapsed = System.currentTimeMillis() - startTime;
         logger.info("FINISHING Report/Request Name: " + name + " - " + type + "     Elapsed Time: " + elapsed);
         return result;
     }
 
-    private String getSQLtoRun(final String name, final String type, final Map<String, String> queryParams) {
+    /**
+     * Writes the report's rows from the {@link ReportResultCache} when the
+     * query is cacheable and a result is cached, otherwise from the database.
+     */
+    private void writeReportResultset(final ReportQuery query, final GenericResultsetWriter resultsetWriter) throws IOException {
+
+        if (query.cacheKey == null) {
+            this.genericDataService.writeResultset(query.sql, new Object[] {}, null, resultsetWriter);
+            return;
+        }
 
-        String sql = getSql(name, type);
+        final CachedReportResult cached = this.reportResultCache.get(query.cacheKey);
+        if (cached != null) {
+            cached.writeTo(resultsetWriter);
+            return;
+        }
+        this.genericDataService.writeResultset(query.sql, new Object[] {}, null,
+                this.reportResultCache.cachingWriter(query.cacheKey, query.cacheTtlSeconds, resultsetWriter));
+    }
 
-        Set<String> keys = queryParams.keySet();
-        for (String key : keys) {
-            String pValue = queryParams.get(key);
-            // logger.info("(" + key + " : " + pValue + ")");
-            sql = genericDataService.replace(sql, key, pValue);
+    private ReportQuery prepareReportQuery(final String name, final String type, final Map<String, String> queryParams) {
+
+        final SqlTemplate template;
+        int cacheTtlSeconds = 0;
+        if ("report".equals(type)) {
+            final ReportDefinition report = this.reportDefinitionRegistry.reportNamed(name);
+            template = report.reportSql();
+            cacheTtlSeconds = report.cacheTtlSeconds();
+        } else if ("parameter".equals(type)) {
+            template = this.reportDefinitionRegistry.parameterSqlNamed(name);
+        } else {
+            template = null;
         }
+        if (template == null) { throw new ReportNotFoundException(type + "_name = '" + name + "'"); }
 
-        AppUser currentUser = context.authenticatedUser();
+        final AppUser currentUser = this.context.authenticatedUser();
+        final String hierarchy = currentUser.getOffice().getHierarchy();
+
+        final Map<String, String> values = new HashMap<String, String>(queryParams);
         // Allows sql query to restrict data by office hierarchy if required
-        sql = genericDataService.replace(sql, "${currentUserHierarchy}", currentUser.getOffice().getHierarchy());
+        values.put("${currentUserHierarchy}", hierarchy);
+        // or by the ids of the offices in the hierarchy, as in
+        // "o.id in (${currentUserOfficeIds})", which avoids matching on
+        // m_office.hierarchy
+        if (template.uses("${currentUserOfficeIds}")) {
+            values.put("${currentUserOfficeIds}", this.officeHierarchyCache.scopeOf(hierarchy).sqlInList());
+        }
         // Allows sql query to restrict data by current user Id if required
         // (typically used to return report lists containing only reports
         // permitted to be run by the user
-        sql = genericDataService.replace(sql, "${currentUserId}", currentUser.getId().toString());
+        values.put("${currentUserId}", currentUser.getId().toString());
 
-        sql = genericDataService.wrapSQL(sql);
+        final String sql = this.genericDataService.wrapSQL(template.render(values));
 
-        return sql;
+        String cacheKey = null;
+        if (cacheTtlSeconds > 0) {
+            final Long userIdOrNull = template.uses("${currentUserId}") ? currentUser.getId() : null;
+            cacheKey = this.reportResultCache.keyFor(name, queryParams, hierarchy, userIdOrNull);
+        }
 
+        return new ReportQuery(name, sql, cacheKey, cacheTtlSeconds);
     }
 
-    private String getSql(final String name, final String type) {
-
-        final String inputSql = "select " + type + "_sql as the_sql from stretchy_" + type + " where " + type + "_name = '" + name + "'";
-        final String inputSqlWrapped = genericDataService.wrapSQL(inputSql);
-
-        final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(inputSqlWrapped);
-
-        if (rs.next()) { return rs.getString("the_sql"); }
-        throw new ReportNotFoundException(inputSql);
+    /**
+     * A report's sql ready to run, with the key of its result in the
+     * {@link ReportResultCache} if it may be cached.
+     */
+    private static final class ReportQuery {
+
+        private final String reportName;
+        private final String sql;
+        private final String cacheKey;
+        private final int cacheTtlSeconds;
+
+        ReportQuery(final String reportName, final String sql, final String cacheKey, final int cacheTtlSeconds) {
+            this.reportName = reportName;
+            this.sql = sql;
+            this.cacheKey = cacheKey;
+            this.cacheTtlSeconds = cacheTtlSeconds;
+        }
     }
 
     @Override
     public String getReportType(final String reportName) {
-
-        final String sql = "SELECT ifnull(report_type,'') as report_type FROM `stretchy_report` where report_name = '" + reportName + "'";
-
-        final String sqlWrapped = genericDataService.wrapSQL(sql);
-
-        final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(sqlWrapped);
-
-        if (rs.next()) { return rs.getString("report_type"); }
-        throw new ReportNotFoundException(sql);
+        return this.reportDefinitionRegistry.reportNamed(reportName).reportType();
     }
 
     @Override
@@ -239,63 +284,56 @@ public class ReadReportingServiceImpl implements ReadReportingService {
         String outputType = "HTML";
         if (StringUtils.isNotBlank(outputTypeParam)) outputType = outputTypeParam;
 
-        if (!(outputType.equalsIgnoreCase("HTML") || outputType.equalsIgnoreCase("PDF") || outputType.equalsIgnoreCase("XLS") || outputType
-                .equalsIgnoreCase("CSV")))
-            throw new PlatformDataIntegrityException("error.msg.invalid.outputType", "No matching Output Type: " + outputType);
+        // everything that can fail is checked before the response is built,
+        // as its status is committed once rendering starts
+        final String contentType = PENTAHO_CONTENT_TYPES.get(outputType.toUpperCase(Locale.ENGLISH));
+        if (contentType == null) { throw new PlatformDataIntegrityException("error.msg.invalid.outputType", "No matching Output Type: "
+                + outputType); }
 
         if (noPentaho) { throw new PlatformDataIntegrityException("error.msg.no.pentaho", "Pentaho is not enabled",
                 "Pentaho is not enabled"); }
 
-        final String reportPath = FileSystemContentRepository.MIFOSX_BASE_DIR + File.separator + "pentahoReports" + File.separator
-                + reportName + ".prpt";
-        logger.info("Report path: " + reportPath);
+        final MasterReport masterReport = preparePentahoReport(reportName, queryParams, locale);
+        final RenderSlot renderSlot = this.pentahoReportRenderer.reserveRenderSlot();
 
-        // load report definition
-        ResourceManager manager = new ResourceManager();
-        manager.registerDefaults();
-        Resource res;
+        final String renderOutputType = outputType;
+        final StreamingOutput result = new StreamingOutput() {
 
-        try {
-            res = manager.createDirectly(reportPath, MasterReport.class);
-            MasterReport masterReport = (MasterReport) res.getResource();
-            DefaultReportEnvironment reportEnvironment = (DefaultReportEnvironment) masterReport.getReportEnvironment();
-            if (locale != null) {
-                reportEnvironment.setLocale(locale);
+            @Override
+            public void write(final OutputStream out) {
+                ReadReportingServiceImpl.this.pentahoReportRenderer.render(renderSlot, masterReport, renderOutputType, out);
             }
-            addParametersToReport(masterReport, queryParams);
+        };
 
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final Response.ResponseBuilder response = Response.ok().entity(result).type(contentType);
+        if ("XLS".equalsIgnoreCase(outputType) || "CSV".equalsIgnoreCase(outputType)) {
+            response.header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + "."
+                    + outputType.toLowerCase(Locale.ENGLISH));
+        }
+        return response.build();
+    }
 
-            if ("PDF".equalsIgnoreCase(outputType)) {
-                PdfReportUtil.createPDF(masterReport, baos);
-                return Response.ok().entity(baos.toByteArray()).type("application/pdf").build();
-            }
+    @Override
+    public void writePentahoReport(final String reportName, final String outputType, final Map<String, String> queryParams,
+            final Locale locale, final OutputStream out) throws IOException {
 
-            if ("XLS".equalsIgnoreCase(outputType)) {
-                ExcelReportUtil.createXLS(masterReport, baos);
-                return Response.ok().entity(baos.toByteArray()).type("application/vnd.ms-excel")
-                        .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".xls").build();
-            }
+        if (noPentaho) { throw new PlatformDataIntegrityException("error.msg.no.pentaho", "Pentaho is not enabled",
+                "Pentaho is not enabled"); }
 
-            if ("CSV".equalsIgnoreCase(outputType)) {
-                CSVReportUtil.createCSV(masterReport, baos, "UTF-8");
-                return Response.ok().entity(baos.toByteArray()).type("application/x-msdownload")
-                        .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".csv").build();
-            }
+        this.pentahoReportRenderer.write(preparePentahoReport(reportName, queryParams, locale), outputType, out);
+    }
 
-            if ("HTML".equalsIgnoreCase(outputType)) {
-                HtmlReportUtil.createStreamHTML(masterReport, baos);
-                return Response.ok().entity(baos.toByteArray()).type("text/html").build();
-            }
-        } catch (ResourceException e) {
-            throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
-        } catch (ReportProcessingException e) {
-            throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
-        } catch (IOException e) {
-            throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
-        }
+    private MasterReport preparePentahoReport(final String reportName, final Map<String, String> queryParams, final Locale locale) {
 
-        throw new PlatformDataIntegrityException("error.msg.invalid.outputType", "No matching Output Type: " + outputType);
+        final MasterReport masterReport = this.pentahoReportRenderer.loadReport(reportName);
+        if (locale != null) {
+            // the copy shares its environment with the cached definition
+            final DefaultReportEnvironment reportEnvironment = new DefaultReportEnvironment(masterReport.getConfiguration());
+            reportEnvironment.setLocale(locale);
+            masterReport.setReportEnvironment(reportEnvironment);
+        }
+        addParametersToReport(masterReport, queryParams);
+        return masterReport;
     }
 
     private void addParametersToReport(final MasterReport report, final Map<String, String> queryParams) {
@@ -359,69 +397,42 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     }
 
     @Override
-    public String retrieveReportPDF(final String reportName, final String type, final Map<String, String> queryParams) {
-
-        String fileLocation = FileSystemContentRepository.MIFOSX_BASE_DIR + File.separator + "";
-        if (!new File(fileLocation).isDirectory()) {
-            new File(fileLocation).mkdirs();
-        }
-
-        String genaratePdf = fileLocation + File.separator + reportName + ".pdf";
+    public StreamingOutput retrieveReportPDF(final String reportName, final String type, final Map<String, String> queryParams) {
 
-        try {
-            GenericResultsetData result = retrieveGenericResultset(reportName, type, queryParams);
+        final ReportQuery query = prepareReportQuery(reportName, type, queryParams);
 
-            List<ResultsetColumnHeaderData> columnHeaders = result.getColumnHeaders();
-            List<ResultsetRowData> data = result.getData();
-            List<String> row;
+        return new StreamingOutput() {
 
-            logger.info("NO. of Columns: " + columnHeaders.size());
-            Integer chSize = columnHeaders.size();
+            @Override
+            public void write(final OutputStream out) {
+                try {
+                    writePDF(type, query, out);
+                } catch (final IOException e) {
+                    throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage());
+                }
+            }
+        };
+    }
 
-            Document document = new Document(PageSize.B0.rotate());
+    @Override
+    public long writeReportPDF(final String reportName, final String type, final Map<String, String> queryParams, final OutputStream out)
+            throws IOException {
+        return writePDF(type, prepareReportQuery(reportName, type, queryParams), out);
+    }
 
-            PdfWriter.getInstance(document, new FileOutputStream(new File(fileLocation + reportName + ".pdf")));
-            document.open();
+    private long writePDF(final String type, final ReportQuery query, final OutputStream out) throws IOException {
 
-            PdfPTable table = new PdfPTable(chSize);
-            table.setWidthPercentage(100);
+        final long startTime = System.currentTimeMillis();
+        logger.info("STARTING REPORT: " + query.reportName + "   Type: " + type);
 
-            for (int i = 0; i < chSize; i++) {
+        final PdfResultsetWriter resultsetWriter = new PdfResultsetWriter(out, PDF_FLUSH_INTERVAL_ROWS);
+        writeReportResultset(query, resultsetWriter);
 
-                table.addCell(columnHeaders.get(i).getColumnName());
+        final long elapsed = System.currentTimeMillis() - startTime;
+        logger.info("FINISHING Report/Request Name: " + query.reportName + " - " + type + "     Elapsed Time: " + elapsed + "     Rows: "
+                + resultsetWriter.rowsWritten());
 
-            }
-            table.completeRow();
-
-            Integer rSize;
-            String currColType;
-            String currVal;
-            logger.info("NO. of Rows: " + data.size());
-            for (int i = 0; i < data.size(); i++) {
-                row = data.get(i).getRow();
-                rSize = row.size();
-                for (int j = 0; j < rSize; j++) {
-                    currColType = columnHeaders.get(j).getColumnType();
-                    currVal = row.get(j);
-                    if (currVal != null) {
-                        if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
-                                || currColType.equals("SMALLINT") || currColType.equals("INT")) {
-
-                            table.addCell(currVal.toString());
-                        } else {
-                            table.addCell(currVal.toString());
-                        }
-                    }
-                }
-            }
-            table.completeRow();
-            document.add(table);
-            document.close();
-            return genaratePdf;
-        } catch (Exception e) {
-            logger.error("error.msg.reporting.error:" + e.getMessage());
-            throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage());
-        }
+        return resultsetWriter.rowsWritten();
     }
 
     @Override
@@ -441,11 +452,12 @@ public class ReadReportingServiceImpl implements ReadReportingService {
 
     private Collection<ReportData> retrieveReports(final Long id) {
 
-        ReportParameterJoinMapper rm = new ReportParameterJoinMapper();
-
-        String sql = rm.schema(id);
-
-        Collection<ReportParameterJoinData> rpJoins = this.jdbcTemplate.query(sql, rm, new Object[] {});
+        final Collection<ReportParameterJoinData> rpJoins = new ArrayList<ReportParameterJoinData>();
+        for (final ReportParameterJoinData rpJoin : this.reportDefinitionRegistry.reportParameterJoins()) {
+            if (id == null || id.equals(rpJoin.getReportId())) {
+                rpJoins.add(rpJoin);
+            }
+        }
 
         Collection<ReportData> reportList = new ArrayList<ReportData>();
         if (rpJoins == null || rpJoins.size() == 0) return reportList;
@@ -460,6 +472,7 @@ public class ReadReportingServiceImpl implements ReadReportingService {
         String description = null;
         Boolean coreReport = null;
         Boolean useReport = null;
+        Integer cacheTtlSeconds = null;
         String reportSql = null;
 
         Long prevReportId = (long) -1234;
@@ -480,7 +493,7 @@ public class ReadReportingServiceImpl implements ReadReportingService {
                 } else {
                     // write report entry
                     reportList.add(new ReportData(reportId, reportName, reportType, reportSubType, reportCategory, description, reportSql,
-                            coreReport, useReport, reportParameters));
+                            coreReport, useReport, cacheTtlSeconds, reportParameters));
                 }
 
                 prevReportId = rpJoin.getReportId();
@@ -491,9 +504,11 @@ public class ReadReportingServiceImpl implements ReadReportingService {
                 reportSubType = rpJoin.getReportSubType();
                 reportCategory = rpJoin.getReportCategory();
                 description = rpJoin.getDescription();
-                reportSql = rpJoin.getReportSql();
+                // the report list leaves out the sql
+                reportSql = id == null ? null : rpJoin.getReportSql();
                 coreReport = rpJoin.getCoreReport();
                 useReport = rpJoin.getUseReport();
+                cacheTtlSeconds = rpJoin.getCacheTtlSeconds();
 
                 if (rpJoin.getReportParameterId() != null) {
                     // report has at least one parameter
@@ -508,7 +523,7 @@ public class ReadReportingServiceImpl implements ReadReportingService {
         }
         // write last report
         reportList.add(new ReportData(reportId, reportName, reportType, reportSubType, reportCategory, description, reportSql, coreReport,
-                useReport, reportParameters));
+                useReport, cacheTtlSeconds, reportParameters));
 
         return reportList;
     }
@@ -516,91 +531,6 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     @Override
     public Collection<ReportParameterData> getAllowedParameters() {
 
-        ReportParameterMapper rm = new ReportParameterMapper();
-        String sql = rm.schema();
-        Collection<ReportParameterData> parameters = this.jdbcTemplate.query(sql, rm, new Object[] {});
-        return parameters;
+        return new ArrayList<ReportParameterData>(this.reportDefinitionRegistry.allowedParameters());
     }
-
-    private static final class ReportParameterJoinMapper implements RowMapper<ReportParameterJoinData> {
-
-        public String schema(final Long reportId) {
-
-            String sql = "select r.id as reportId, r.report_name as reportName, r.report_type as reportType, "
-                    + " r.report_subtype as reportSubType, r.report_category as reportCategory, r.description, r.core_report as coreReport, r.use_report as useReport, "
-                    + " rp.id as reportParameterId, rp.parameter_id as parameterId, rp.report_parameter_name as reportParameterName, p.parameter_name as parameterName";
-
-            if (reportId != null) sql += ", r.report_sql as reportSql ";
-
-            sql += " from stretchy_report r" + " left join stretchy_report_parameter rp on rp.report_id = r.id"
-                    + " left join stretchy_parameter p on p.id = rp.parameter_id";
-            if (reportId != null)
-                sql += " where r.id = " + reportId;
-            else
-                sql += " order by r.id, rp.parameter_id";
-
-            return sql;
-
-            /*
-             * used to only return reports that the use can run as done in
-             * report UI but not necessary as there is a read_report permission
-             * which should give user access to look all reports +
-             * " where exists" + " (select 'f'" + " from m_appuser_role ur " +
-             * " join m_role r on r.id = ur.role_id" +
-             * " left join m_role_permission rp on rp.role_id = r.id" +
-             * " left join m_permission p on p.id = rp.permission_id" +
-             * " where ur.appuser_id = " + userId +
-             * " and (p.code in ('ALL_FUNCTIONS', 'ALL_FUNCTIONS_READ') or p.code = concat('READ_', r.report_name))) "
-             * ;
-             */
-        }
-
-        @Override
-        public ReportParameterJoinData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
-
-            final Long reportId = rs.getLong("reportId");
-            final String reportName = rs.getString("reportName");
-            final String reportType = rs.getString("reportType");
-            final String reportSubType = rs.getString("reportSubType");
-            final String reportCategory = rs.getString("reportCategory");
-            final String description = rs.getString("description");
-            final Boolean coreReport = rs.getBoolean("coreReport");
-            final Boolean useReport = rs.getBoolean("useReport");
-
-            String reportSql;
-            // reportSql might not be on the select list of columns
-            try {
-                reportSql = rs.getString("reportSql");
-            } catch (SQLException e) {
-                reportSql = null;
-            }
-
-            final Long reportParameterId = JdbcSupport.getLong(rs, "reportParameterId");
-            final Long parameterId = JdbcSupport.getLong(rs, "parameterId");
-            final String reportParameterName = rs.getString("reportParameterName");
-            final String parameterName = rs.getString("parameterName");
-
-            return new ReportParameterJoinData(reportId, reportName, reportType, reportSubType, reportCategory, description, reportSql,
-                    coreReport, useReport, reportParameterId, parameterId, reportParameterName, parameterName);
-        }
-    }
-
-    private static final class ReportParameterMapper implements RowMapper<ReportParameterData> {
-
-        public String schema() {
-
-            return "select p.id as id, p.parameter_name as parameterName from stretchy_parameter p where ifnull(p.special,'') != 'Y' order by p.id";
-
-        }
-
-        @Override
-        public ReportParameterData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
-
-            final Long id = rs.getLong("id");
-            final String parameterName = rs.getString("parameterName");
-
-            return new ReportParameterData(id, null, null, parameterName);
-        }
-    }
-
-}
\ No newline at end of file
+}
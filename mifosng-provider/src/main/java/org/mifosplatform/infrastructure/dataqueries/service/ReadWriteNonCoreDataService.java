@@ -7,6 +7,8 @@ package org.mifosplatform.infrastructure.dataqueries.service;
 
 import java.util.List;
 
+import javax.ws.rs.core.StreamingOutput;
+
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.dataqueries.data.DatatableData;
@@ -27,6 +29,8 @@ public interface ReadWriteNonCoreDataService {
 
     GenericResultsetData retrieveDataTableGenericResultSet(String datatable, Long appTableId, String order, Long id);
 
+    StreamingOutput retrieveDataTableEntries(String datatable, String appTableIds, String sqlSearch, String order);
+
     CommandProcessingResult createDatatable(JsonCommand command);
     
     void updateDatatable(String datatableName, JsonCommand command);
@@ -35,6 +39,8 @@ public interface ReadWriteNonCoreDataService {
 
     CommandProcessingResult createNewDatatableEntry(String datatable, Long appTableId, JsonCommand command);
 
+    CommandProcessingResult createDatatableEntries(String datatable, JsonCommand command);
+
     CommandProcessingResult updateDatatableEntryOneToOne(String datatable, Long appTableId, JsonCommand command);
 
     CommandProcessingResult updateDatatableEntryOneToMany(String datatable, Long appTableId, Long datatableId, JsonCommand command);
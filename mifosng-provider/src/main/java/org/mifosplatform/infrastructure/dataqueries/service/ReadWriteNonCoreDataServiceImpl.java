@@ -5,16 +5,28 @@
  */
 package org.mifosplatform.infrastructure.dataqueries.service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import javax.sql.DataSource;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.commons.lang.StringUtils;
 import org.hibernate.exception.ConstraintViolationException;
@@ -30,6 +42,8 @@ import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityExce
 import org.mifosplatform.infrastructure.core.serialization.DatatableCommandFromApiJsonDeserializer;
 import org.mifosplatform.infrastructure.core.serialization.FromJsonHelper;
 import org.mifosplatform.infrastructure.core.serialization.JsonParserHelper;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataCache;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataType;
 import org.mifosplatform.infrastructure.core.service.TenantAwareRoutingDataSource;
 import org.mifosplatform.infrastructure.dataqueries.data.DatatableData;
 import org.mifosplatform.infrastructure.dataqueries.data.GenericResultsetData;
@@ -38,6 +52,8 @@ import org.mifosplatform.infrastructure.dataqueries.data.ResultsetRowData;
 import org.mifosplatform.infrastructure.dataqueries.exception.DatatableNotFoundException;
 import org.mifosplatform.infrastructure.dataqueries.exception.DatatableSystemErrorException;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.mifosplatform.organisation.office.service.OfficeHierarchyCache;
+import org.mifosplatform.organisation.office.service.OfficeScope;
 import org.mifosplatform.useradministration.domain.AppUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,8 +61,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
-import org.springframework.jdbc.support.rowset.SqlRowSetMetaData;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -80,11 +96,14 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
     private final JsonParserHelper helper;
     private final GenericDataService genericDataService;
     private final DatatableCommandFromApiJsonDeserializer fromApiJsonDeserializer;
+    private final OfficeHierarchyCache officeHierarchyCache;
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
     public ReadWriteNonCoreDataServiceImpl(final TenantAwareRoutingDataSource dataSource, final PlatformSecurityContext context,
             final FromJsonHelper fromJsonHelper, final GenericDataService genericDataService,
-            final DatatableCommandFromApiJsonDeserializer fromApiJsonDeserializer) {
+            final DatatableCommandFromApiJsonDeserializer fromApiJsonDeserializer, final OfficeHierarchyCache officeHierarchyCache,
+            final ReferenceDataCache referenceDataCache) {
         this.dataSource = dataSource;
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
         this.context = context;
@@ -92,6 +111,8 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         this.helper = new JsonParserHelper();
         this.genericDataService = genericDataService;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
+        this.officeHierarchyCache = officeHierarchyCache;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Override
@@ -213,6 +234,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         try {
             String[] sqlArray = { registerDatatableSql, permissionsSql };
             this.jdbcTemplate.batchUpdate(sqlArray);
+            this.referenceDataCache.invalidate(ReferenceDataType.DATATABLE_APPLICATION_TABLES);
 
         } catch (DataIntegrityViolationException dve) {
             Throwable realCause = dve.getMostSpecificCause();
@@ -244,6 +266,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
         String[] sqlArray = { deleteRolePermissionsSql, deletePermissionsSql, deleteRegisteredDatatableSql };
         this.jdbcTemplate.batchUpdate(sqlArray);
+        this.referenceDataCache.invalidate(ReferenceDataType.DATATABLE_APPLICATION_TABLES);
     }
 
     @Transactional
@@ -259,9 +282,11 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
             final Type typeOfMap = new TypeToken<Map<String, String>>() {}.getType();
             final Map<String, String> dataParams = this.fromJsonHelper.extractDataMap(typeOfMap, command.json());
 
-            final String sql = getAddSql(columnHeaders, dataTableName, getFKField(appTable), appTableId, dataParams);
+            final String fkName = getFKField(appTable);
+            final Map<String, String> affectedColumns = getAffectedColumns(columnHeaders, dataParams, fkName);
+            final List<String> columnNames = columnNamesInTableOrder(columnHeaders, affectedColumns.keySet());
 
-            this.jdbcTemplate.update(sql);
+            this.jdbcTemplate.update(getAddSql(dataTableName, fkName, columnNames), getAddParams(appTableId, columnNames, affectedColumns));
 
             return commandProcessingResult; //
 
@@ -289,6 +314,82 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         }
     }
 
+    /**
+     * Creates the entries in the <code>entries</code> array of the command,
+     * each identifying its application table row by the foreign key column of
+     * the datatable, with one JDBC batch per set of columns supplied.
+     */
+    @Transactional
+    @Override
+    public CommandProcessingResult createDatatableEntries(final String dataTableName, final JsonCommand command) {
+
+        final String appTable = queryForApplicationTableName(dataTableName);
+        final String fkName = getFKField(appTable);
+        final List<ResultsetColumnHeaderData> columnHeaders = this.genericDataService.fillResultsetColumnHeaders(dataTableName);
+
+        final JsonElement element = this.fromJsonHelper.parse(command.json());
+        final JsonArray entries = this.fromJsonHelper.extractJsonArrayNamed("entries", element);
+        if (entries == null || entries.size() == 0) {
+            final List<ApiParameterError> dataValidationErrors = new ArrayList<ApiParameterError>();
+            new DataValidatorBuilder(dataValidationErrors).resource("datatable").parameter("entries").value(entries).notBlank();
+            throwExceptionIfValidationWarningsExist(dataValidationErrors);
+        }
+        final String locale = this.fromJsonHelper.extractStringNamed("locale", element);
+        final String dateFormat = this.fromJsonHelper.extractStringNamed("dateFormat", element);
+
+        final Type typeOfMap = new TypeToken<Map<String, String>>() {}.getType();
+        final Map<List<String>, List<Object[]>> batchesByColumns = new LinkedHashMap<List<String>, List<Object[]>>();
+        for (final JsonElement entry : entries) {
+            final Map<String, String> dataParams = this.fromJsonHelper.extractDataMap(typeOfMap, entry.toString());
+            if (!dataParams.containsKey("locale") && locale != null) {
+                dataParams.put("locale", locale);
+            }
+            if (!dataParams.containsKey("dateFormat") && dateFormat != null) {
+                dataParams.put("dateFormat", dateFormat);
+            }
+
+            final String appTableIdValue = dataParams.get(fkName);
+            if (StringUtils.isBlank(appTableIdValue)) { throw new PlatformDataIntegrityException("error.msg.column.mandatory", "Column: "
+                    + fkName + " is mandatory for each entry", fkName); }
+            final Long appTableId = Long.valueOf(appTableIdValue.trim());
+            checkMainResourceExistsWithinScope(appTable, appTableId);
+
+            final Map<String, String> affectedColumns = getAffectedColumns(columnHeaders, dataParams, fkName);
+            final List<String> columnNames = columnNamesInTableOrder(columnHeaders, affectedColumns.keySet());
+
+            List<Object[]> batch = batchesByColumns.get(columnNames);
+            if (batch == null) {
+                batch = new ArrayList<Object[]>();
+                batchesByColumns.put(columnNames, batch);
+            }
+            batch.add(getAddParams(appTableId, columnNames, affectedColumns));
+        }
+
+        try {
+            for (final Map.Entry<List<String>, List<Object[]>> batch : batchesByColumns.entrySet()) {
+                this.jdbcTemplate.batchUpdate(getAddSql(dataTableName, fkName, batch.getKey()), batch.getValue());
+            }
+        } catch (DataAccessException dve) {
+            Throwable realCause = dve.getMostSpecificCause();
+            if (realCause.getMessage().contains("Duplicate entry")) { throw new PlatformDataIntegrityException(
+                    "error.msg.datatable.entry.duplicate", "An entry already exists for datatable `" + dataTableName + "`: "
+                            + realCause.getMessage(), "dataTableName", dataTableName); }
+
+            logAsErrorUnexpectedDataIntegrityException(dve);
+            throw new PlatformDataIntegrityException("error.msg.unknown.data.integrity.issue",
+                    "Unknown data integrity issue with resource.");
+        }
+
+        final Map<String, Object> changes = new LinkedHashMap<String, Object>();
+        changes.put("entriesCreated", Integer.valueOf(entries.size()));
+
+        return new CommandProcessingResultBuilder() //
+                .withCommandId(command.commandId()) //
+                .withResourceIdAsString(dataTableName) //
+                .with(changes) //
+                .build();
+    }
+
     private boolean isRegisteredDataTable(final String name) {
         // PERMITTED datatables
         final String sql = "select if((exists (select 1 from x_registered_table where registered_table_name = ?)) = 1, 'true', 'false')";
@@ -403,6 +504,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
             sqlBuilder = sqlBuilder.append(") ENGINE=InnoDB DEFAULT CHARSET=utf8;");
             this.jdbcTemplate.execute(sqlBuilder.toString());
+            this.referenceDataCache.invalidate(ReferenceDataType.DATATABLE_COLUMNS);
 
             registerDatatable(datatableName, apptableName);
         } catch (SQLGrammarException e) {
@@ -533,6 +635,10 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
             validateDatatableName(datatableName);
 
+            // repeated once the transaction completes, so the definitions
+            // read below before the alterations are not kept
+            this.referenceDataCache.invalidate(ReferenceDataType.DATATABLE_COLUMNS);
+
             List<ResultsetColumnHeaderData> columnHeaderData = this.genericDataService.fillResultsetColumnHeaders(datatableName);
             Map<String, ResultsetColumnHeaderData> mapColumnNameDefinition = new HashMap<String, ResultsetColumnHeaderData>();
             for (ResultsetColumnHeaderData columnHeader : columnHeaderData) {
@@ -650,6 +756,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
             deregisterDatatable(datatableName);
             String sql = "DROP TABLE `" + datatableName + "`";
             this.jdbcTemplate.execute(sql);
+            this.referenceDataCache.invalidate(ReferenceDataType.DATATABLE_COLUMNS);
         } catch (SQLGrammarException e) {
             Throwable realCause = e.getCause();
             List<ApiParameterError> dataValidationErrors = new ArrayList<ApiParameterError>();
@@ -705,10 +812,11 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
             if (datatableId != null) {
                 pkValue = datatableId;
             }
-            final String sql = getUpdateSql(dataTableName, pkName, pkValue, changes);
+            final List<String> columnNames = columnNamesInTableOrder(grs.getColumnHeaders(), changes.keySet());
+            final String sql = getUpdateSql(dataTableName, pkName, columnNames);
             logger.info("Update sql: " + sql);
             if (StringUtils.isNotBlank(sql)) {
-                this.jdbcTemplate.update(sql);
+                this.jdbcTemplate.update(sql, getUpdateParams(columnNames, changes, pkValue));
                 changes.put("locale", dataParams.get("locale"));
                 changes.put("dateFormat", "yyyy-MM-dd");
             } else {
@@ -733,9 +841,9 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         final String appTable = queryForApplicationTableName(dataTableName);
         CommandProcessingResult commandProcessingResult = checkMainResourceExistsWithinScope(appTable, appTableId);
 
-        final String deleteOneToOneEntrySql = getDeleteEntriesSql(dataTableName, getFKField(appTable), appTableId);
+        final String deleteOneToOneEntrySql = getDeleteEntriesSql(dataTableName, getFKField(appTable));
 
-        int rowsDeleted = this.jdbcTemplate.update(deleteOneToOneEntrySql);
+        int rowsDeleted = this.jdbcTemplate.update(deleteOneToOneEntrySql, appTableId);
         if (rowsDeleted < 1) { throw new DatatableNotFoundException(dataTableName, appTableId); }
 
         return commandProcessingResult;
@@ -748,9 +856,9 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         final String appTable = queryForApplicationTableName(dataTableName);
         CommandProcessingResult commandProcessingResult = checkMainResourceExistsWithinScope(appTable, appTableId);
 
-        final String sql = getDeleteEntrySql(dataTableName, datatableId);
+        final String sql = getDeleteEntrySql(dataTableName);
 
-        this.jdbcTemplate.update(sql);
+        this.jdbcTemplate.update(sql, datatableId);
         return commandProcessingResult;
     }
 
@@ -782,6 +890,76 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         return new GenericResultsetData(columnHeaders, result);
     }
 
+    /**
+     * Reads the entries of a datatable for many application table rows with
+     * one query, restricted to rows within the current user's office
+     * hierarchy. Rows are selected by id and/or by an sql filter on the
+     * application table, which is aliased l, s, c, g or o as in
+     * {@link #dataScopedJoinSQL(String, String)}.
+     */
+    @Override
+    public StreamingOutput retrieveDataTableEntries(final String dataTableName, final String appTableIds, final String sqlSearch,
+            final String order) {
+
+        final String appTable = queryForApplicationTableName(dataTableName);
+        final List<ResultsetColumnHeaderData> columnHeaders = this.genericDataService.fillResultsetColumnHeaders(dataTableName);
+
+        final List<Long> ids = new ArrayList<Long>();
+        final List<ApiParameterError> dataValidationErrors = new ArrayList<ApiParameterError>();
+        final DataValidatorBuilder baseDataValidator = new DataValidatorBuilder(dataValidationErrors).resource("datatable");
+        if (StringUtils.isBlank(appTableIds) && StringUtils.isBlank(sqlSearch)) {
+            baseDataValidator.reset().parameter("apptableIds").value(appTableIds).notBlank();
+        } else if (StringUtils.isNotBlank(appTableIds)) {
+            for (final String id : appTableIds.split(",")) {
+                try {
+                    ids.add(Long.valueOf(id.trim()));
+                } catch (final NumberFormatException e) {
+                    baseDataValidator.reset().parameter("apptableIds").value(id).failWithCode("not.a.number");
+                }
+            }
+        }
+        // both are appended to the scoped query as written
+        if (StringUtils.isNotBlank(sqlSearch) && !SqlFragmentValidator.isSafeSearchCondition(sqlSearch)) {
+            baseDataValidator.reset().parameter("sqlSearch").value(sqlSearch).failWithCode("not.a.safe.sql.condition");
+        }
+        if (order != null && !SqlFragmentValidator.isSafeOrderBy(order)) {
+            baseDataValidator.reset().parameter("order").value(order).failWithCode("not.a.safe.sql.order");
+        }
+        throwExceptionIfValidationWarningsExist(dataValidationErrors);
+
+        final StringBuilder sql = new StringBuilder("select d.* from `" + dataTableName + "` d ");
+        sql.append(dataScopedJoinSQL(appTable, getFKField(appTable)));
+        if (!ids.isEmpty()) {
+            sql.append(" and d.`").append(getFKField(appTable)).append("` in (");
+            for (int i = 0; i < ids.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(")");
+        }
+        if (StringUtils.isNotBlank(sqlSearch)) {
+            sql.append(" and (").append(sqlSearch).append(")");
+        }
+        if (order != null) {
+            sql.append(" order by ").append(order);
+        } else {
+            sql.append(" order by d.`").append(getFKField(appTable)).append("`");
+        }
+
+        return new StreamingOutput() {
+
+            @Override
+            public void write(final OutputStream out) {
+                try {
+                    final Writer writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+                    ReadWriteNonCoreDataServiceImpl.this.genericDataService.writeResultset(sql.toString(), ids.toArray(), columnHeaders,
+                            new JsonObjectsResultsetWriter(writer));
+                } catch (final IOException e) {
+                    throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage());
+                }
+            }
+        };
+    }
+
     private GenericResultsetData retrieveDataTableGenericResultSetForUpdate(final String appTable, final String dataTableName,
             final Long appTableId, final Long id) {
 
@@ -842,6 +1020,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
          */
 
         AppUser currentUser = context.authenticatedUser();
+        final OfficeScope scope = this.officeHierarchyCache.scopeOf(currentUser.getOffice().getHierarchy());
         String scopedSQL = null;
         /*
          * m_loan and m_savings_account are connected to an m_office thru either
@@ -850,47 +1029,33 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
          */
         if (appTable.equalsIgnoreCase("m_loan")) {
             scopedSQL = "select  distinctrow x.* from ("
-                    + " (select o.id as officeId, l.group_id as groupId, l.client_id as clientId, null as savingsId, l.id as loanId from m_loan l "
-                    + " join m_client c on c.id = l.client_id "
-                    + " join m_office o on o.id = c.office_id and o.hierarchy like '"
-                    + currentUser.getOffice().getHierarchy()
-                    + "%'"
-                    + " where l.id = "
-                    + appTableId
-                    + ")"
+                    + " (select c.office_id as officeId, l.group_id as groupId, l.client_id as clientId, null as savingsId, l.id as loanId from m_loan l "
+                    + " join m_client c on c.id = l.client_id and " + scope.sqlPredicate("c.office_id") + " where l.id = " + appTableId + ")"
                     + " union all "
-                    + " (select o.id as officeId, l.group_id as groupId, l.client_id as clientId, null as savingsId, l.id as loanId from m_loan l "
-                    + " join m_group g on g.id = l.group_id " + " join m_office o on o.id = g.office_id and o.hierarchy like '"
-                    + currentUser.getOffice().getHierarchy() + "%'" + " where l.id = " + appTableId + ")" + " ) x";
+                    + " (select g.office_id as officeId, l.group_id as groupId, l.client_id as clientId, null as savingsId, l.id as loanId from m_loan l "
+                    + " join m_group g on g.id = l.group_id and " + scope.sqlPredicate("g.office_id") + " where l.id = " + appTableId + ")"
+                    + " ) x";
         }
         if (appTable.equalsIgnoreCase("m_savings_account")) {
             scopedSQL = "select  distinctrow x.* from ("
-                    + " (select o.id as officeId, s.group_id as groupId, s.client_id as clientId, s.id as savingsId, null as loanId from m_savings_account s "
-                    + " join m_client c on c.id = s.client_id "
-                    + " join m_office o on o.id = c.office_id and o.hierarchy like '"
-                    + currentUser.getOffice().getHierarchy()
-                    + "%'"
-                    + " where s.id = "
-                    + appTableId
-                    + ")"
+                    + " (select c.office_id as officeId, s.group_id as groupId, s.client_id as clientId, s.id as savingsId, null as loanId from m_savings_account s "
+                    + " join m_client c on c.id = s.client_id and " + scope.sqlPredicate("c.office_id") + " where s.id = " + appTableId + ")"
                     + " union all "
-                    + " (select o.id as officeId, s.group_id as groupId, s.client_id as clientId, s.id as savingsId, null as loanId from m_savings_account s "
-                    + " join m_group g on g.id = s.group_id " + " join m_office o on o.id = g.office_id and o.hierarchy like '"
-                    + currentUser.getOffice().getHierarchy() + "%'" + " where s.id = " + appTableId + ")" + " ) x";
+                    + " (select g.office_id as officeId, s.group_id as groupId, s.client_id as clientId, s.id as savingsId, null as loanId from m_savings_account s "
+                    + " join m_group g on g.id = s.group_id and " + scope.sqlPredicate("g.office_id") + " where s.id = " + appTableId + ")"
+                    + " ) x";
         }
         if (appTable.equalsIgnoreCase("m_client")) {
-            scopedSQL = "select o.id as officeId, null as groupId, c.id as clientId, null as savingsId, null as loanId from m_client c "
-                    + " join m_office o on o.id = c.office_id and o.hierarchy like '" + currentUser.getOffice().getHierarchy() + "%'"
-                    + " where c.id = " + appTableId;
+            scopedSQL = "select c.office_id as officeId, null as groupId, c.id as clientId, null as savingsId, null as loanId from m_client c "
+                    + " where c.id = " + appTableId + " and " + scope.sqlPredicate("c.office_id");
         }
         if (appTable.equalsIgnoreCase("m_group")) {
-            scopedSQL = "select o.id as officeId, g.id as groupId, null as clientId, null as savingsId, null as loanId from m_group g "
-                    + " join m_office o on o.id = g.office_id and o.hierarchy like '" + currentUser.getOffice().getHierarchy() + "%'"
-                    + " where g.id = " + appTableId;
+            scopedSQL = "select g.office_id as officeId, g.id as groupId, null as clientId, null as savingsId, null as loanId from m_group g "
+                    + " where g.id = " + appTableId + " and " + scope.sqlPredicate("g.office_id");
         }
         if (appTable.equalsIgnoreCase("m_office")) {
             scopedSQL = "select o.id as officeId, null as groupId, null as clientId, null as savingsId, null as loanId from m_office o "
-                    + " where o.hierarchy like '" + currentUser.getOffice().getHierarchy() + "%'" + " and o.id = " + appTableId;
+                    + " where o.id = " + appTableId + " and " + scope.sqlPredicate("o.id");
         }
 
         if (scopedSQL == null) { throw new PlatformDataIntegrityException("error.msg.invalid.dataScopeCriteria", "Application Table: "
@@ -900,6 +1065,33 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
     }
 
+    /**
+     * The joins from a datatable aliased <code>d</code> to its application
+     * table and the offices the current user can see, followed by a where
+     * clause that further criteria can be appended to with <code>and</code>.
+     */
+    private String dataScopedJoinSQL(final String appTable, final String fkField) {
+
+        AppUser currentUser = context.authenticatedUser();
+        final OfficeScope scope = this.officeHierarchyCache.scopeOf(currentUser.getOffice().getHierarchy());
+
+        if (appTable.equalsIgnoreCase("m_loan")) { return " join m_loan l on l.id = d.`" + fkField + "`"
+                + " left join m_client c on c.id = l.client_id left join m_group g on g.id = l.group_id" + " where ("
+                + scope.sqlPredicate("c.office_id") + " or " + scope.sqlPredicate("g.office_id") + ")"; }
+        if (appTable.equalsIgnoreCase("m_savings_account")) { return " join m_savings_account s on s.id = d.`" + fkField + "`"
+                + " left join m_client c on c.id = s.client_id left join m_group g on g.id = s.group_id" + " where ("
+                + scope.sqlPredicate("c.office_id") + " or " + scope.sqlPredicate("g.office_id") + ")"; }
+        if (appTable.equalsIgnoreCase("m_client")) { return " join m_client c on c.id = d.`" + fkField + "`" + " where "
+                + scope.sqlPredicate("c.office_id"); }
+        if (appTable.equalsIgnoreCase("m_group")) { return " join m_group g on g.id = d.`" + fkField + "`" + " where "
+                + scope.sqlPredicate("g.office_id"); }
+        if (appTable.equalsIgnoreCase("m_office")) { return " join m_office o on o.id = d.`" + fkField + "`" + " where "
+                + scope.sqlPredicate("o.id"); }
+
+        throw new PlatformDataIntegrityException("error.msg.invalid.dataScopeCriteria", "Application Table: " + appTable
+                + " not catered for in data Scoping");
+    }
+
     private void validateAppTable(final String appTable) {
 
         if (appTable.equalsIgnoreCase("m_loan")) return;
@@ -913,40 +1105,38 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
     private List<ResultsetRowData> fillDatatableResultSetDataRows(final String sql) {
 
-        final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(sql);
-
-        final List<ResultsetRowData> resultsetDataRows = new ArrayList<ResultsetRowData>();
+        return this.jdbcTemplate.query(sql, new RowMapper<ResultsetRowData>() {
 
-        final SqlRowSetMetaData rsmd = rs.getMetaData();
-
-        while (rs.next()) {
-            final List<String> columnValues = new ArrayList<String>();
-            for (int i = 0; i < rsmd.getColumnCount(); i++) {
-                final String columnName = rsmd.getColumnName(i + 1);
-                final String columnValue = rs.getString(columnName);
-                columnValues.add(columnValue);
+            @Override
+            public ResultsetRowData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+                final int columnCount = rs.getMetaData().getColumnCount();
+                final List<String> columnValues = new ArrayList<String>(columnCount);
+                for (int i = 0; i < columnCount; i++) {
+                    columnValues.add(rs.getString(i + 1));
+                }
+                return ResultsetRowData.create(columnValues);
             }
-
-            final ResultsetRowData resultsetDataRow = ResultsetRowData.create(columnValues);
-            resultsetDataRows.add(resultsetDataRow);
-        }
-
-        return resultsetDataRows;
+        });
     }
 
     private String queryForApplicationTableName(final String datatable) {
-        final String sql = "SELECT application_table_name FROM x_registered_table where registered_table_name = '" + datatable + "'";
 
-        final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(sql);
+        final Collection<String> applicationTableNames = this.referenceDataCache.retrieve(
+                ReferenceDataType.DATATABLE_APPLICATION_TABLES, datatable, new Callable<Collection<String>>() {
 
-        String applicationTableName = null;
-        if (rs.next()) {
-            applicationTableName = rs.getString("application_table_name");
-        } else {
-            throw new DatatableNotFoundException(datatable);
-        }
+                    @Override
+                    public Collection<String> call() {
+                        final String sql = "SELECT application_table_name FROM x_registered_table where registered_table_name = '"
+                                + datatable + "'";
 
-        return applicationTableName;
+                        final SqlRowSet rs = ReadWriteNonCoreDataServiceImpl.this.jdbcTemplate.queryForRowSet(sql);
+                        if (!rs.next()) { throw new DatatableNotFoundException(datatable); }
+
+                        return Collections.singletonList(rs.getString("application_table_name"));
+                    }
+                });
+
+        return applicationTableNames.iterator().next();
     }
 
     private String getFKField(final String applicationTableName) {
@@ -954,40 +1144,44 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         return applicationTableName.substring(2) + "_id";
     }
 
-    private String getAddSql(final List<ResultsetColumnHeaderData> columnHeaders, final String datatable, final String fkName,
-            final Long appTableId, final Map<String, String> queryParams) {
-
-        final Map<String, String> affectedColumns = getAffectedColumns(columnHeaders, queryParams, fkName);
-
-        String pValueWrite = "";
-        String addSql = "";
-        String singleQuote = "'";
+    /**
+     * The names of the given columns in the order they appear in the
+     * datatable, so statements for the same set of columns are identical and
+     * can be reused.
+     */
+    private List<String> columnNamesInTableOrder(final List<ResultsetColumnHeaderData> columnHeaders, final Set<String> columns) {
+        final List<String> columnNames = new ArrayList<String>(columns.size());
+        for (final ResultsetColumnHeaderData columnHeader : columnHeaders) {
+            if (columns.contains(columnHeader.getColumnName())) {
+                columnNames.add(columnHeader.getColumnName());
+            }
+        }
+        return columnNames;
+    }
 
-        String insertColumns = "";
-        String selectColumns = "";
-        String columnName = "";
-        String pValue = null;
-        for (String key : affectedColumns.keySet()) {
-            pValue = affectedColumns.get(key);
+    private String getAddSql(final String datatable, final String fkName, final List<String> columnNames) {
 
-            if (StringUtils.isEmpty(pValue)) {
-                pValueWrite = "null";
-            } else {
-                pValueWrite = singleQuote + genericDataService.replace(pValue, singleQuote, singleQuote + singleQuote) + singleQuote;
-            }
-            columnName = "`" + key + "`";
-            insertColumns += ", " + columnName;
-            selectColumns += "," + pValueWrite + " as " + columnName;
+        final StringBuilder insertColumns = new StringBuilder("`" + fkName + "`");
+        final StringBuilder values = new StringBuilder("?");
+        for (final String columnName : columnNames) {
+            insertColumns.append(", `").append(columnName).append('`');
+            values.append(", ?");
         }
 
-        addSql = "insert into `" + datatable + "` (`" + fkName + "` " + insertColumns + ")" + " select " + appTableId + " as id"
-                + selectColumns;
+        return "insert into `" + datatable + "` (" + insertColumns + ") values (" + values + ")";
+    }
+
+    private Object[] getAddParams(final Long appTableId, final List<String> columnNames, final Map<String, String> affectedColumns) {
 
-        return addSql;
+        final Object[] params = new Object[columnNames.size() + 1];
+        params[0] = appTableId;
+        for (int i = 0; i < columnNames.size(); i++) {
+            params[i + 1] = columnValueToWrite(affectedColumns.get(columnNames.get(i)));
+        }
+        return params;
     }
 
-    private String getUpdateSql(final String datatable, final String keyFieldName, final Long keyFieldValue,
-            final Map<String, Object> changedColumns) {
+    private String getUpdateSql(final String datatable, final String keyFieldName, final List<String> columnNames) {
 
         // just updating fields that have changed since pre-update read - though
         // its possible these values are different from the page the user was
@@ -996,34 +1190,33 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         // completeness but its okay to take this risk with additional fields
         // data
 
-        if (changedColumns.size() == 0) return null;
-
-        String pValue = null;
-        String pValueWrite = "";
-        String singleQuote = "'";
-        boolean firstColumn = true;
-        String sql = "update `" + datatable + "` ";
-
-        for (String key : changedColumns.keySet()) {
-            if (firstColumn) {
-                sql += " set ";
-                firstColumn = false;
-            } else {
-                sql += ", ";
-            }
+        if (columnNames.isEmpty()) return null;
 
-            pValue = (String) changedColumns.get(key);
-            if (StringUtils.isEmpty(pValue)) {
-                pValueWrite = "null";
-            } else {
-                pValueWrite = singleQuote + genericDataService.replace(pValue, singleQuote, singleQuote + singleQuote) + singleQuote;
+        final StringBuilder sql = new StringBuilder("update `" + datatable + "` set ");
+        for (int i = 0; i < columnNames.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
             }
-            sql += "`" + key + "` = " + pValueWrite;
+            sql.append('`').append(columnNames.get(i)).append("` = ?");
         }
+        sql.append(" where `").append(keyFieldName).append("` = ?");
+
+        return sql.toString();
+    }
 
-        sql += " where " + keyFieldName + " = " + keyFieldValue;
+    private Object[] getUpdateParams(final List<String> columnNames, final Map<String, Object> changedColumns, final Long keyFieldValue) {
+
+        final Object[] params = new Object[columnNames.size() + 1];
+        for (int i = 0; i < columnNames.size(); i++) {
+            params[i] = columnValueToWrite((String) changedColumns.get(columnNames.get(i)));
+        }
+        params[columnNames.size()] = keyFieldValue;
+        return params;
+    }
 
-        return sql;
+    private String columnValueToWrite(final String pValue) {
+        if (StringUtils.isEmpty(pValue)) { return null; }
+        return pValue;
     }
 
     private Map<String, Object> getAffectedAndChangedColumns(final GenericResultsetData grs, final Map<String, String> queryParams,
@@ -1189,15 +1382,15 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         return paramValue;
     }
 
-    private String getDeleteEntriesSql(final String datatable, final String FKField, final Long appTableId) {
+    private String getDeleteEntriesSql(final String datatable, final String FKField) {
 
-        return "delete from `" + datatable + "` where `" + FKField + "` = " + appTableId;
+        return "delete from `" + datatable + "` where `" + FKField + "` = ?";
 
     }
 
-    private String getDeleteEntrySql(final String datatable, final Long datatableId) {
+    private String getDeleteEntrySql(final String datatable) {
 
-        return "delete from `" + datatable + "` where `id` = " + datatableId;
+        return "delete from `" + datatable + "` where `id` = ?";
 
     }
 
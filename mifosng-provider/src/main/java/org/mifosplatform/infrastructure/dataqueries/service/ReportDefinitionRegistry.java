@@ -0,0 +1,300 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.TenantAwareRoutingDataSource;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.dataqueries.data.ReportParameterData;
+import org.mifosplatform.infrastructure.dataqueries.data.ReportParameterJoinData;
+import org.mifosplatform.infrastructure.dataqueries.exception.ReportNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Holds each tenant's stretchy report and parameter definitions, with their
+ * sql compiled into {@link SqlTemplate}s, so running or listing reports does
+ * not read <code>stretchy_report</code> or <code>stretchy_parameter</code>.
+ * 
+ * A tenant's definitions are loaded together on first use and dropped by
+ * {@link #invalidate()} when a report is written; as in
+ * <code>ReferenceDataCache</code>, definitions loaded while an invalidation
+ * was in progress are never kept.
+ */
+@Service
+@ManagedResource(objectName = "org.mifosplatform:type=ReportDefinitionRegistry", description = "Stretchy report definition registry")
+public class ReportDefinitionRegistry {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentMap<Long, TenantDefinitions> definitionsByTenant = new ConcurrentHashMap<Long, TenantDefinitions>();
+    // bumped by every invalidation of a tenant
+    private final ConcurrentMap<Long, AtomicLong> versionsByTenant = new ConcurrentHashMap<Long, AtomicLong>();
+    private final AtomicLong loads = new AtomicLong();
+
+    @Autowired
+    public ReportDefinitionRegistry(final TenantAwareRoutingDataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public ReportDefinition reportNamed(final String reportName) {
+        final ReportDefinition report = definitionsForCurrentTenant().reportsByName.get(nameKey(reportName));
+        if (report == null) { throw new ReportNotFoundException("report_name = '" + reportName + "'"); }
+        return report;
+    }
+
+    public SqlTemplate parameterSqlNamed(final String parameterName) {
+        final SqlTemplate parameterSql = definitionsForCurrentTenant().parameterSqlByName.get(nameKey(parameterName));
+        if (parameterSql == null) { throw new ReportNotFoundException("parameter_name = '" + parameterName + "'"); }
+        return parameterSql;
+    }
+
+    /**
+     * Every report joined to its parameters, ordered by report then
+     * parameter, including the report sql.
+     */
+    public List<ReportParameterJoinData> reportParameterJoins() {
+        return definitionsForCurrentTenant().reportParameterJoins;
+    }
+
+    /**
+     * The parameters that may be added to a report.
+     */
+    public List<ReportParameterData> allowedParameters() {
+        return definitionsForCurrentTenant().allowedParameters;
+    }
+
+    /**
+     * Drops the current tenant's definitions, again once the current
+     * transaction completes.
+     */
+    public void invalidate() {
+        final Long tenantId = currentTenantId();
+        drop(tenantId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    drop(tenantId);
+                }
+            });
+        }
+    }
+
+    @ManagedOperation(description = "Drops the report definitions of all tenants")
+    public void clear() {
+        for (final Long tenantId : this.definitionsByTenant.keySet()) {
+            drop(tenantId);
+        }
+    }
+
+    @ManagedAttribute(description = "Number of times a tenant's report definitions were loaded")
+    public long getLoads() {
+        return this.loads.get();
+    }
+
+    private TenantDefinitions definitionsForCurrentTenant() {
+        final Long tenantId = currentTenantId();
+
+        final TenantDefinitions cached = this.definitionsByTenant.get(tenantId);
+        if (cached != null) { return cached; }
+
+        final AtomicLong version = versionOf(tenantId);
+        final long versionBeforeLoad = version.get();
+        final TenantDefinitions loaded = load();
+        synchronized (version) {
+            if (version.get() != versionBeforeLoad) { return loaded; }
+            final TenantDefinitions raced = this.definitionsByTenant.putIfAbsent(tenantId, loaded);
+            return raced == null ? loaded : raced;
+        }
+    }
+
+    private void drop(final Long tenantId) {
+        final AtomicLong version = versionOf(tenantId);
+        synchronized (version) {
+            version.incrementAndGet();
+            this.definitionsByTenant.remove(tenantId);
+        }
+    }
+
+    private AtomicLong versionOf(final Long tenantId) {
+        AtomicLong version = this.versionsByTenant.get(tenantId);
+        if (version == null) {
+            final AtomicLong newVersion = new AtomicLong();
+            version = this.versionsByTenant.putIfAbsent(tenantId, newVersion);
+            if (version == null) {
+                version = newVersion;
+            }
+        }
+        return version;
+    }
+
+    private TenantDefinitions load() {
+        this.loads.incrementAndGet();
+
+        final ReportParameterJoinMapper joinMapper = new ReportParameterJoinMapper();
+        final List<ReportParameterJoinData> reportParameterJoins = this.jdbcTemplate.query(joinMapper.schema(), joinMapper);
+
+        final Map<String, ReportDefinition> reportsByName = new TreeMap<String, ReportDefinition>(String.CASE_INSENSITIVE_ORDER);
+        for (final ReportParameterJoinData join : reportParameterJoins) {
+            final String reportKey = nameKey(join.getReportName());
+            if (!reportsByName.containsKey(reportKey)) {
+                final SqlTemplate reportSql = join.getReportSql() == null ? null : SqlTemplate.compile(join.getReportSql());
+                final int cacheTtlSeconds = join.getCacheTtlSeconds() == null ? 0 : join.getCacheTtlSeconds();
+                reportsByName.put(reportKey, new ReportDefinition(join.getReportType(), reportSql, cacheTtlSeconds));
+            }
+        }
+
+        final Map<String, SqlTemplate> parameterSqlByName = new TreeMap<String, SqlTemplate>(String.CASE_INSENSITIVE_ORDER);
+        final List<ReportParameterData> allowedParameters = new ArrayList<ReportParameterData>();
+        this.jdbcTemplate.query("select p.id as id, p.parameter_name as parameterName, p.parameter_sql as parameterSql, "
+                + "ifnull(p.special,'') as special from stretchy_parameter p order by p.id", new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final Long id = rs.getLong("id");
+                final String parameterName = rs.getString("parameterName");
+                final String parameterSql = rs.getString("parameterSql");
+
+                if (parameterSql != null && !parameterSqlByName.containsKey(nameKey(parameterName))) {
+                    parameterSqlByName.put(nameKey(parameterName), SqlTemplate.compile(parameterSql));
+                }
+                if (!"Y".equals(rs.getString("special"))) {
+                    allowedParameters.add(new ReportParameterData(id, null, null, parameterName));
+                }
+            }
+        });
+
+        return new TenantDefinitions(reportsByName, parameterSqlByName, Collections.unmodifiableList(reportParameterJoins),
+                Collections.unmodifiableList(allowedParameters));
+    }
+
+    /**
+     * Names are matched as the <code>report_name</code> and
+     * <code>parameter_name</code> lookups against mysql did: ignoring case
+     * (together with the case insensitive maps) and trailing spaces.
+     */
+    private static String nameKey(final String name) {
+        if (name == null) { return ""; }
+        int end = name.length();
+        while (end > 0 && name.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return name.substring(0, end);
+    }
+
+    private static Long currentTenantId() {
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        return tenant == null ? Long.valueOf(0) : tenant.getId();
+    }
+
+    /**
+     * What is needed to run a stretchy report.
+     */
+    public static final class ReportDefinition {
+
+        private final String reportType;
+        private final SqlTemplate reportSql;
+        private final int cacheTtlSeconds;
+
+        ReportDefinition(final String reportType, final SqlTemplate reportSql, final int cacheTtlSeconds) {
+            this.reportType = reportType == null ? "" : reportType;
+            this.reportSql = reportSql;
+            this.cacheTtlSeconds = cacheTtlSeconds;
+        }
+
+        public String reportType() {
+            return this.reportType;
+        }
+
+        /**
+         * Null for reports without sql, such as Pentaho reports.
+         */
+        public SqlTemplate reportSql() {
+            return this.reportSql;
+        }
+
+        /**
+         * Zero when results are not cached.
+         */
+        public int cacheTtlSeconds() {
+            return this.cacheTtlSeconds;
+        }
+    }
+
+    private static final class TenantDefinitions {
+
+        private final Map<String, ReportDefinition> reportsByName;
+        private final Map<String, SqlTemplate> parameterSqlByName;
+        private final List<ReportParameterJoinData> reportParameterJoins;
+        private final List<ReportParameterData> allowedParameters;
+
+        TenantDefinitions(final Map<String, ReportDefinition> reportsByName, final Map<String, SqlTemplate> parameterSqlByName,
+                final List<ReportParameterJoinData> reportParameterJoins, final List<ReportParameterData> allowedParameters) {
+            this.reportsByName = reportsByName;
+            this.parameterSqlByName = parameterSqlByName;
+            this.reportParameterJoins = reportParameterJoins;
+            this.allowedParameters = allowedParameters;
+        }
+    }
+
+    private static final class ReportParameterJoinMapper implements RowMapper<ReportParameterJoinData> {
+
+        public String schema() {
+
+            return "select r.id as reportId, r.report_name as reportName, r.report_type as reportType, "
+                    + " r.report_subtype as reportSubType, r.report_category as reportCategory, r.description, r.core_report as coreReport, r.use_report as useReport, "
+                    + " r.cache_ttl_seconds as cacheTtlSeconds, r.report_sql as reportSql, "
+                    + " rp.id as reportParameterId, rp.parameter_id as parameterId, rp.report_parameter_name as reportParameterName, p.parameter_name as parameterName"
+                    + " from stretchy_report r" + " left join stretchy_report_parameter rp on rp.report_id = r.id"
+                    + " left join stretchy_parameter p on p.id = rp.parameter_id" + " order by r.id, rp.parameter_id";
+        }
+
+        @Override
+        public ReportParameterJoinData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+
+            final Long reportId = rs.getLong("reportId");
+            final String reportName = rs.getString("reportName");
+            final String reportType = rs.getString("reportType");
+            final String reportSubType = rs.getString("reportSubType");
+            final String reportCategory = rs.getString("reportCategory");
+            final String description = rs.getString("description");
+            final Boolean coreReport = rs.getBoolean("coreReport");
+            final Boolean useReport = rs.getBoolean("useReport");
+            final Integer cacheTtlSeconds = JdbcSupport.getInteger(rs, "cacheTtlSeconds");
+            final String reportSql = rs.getString("reportSql");
+
+            final Long reportParameterId = JdbcSupport.getLong(rs, "reportParameterId");
+            final Long parameterId = JdbcSupport.getLong(rs, "parameterId");
+            final String reportParameterName = rs.getString("reportParameterName");
+            final String parameterName = rs.getString("parameterName");
+
+            return new ReportParameterJoinData(reportId, reportName, reportType, reportSubType, reportCategory, description, reportSql,
+                    coreReport, useReport, cacheTtlSeconds, reportParameterId, parameterId, reportParameterName, parameterName);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.io.File;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.joda.time.DateTime;
+import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.mifosplatform.infrastructure.core.service.TenantAwareRoutingDataSource;
+import org.mifosplatform.infrastructure.dataqueries.data.ReportJobData;
+import org.mifosplatform.infrastructure.dataqueries.domain.ReportJobOutputType;
+import org.mifosplatform.infrastructure.dataqueries.domain.ReportJobStatus;
+import org.mifosplatform.infrastructure.dataqueries.exception.ReportJobNotFoundException;
+import org.mifosplatform.infrastructure.documentmanagement.data.FileData;
+import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.mifosplatform.useradministration.domain.AppUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ReportJobReadPlatformServiceImpl implements ReportJobReadPlatformService {
+
+    private final PlatformSecurityContext context;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ReportJobReadPlatformServiceImpl(final PlatformSecurityContext context, final TenantAwareRoutingDataSource dataSource) {
+        this.context = context;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public ReportJobData retrieveReportJob(final Long jobId) {
+        return retrieveOwnedJob(jobId, new ReportJobMapper());
+    }
+
+    @Override
+    public FileData retrieveReportJobOutput(final Long jobId) {
+        final ReportJobOutputMapper mapper = new ReportJobOutputMapper();
+        final FileData fileData = retrieveOwnedJob(jobId, mapper);
+        if (fileData == null) { throw new PlatformDataIntegrityException("error.msg.report.job.output.not.available",
+                "Output of report job " + jobId + " is not available", jobId); }
+        return fileData;
+    }
+
+    /**
+     * Jobs are only visible to the user who submitted them.
+     */
+    private <T> T retrieveOwnedJob(final Long jobId, final RowMapper<T> rowMapper) {
+        final AppUser currentUser = this.context.authenticatedUser();
+        try {
+            final String sql = "select " + ReportJobMapper.SCHEMA + " from m_report_job j where j.id = ? and j.submitted_by_appuser_id = ?";
+            return this.jdbcTemplate.queryForObject(sql, rowMapper, new Object[] { jobId, currentUser.getId() });
+        } catch (final EmptyResultDataAccessException e) {
+            throw new ReportJobNotFoundException(jobId);
+        }
+    }
+
+    private static final class ReportJobMapper implements RowMapper<ReportJobData> {
+
+        static final String SCHEMA = "j.id as id, j.report_name as reportName, j.output_type as outputType, j.status as status, "
+                + "j.submitted_date as submittedDate, j.started_date as startedDate, j.completed_date as completedDate, "
+                + "j.duration_ms as durationInMillis, j.row_count as rowCount, j.output_bytes as outputBytes, "
+                + "j.output_location as outputLocation, j.error_message as errorMessage";
+
+        @Override
+        public ReportJobData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final Long id = JdbcSupport.getLong(rs, "id");
+            final String reportName = rs.getString("reportName");
+            final String outputType = rs.getString("outputType");
+            final String status = rs.getString("status");
+            final DateTime submittedDate = JdbcSupport.getDateTime(rs, "submittedDate");
+            final DateTime startedDate = JdbcSupport.getDateTime(rs, "startedDate");
+            final DateTime completedDate = JdbcSupport.getDateTime(rs, "completedDate");
+            final Long durationInMillis = JdbcSupport.getLong(rs, "durationInMillis");
+            final Long rowCount = JdbcSupport.getLong(rs, "rowCount");
+            final Long outputBytes = JdbcSupport.getLong(rs, "outputBytes");
+            final String errorMessage = rs.getString("errorMessage");
+
+            return new ReportJobData(id, reportName, outputType, status, submittedDate, startedDate, completedDate, durationInMillis,
+                    rowCount, outputBytes, errorMessage);
+        }
+    }
+
+    /**
+     * Maps a job to its output file, or to null while the job has not
+     * completed.
+     */
+    private static final class ReportJobOutputMapper implements RowMapper<FileData> {
+
+        @Override
+        public FileData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final ReportJobStatus status = ReportJobStatus.valueOf(rs.getString("status"));
+            final String outputLocation = rs.getString("outputLocation");
+            if (!status.isCompleted() || outputLocation == null) { return null; }
+
+            final File file = new File(outputLocation);
+            if (!file.exists()) { return null; }
+
+            return new FileData(file, file.getName(), ReportJobOutputType.fromCode(rs.getString("outputType")).contentType());
+        }
+    }
+}
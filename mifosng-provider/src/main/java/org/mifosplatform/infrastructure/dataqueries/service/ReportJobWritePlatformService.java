@@ -0,0 +1,26 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs reports in the background and keeps their output for later download
+ * through {@link ReportJobReadPlatformService}.
+ */
+public interface ReportJobWritePlatformService {
+
+    /**
+     * Queues a report run and returns the identifier of its job straight
+     * away.
+     * 
+     * @param queryParams
+     *            report parameters, keyed as expected by
+     *            {@link ReadReportingService} for the report's type
+     */
+    Long submitReportJob(String reportName, String outputType, Map<String, String> queryParams, Locale locale);
+}
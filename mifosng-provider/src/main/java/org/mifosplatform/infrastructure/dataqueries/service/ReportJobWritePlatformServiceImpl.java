@@ -0,0 +1,406 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.lang.StringUtils;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.mifosplatform.infrastructure.core.service.TenantAwareRoutingDataSource;
+import org.mifosplatform.infrastructure.core.service.TenantDatabaseUpgradeService;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.dataqueries.domain.ReportJobOutputType;
+import org.mifosplatform.infrastructure.dataqueries.domain.ReportJobStatus;
+import org.mifosplatform.infrastructure.documentmanagement.contentrepository.FileSystemContentRepository;
+import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.mifosplatform.infrastructure.security.service.TenantDetailsService;
+import org.mifosplatform.useradministration.domain.AppUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Report jobs share a small pool of worker threads. Each tenant may only have
+ * a few jobs running at once; further jobs wait in the tenant's own queue and
+ * are handed to the pool as its running jobs finish, so one tenant's backlog
+ * never holds up another tenant's reports.
+ * 
+ * Queues are held in memory only, so jobs left queued or running by an earlier
+ * run of the application are marked failed on startup.
+ */
+@Service
+public class ReportJobWritePlatformServiceImpl implements ReportJobWritePlatformService, DisposableBean {
+
+    private final static Logger logger = LoggerFactory.getLogger(ReportJobWritePlatformServiceImpl.class);
+
+    private static final int WORKER_THREADS = 4;
+    private static final int MAX_RUNNING_JOBS_PER_TENANT = 2;
+    private static final int MAX_QUEUED_JOBS_PER_TENANT = 50;
+    private static final long PROGRESS_INTERVAL_BYTES = 1024 * 1024;
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+
+    private final PlatformSecurityContext context;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadReportingService readReportingService;
+    private final TenantDetailsService tenantDetailsService;
+    private final ExecutorService workers;
+    private final Map<Long, TenantJobQueue> queuesByTenant = new HashMap<Long, TenantJobQueue>();
+
+    /**
+     * The upgrade service is only a dependency so tenant schemas are migrated
+     * before orphaned jobs are looked for.
+     */
+    @Autowired
+    public ReportJobWritePlatformServiceImpl(final PlatformSecurityContext context, final TenantAwareRoutingDataSource dataSource,
+            final ReadReportingService readReportingService, final TenantDetailsService tenantDetailsService,
+            @SuppressWarnings("unused") final TenantDatabaseUpgradeService tenantDatabaseUpgradeService) {
+        this.context = context;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.readReportingService = readReportingService;
+        this.tenantDetailsService = tenantDetailsService;
+        this.workers = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ReportJobThreadFactory());
+    }
+
+    @PostConstruct
+    public void failOrphanedJobs() {
+        final List<MifosPlatformTenant> tenants = this.tenantDetailsService.findAllTenants();
+        for (final MifosPlatformTenant tenant : tenants) {
+            ThreadLocalContextUtil.setTenant(tenant);
+            try {
+                final int orphanedJobs = this.jdbcTemplate.update("update m_report_job set status = ?, completed_date = ?, "
+                        + "error_message = ? where status in (?, ?)", ReportJobStatus.FAILED.name(), new Date(),
+                        "The report job was interrupted by a server restart", ReportJobStatus.QUEUED.name(),
+                        ReportJobStatus.RUNNING.name());
+                if (orphanedJobs > 0) {
+                    logger.warn(tenant.getName() + ": " + orphanedJobs + " report jobs interrupted by a restart marked as failed");
+                }
+            } catch (final DataAccessException e) {
+                logger.warn(tenant.getName() + ": Could not mark interrupted report jobs as failed", e);
+            } finally {
+                ThreadLocalContextUtil.clearTenant();
+            }
+        }
+    }
+
+    @Override
+    public Long submitReportJob(final String reportName, final String outputTypeParam, final Map<String, String> queryParams,
+            final Locale locale) {
+
+        final AppUser currentUser = this.context.authenticatedUser();
+
+        final boolean isPentaho = "Pentaho".equalsIgnoreCase(this.readReportingService.getReportType(reportName));
+        final ReportJobOutputType outputType = resolveOutputType(outputTypeParam, isPentaho);
+
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final TenantJobQueue queue = queueFor(tenant);
+        if (queue.isFull()) { throw new PlatformDataIntegrityException("error.msg.reporting.job.queue.full",
+                "Too many report jobs are waiting to run, try again later"); }
+
+        // not transactional: the row must be visible to the worker that picks
+        // the job up
+        final Long jobId = insertJob(reportName, outputType, currentUser.getId());
+
+        queue.submit(new ReportJob(jobId, reportName, outputType, isPentaho, new HashMap<String, String>(queryParams), locale, tenant,
+                SecurityContextHolder.getContext()));
+
+        return jobId;
+    }
+
+    @Override
+    public void destroy() {
+        this.workers.shutdownNow();
+    }
+
+    private ReportJobOutputType resolveOutputType(final String outputTypeParam, final boolean isPentaho) {
+        if (StringUtils.isBlank(outputTypeParam)) { return isPentaho ? ReportJobOutputType.HTML : ReportJobOutputType.CSV; }
+
+        final ReportJobOutputType outputType = ReportJobOutputType.fromCode(outputTypeParam);
+        if (!isPentaho && outputType != ReportJobOutputType.CSV && outputType != ReportJobOutputType.PDF) { throw new PlatformDataIntegrityException(
+                "error.msg.invalid.outputType", "No matching Output Type: " + outputTypeParam, outputTypeParam); }
+        return outputType;
+    }
+
+    private TenantJobQueue queueFor(final MifosPlatformTenant tenant) {
+        final Long tenantId = tenant == null ? Long.valueOf(0) : tenant.getId();
+        synchronized (this.queuesByTenant) {
+            TenantJobQueue queue = this.queuesByTenant.get(tenantId);
+            if (queue == null) {
+                queue = new TenantJobQueue();
+                this.queuesByTenant.put(tenantId, queue);
+            }
+            return queue;
+        }
+    }
+
+    private Long insertJob(final String reportName, final ReportJobOutputType outputType, final Long appUserId) {
+        final KeyHolder keyHolder = new GeneratedKeyHolder();
+        this.jdbcTemplate.update(new PreparedStatementCreator() {
+
+            @Override
+            public PreparedStatement createPreparedStatement(final Connection connection) throws SQLException {
+                final PreparedStatement ps = connection.prepareStatement(
+                        "insert into m_report_job (report_name, output_type, status, submitted_by_appuser_id, submitted_date) "
+                                + "values (?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+                ps.setString(1, reportName);
+                ps.setString(2, outputType.name());
+                ps.setString(3, ReportJobStatus.QUEUED.name());
+                ps.setLong(4, appUserId);
+                ps.setTimestamp(5, new Timestamp(System.currentTimeMillis()));
+                return ps;
+            }
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    private void failRejectedJob(final ReportJob job) {
+        logger.error("Report job " + job.id + " (" + job.reportName + ") could not be started as the worker pool is shut down");
+        try {
+            this.jdbcTemplate.update("update m_report_job set status = ?, completed_date = ?, error_message = ? where id = ?",
+                    ReportJobStatus.FAILED.name(), new Date(), "The report job could not be started", job.id);
+        } catch (final DataAccessException e) {
+            logger.warn("Could not mark report job " + job.id + " as failed", e);
+        }
+    }
+
+    private void runJob(final ReportJob job) {
+
+        final long startTime = System.currentTimeMillis();
+        this.jdbcTemplate.update("update m_report_job set status = ?, started_date = ? where id = ?", ReportJobStatus.RUNNING.name(),
+                new Date(startTime), job.id);
+
+        final File outputFile = outputFileFor(job);
+        CountingOutputStream out = null;
+        try {
+            outputFile.getParentFile().mkdirs();
+            out = new CountingOutputStream(job.id, new BufferedOutputStream(new FileOutputStream(outputFile)));
+
+            final Long rowCount = writeReport(job, out);
+            out.close();
+
+            final long completedTime = System.currentTimeMillis();
+            this.jdbcTemplate.update("update m_report_job set status = ?, completed_date = ?, duration_ms = ?, row_count = ?, "
+                    + "output_bytes = ?, output_location = ? where id = ?", ReportJobStatus.COMPLETED.name(), new Date(completedTime),
+                    completedTime - startTime, rowCount, out.bytesWritten(), outputFile.getAbsolutePath(), job.id);
+
+            logger.info("Report job " + job.id + " (" + job.reportName + ") completed in " + (completedTime - startTime) + "ms, "
+                    + out.bytesWritten() + " bytes");
+        } catch (final Exception e) {
+            logger.error("Report job " + job.id + " (" + job.reportName + ") failed", e);
+            closeQuietly(out);
+            outputFile.delete();
+
+            final long completedTime = System.currentTimeMillis();
+            this.jdbcTemplate.update("update m_report_job set status = ?, completed_date = ?, duration_ms = ?, error_message = ? "
+                    + "where id = ?", ReportJobStatus.FAILED.name(), new Date(completedTime), completedTime - startTime,
+                    StringUtils.left(errorMessageOf(e), MAX_ERROR_MESSAGE_LENGTH), job.id);
+        }
+    }
+
+    /**
+     * Returns the number of rows written, or null when the report engine does
+     * not expose it.
+     */
+    private Long writeReport(final ReportJob job, final OutputStream out) throws IOException {
+        if (job.isPentaho) {
+            this.readReportingService.writePentahoReport(job.reportName, job.outputType.name(), job.queryParams, job.locale, out);
+            return null;
+        }
+        if (job.outputType == ReportJobOutputType.PDF) { return this.readReportingService.writeReportPDF(job.reportName, "report",
+                job.queryParams, out); }
+        return this.readReportingService.writeReportCSV(job.reportName, "report", job.queryParams, out);
+    }
+
+    private static File outputFileFor(final ReportJob job) {
+        final String tenantDir = job.tenant == null ? "default" : job.tenant.getName().replaceAll(" ", "").trim();
+        final String fileName = job.reportName.replaceAll("[^A-Za-z0-9_\\-]", "") + "." + job.outputType.fileExtension();
+        return new File(FileSystemContentRepository.MIFOSX_BASE_DIR + File.separator + tenantDir + File.separator + "reports"
+                + File.separator + job.id + File.separator + fileName);
+    }
+
+    private static String errorMessageOf(final Exception e) {
+        if (e instanceof PlatformDataIntegrityException) { return ((PlatformDataIntegrityException) e).getDefaultUserMessage(); }
+        return e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+    }
+
+    private static void closeQuietly(final OutputStream out) {
+        if (out == null) { return; }
+        try {
+            out.close();
+        } catch (final IOException e) {
+            logger.warn("Could not close report job output", e);
+        }
+    }
+
+    private static final class ReportJob {
+
+        final Long id;
+        final String reportName;
+        final ReportJobOutputType outputType;
+        final boolean isPentaho;
+        final Map<String, String> queryParams;
+        final Locale locale;
+        final MifosPlatformTenant tenant;
+        final SecurityContext securityContext;
+
+        ReportJob(final Long id, final String reportName, final ReportJobOutputType outputType, final boolean isPentaho,
+                final Map<String, String> queryParams, final Locale locale, final MifosPlatformTenant tenant,
+                final SecurityContext securityContext) {
+            this.id = id;
+            this.reportName = reportName;
+            this.outputType = outputType;
+            this.isPentaho = isPentaho;
+            this.queryParams = queryParams;
+            this.locale = locale;
+            this.tenant = tenant;
+            this.securityContext = securityContext;
+        }
+    }
+
+    /**
+     * Holds one tenant's waiting jobs and hands them to the worker pool while
+     * fewer than {@link #MAX_RUNNING_JOBS_PER_TENANT} of them are running.
+     */
+    private final class TenantJobQueue {
+
+        private final LinkedList<ReportJob> pending = new LinkedList<ReportJob>();
+        private int running = 0;
+
+        synchronized boolean isFull() {
+            return this.pending.size() >= MAX_QUEUED_JOBS_PER_TENANT;
+        }
+
+        synchronized void submit(final ReportJob job) {
+            this.pending.addLast(job);
+            dispatch();
+        }
+
+        private synchronized void finished() {
+            this.running--;
+            dispatch();
+        }
+
+        private void dispatch() {
+            while (this.running < MAX_RUNNING_JOBS_PER_TENANT && !this.pending.isEmpty()) {
+                final ReportJob job = this.pending.removeFirst();
+                this.running++;
+                try {
+                    ReportJobWritePlatformServiceImpl.this.workers.execute(new Runnable() {
+
+                        @Override
+                        public void run() {
+                            try {
+                                if (job.tenant != null) {
+                                    ThreadLocalContextUtil.setTenant(job.tenant);
+                                }
+                                SecurityContextHolder.setContext(job.securityContext);
+                                runJob(job);
+                            } finally {
+                                // still in the job's tenant, so a rejected
+                                // follow on job is failed in its schema
+                                finished();
+                                ThreadLocalContextUtil.clearTenant();
+                                SecurityContextHolder.clearContext();
+                            }
+                        }
+                    });
+                } catch (final RejectedExecutionException e) {
+                    this.running--;
+                    failRejectedJob(job);
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts bytes written and records them on the job every
+     * {@link #PROGRESS_INTERVAL_BYTES} so clients polling the job can follow
+     * its progress.
+     */
+    private final class CountingOutputStream extends FilterOutputStream {
+
+        private final Long jobId;
+        private long bytesWritten = 0;
+        private long nextProgressUpdate = PROGRESS_INTERVAL_BYTES;
+
+        CountingOutputStream(final Long jobId, final OutputStream out) {
+            super(out);
+            this.jobId = jobId;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            this.out.write(b);
+            written(1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            this.out.write(b, off, len);
+            written(len);
+        }
+
+        long bytesWritten() {
+            return this.bytesWritten;
+        }
+
+        private void written(final int len) {
+            this.bytesWritten += len;
+            if (this.bytesWritten >= this.nextProgressUpdate) {
+                ReportJobWritePlatformServiceImpl.this.jdbcTemplate.update("update m_report_job set output_bytes = ? where id = ?",
+                        this.bytesWritten, this.jobId);
+                this.nextProgressUpdate = this.bytesWritten + PROGRESS_INTERVAL_BYTES;
+            }
+        }
+    }
+
+    private static class ReportJobThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "report-job-" + this.threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the resultsets of stretchy reports that have a cache time to live set
+ * in their definition (<code>stretchy_report.cache_ttl_seconds</code>).
+ * 
+ * Results are keyed on tenant, report name, the report parameters and the
+ * office hierarchy of the user running the report; reports that restrict
+ * their data by <code>${currentUserId}</code> are also keyed on the user.
+ * The cache holds at most {@link #MAX_ENTRIES} results, evicting the least
+ * recently used, and results of more than {@link #MAX_ROWS_PER_ENTRY} rows are
+ * not kept.
+ */
+@Service
+@ManagedResource(objectName = "org.mifosplatform:type=ReportResultCache", description = "Stretchy report result cache statistics")
+public class ReportResultCache {
+
+    private static final int MAX_ENTRIES = 200;
+    private static final int MAX_ROWS_PER_ENTRY = 5000;
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final Map<String, CachedReportResult> entries = new LinkedHashMap<String, CachedReportResult>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, CachedReportResult> eldest) {
+            final boolean evict = size() > MAX_ENTRIES;
+            if (evict) {
+                ReportResultCache.this.evictions.incrementAndGet();
+            }
+            return evict;
+        }
+    };
+
+    // bumped by every invalidation so results read before it are not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public String keyFor(final String reportName, final Map<String, String> queryParams, final String officeHierarchy,
+            final Long userIdOrNull) {
+        final StringBuilder key = new StringBuilder(keyPrefixFor(reportName));
+        key.append(officeHierarchy).append(KEY_SEPARATOR);
+        if (userIdOrNull != null) {
+            key.append(userIdOrNull);
+        }
+        for (final Map.Entry<String, String> param : new TreeMap<String, String>(queryParams).entrySet()) {
+            key.append(KEY_SEPARATOR).append(param.getKey()).append('=').append(param.getValue());
+        }
+        return key.toString();
+    }
+
+    /**
+     * Returns the cached result for <code>key</code>, or null when there is
+     * none or it has expired.
+     */
+    public CachedReportResult get(final String key) {
+        synchronized (this.entries) {
+            final CachedReportResult cached = this.entries.get(key);
+            if (cached != null && !cached.hasExpired()) {
+                this.hits.incrementAndGet();
+                return cached;
+            }
+            if (cached != null) {
+                this.entries.remove(key);
+            }
+        }
+        this.misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Wraps <code>delegate</code> so the rows written through it are cached
+     * under <code>key</code> once the resultset is finished.
+     */
+    public GenericResultsetWriter cachingWriter(final String key, final int timeToLiveSeconds, final GenericResultsetWriter delegate) {
+        return new CachingResultsetWriter(key, timeToLiveSeconds, this.generation.get(), delegate);
+    }
+
+    /**
+     * Discards the cached results of a report for the current tenant, again
+     * once the current transaction completes.
+     */
+    public void invalidate(final String reportName) {
+        final String keyPrefix = keyPrefixFor(reportName);
+        removeEntriesStartingWith(keyPrefix);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    removeEntriesStartingWith(keyPrefix);
+                }
+            });
+        }
+    }
+
+    @ManagedOperation(description = "Discards all cached report results")
+    public void clear() {
+        synchronized (this.entries) {
+            this.generation.incrementAndGet();
+            this.entries.clear();
+        }
+    }
+
+    @ManagedAttribute(description = "Number of report runs served from the cache")
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    @ManagedAttribute(description = "Number of cacheable report runs that had to query the database")
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    @ManagedAttribute(description = "Percentage of cacheable report runs served from the cache")
+    public long getHitRatePercent() {
+        final long hits = this.hits.get();
+        final long lookups = hits + this.misses.get();
+        return lookups == 0 ? 0 : hits * 100 / lookups;
+    }
+
+    @ManagedAttribute(description = "Number of results evicted to stay within the size bound")
+    public long getEvictions() {
+        return this.evictions.get();
+    }
+
+    @ManagedAttribute(description = "Number of results currently cached")
+    public int getSize() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    private void removeEntriesStartingWith(final String keyPrefix) {
+        synchronized (this.entries) {
+            this.generation.incrementAndGet();
+            final Iterator<String> keys = this.entries.keySet().iterator();
+            while (keys.hasNext()) {
+                if (keys.next().startsWith(keyPrefix)) {
+                    keys.remove();
+                }
+            }
+        }
+    }
+
+    private void put(final String key, final long generationBeforeLoad, final CachedReportResult result) {
+        synchronized (this.entries) {
+            if (this.generation.get() == generationBeforeLoad) {
+                this.entries.put(key, result);
+            }
+        }
+    }
+
+    private static String keyPrefixFor(final String reportName) {
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        return (tenant == null ? "" : tenant.getId()) + String.valueOf(KEY_SEPARATOR) + reportName + KEY_SEPARATOR;
+    }
+
+    /**
+     * An immutable report resultset that can be written any number of times.
+     */
+    public static final class CachedReportResult {
+
+        private final List<ResultsetColumnHeaderData> columnHeaders;
+        private final List<String[]> rows;
+        private final long expiresAt;
+
+        CachedReportResult(final List<ResultsetColumnHeaderData> columnHeaders, final List<String[]> rows, final long expiresAt) {
+            this.columnHeaders = columnHeaders;
+            this.rows = rows;
+            this.expiresAt = expiresAt;
+        }
+
+        public void writeTo(final GenericResultsetWriter resultsetWriter) throws IOException {
+            resultsetWriter.writeColumnHeaders(this.columnHeaders);
+            for (final String[] row : this.rows) {
+                resultsetWriter.writeRow(Arrays.asList(row));
+            }
+            resultsetWriter.finish();
+        }
+
+        boolean hasExpired() {
+            return System.currentTimeMillis() >= this.expiresAt;
+        }
+    }
+
+    private final class CachingResultsetWriter implements GenericResultsetWriter {
+
+        private final String key;
+        private final int timeToLiveSeconds;
+        private final long generationBeforeLoad;
+        private final GenericResultsetWriter delegate;
+        private List<ResultsetColumnHeaderData> columnHeaders;
+        private List<String[]> rows = new ArrayList<String[]>();
+
+        CachingResultsetWriter(final String key, final int timeToLiveSeconds, final long generationBeforeLoad,
+                final GenericResultsetWriter delegate) {
+            this.key = key;
+            this.timeToLiveSeconds = timeToLiveSeconds;
+            this.generationBeforeLoad = generationBeforeLoad;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void writeColumnHeaders(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+            this.columnHeaders = columnHeaders;
+            this.delegate.writeColumnHeaders(columnHeaders);
+        }
+
+        @Override
+        public void writeRow(final List<String> row) throws IOException {
+            if (this.rows != null) {
+                if (this.rows.size() < MAX_ROWS_PER_ENTRY) {
+                    this.rows.add(row.toArray(new String[row.size()]));
+                } else {
+                    // too large to keep, stop collecting
+                    this.rows = null;
+                }
+            }
+            this.delegate.writeRow(row);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            this.delegate.finish();
+            if (this.rows != null) {
+                final long expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(this.timeToLiveSeconds);
+                put(this.key, this.generationBeforeLoad, new CachedReportResult(this.columnHeaders, this.rows, expiresAt));
+            }
+        }
+    }
+}
@@ -48,18 +48,23 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
     private final ReportParameterUsageRepository reportParameterUsageRepository;
     private final ReportParameterRepository reportParameterRepository;
     private final PermissionRepository permissionRepository;
+    private final ReportResultCache reportResultCache;
+    private final ReportDefinitionRegistry reportDefinitionRegistry;
 
     @Autowired
     public ReportWritePlatformServiceImpl(final PlatformSecurityContext context,
             final ReportCommandFromApiJsonDeserializer fromApiJsonDeserializer, final ReportRepository reportRepository,
             final ReportParameterRepository reportParameterRepository, final ReportParameterUsageRepository reportParameterUsageRepository,
-            final PermissionRepository permissionRepository) {
+            final PermissionRepository permissionRepository, final ReportResultCache reportResultCache,
+            final ReportDefinitionRegistry reportDefinitionRegistry) {
         this.context = context;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.reportRepository = reportRepository;
         this.reportParameterRepository = reportParameterRepository;
         this.reportParameterUsageRepository = reportParameterUsageRepository;
         this.permissionRepository = permissionRepository;
+        this.reportResultCache = reportResultCache;
+        this.reportDefinitionRegistry = reportDefinitionRegistry;
     }
 
     @Transactional
@@ -79,6 +84,7 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
 
             final Permission permission = new Permission("report", report.getReportName(), "READ");
             this.permissionRepository.save(permission);
+            this.reportDefinitionRegistry.invalidate();
 
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
@@ -102,6 +108,7 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
             final Report report = this.reportRepository.findOne(reportId);
             if (report == null) { throw new ReportNotFoundException(reportId); }
 
+            final String reportNameBeforeUpdate = report.getReportName();
             final Map<String, Object> changes = report.update(command);
 
             if (changes.containsKey("reportParameters")) {
@@ -114,6 +121,8 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
 
             if (!changes.isEmpty()) {
                 this.reportRepository.saveAndFlush(report);
+                this.reportResultCache.invalidate(reportNameBeforeUpdate);
+                this.reportDefinitionRegistry.invalidate();
             }
 
             return new CommandProcessingResultBuilder() //
@@ -144,6 +153,8 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
 
         this.reportRepository.delete(report);
         this.permissionRepository.delete(permission);
+        this.reportResultCache.invalidate(report.getReportName());
+        this.reportDefinitionRegistry.invalidate();
 
         return new CommandProcessingResultBuilder() //
                 .withEntityId(reportId) //
@@ -0,0 +1,112 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Checks sql fragments supplied by api callers before they are appended to a
+ * query that also carries restrictions of its own, such as the office scope of
+ * the current user.
+ *
+ * A search condition must keep its parentheses balanced (so it cannot close
+ * the group it is appended in), must not contain statement separators or
+ * comments and must not contain keywords that read other tables or change
+ * data. String literals are skipped when checking.
+ */
+public final class SqlFragmentValidator {
+
+    private static final Set<String> FORBIDDEN_KEYWORDS = new HashSet<String>(Arrays.asList("select", "union", "insert", "update",
+            "delete", "replace", "drop", "alter", "create", "truncate", "rename", "grant", "revoke", "call", "exec", "execute", "into",
+            "outfile", "dumpfile", "load_file", "sleep", "benchmark", "handler", "lock", "unlock", "set", "prepare"));
+
+    private static final Pattern ORDER_BY_ITEM = Pattern
+            .compile("(?i)\\s*(`?[a-z_][a-z0-9_]*`?\\.)?`?[a-z_][a-z0-9_]*`?(\\s+(asc|desc))?\\s*");
+
+    private SqlFragmentValidator() {
+        //
+    }
+
+    public static boolean isSafeSearchCondition(final String condition) {
+
+        int depth = 0;
+        final StringBuilder word = new StringBuilder();
+        final int length = condition.length();
+        int i = 0;
+        while (i < length) {
+            final char c = condition.charAt(i);
+
+            if (Character.isLetterOrDigit(c) || c == '_') {
+                word.append(c);
+                i++;
+                continue;
+            }
+            if (isForbiddenKeyword(word)) { return false; }
+            word.setLength(0);
+
+            if (c == '\'' || c == '"') {
+                i = skipStringLiteral(condition, i);
+                if (i < 0) { return false; }
+                continue;
+            }
+
+            if (c == ';' || c == '#' || c == '\\') { return false; }
+            if (c == '-' && i + 1 < length && condition.charAt(i + 1) == '-') { return false; }
+            if (c == '/' && i + 1 < length && condition.charAt(i + 1) == '*') { return false; }
+
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth < 0) { return false; }
+            }
+            i++;
+        }
+
+        return !isForbiddenKeyword(word) && depth == 0;
+    }
+
+    /**
+     * Accepts a comma separated list of (optionally qualified) column names,
+     * each optionally followed by <code>asc</code> or <code>desc</code>.
+     */
+    public static boolean isSafeOrderBy(final String orderBy) {
+        for (final String item : orderBy.split(",", -1)) {
+            if (!ORDER_BY_ITEM.matcher(item).matches()) { return false; }
+        }
+        return true;
+    }
+
+    private static boolean isForbiddenKeyword(final StringBuilder word) {
+        return word.length() > 0 && FORBIDDEN_KEYWORDS.contains(word.toString().toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Returns the index after the literal starting at <code>start</code>, or
+     * -1 when it is not terminated. A doubled quote is an escaped quote.
+     */
+    private static int skipStringLiteral(final String condition, final int start) {
+        final char quote = condition.charAt(start);
+        int i = start + 1;
+        while (i < condition.length()) {
+            final char c = condition.charAt(i);
+            if (c == '\\') { return -1; }
+            if (c == quote) {
+                if (i + 1 < condition.length() && condition.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The sql of a stretchy report or parameter split once into literal text and
+ * <code>${name}</code> placeholders, so running it only appends the pieces.
+ * 
+ * Placeholders without a value are left in the sql as written, and values
+ * are not themselves searched for placeholders.
+ */
+public final class SqlTemplate {
+
+    private static final String PLACEHOLDER_START = "${";
+    private static final String PLACEHOLDER_END = "}";
+
+    private final String sql;
+    // literal text at even indexes, placeholders at odd indexes
+    private final List<String> segments;
+    private final Set<String> placeholders;
+
+    public static SqlTemplate compile(final String sql) {
+
+        final List<String> segments = new ArrayList<String>();
+        final Set<String> placeholders = new LinkedHashSet<String>();
+
+        int literalStart = 0;
+        int placeholderStart = sql.indexOf(PLACEHOLDER_START);
+        while (placeholderStart >= 0) {
+            final int placeholderEnd = sql.indexOf(PLACEHOLDER_END, placeholderStart + PLACEHOLDER_START.length());
+            if (placeholderEnd < 0) {
+                break;
+            }
+            final String placeholder = sql.substring(placeholderStart, placeholderEnd + PLACEHOLDER_END.length());
+            segments.add(sql.substring(literalStart, placeholderStart));
+            segments.add(placeholder);
+            placeholders.add(placeholder);
+
+            literalStart = placeholderEnd + PLACEHOLDER_END.length();
+            placeholderStart = sql.indexOf(PLACEHOLDER_START, literalStart);
+        }
+        segments.add(sql.substring(literalStart));
+
+        return new SqlTemplate(sql, segments, placeholders);
+    }
+
+    private SqlTemplate(final String sql, final List<String> segments, final Set<String> placeholders) {
+        this.sql = sql;
+        this.segments = segments;
+        this.placeholders = Collections.unmodifiableSet(placeholders);
+    }
+
+    /**
+     * @param values
+     *            keyed by placeholder including its delimiters, as in
+     *            <code>${officeId}</code>
+     */
+    public String render(final Map<String, String> values) {
+        final StringBuilder rendered = new StringBuilder(this.sql.length() + 64);
+        for (int i = 0; i < this.segments.size(); i++) {
+            final String segment = this.segments.get(i);
+            final String value = i % 2 == 1 ? values.get(segment) : null;
+            rendered.append(value == null ? segment : value);
+        }
+        return rendered.toString();
+    }
+
+    public boolean uses(final String placeholder) {
+        return this.placeholders.contains(placeholder);
+    }
+
+    public String sql() {
+        return this.sql;
+    }
+}
@@ -0,0 +1,273 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.documentmanagement.api;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Date;
+import java.util.List;
+
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.mifosplatform.infrastructure.documentmanagement.data.FileData;
+
+import com.lowagie.text.pdf.codec.Base64;
+
+/**
+ * Builds download responses for {@link FileData}.
+ *
+ * Content on the file system is sent with {@link FileChannel#transferTo} and
+ * supports <code>If-None-Match</code>, <code>If-Modified-Since</code> and
+ * single byte <code>Range</code> requests. Streamed content, such as objects
+ * from Amazon S3, is copied through to the response as it is read.
+ */
+public final class FileDownloadHelper {
+
+    private static final int COPY_BUFFER_SIZE = 8192;
+    private static final String BYTES_UNIT = "bytes";
+
+    private FileDownloadHelper() {
+        //
+    }
+
+    public static Response download(final Request request, final HttpHeaders headers, final FileData fileData, final boolean attachment) {
+
+        final File file = fileData.fileOnDisk();
+        if (file == null) { return streamed(fileData, attachment); }
+        if (!file.isFile()) { return Response.status(Status.NOT_FOUND).build(); }
+
+        final long length = file.length();
+        final EntityTag entityTag = entityTagOf(file);
+        final Date lastModified = new Date(file.lastModified());
+
+        final ResponseBuilder notModified = request.evaluatePreconditions(lastModified, entityTag);
+        if (notModified != null) { return withValidators(notModified, entityTag, lastModified).build(); }
+
+        ByteRange range = null;
+        if (rangeApplies(headers, entityTag)) {
+            range = ByteRange.parse(headers.getRequestHeaders().getFirst("Range"), length);
+        }
+        if (range == ByteRange.UNSATISFIABLE) {
+            return Response.status(416).header("Content-Range", BYTES_UNIT + " */" + length).header("Accept-Ranges", BYTES_UNIT)
+                    .build();
+        }
+
+        final long start = range == null ? 0 : range.start;
+        final long count = range == null ? length : range.end - range.start + 1;
+
+        final ResponseBuilder response = range == null ? Response.ok() : Response.status(206).header("Content-Range",
+                BYTES_UNIT + " " + range.start + "-" + range.end + "/" + length);
+        response.entity(new FileRegionOutput(file, start, count));
+        response.header("Content-Length", count);
+        response.header("Accept-Ranges", BYTES_UNIT);
+        withContentHeaders(response, fileData, attachment);
+        return withValidators(response, entityTag, lastModified).build();
+    }
+
+    /**
+     * Sends an image as a base64 <code>data:</code> URI, encoding it as it is
+     * read.
+     */
+    public static Response dataUri(final Request request, final FileData fileData, final String dataUriPrefix) {
+
+        final File file = fileData.fileOnDisk();
+        EntityTag entityTag = null;
+        Date lastModified = null;
+        if (file != null) {
+            if (!file.isFile()) { return Response.status(Status.NOT_FOUND).build(); }
+            // a different representation from the raw image so needs its own tag
+            entityTag = new EntityTag(entityTagOf(file).getValue() + "-b64");
+            lastModified = new Date(file.lastModified());
+            final ResponseBuilder notModified = request.evaluatePreconditions(lastModified, entityTag);
+            if (notModified != null) { return withValidators(notModified, entityTag, lastModified).build(); }
+        }
+
+        final StreamingOutput output = new StreamingOutput() {
+
+            @Override
+            public void write(final OutputStream output) throws IOException {
+                output.write(dataUriPrefix.getBytes("US-ASCII"));
+                final OutputStream encoder = new Base64.OutputStream(new NonClosingOutputStream(output), Base64.ENCODE);
+                copy(fileData.file(), encoder);
+                // writes any padding without closing the response
+                encoder.close();
+            }
+        };
+
+        final ResponseBuilder response = Response.ok(output);
+        if (entityTag == null) { return response.build(); }
+        return withValidators(response, entityTag, lastModified).build();
+    }
+
+    private static Response streamed(final FileData fileData, final boolean attachment) {
+        final InputStream content = fileData.file();
+        if (content == null) { return Response.status(Status.NOT_FOUND).build(); }
+
+        final ResponseBuilder response = Response.ok(new StreamingOutput() {
+
+            @Override
+            public void write(final OutputStream output) throws IOException {
+                copy(content, output);
+            }
+        });
+        if (fileData.contentLength() != null) {
+            response.header("Content-Length", fileData.contentLength());
+        }
+        return withContentHeaders(response, fileData, attachment).build();
+    }
+
+    /**
+     * Strong validator from the file's length and modification time.
+     */
+    private static EntityTag entityTagOf(final File file) {
+        return new EntityTag(Long.toHexString(file.length()) + "-" + Long.toHexString(file.lastModified()));
+    }
+
+    /**
+     * A range is only honoured when <code>If-Range</code>, if sent, still
+     * matches the file.
+     */
+    private static boolean rangeApplies(final HttpHeaders headers, final EntityTag entityTag) {
+        final List<String> ranges = headers.getRequestHeader("Range");
+        if (ranges == null || ranges.isEmpty()) { return false; }
+        final List<String> ifRange = headers.getRequestHeader("If-Range");
+        if (ifRange == null || ifRange.isEmpty()) { return true; }
+        return entityTag.toString().equals(ifRange.get(0).trim());
+    }
+
+    private static ResponseBuilder withContentHeaders(final ResponseBuilder response, final FileData fileData, final boolean attachment) {
+        response.header("Content-Disposition", (attachment ? "attachment" : "inline") + "; filename=\"" + fileData.name() + "\"");
+        response.header("Content-Type", fileData.contentType());
+        return response;
+    }
+
+    private static ResponseBuilder withValidators(final ResponseBuilder response, final EntityTag entityTag, final Date lastModified) {
+        final CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+        return response.tag(entityTag).lastModified(lastModified).cacheControl(cacheControl);
+    }
+
+    private static void copy(final InputStream in, final OutputStream out) throws IOException {
+        try {
+            final byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    private static final class FileRegionOutput implements StreamingOutput {
+
+        private final File file;
+        private final long start;
+        private final long count;
+
+        public FileRegionOutput(final File file, final long start, final long count) {
+            this.file = file;
+            this.start = start;
+            this.count = count;
+        }
+
+        @Override
+        public void write(final OutputStream output) throws IOException {
+            final FileInputStream in = new FileInputStream(this.file);
+            try {
+                final FileChannel channel = in.getChannel();
+                final WritableByteChannel target = Channels.newChannel(output);
+                long position = this.start;
+                long remaining = this.count;
+                while (remaining > 0) {
+                    final long transferred = channel.transferTo(position, remaining, target);
+                    // file truncated since its length was read
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    position += transferred;
+                    remaining -= transferred;
+                }
+            } finally {
+                in.close();
+            }
+        }
+    }
+
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        public NonClosingOutputStream(final OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            this.out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    /**
+     * A single range of bytes, inclusive of both ends. Multiple ranges and
+     * malformed headers are ignored and the whole file is sent.
+     */
+    private static final class ByteRange {
+
+        static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+        final long start;
+        final long end;
+
+        private ByteRange(final long start, final long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        static ByteRange parse(final String header, final long length) {
+            if (header == null || !header.startsWith(BYTES_UNIT + "=")) { return null; }
+            final String spec = header.substring(BYTES_UNIT.length() + 1).trim();
+            final int dash = spec.indexOf('-');
+            if (dash < 0 || spec.indexOf(',') >= 0) { return null; }
+
+            final String first = spec.substring(0, dash).trim();
+            final String last = spec.substring(dash + 1).trim();
+            try {
+                if (first.isEmpty()) {
+                    if (last.isEmpty()) { return null; }
+                    final long suffixLength = Long.parseLong(last);
+                    if (suffixLength <= 0 || length == 0) { return UNSATISFIABLE; }
+                    return new ByteRange(Math.max(0, length - suffixLength), length - 1);
+                }
+                final long start = Long.parseLong(first);
+                final long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+                if (start >= length) { return UNSATISFIABLE; }
+                if (start > end) { return null; }
+                return new ByteRange(start, end);
+            } catch (final NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
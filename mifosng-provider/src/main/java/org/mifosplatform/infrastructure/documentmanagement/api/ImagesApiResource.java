@@ -16,16 +16,17 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
-import javax.ws.rs.core.Response.ResponseBuilder;
 
 import org.apache.commons.lang.StringUtils;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.domain.Base64EncodedImage;
 import org.mifosplatform.infrastructure.core.serialization.DefaultToApiJsonSerializer;
 import org.mifosplatform.infrastructure.documentmanagement.contentrepository.ContentRepositoryUtils;
-import org.mifosplatform.infrastructure.documentmanagement.contentrepository.ContentRepositoryUtils.IMAGE_FILE_EXTENSION;
 import org.mifosplatform.infrastructure.documentmanagement.data.ImageData;
 import org.mifosplatform.infrastructure.documentmanagement.service.ImageReadPlatformService;
 import org.mifosplatform.infrastructure.documentmanagement.service.ImageWritePlatformService;
@@ -35,7 +36,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
-import com.lowagie.text.pdf.codec.Base64;
 import com.sun.jersey.core.header.FormDataContentDisposition;
 import com.sun.jersey.multipart.FormDataBodyPart;
 import com.sun.jersey.multipart.FormDataParam;
@@ -106,7 +106,7 @@ public class ImagesApiResource {
     @GET
     @Consumes({ MediaType.TEXT_PLAIN, MediaType.TEXT_HTML, MediaType.APPLICATION_JSON })
     @Produces({ MediaType.TEXT_PLAIN })
-    public String retrieveClientImage(@PathParam("clientId") final Long clientId) {
+    public Response retrieveClientImage(@PathParam("clientId") final Long clientId, @Context final Request request) {
 
         context.authenticatedUser().validateHasReadPermission("CLIENTIMAGE");
 
@@ -120,26 +120,23 @@ public class ImagesApiResource {
             imageDataURISuffix = ContentRepositoryUtils.IMAGE_DATA_URI_SUFFIX.PNG.getValue();
         }
 
-        String clientImageAsBase64Text = imageDataURISuffix + Base64.encodeBytes(imageData.getContent());
-        return clientImageAsBase64Text;
+        return FileDownloadHelper.dataUri(request, imageData.fileData(), imageDataURISuffix);
     }
 
+    /**
+     * Returns the raw image with its own content type, so it can be used
+     * directly as an image source.
+     */
     @GET
     @Consumes({ MediaType.APPLICATION_JSON })
-    @Produces({ MediaType.APPLICATION_OCTET_STREAM })
-    public Response downloadClientImage(@PathParam("clientId") final Long clientId) {
+    @Produces({ MediaType.APPLICATION_OCTET_STREAM, "image/jpeg", "image/png", "image/gif" })
+    public Response downloadClientImage(@PathParam("clientId") final Long clientId, @Context final Request request,
+            @Context final HttpHeaders headers) {
 
         context.authenticatedUser().validateHasReadPermission("CLIENTIMAGE");
         final ImageData imageData = this.imageReadPlatformService.retrieveClientImage(clientId);
 
-        ResponseBuilder response = Response.ok(imageData.getContent());
-        response.header("Content-Disposition", "attachment; filename=\"" + imageData.getEntityDisplayName() + IMAGE_FILE_EXTENSION.JPEG
-                + "\"");
-
-        // TODO: Need a better way of determining image type
-
-        response.header("Content-Type", imageData.contentType());
-        return response.build();
+        return FileDownloadHelper.download(request, headers, imageData.fileData(), false);
     }
 
     /**
@@ -105,7 +105,8 @@ public class S3ContentRepository implements ContentRepository {
         try {
             logger.info("Downloading an object");
             S3Object s3object = s3Client.getObject(new GetObjectRequest(s3BucketName, documentData.fileLocation()));
-            fileData = new FileData(s3object.getObjectContent(), fileName, documentData.contentType());
+            fileData = new FileData(s3object.getObjectContent(), fileName, documentData.contentType(), s3object.getObjectMetadata()
+                    .getContentLength());
         } catch (AmazonClientException ace) {
             logger.error(ace.getMessage());
             throw new DocumentNotFoundException(documentData.getParentEntityType(), documentData.getParentEntityId(), documentData.getId());
@@ -116,7 +117,7 @@ public class S3ContentRepository implements ContentRepository {
     @Override
     public ImageData fetchImage(ImageData imageData) {
         S3Object s3object = s3Client.getObject(new GetObjectRequest(s3BucketName, imageData.location()));
-        imageData.updateContent(s3object.getObjectContent());
+        imageData.updateContent(s3object.getObjectContent(), s3object.getObjectMetadata().getContentLength());
         return imageData;
     }
 
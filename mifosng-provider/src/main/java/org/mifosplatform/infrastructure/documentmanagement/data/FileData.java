@@ -16,19 +16,26 @@ public class FileData {
     private final String fileName;
     private final String contentType;
     private final InputStream inputStream;
+    private final Long contentLength;
 
     public FileData(File file, String fileName, String contentType) {
         this.file = file;
         this.fileName = fileName;
         this.contentType = contentType;
         this.inputStream = null;
+        this.contentLength = null;
     }
 
     public FileData(InputStream inputStream, String fileName, String contentType) {
+        this(inputStream, fileName, contentType, null);
+    }
+
+    public FileData(InputStream inputStream, String fileName, String contentType, Long contentLength) {
         this.file = null;
         this.inputStream = inputStream;
         this.fileName = fileName;
         this.contentType = contentType;
+        this.contentLength = contentLength;
     }
 
     public String contentType() {
@@ -39,6 +46,22 @@ public class FileData {
         return fileName;
     }
 
+    /**
+     * The file when content is on the local file system, otherwise
+     * <code>null</code> and content must be read from {@link #file()}.
+     */
+    public File fileOnDisk() {
+        return this.file;
+    }
+
+    /**
+     * Length of streamed content if known up front.
+     */
+    public Long contentLength() {
+        if (this.file != null) { return this.file.length(); }
+        return this.contentLength;
+    }
+
     public InputStream file() {
         try {
             if (inputStream == null) { return new FileInputStream(file); }
@@ -1,12 +1,9 @@
 package org.mifosplatform.infrastructure.documentmanagement.data;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
 import java.io.InputStream;
 
 import org.apache.commons.lang.StringUtils;
-import org.apache.poi.util.IOUtils;
 import org.mifosplatform.infrastructure.documentmanagement.contentrepository.ContentRepositoryUtils;
 import org.mifosplatform.infrastructure.documentmanagement.domain.StorageType;
 
@@ -21,39 +18,23 @@ public class ImageData {
     private File file;
     private String contentType;
     private InputStream inputStream;
+    private Long contentLength;
 
     public ImageData(Long imageId, String location, Integer storageType, String entityDisplayName) {
         this.imageId = imageId;
         this.location = location;
         this.storageType = storageType;
         this.entityDisplayName = entityDisplayName;
+        this.contentType = imageContentTypeOf(location);
     }
 
-    public byte[] getContent() {
-        // TODO Vishwas Fix error handling
-        try {
-            if (inputStream == null) {
-                FileInputStream fileInputStream = new FileInputStream(file);
-                return IOUtils.toByteArray(fileInputStream);
-            }
-
-            return IOUtils.toByteArray(inputStream);
-        } catch (IOException e) {
-            return null;
-        }
-    }
-
-    private String setImageContentType() {
+    private static String imageContentTypeOf(final String location) {
         String contentType = ContentRepositoryUtils.IMAGE_MIME_TYPE.JPEG.getValue();
 
-        if (file != null) {
-            String fileName = file.getName();
-
-            if (StringUtils.endsWith(fileName, ContentRepositoryUtils.IMAGE_FILE_EXTENSION.GIF.getValue())) {
-                contentType = ContentRepositoryUtils.IMAGE_MIME_TYPE.GIF.getValue();
-            } else if (StringUtils.endsWith(fileName, ContentRepositoryUtils.IMAGE_FILE_EXTENSION.PNG.getValue())) {
-                contentType = ContentRepositoryUtils.IMAGE_MIME_TYPE.PNG.getValue();
-            }
+        if (StringUtils.endsWith(location, ContentRepositoryUtils.IMAGE_FILE_EXTENSION.GIF.getValue())) {
+            contentType = ContentRepositoryUtils.IMAGE_MIME_TYPE.GIF.getValue();
+        } else if (StringUtils.endsWith(location, ContentRepositoryUtils.IMAGE_FILE_EXTENSION.PNG.getValue())) {
+            contentType = ContentRepositoryUtils.IMAGE_MIME_TYPE.PNG.getValue();
         }
         return contentType;
     }
@@ -66,21 +47,27 @@ public class ImageData {
         return StorageType.fromInt(storageType);
     }
 
-    public String name() {
-        return this.file.getName();
-    }
-
     public String location() {
         return this.location;
     }
 
-    public void updateContent(InputStream objectContent) {
+    public void updateContent(InputStream objectContent, Long contentLength) {
         this.inputStream = objectContent;
+        this.contentLength = contentLength;
     }
 
     public void updateContent(File file) {
         this.file = file;
-        setImageContentType();
+    }
+
+    /**
+     * The image content, named after the entity it belongs to.
+     */
+    public FileData fileData() {
+        final String extension = StringUtils.substringAfterLast(this.location, ".");
+        final String fileName = StringUtils.isBlank(extension) ? this.entityDisplayName : this.entityDisplayName + "." + extension;
+        if (this.file != null) { return new FileData(this.file, fileName, this.contentType); }
+        return new FileData(this.inputStream, fileName, this.contentType, this.contentLength);
     }
 
     public String getEntityDisplayName() {
@@ -9,6 +9,7 @@ import java.io.InputStream;
 
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.domain.Base64EncodedImage;
+import org.mifosplatform.infrastructure.core.service.EntityVersionService;
 import org.mifosplatform.infrastructure.documentmanagement.contentrepository.ContentRepository;
 import org.mifosplatform.infrastructure.documentmanagement.contentrepository.ContentRepositoryFactory;
 import org.mifosplatform.infrastructure.documentmanagement.domain.Image;
@@ -26,13 +27,16 @@ public class ImageWritePlatformServiceJpaRepositoryImpl implements ImageWritePla
     private final ContentRepositoryFactory contentRepositoryFactory;
     private final ClientRepositoryWrapper clientRepositoryWrapper;
     private final ImageRepository imageRepository;
+    private final EntityVersionService entityVersionService;
 
     @Autowired
     public ImageWritePlatformServiceJpaRepositoryImpl(final ContentRepositoryFactory documentStoreFactory,
-            final ClientRepositoryWrapper clientRepositoryWrapper, final ImageRepository imageRepository) {
+            final ClientRepositoryWrapper clientRepositoryWrapper, final ImageRepository imageRepository,
+            final EntityVersionService entityVersionService) {
         this.contentRepositoryFactory = documentStoreFactory;
         this.clientRepositoryWrapper = clientRepositoryWrapper;
         this.imageRepository = imageRepository;
+        this.entityVersionService = entityVersionService;
     }
 
     @Transactional
@@ -73,6 +77,7 @@ public class ImageWritePlatformServiceJpaRepositoryImpl implements ImageWritePla
             client.setImage(null);
             this.imageRepository.delete(image);
             this.clientRepositoryWrapper.save(client);
+            this.entityVersionService.recordClientChange(clientId);
         }
 
         return new CommandProcessingResult(clientId);
@@ -97,6 +102,7 @@ public class ImageWritePlatformServiceJpaRepositoryImpl implements ImageWritePla
         this.imageRepository.save(image);
         client.setImage(image);
         this.clientRepositoryWrapper.save(client);
+        this.entityVersionService.recordClientChange(client.getId());
         return new CommandProcessingResult(client.getId());
     }
 
@@ -0,0 +1,191 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.organisation.office.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.TenantAwareRoutingDataSource;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tenant scoped copy of the office tree used to resolve which offices a user
+ * may see without joining to <code>m_office</code> on every query.
+ * 
+ * The tree is reloaded after {@link #invalidate()} is called by the office
+ * write service. As with the reference data cache, a tree loaded while an
+ * invalidation was in progress is not kept, and invalidation is repeated once
+ * the writing transaction completes.
+ */
+@Service
+public class OfficeHierarchyCache {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentMap<String, TenantTree> treesByTenant = new ConcurrentHashMap<String, TenantTree>();
+
+    @Autowired
+    public OfficeHierarchyCache(final TenantAwareRoutingDataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * The offices at or below the office with the given hierarchy.
+     */
+    public OfficeScope scopeOf(final String hierarchy) {
+        return currentTree().scopeOf(hierarchy);
+    }
+
+    /**
+     * Discards the office tree of the current tenant.
+     */
+    public void invalidate() {
+        final TenantTree tenantTree = tenantTreeForCurrentTenant();
+        tenantTree.invalidate();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    tenantTree.invalidate();
+                }
+            });
+        }
+    }
+
+    private OfficeTree currentTree() {
+        final TenantTree tenantTree = tenantTreeForCurrentTenant();
+
+        final OfficeTree cached = tenantTree.tree;
+        if (cached != null) { return cached; }
+
+        final long versionBeforeLoad = tenantTree.version.get();
+        final OfficeTree loaded = new OfficeTree(this.jdbcTemplate.query("select o.id as id, o.hierarchy as hierarchy from m_office o",
+                new OfficeNodeMapper()));
+        synchronized (tenantTree) {
+            if (tenantTree.version.get() == versionBeforeLoad) {
+                tenantTree.tree = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    private TenantTree tenantTreeForCurrentTenant() {
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final String cacheKey = tenant == null ? "" : tenant.getId().toString();
+
+        TenantTree tenantTree = this.treesByTenant.get(cacheKey);
+        if (tenantTree == null) {
+            final TenantTree newTenantTree = new TenantTree();
+            tenantTree = this.treesByTenant.putIfAbsent(cacheKey, newTenantTree);
+            if (tenantTree == null) {
+                tenantTree = newTenantTree;
+            }
+        }
+        return tenantTree;
+    }
+
+    private static final class TenantTree {
+
+        private final AtomicLong version = new AtomicLong();
+        private volatile OfficeTree tree;
+
+        synchronized void invalidate() {
+            this.version.incrementAndGet();
+            this.tree = null;
+        }
+    }
+
+    /**
+     * Offices sorted by hierarchy, so the offices below any office follow it
+     * as one contiguous run. Scopes are kept per office, so only hierarchies
+     * of existing offices are cached; any other prefix is resolved on each
+     * call.
+     */
+    private static final class OfficeTree {
+
+        private final OfficeNode[] nodes;
+        private final AtomicReferenceArray<OfficeScope> scopesByNode;
+
+        OfficeTree(final List<OfficeNode> offices) {
+            this.nodes = offices.toArray(new OfficeNode[offices.size()]);
+            Arrays.sort(this.nodes, new Comparator<OfficeNode>() {
+
+                @Override
+                public int compare(final OfficeNode first, final OfficeNode second) {
+                    return first.hierarchy.compareTo(second.hierarchy);
+                }
+            });
+            this.scopesByNode = new AtomicReferenceArray<OfficeScope>(this.nodes.length);
+        }
+
+        OfficeScope scopeOf(final String hierarchy) {
+            final String prefix = hierarchy == null ? "" : hierarchy;
+
+            int first = 0;
+            int last = this.nodes.length;
+            while (first < last) {
+                final int middle = (first + last) >>> 1;
+                if (this.nodes[middle].hierarchy.compareTo(prefix) < 0) {
+                    first = middle + 1;
+                } else {
+                    last = middle;
+                }
+            }
+
+            final boolean isOfficeHierarchy = first < this.nodes.length && this.nodes[first].hierarchy.equals(prefix);
+            if (isOfficeHierarchy) {
+                final OfficeScope cached = this.scopesByNode.get(first);
+                if (cached != null) { return cached; }
+            }
+
+            final Set<Long> officeIds = new LinkedHashSet<Long>();
+            for (int i = first; i < this.nodes.length && this.nodes[i].hierarchy.startsWith(prefix); i++) {
+                officeIds.add(this.nodes[i].id);
+            }
+            final OfficeScope scope = new OfficeScope(officeIds, officeIds.size() == this.nodes.length);
+            if (isOfficeHierarchy) {
+                this.scopesByNode.set(first, scope);
+            }
+            return scope;
+        }
+    }
+
+    private static final class OfficeNode {
+
+        private final Long id;
+        private final String hierarchy;
+
+        OfficeNode(final Long id, final String hierarchy) {
+            this.id = id;
+            this.hierarchy = hierarchy == null ? "" : hierarchy;
+        }
+    }
+
+    private static final class OfficeNodeMapper implements RowMapper<OfficeNode> {
+
+        @Override
+        public OfficeNode mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new OfficeNode(rs.getLong("id"), rs.getString("hierarchy"));
+        }
+    }
+}
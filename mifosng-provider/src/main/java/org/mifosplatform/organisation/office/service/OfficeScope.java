@@ -0,0 +1,68 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.organisation.office.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * The offices visible from one office: the office itself and every office
+ * below it in the office hierarchy.
+ */
+public final class OfficeScope {
+
+    private final Set<Long> officeIds;
+    private final boolean coversAllOffices;
+
+    OfficeScope(final Set<Long> officeIds, final boolean coversAllOffices) {
+        this.officeIds = Collections.unmodifiableSet(officeIds);
+        this.coversAllOffices = coversAllOffices;
+    }
+
+    public boolean contains(final Long officeId) {
+        return officeId != null && this.officeIds.contains(officeId);
+    }
+
+    public boolean coversAllOffices() {
+        return this.coversAllOffices;
+    }
+
+    public Collection<Long> officeIds() {
+        return this.officeIds;
+    }
+
+    /**
+     * A predicate restricting <code>officeIdColumn</code> to the offices in
+     * scope, for use in place of a join to <code>m_office</code> on
+     * <code>o.hierarchy like ?</code>. When every office is in scope only rows
+     * without an office are excluded, as the join would have done.
+     */
+    public String sqlPredicate(final String officeIdColumn) {
+        if (this.coversAllOffices) { return officeIdColumn + " is not null"; }
+        if (this.officeIds.isEmpty()) { return "1=0"; }
+
+        return officeIdColumn + " in (" + sqlInList() + ")";
+    }
+
+    /**
+     * The office ids separated by commas, for use within an
+     * <code>in (...)</code> clause. An empty scope gives <code>null</code>
+     * which matches no office.
+     */
+    public String sqlInList() {
+        if (this.officeIds.isEmpty()) { return "null"; }
+
+        final StringBuilder inList = new StringBuilder(8 * this.officeIds.size());
+        final Iterator<Long> ids = this.officeIds.iterator();
+        inList.append(ids.next());
+        while (ids.hasNext()) {
+            inList.append(',').append(ids.next());
+        }
+        return inList.toString();
+    }
+}
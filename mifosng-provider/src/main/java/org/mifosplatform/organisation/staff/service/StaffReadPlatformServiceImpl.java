@@ -8,8 +8,11 @@ package org.mifosplatform.organisation.staff.service;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.concurrent.Callable;
 
 import org.apache.commons.lang.StringUtils;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataCache;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataType;
 import org.mifosplatform.infrastructure.core.service.TenantAwareRoutingDataSource;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.staff.data.StaffData;
@@ -27,11 +30,14 @@ public class StaffReadPlatformServiceImpl implements StaffReadPlatformService {
     private final PlatformSecurityContext context;
     private final StaffLookupMapper lookupMapper = new StaffLookupMapper();
     private final StaffInOfficeHierarchyMapper staffInOfficeHierarchyMapper = new StaffInOfficeHierarchyMapper();
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
-    public StaffReadPlatformServiceImpl(final PlatformSecurityContext context, final TenantAwareRoutingDataSource dataSource) {
+    public StaffReadPlatformServiceImpl(final PlatformSecurityContext context, final TenantAwareRoutingDataSource dataSource,
+            final ReferenceDataCache referenceDataCache) {
         this.context = context;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.referenceDataCache = referenceDataCache;
     }
 
     private static final class StaffMapper implements RowMapper<StaffData> {
@@ -122,7 +128,13 @@ public class StaffReadPlatformServiceImpl implements StaffReadPlatformService {
 
     @Override
     public Collection<StaffData> retrieveAllLoanOfficersInOfficeById(final Long officeId) {
-        return retrieveAllStaff(" office_id=" + officeId + " and is_loan_officer=1");
+        return this.referenceDataCache.retrieve(ReferenceDataType.STAFF, "loanOfficers:" + officeId, new Callable<Collection<StaffData>>() {
+
+            @Override
+            public Collection<StaffData> call() {
+                return retrieveAllStaff(" office_id=" + officeId + " and is_loan_officer=1");
+            }
+        });
     }
 
     @Override
@@ -12,6 +12,8 @@ import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataCache;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataType;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.office.domain.Office;
 import org.mifosplatform.organisation.office.domain.OfficeRepository;
@@ -36,15 +38,18 @@ public class StaffWritePlatformServiceJpaRepositoryImpl implements StaffWritePla
     private final StaffCommandFromApiJsonDeserializer fromApiJsonDeserializer;
     private final StaffRepository staffRepository;
     private final OfficeRepository officeRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
     public StaffWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
             final StaffCommandFromApiJsonDeserializer fromApiJsonDeserializer, final StaffRepository staffRepository,
-            final OfficeRepository officeRepository) {
+            final OfficeRepository officeRepository,
+            final ReferenceDataCache referenceDataCache) {
         this.context = context;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.staffRepository = staffRepository;
         this.officeRepository = officeRepository;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Transactional
@@ -64,6 +69,7 @@ public class StaffWritePlatformServiceJpaRepositoryImpl implements StaffWritePla
             final Staff staff = Staff.fromJson(staffOffice, command);
 
             this.staffRepository.save(staff);
+            this.referenceDataCache.invalidate(ReferenceDataType.STAFF);
 
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
@@ -99,6 +105,7 @@ public class StaffWritePlatformServiceJpaRepositoryImpl implements StaffWritePla
 
             if (!changesOnly.isEmpty()) {
                 this.staffRepository.save(staffForUpdate);
+                this.referenceDataCache.invalidate(ReferenceDataType.STAFF);
             }
 
             return new CommandProcessingResultBuilder().withCommandId(command.commandId()).withEntityId(staffId)
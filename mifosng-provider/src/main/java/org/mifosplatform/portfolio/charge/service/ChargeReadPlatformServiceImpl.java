@@ -10,9 +10,12 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import org.mifosplatform.infrastructure.core.data.EnumOptionData;
 import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataCache;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataType;
 import org.mifosplatform.infrastructure.core.service.TenantAwareRoutingDataSource;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.monetary.data.CurrencyData;
@@ -33,15 +36,18 @@ public class ChargeReadPlatformServiceImpl implements ChargeReadPlatformService
     private final PlatformSecurityContext context;
     private final CurrencyReadPlatformService currencyReadPlatformService;
     private final ChargeDropdownReadPlatformService chargeDropdownReadPlatformService;
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
     public ChargeReadPlatformServiceImpl(final PlatformSecurityContext context,
             final CurrencyReadPlatformService currencyReadPlatformService,
-            final ChargeDropdownReadPlatformService chargeDropdownReadPlatformService, final TenantAwareRoutingDataSource dataSource) {
+            final ChargeDropdownReadPlatformService chargeDropdownReadPlatformService, final TenantAwareRoutingDataSource dataSource,
+            final ReferenceDataCache referenceDataCache) {
         this.context = context;
         this.chargeDropdownReadPlatformService = chargeDropdownReadPlatformService;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
         this.currencyReadPlatformService = currencyReadPlatformService;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Override
@@ -100,16 +106,23 @@ public class ChargeReadPlatformServiceImpl implements ChargeReadPlatformService
     public Collection<ChargeData> retrieveLoanApplicableCharges(final boolean feeChargesOnly) {
         this.context.authenticatedUser();
 
-        final ChargeMapper rm = new ChargeMapper();
+        final String cacheKey = feeChargesOnly ? "loanFees" : "loanCharges";
+        return this.referenceDataCache.retrieve(ReferenceDataType.CHARGES, cacheKey, new Callable<Collection<ChargeData>>() {
 
-        String sql = "select " + rm.chargeSchema()
-                + " where c.is_deleted=0 and c.is_active=1 and c.charge_applies_to_enum=? order by c.name ";
-        if (feeChargesOnly) {
-            sql = "select " + rm.chargeSchema()
-                    + " where c.is_deleted=0 and c.is_active=1 and c.is_penalty=0 and c.charge_applies_to_enum=? order by c.name ";
-        }
+            @Override
+            public Collection<ChargeData> call() {
+                final ChargeMapper rm = new ChargeMapper();
 
-        return this.jdbcTemplate.query(sql, rm, new Object[] { ChargeAppliesTo.LOAN.getValue() });
+                String sql = "select " + rm.chargeSchema()
+                        + " where c.is_deleted=0 and c.is_active=1 and c.charge_applies_to_enum=? order by c.name ";
+                if (feeChargesOnly) {
+                    sql = "select " + rm.chargeSchema()
+                            + " where c.is_deleted=0 and c.is_active=1 and c.is_penalty=0 and c.charge_applies_to_enum=? order by c.name ";
+                }
+
+                return ChargeReadPlatformServiceImpl.this.jdbcTemplate.query(sql, rm, new Object[] { ChargeAppliesTo.LOAN.getValue() });
+            }
+        });
     }
     
     @Override
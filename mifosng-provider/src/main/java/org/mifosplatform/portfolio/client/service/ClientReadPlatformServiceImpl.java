@@ -21,7 +21,9 @@ import org.mifosplatform.infrastructure.core.service.PaginationHelper;
 import org.mifosplatform.infrastructure.core.service.TenantAwareRoutingDataSource;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.office.data.OfficeData;
+import org.mifosplatform.organisation.office.service.OfficeHierarchyCache;
 import org.mifosplatform.organisation.office.service.OfficeReadPlatformService;
+import org.mifosplatform.organisation.office.service.OfficeScope;
 import org.mifosplatform.organisation.staff.data.StaffData;
 import org.mifosplatform.organisation.staff.service.StaffReadPlatformService;
 import org.mifosplatform.portfolio.client.data.ClientAccountSummaryCollectionData;
@@ -51,6 +53,7 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
     private final PlatformSecurityContext context;
     private final OfficeReadPlatformService officeReadPlatformService;
     private final StaffReadPlatformService staffReadPlatformService;
+    private final OfficeHierarchyCache officeHierarchyCache;
 
     // data mappers
     private final PaginationHelper<ClientData> paginationHelper = new PaginationHelper<ClientData>();
@@ -61,11 +64,13 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
 
     @Autowired
     public ClientReadPlatformServiceImpl(final PlatformSecurityContext context, final TenantAwareRoutingDataSource dataSource,
-            final OfficeReadPlatformService officeReadPlatformService, final StaffReadPlatformService staffReadPlatformService) {
+            final OfficeReadPlatformService officeReadPlatformService, final StaffReadPlatformService staffReadPlatformService,
+            final OfficeHierarchyCache officeHierarchyCache) {
         this.context = context;
         this.officeReadPlatformService = officeReadPlatformService;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
         this.staffReadPlatformService = staffReadPlatformService;
+        this.officeHierarchyCache = officeHierarchyCache;
     }
 
     @Override
@@ -89,13 +94,12 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
     public Page<ClientData> retrieveAll(final SearchParameters searchParameters) {
 
         final AppUser currentUser = context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String hierarchySearchString = hierarchy + "%";
+        final OfficeScope scope = this.officeHierarchyCache.scopeOf(currentUser.getOffice().getHierarchy());
 
         StringBuilder sqlBuilder = new StringBuilder(200);
         sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
         sqlBuilder.append(this.clientMapper.schema());
-        sqlBuilder.append(" where o.hierarchy like ?");
+        sqlBuilder.append(" where ").append(scope.sqlPredicate("c.office_id"));
 
         final String extraCriteria = buildSqlStringFromClientCriteria(searchParameters);
 
@@ -120,7 +124,7 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
 
         final String sqlCountRows = "SELECT FOUND_ROWS()";
         return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(),
-                new Object[] { hierarchySearchString }, this.clientMapper);
+                new Object[] {}, this.clientMapper);
     }
 
     private String buildSqlStringFromClientCriteria(final SearchParameters searchParameters) {
@@ -160,7 +164,7 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
         }
 
         if (hierarchy != null) {
-            extraCriteria += " and o.hierarchy like " + ApiParameterHelper.sqlEncodeString(hierarchy + "%");
+            extraCriteria += " and " + this.officeHierarchyCache.scopeOf(hierarchy).sqlPredicate("c.office_id");
         }
 
         if (StringUtils.isNotBlank(extraCriteria)) {
@@ -174,12 +178,11 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
     public ClientData retrieveOne(final Long clientId) {
         try {
             AppUser currentUser = context.authenticatedUser();
-            String hierarchy = currentUser.getOffice().getHierarchy();
-            String hierarchySearchString = hierarchy + "%";
+            final OfficeScope scope = this.officeHierarchyCache.scopeOf(currentUser.getOffice().getHierarchy());
 
-            String sql = "select " + this.clientMapper.schema() + " where o.hierarchy like ? and c.id = ?";
-            ClientData clientData = this.jdbcTemplate.queryForObject(sql, this.clientMapper,
-                    new Object[] { hierarchySearchString, clientId });
+            String sql = "select " + this.clientMapper.schema() + " where c.id = ?";
+            ClientData clientData = this.jdbcTemplate.queryForObject(sql, this.clientMapper, new Object[] { clientId });
+            if (!scope.contains(clientData.officeId())) { throw new ClientNotFoundException(clientId); }
 
             String clientGroupsSql = "select " + this.clientGroupsMapper.parentGroupsSchema();
 
@@ -217,12 +220,12 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
     public Collection<ClientData> retrieveClientMembersOfGroup(final Long groupId) {
 
         final AppUser currentUser = context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String hierarchySearchString = hierarchy + "%";
+        final OfficeScope scope = this.officeHierarchyCache.scopeOf(currentUser.getOffice().getHierarchy());
 
-        final String sql = "select " + this.membersOfGroupMapper.schema() + " where o.hierarchy like ? and pgc.group_id = ?";
+        final String sql = "select " + this.membersOfGroupMapper.schema() + " where " + scope.sqlPredicate("c.office_id")
+                + " and pgc.group_id = ?";
 
-        return this.jdbcTemplate.query(sql, this.membersOfGroupMapper, new Object[] { hierarchySearchString, groupId });
+        return this.jdbcTemplate.query(sql, this.membersOfGroupMapper, new Object[] { groupId });
     }
 
     private static final class ClientMembersOfGroupMapper implements RowMapper<ClientData> {
@@ -37,6 +37,7 @@ import org.mifosplatform.portfolio.group.domain.GroupRepository;
 import org.mifosplatform.portfolio.group.exception.GroupNotFoundException;
 import org.mifosplatform.portfolio.note.domain.Note;
 import org.mifosplatform.portfolio.note.domain.NoteRepository;
+import org.mifosplatform.portfolio.search.service.SearchIndexWritePlatformService;
 import org.mifosplatform.useradministration.domain.AppUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,12 +59,14 @@ public class ClientWritePlatformServiceJpaRepositoryImpl implements ClientWriteP
     private final ClientDataValidator fromApiJsonDeserializer;
     private final AccountNumberGeneratorFactory accountIdentifierGeneratorFactory;
     private final StaffRepositoryWrapper staffRepository;
+    private final SearchIndexWritePlatformService searchIndexWritePlatformService;
 
     @Autowired
     public ClientWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
             final ClientRepositoryWrapper clientRepository, final OfficeRepository officeRepository, final NoteRepository noteRepository,
             final ClientDataValidator fromApiJsonDeserializer, final AccountNumberGeneratorFactory accountIdentifierGeneratorFactory,
-            final GroupRepository groupRepository, final StaffRepositoryWrapper staffRepository) {
+            final GroupRepository groupRepository, final StaffRepositoryWrapper staffRepository,
+            final SearchIndexWritePlatformService searchIndexWritePlatformService) {
         this.context = context;
         this.clientRepository = clientRepository;
         this.officeRepository = officeRepository;
@@ -72,6 +75,7 @@ public class ClientWritePlatformServiceJpaRepositoryImpl implements ClientWriteP
         this.accountIdentifierGeneratorFactory = accountIdentifierGeneratorFactory;
         this.groupRepository = groupRepository;
         this.staffRepository = staffRepository;
+        this.searchIndexWritePlatformService = searchIndexWritePlatformService;
     }
 
     @Transactional
@@ -86,6 +90,7 @@ public class ClientWritePlatformServiceJpaRepositoryImpl implements ClientWriteP
         this.noteRepository.deleteInBatch(relatedNotes);
 
         this.clientRepository.delete(client);
+        this.searchIndexWritePlatformService.removeClient(clientId);
 
         return new CommandProcessingResultBuilder() //
                 .withOfficeId(client.officeId()) //
@@ -153,9 +158,11 @@ public class ClientWritePlatformServiceJpaRepositoryImpl implements ClientWriteP
                 final AccountNumberGenerator accountNoGenerator = this.accountIdentifierGeneratorFactory
                         .determineClientAccountNoGenerator(newClient.getId());
                 newClient.updateAccountNo(accountNoGenerator.generate());
-                this.clientRepository.save(newClient);
+                this.clientRepository.saveAndFlush(newClient);
             }
 
+            this.searchIndexWritePlatformService.indexClient(newClient.getId());
+
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
                     .withOfficeId(clientOffice.getId()) //
@@ -205,6 +212,7 @@ public class ClientWritePlatformServiceJpaRepositoryImpl implements ClientWriteP
 
             if (!changes.isEmpty()) {
                 this.clientRepository.saveAndFlush(clientForUpdate);
+                this.searchIndexWritePlatformService.indexClient(clientId);
             }
 
             return new CommandProcessingResultBuilder() //
@@ -5,7 +5,9 @@
  */
 package org.mifosplatform.portfolio.collectionsheet.service;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
@@ -14,11 +16,15 @@ import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.mifosplatform.portfolio.collectionsheet.command.CollectionSheetBulkDisbursalCommand;
 import org.mifosplatform.portfolio.collectionsheet.command.CollectionSheetBulkRepaymentCommand;
+import org.mifosplatform.portfolio.collectionsheet.command.SingleDisbursalCommand;
+import org.mifosplatform.portfolio.collectionsheet.command.SingleRepaymentCommand;
 import org.mifosplatform.portfolio.collectionsheet.serialization.CollectionSheetBulkDisbursalCommandFromApiJsonDeserializer;
 import org.mifosplatform.portfolio.collectionsheet.serialization.CollectionSheetBulkRepaymentCommandFromApiJsonDeserializer;
+import org.mifosplatform.portfolio.loanaccount.service.LoanLockingService;
 import org.mifosplatform.portfolio.loanaccount.service.LoanWritePlatformService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class CollectionSheetWritePlatformServiceJpaRepositoryImpl implements CollectionSheetWritePlatformService {
@@ -26,17 +32,21 @@ public class CollectionSheetWritePlatformServiceJpaRepositoryImpl implements Col
     private final LoanWritePlatformService loanWritePlatformService;
     private final CollectionSheetBulkRepaymentCommandFromApiJsonDeserializer bulkRepaymentCommandFromApiJsonDeserializer;
     private final CollectionSheetBulkDisbursalCommandFromApiJsonDeserializer bulkDisbursalCommandFromApiJsonDeserializer; 
+    private final LoanLockingService loanLockingService;
 
     @Autowired
     public CollectionSheetWritePlatformServiceJpaRepositoryImpl(LoanWritePlatformService loanWritePlatformService,
             CollectionSheetBulkRepaymentCommandFromApiJsonDeserializer bulkRepaymentCommandFromApiJsonDeserializer,
-            CollectionSheetBulkDisbursalCommandFromApiJsonDeserializer bulkDisbursalCommandFromApiJsonDeserializer) {
+            CollectionSheetBulkDisbursalCommandFromApiJsonDeserializer bulkDisbursalCommandFromApiJsonDeserializer,
+            LoanLockingService loanLockingService) {
         this.loanWritePlatformService = loanWritePlatformService;
         this.bulkRepaymentCommandFromApiJsonDeserializer = bulkRepaymentCommandFromApiJsonDeserializer;
         this.bulkDisbursalCommandFromApiJsonDeserializer = bulkDisbursalCommandFromApiJsonDeserializer;
+        this.loanLockingService = loanLockingService;
     }
 
 
+    @Transactional
     @Override
     public CommandProcessingResult updateCollectionSheet(JsonCommand command) {
         
@@ -49,9 +59,18 @@ public class CollectionSheetWritePlatformServiceJpaRepositoryImpl implements Col
             changes.put("note", noteText);
         }
         
-        changes.putAll(updateBulkReapayments(command));
+        final CollectionSheetBulkRepaymentCommand bulkRepaymentCommand = this.bulkRepaymentCommandFromApiJsonDeserializer.commandFromApiJson(command.json());
+        this.bulkRepaymentCommandFromApiJsonDeserializer.validateBulkRepaymentTransaction(bulkRepaymentCommand);
+        final CollectionSheetBulkDisbursalCommand bulkDisbursalCommand = this.bulkDisbursalCommandFromApiJsonDeserializer.commandFromApiJson(command.json());
+        this.bulkDisbursalCommandFromApiJsonDeserializer.validateBulkDisbursalTransaction(bulkDisbursalCommand);
+
+        // lock every loan on the sheet up front so sheets sharing loans are
+        // applied one after the other instead of interleaving
+        this.loanLockingService.lockForCurrentTransaction(loanIdsOf(bulkRepaymentCommand, bulkDisbursalCommand));
 
-        changes.putAll(updateBulkDisbursals(command));
+        changes.putAll(this.loanWritePlatformService.makeLoanBulkRepayment(bulkRepaymentCommand));
+
+        changes.putAll(this.loanWritePlatformService.bulkLoanDisbursal(command, bulkDisbursalCommand));
 
         return new CommandProcessingResultBuilder() //
                 .withCommandId(command.commandId()) //
@@ -61,19 +80,19 @@ public class CollectionSheetWritePlatformServiceJpaRepositoryImpl implements Col
                 .with(changes).build();
     }
 
-    private Map<String, Object> updateBulkReapayments(JsonCommand command) {
-        Map<String, Object> changes = new HashMap<String, Object>();
-        final CollectionSheetBulkRepaymentCommand bulkRepaymentCommand = this.bulkRepaymentCommandFromApiJsonDeserializer.commandFromApiJson(command.json());
-        this.bulkRepaymentCommandFromApiJsonDeserializer.validateBulkRepaymentTransaction(bulkRepaymentCommand);
-        changes.putAll(this.loanWritePlatformService.makeLoanBulkRepayment(bulkRepaymentCommand));
-        return changes;
-    }
-
-    private Map<String, Object> updateBulkDisbursals(JsonCommand command) {
-        Map<String, Object> changes = new HashMap<String, Object>();
-        final CollectionSheetBulkDisbursalCommand bulkDisbursalCommand = this.bulkDisbursalCommandFromApiJsonDeserializer.commandFromApiJson(command.json());
-        this.bulkDisbursalCommandFromApiJsonDeserializer.validateBulkDisbursalTransaction(bulkDisbursalCommand);
-        changes.putAll(this.loanWritePlatformService.bulkLoanDisbursal(command, bulkDisbursalCommand));
-        return changes;
+    private List<Long> loanIdsOf(final CollectionSheetBulkRepaymentCommand bulkRepaymentCommand,
+            final CollectionSheetBulkDisbursalCommand bulkDisbursalCommand) {
+        final List<Long> loanIds = new ArrayList<Long>();
+        if (bulkRepaymentCommand.getLoanTransactions() != null) {
+            for (final SingleRepaymentCommand singleRepaymentCommand : bulkRepaymentCommand.getLoanTransactions()) {
+                loanIds.add(singleRepaymentCommand.getLoanId());
+            }
+        }
+        if (bulkDisbursalCommand.getDisburseTransactions() != null) {
+            for (final SingleDisbursalCommand singleDisbursalCommand : bulkDisbursalCommand.getDisburseTransactions()) {
+                loanIds.add(singleDisbursalCommand.getLoanId());
+            }
+        }
+        return loanIds;
     }
 }
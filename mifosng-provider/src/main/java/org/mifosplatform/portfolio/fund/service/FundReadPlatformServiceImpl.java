@@ -8,7 +8,10 @@ package org.mifosplatform.portfolio.fund.service;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.concurrent.Callable;
 
+import org.mifosplatform.infrastructure.core.service.ReferenceDataCache;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataType;
 import org.mifosplatform.infrastructure.core.service.TenantAwareRoutingDataSource;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.portfolio.fund.data.FundData;
@@ -24,11 +27,14 @@ public class FundReadPlatformServiceImpl implements FundReadPlatformService {
 
     private final JdbcTemplate jdbcTemplate;
     private final PlatformSecurityContext context;
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
-    public FundReadPlatformServiceImpl(final PlatformSecurityContext context, final TenantAwareRoutingDataSource dataSource) {
+    public FundReadPlatformServiceImpl(final PlatformSecurityContext context, final TenantAwareRoutingDataSource dataSource,
+            final ReferenceDataCache referenceDataCache) {
         this.context = context;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.referenceDataCache = referenceDataCache;
     }
 
     private static final class FundMapper implements RowMapper<FundData> {
@@ -53,10 +59,16 @@ public class FundReadPlatformServiceImpl implements FundReadPlatformService {
 
         context.authenticatedUser();
 
-        final FundMapper rm = new FundMapper();
-        final String sql = "select " + rm.schema() + " order by f.name";
+        return this.referenceDataCache.retrieve(ReferenceDataType.FUNDS, "all", new Callable<Collection<FundData>>() {
 
-        return this.jdbcTemplate.query(sql, rm, new Object[] {});
+            @Override
+            public Collection<FundData> call() {
+                final FundMapper rm = new FundMapper();
+                final String sql = "select " + rm.schema() + " order by f.name";
+
+                return FundReadPlatformServiceImpl.this.jdbcTemplate.query(sql, rm, new Object[] {});
+            }
+        });
     }
 
     @Override
@@ -11,6 +11,8 @@ import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataCache;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataType;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.portfolio.fund.domain.Fund;
 import org.mifosplatform.portfolio.fund.domain.FundRepository;
@@ -31,13 +33,16 @@ public class FundWritePlatformServiceJpaRepositoryImpl implements FundWritePlatf
     private final PlatformSecurityContext context;
     private final FundCommandFromApiJsonDeserializer fromApiJsonDeserializer;
     private final FundRepository fundRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
     public FundWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
-            final FundCommandFromApiJsonDeserializer fromApiJsonDeserializer, final FundRepository fundRepository) {
+            final FundCommandFromApiJsonDeserializer fromApiJsonDeserializer, final FundRepository fundRepository,
+            final ReferenceDataCache referenceDataCache) {
         this.context = context;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.fundRepository = fundRepository;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Transactional
@@ -52,6 +57,7 @@ public class FundWritePlatformServiceJpaRepositoryImpl implements FundWritePlatf
             final Fund fund = Fund.fromJson(command);
 
             this.fundRepository.save(fund);
+            this.referenceDataCache.invalidate(ReferenceDataType.FUNDS);
 
             return new CommandProcessingResultBuilder().withCommandId(command.commandId()).withEntityId(fund.getId()).build();
         } catch (DataIntegrityViolationException dve) {
@@ -75,6 +81,7 @@ public class FundWritePlatformServiceJpaRepositoryImpl implements FundWritePlatf
             final Map<String, Object> changes = fund.update(command);
             if (!changes.isEmpty()) {
                 this.fundRepository.saveAndFlush(fund);
+                this.referenceDataCache.invalidate(ReferenceDataType.FUNDS);
             }
 
             return new CommandProcessingResultBuilder().withCommandId(command.commandId()).withEntityId(fund.getId()).with(changes).build();
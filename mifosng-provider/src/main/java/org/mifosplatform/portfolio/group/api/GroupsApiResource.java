@@ -22,6 +22,8 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
 import org.apache.commons.lang.StringUtils;
@@ -30,12 +32,15 @@ import org.mifosplatform.commands.service.CommandWrapperBuilder;
 import org.mifosplatform.commands.service.PortfolioCommandSourceWritePlatformService;
 import org.mifosplatform.infrastructure.core.api.ApiParameterHelper;
 import org.mifosplatform.infrastructure.core.api.ApiRequestParameterHelper;
+import org.mifosplatform.infrastructure.core.api.ConditionalGetHelper;
 import org.mifosplatform.infrastructure.core.api.JsonQuery;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
+import org.mifosplatform.infrastructure.core.data.EntityVersion;
 import org.mifosplatform.infrastructure.core.exception.UnrecognizedQueryParamException;
 import org.mifosplatform.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
 import org.mifosplatform.infrastructure.core.serialization.FromJsonHelper;
 import org.mifosplatform.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.mifosplatform.infrastructure.core.service.EntityVersionService;
 import org.mifosplatform.infrastructure.core.service.Page;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.portfolio.client.data.ClientData;
@@ -73,6 +78,7 @@ public class GroupsApiResource {
     private final CollectionSheetReadPlatformService collectionSheetReadPlatformService;
     private final FromJsonHelper fromJsonHelper;
     private final GroupRolesReadPlatformService groupRolesReadPlatformService;
+    private final EntityVersionService entityVersionService;
 
     @Autowired
     public GroupsApiResource(final PlatformSecurityContext context, final GroupReadPlatformService groupReadPlatformService,
@@ -83,7 +89,7 @@ public class GroupsApiResource {
             final ApiRequestParameterHelper apiRequestParameterHelper,
             final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
             final CollectionSheetReadPlatformService collectionSheetReadPlatformService, final FromJsonHelper fromJsonHelper,
-            final GroupRolesReadPlatformService groupRolesReadPlatformService) {
+            final GroupRolesReadPlatformService groupRolesReadPlatformService, final EntityVersionService entityVersionService) {
         this.context = context;
         this.groupReadPlatformService = groupReadPlatformService;
         this.centerReadPlatformService = centerReadPlatformService;
@@ -96,30 +102,36 @@ public class GroupsApiResource {
         this.collectionSheetReadPlatformService = collectionSheetReadPlatformService;
         this.fromJsonHelper = fromJsonHelper;
         this.groupRolesReadPlatformService = groupRolesReadPlatformService;
+        this.entityVersionService = entityVersionService;
     }
 
     @GET
     @Path("template")
     @Consumes({ MediaType.APPLICATION_JSON })
     @Produces({ MediaType.APPLICATION_JSON })
-    public String retrieveTemplate(@Context final UriInfo uriInfo, @QueryParam("officeId") final Long officeId,
-            @QueryParam("center") final boolean isCenterGroup, @QueryParam("centerId") final Long centerId,
+    public Response retrieveTemplate(@Context final UriInfo uriInfo, @Context final Request request,
+            @QueryParam("officeId") final Long officeId, @QueryParam("center") final boolean isCenterGroup,
+            @QueryParam("centerId") final Long centerId,
             @DefaultValue("false") @QueryParam("staffInSelectedOfficeOnly") final boolean staffInSelectedOfficeOnly) {
 
         this.context.authenticatedUser().validateHasReadPermission(GroupingTypesApiConstants.GROUP_RESOURCE_NAME);
 
+        final EntityVersion version = this.entityVersionService.templateVersion(null, centerId);
+        final Response notModified = ConditionalGetHelper.notModified(request, version);
+        if (notModified != null) { return notModified; }
+
         if (centerId != null) {
             final GroupGeneralData centerGroupTemplate = this.centerReadPlatformService.retrieveCenterGroupTemplate(centerId);
             final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
-            return this.groupGeneralApiJsonSerializer.serialize(settings, centerGroupTemplate,
-                    GroupingTypesApiConstants.CENTER_GROUP_RESPONSE_DATA_PARAMETERS);
+            return ConditionalGetHelper.ok(this.groupGeneralApiJsonSerializer.serialize(settings, centerGroupTemplate,
+                    GroupingTypesApiConstants.CENTER_GROUP_RESPONSE_DATA_PARAMETERS), version);
         }
 
         final GroupGeneralData groupTemplate = this.groupReadPlatformService.retrieveTemplate(officeId, isCenterGroup,
                 staffInSelectedOfficeOnly);
         final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
-        return this.groupGeneralApiJsonSerializer.serialize(settings, groupTemplate,
-                GroupingTypesApiConstants.GROUP_RESPONSE_DATA_PARAMETERS);
+        return ConditionalGetHelper.ok(this.groupGeneralApiJsonSerializer.serialize(settings, groupTemplate,
+                GroupingTypesApiConstants.GROUP_RESPONSE_DATA_PARAMETERS), version);
     }
 
     @GET
@@ -145,11 +157,16 @@ public class GroupsApiResource {
     @Path("{groupId}")
     @Consumes({ MediaType.APPLICATION_JSON })
     @Produces({ MediaType.APPLICATION_JSON })
-    public String retrieveOne(@Context final UriInfo uriInfo, @PathParam("groupId") final Long groupId,
+    public Response retrieveOne(@Context final UriInfo uriInfo, @Context final Request request, @PathParam("groupId") final Long groupId,
             @DefaultValue("false") @QueryParam("staffInSelectedOfficeOnly") final boolean staffInSelectedOfficeOnly,
             @QueryParam("roleId") final Long roleId) {
 
         this.context.authenticatedUser().validateHasReadPermission(GroupingTypesApiConstants.GROUP_RESOURCE_NAME);
+
+        final EntityVersion version = this.entityVersionService.groupVersion(groupId);
+        final Response notModified = ConditionalGetHelper.notModified(request, version);
+        if (notModified != null) { return notModified; }
+
         final Set<String> associationParameters = ApiParameterHelper.extractAssociationsForResponseIfProvided(uriInfo.getQueryParameters());
 
         GroupGeneralData group = this.groupReadPlatformService.retrieveOne(groupId);
@@ -192,7 +209,9 @@ public class GroupsApiResource {
         }
 
         final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
-        return this.groupGeneralApiJsonSerializer.serialize(settings, group, GroupingTypesApiConstants.GROUP_RESPONSE_DATA_PARAMETERS);
+        return ConditionalGetHelper.ok(
+                this.groupGeneralApiJsonSerializer.serialize(settings, group, GroupingTypesApiConstants.GROUP_RESPONSE_DATA_PARAMETERS),
+                version);
     }
 
     @POST
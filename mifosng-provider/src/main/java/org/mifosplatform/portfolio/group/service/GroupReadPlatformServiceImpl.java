@@ -21,7 +21,9 @@ import org.mifosplatform.infrastructure.core.service.PaginationHelper;
 import org.mifosplatform.infrastructure.core.service.TenantAwareRoutingDataSource;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.office.data.OfficeData;
+import org.mifosplatform.organisation.office.service.OfficeHierarchyCache;
 import org.mifosplatform.organisation.office.service.OfficeReadPlatformService;
+import org.mifosplatform.organisation.office.service.OfficeScope;
 import org.mifosplatform.organisation.staff.data.StaffData;
 import org.mifosplatform.organisation.staff.service.StaffReadPlatformService;
 import org.mifosplatform.portfolio.client.data.ClientData;
@@ -52,6 +54,7 @@ public class GroupReadPlatformServiceImpl implements GroupReadPlatformService {
     private final StaffReadPlatformService staffReadPlatformService;
     private final CenterReadPlatformService centerReadPlatformService;
     private final CodeValueReadPlatformService codeValueReadPlatformService;
+    private final OfficeHierarchyCache officeHierarchyCache;
 
     private final AllGroupTypesDataMapper allGroupTypesDataMapper = new AllGroupTypesDataMapper();
     private final PaginationHelper<GroupGeneralData> paginationHelper = new PaginationHelper<GroupGeneralData>();
@@ -60,7 +63,7 @@ public class GroupReadPlatformServiceImpl implements GroupReadPlatformService {
     public GroupReadPlatformServiceImpl(final PlatformSecurityContext context, final TenantAwareRoutingDataSource dataSource,
             final CenterReadPlatformService centerReadPlatformService, final ClientReadPlatformService clientReadPlatformService,
             final OfficeReadPlatformService officeReadPlatformService, final StaffReadPlatformService staffReadPlatformService,
-            final CodeValueReadPlatformService codeValueReadPlatformService) {
+            final CodeValueReadPlatformService codeValueReadPlatformService, final OfficeHierarchyCache officeHierarchyCache) {
         this.context = context;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
         this.centerReadPlatformService = centerReadPlatformService;
@@ -68,6 +71,7 @@ public class GroupReadPlatformServiceImpl implements GroupReadPlatformService {
         this.officeReadPlatformService = officeReadPlatformService;
         this.staffReadPlatformService = staffReadPlatformService;
         this.codeValueReadPlatformService = codeValueReadPlatformService;
+        this.officeHierarchyCache = officeHierarchyCache;
     }
 
     @Override
@@ -124,13 +128,12 @@ public class GroupReadPlatformServiceImpl implements GroupReadPlatformService {
     public Page<GroupGeneralData> retrieveAll(final SearchParameters searchParameters) {
 
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String hierarchySearchString = hierarchy + "%";
+        final OfficeScope scope = this.officeHierarchyCache.scopeOf(currentUser.getOffice().getHierarchy());
 
         final StringBuilder sqlBuilder = new StringBuilder(200);
         sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
         sqlBuilder.append(this.allGroupTypesDataMapper.schema());
-        sqlBuilder.append(" where o.hierarchy like ?");
+        sqlBuilder.append(" where ").append(scope.sqlPredicate("g.office_id"));
 
         final String extraCriteria = getGroupExtraCriteria(searchParameters);
 
@@ -151,7 +154,7 @@ public class GroupReadPlatformServiceImpl implements GroupReadPlatformService {
 
         final String sqlCountRows = "SELECT FOUND_ROWS()";
         return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(),
-                new Object[] { hierarchySearchString }, this.allGroupTypesDataMapper);
+                new Object[] {}, this.allGroupTypesDataMapper);
     }
 
     // 'g.' preffix because of ERROR 1052 (23000): Column 'column_name' in where
@@ -185,7 +188,7 @@ public class GroupReadPlatformServiceImpl implements GroupReadPlatformService {
 
         final String hierarchy = searchCriteria.getHierarchy();
         if (hierarchy != null) {
-            extraCriteria += " and o.hierarchy like " + ApiParameterHelper.sqlEncodeString(hierarchy + "%");
+            extraCriteria += " and " + this.officeHierarchyCache.scopeOf(hierarchy).sqlPredicate("g.office_id");
         }
 
         if (StringUtils.isNotBlank(extraCriteria)) {
@@ -200,11 +203,13 @@ public class GroupReadPlatformServiceImpl implements GroupReadPlatformService {
 
         try {
             final AppUser currentUser = this.context.authenticatedUser();
-            final String hierarchy = currentUser.getOffice().getHierarchy();
-            final String hierarchySearchString = hierarchy + "%";
+            final OfficeScope scope = this.officeHierarchyCache.scopeOf(currentUser.getOffice().getHierarchy());
 
-            final String sql = "select " + this.allGroupTypesDataMapper.schema() + " where g.id = ? and o.hierarchy like ?";
-            return this.jdbcTemplate.queryForObject(sql, this.allGroupTypesDataMapper, new Object[] { groupId, hierarchySearchString });
+            final String sql = "select " + this.allGroupTypesDataMapper.schema() + " where g.id = ?";
+            final GroupGeneralData groupData = this.jdbcTemplate.queryForObject(sql, this.allGroupTypesDataMapper, new Object[] { groupId });
+            if (!scope.contains(groupData.officeId())) { throw new GroupNotFoundException(groupId); }
+
+            return groupData;
         } catch (final EmptyResultDataAccessException e) {
             throw new GroupNotFoundException(groupId);
         }
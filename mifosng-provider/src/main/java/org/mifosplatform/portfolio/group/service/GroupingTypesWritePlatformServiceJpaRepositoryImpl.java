@@ -46,6 +46,7 @@ import org.mifosplatform.portfolio.loanaccount.domain.Loan;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanRepository;
 import org.mifosplatform.portfolio.note.domain.Note;
 import org.mifosplatform.portfolio.note.domain.NoteRepository;
+import org.mifosplatform.portfolio.search.service.SearchIndexWritePlatformService;
 import org.mifosplatform.useradministration.domain.AppUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -70,13 +71,14 @@ public class GroupingTypesWritePlatformServiceJpaRepositoryImpl implements Group
     private final GroupLevelRepository groupLevelRepository;
     private final GroupingTypesDataValidator fromApiJsonDeserializer;
     private final LoanRepository loanRepository;
+    private final SearchIndexWritePlatformService searchIndexWritePlatformService;
 
     @Autowired
     public GroupingTypesWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
             final GroupRepositoryWrapper groupRepository, final ClientRepositoryWrapper clientRepository,
             final OfficeRepository officeRepository, final StaffRepositoryWrapper staffRepository, final NoteRepository noteRepository,
             final GroupLevelRepository groupLevelRepository, final GroupingTypesDataValidator fromApiJsonDeserializer,
-            final LoanRepository loanRepository) {
+            final LoanRepository loanRepository, final SearchIndexWritePlatformService searchIndexWritePlatformService) {
         this.context = context;
         this.groupRepository = groupRepository;
         this.clientRepository = clientRepository;
@@ -86,6 +88,7 @@ public class GroupingTypesWritePlatformServiceJpaRepositoryImpl implements Group
         this.groupLevelRepository = groupLevelRepository;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.loanRepository = loanRepository;
+        this.searchIndexWritePlatformService = searchIndexWritePlatformService;
     }
 
     private CommandProcessingResult createGroupingType(final JsonCommand command, final GroupTypes groupingType, final Long centerId) {
@@ -128,6 +131,7 @@ public class GroupingTypesWritePlatformServiceJpaRepositoryImpl implements Group
             newGroup.generateHierarchy();
 
             this.groupRepository.saveAndFlush(newGroup);
+            this.searchIndexWritePlatformService.indexGroup(newGroup.getId());
 
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
@@ -303,6 +307,7 @@ public class GroupingTypesWritePlatformServiceJpaRepositoryImpl implements Group
              */
 
             this.groupRepository.saveAndFlush(groupForUpdate);
+            this.searchIndexWritePlatformService.indexGroup(groupForUpdate.getId());
 
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
@@ -344,8 +349,8 @@ public class GroupingTypesWritePlatformServiceJpaRepositoryImpl implements Group
 
         return new CommandProcessingResultBuilder() //
                 .withCommandId(command.commandId()) //
-                .withOfficeId(groupForUpdate.getId()) //
-                .withGroupId(groupForUpdate.officeId()) //
+                .withOfficeId(groupForUpdate.officeId()) //
+                .withGroupId(groupForUpdate.getId()) //
                 .withEntityId(groupForUpdate.getId()) //
                 .with(actualChanges) //
                 .build();
@@ -364,10 +369,11 @@ public class GroupingTypesWritePlatformServiceJpaRepositoryImpl implements Group
         this.noteRepository.deleteInBatch(relatedNotes);
 
         this.groupRepository.delete(groupForDelete);
+        this.searchIndexWritePlatformService.removeGroup(groupId);
 
         return new CommandProcessingResultBuilder() //
-                .withOfficeId(groupForDelete.getId()) //
-                .withGroupId(groupForDelete.officeId()) //
+                .withOfficeId(groupForDelete.officeId()) //
+                .withGroupId(groupForDelete.getId()) //
                 .withEntityId(groupForDelete.getId()) //
                 .build();
     }
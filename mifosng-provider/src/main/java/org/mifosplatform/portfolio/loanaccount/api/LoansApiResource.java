@@ -10,7 +10,10 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.DefaultValue;
@@ -23,6 +26,9 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
 import org.apache.commons.lang.StringUtils;
@@ -34,14 +40,19 @@ import org.mifosplatform.infrastructure.codes.data.CodeValueData;
 import org.mifosplatform.infrastructure.codes.service.CodeValueReadPlatformService;
 import org.mifosplatform.infrastructure.core.api.ApiParameterHelper;
 import org.mifosplatform.infrastructure.core.api.ApiRequestParameterHelper;
+import org.mifosplatform.infrastructure.core.api.ConditionalGetHelper;
 import org.mifosplatform.infrastructure.core.api.JsonQuery;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
+import org.mifosplatform.infrastructure.core.data.EntityVersion;
 import org.mifosplatform.infrastructure.core.data.EnumOptionData;
 import org.mifosplatform.infrastructure.core.exception.UnrecognizedQueryParamException;
 import org.mifosplatform.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
 import org.mifosplatform.infrastructure.core.serialization.DefaultToApiJsonSerializer;
 import org.mifosplatform.infrastructure.core.serialization.FromJsonHelper;
+import org.mifosplatform.infrastructure.core.service.EntityVersionService;
 import org.mifosplatform.infrastructure.core.service.Page;
+import org.mifosplatform.infrastructure.core.service.ParallelReadExecutor;
+import org.mifosplatform.infrastructure.core.service.ParallelReads;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.staff.data.BulkTransferLoanOfficerData;
 import org.mifosplatform.organisation.staff.data.StaffData;
@@ -100,6 +111,12 @@ public class LoansApiResource {
 
     private final String resourceNameForPermissions = "LOAN";
 
+    /**
+     * Debug header listing how long each association and template read of a
+     * single loan request took.
+     */
+    private static final String READ_TIMINGS_HEADER = "X-Mifos-Read-Timings";
+
     private final PlatformSecurityContext context;
     private final LoanReadPlatformService loanReadPlatformService;
     private final LoanProductReadPlatformService loanProductReadPlatformService;
@@ -120,6 +137,8 @@ public class LoansApiResource {
     private final FromJsonHelper fromJsonHelper;
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
     private final CalendarReadPlatformService calendarReadPlatformService;
+    private final ParallelReadExecutor parallelReadExecutor;
+    private final EntityVersionService entityVersionService;
 
     @Autowired
     public LoansApiResource(final PlatformSecurityContext context, final LoanReadPlatformService loanReadPlatformService,
@@ -135,7 +154,8 @@ public class LoansApiResource {
             final DefaultToApiJsonSerializer<BulkTransferLoanOfficerData> loanOfficeTransferToApiJsonSerializer,
             final ApiRequestParameterHelper apiRequestParameterHelper, final FromJsonHelper fromJsonHelper,
             final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
-            final CalendarReadPlatformService calendarReadPlatformService) {
+            final CalendarReadPlatformService calendarReadPlatformService, final ParallelReadExecutor parallelReadExecutor,
+            final EntityVersionService entityVersionService) {
         this.context = context;
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanProductReadPlatformService = loanProductReadPlatformService;
@@ -156,19 +176,25 @@ public class LoansApiResource {
         this.fromJsonHelper = fromJsonHelper;
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
         this.calendarReadPlatformService = calendarReadPlatformService;
+        this.parallelReadExecutor = parallelReadExecutor;
+        this.entityVersionService = entityVersionService;
     }
 
     @GET
     @Path("template")
     @Consumes({ MediaType.APPLICATION_JSON })
     @Produces({ MediaType.APPLICATION_JSON })
-    public String template(@QueryParam("clientId") final Long clientId, @QueryParam("groupId") final Long groupId,
+    public Response template(@QueryParam("clientId") final Long clientId, @QueryParam("groupId") final Long groupId,
             @QueryParam("productId") final Long productId, @QueryParam("templateType") final String templateType,
             @DefaultValue("false") @QueryParam("staffInSelectedOfficeOnly") final boolean staffInSelectedOfficeOnly,
-            @Context final UriInfo uriInfo) {
+            @Context final UriInfo uriInfo, @Context final Request request) {
 
         context.authenticatedUser().validateHasReadPermission(resourceNameForPermissions);
 
+        final EntityVersion version = this.entityVersionService.templateVersion(clientId, groupId);
+        final Response notModified = ConditionalGetHelper.notModified(request, version);
+        if (notModified != null) { return notModified; }
+
         // template
         final Collection<LoanProductData> productOptions = this.loanProductReadPlatformService.retrieveAllLoanProductsForLookup();
 
@@ -254,25 +280,34 @@ public class LoansApiResource {
             newLoanAccount = LoanAccountData.associationsAndTemplate(newLoanAccount, productOptions, allowedLoanOfficers, calendarOptions);
         }
         final ApiRequestJsonSerializationSettings settings = apiRequestParameterHelper.process(uriInfo.getQueryParameters());
-        return this.toApiJsonSerializer.serialize(settings, newLoanAccount, LOAN_DATA_PARAMETERS);
+        return ConditionalGetHelper.ok(this.toApiJsonSerializer.serialize(settings, newLoanAccount, LOAN_DATA_PARAMETERS), version);
     }
 
     @GET
     @Path("{loanId}")
     @Consumes({ MediaType.APPLICATION_JSON })
     @Produces({ MediaType.APPLICATION_JSON })
-    public String retrieveLoan(@PathParam("loanId") final Long loanId, @Context final UriInfo uriInfo) {
+    public Response retrieveLoan(@PathParam("loanId") final Long loanId, @Context final UriInfo uriInfo,
+            @Context final HttpServletResponse response, @Context final Request request) {
 
         context.authenticatedUser().validateHasReadPermission(resourceNameForPermissions);
 
+        final EntityVersion version = this.entityVersionService.loanVersion(loanId);
+        final Response notModified = ConditionalGetHelper.notModified(request, version);
+        if (notModified != null) { return notModified; }
+
         final LoanAccountData loanBasicDetails = this.loanReadPlatformService.retrieveOne(loanId);
 
-        Collection<LoanTransactionData> loanRepayments = null;
-        LoanScheduleData repaymentSchedule = null;
-        Collection<LoanChargeData> charges = null;
-        Collection<GuarantorData> guarantors = null;
-        Collection<CollateralData> collateral = null;
-        CalendarData meeting = null;
+        // associations and template options are independent of one another so
+        // are read concurrently once the basic loan details are known
+        final ParallelReads parallelReads = this.parallelReadExecutor.newParallelReads();
+
+        Future<Collection<LoanTransactionData>> loanRepaymentsRead = null;
+        Future<LoanScheduleData> repaymentScheduleRead = null;
+        Future<Collection<LoanChargeData>> chargesRead = null;
+        Future<Collection<GuarantorData>> guarantorsRead = null;
+        Future<Collection<CollateralData>> collateralRead = null;
+        Future<CalendarData> meetingRead = null;
 
         final Set<String> mandatoryResponseParameters = new HashSet<String>();
         final Set<String> associationParameters = ApiParameterHelper.extractAssociationsForResponseIfProvided(uriInfo.getQueryParameters());
@@ -284,46 +319,70 @@ public class LoansApiResource {
 
             if (associationParameters.contains("guarantors")) {
                 mandatoryResponseParameters.add("guarantors");
-                guarantors = this.guarantorReadPlatformService.retrieveGuarantorsForLoan(loanId);
-                if (CollectionUtils.isEmpty(guarantors)) {
-                    guarantors = null;
-                }
+                guarantorsRead = parallelReads.submit("guarantors", new Callable<Collection<GuarantorData>>() {
+
+                    @Override
+                    public Collection<GuarantorData> call() {
+                        return guarantorReadPlatformService.retrieveGuarantorsForLoan(loanId);
+                    }
+                });
             }
 
             if (associationParameters.contains("transactions")) {
                 mandatoryResponseParameters.add("transactions");
-                final Collection<LoanTransactionData> currentLoanRepayments = this.loanReadPlatformService.retrieveLoanTransactions(loanId);
-                if (!CollectionUtils.isEmpty(currentLoanRepayments)) {
-                    loanRepayments = currentLoanRepayments;
-                }
+                loanRepaymentsRead = parallelReads.submit("transactions", new Callable<Collection<LoanTransactionData>>() {
+
+                    @Override
+                    public Collection<LoanTransactionData> call() {
+                        return loanReadPlatformService.retrieveLoanTransactions(loanId);
+                    }
+                });
             }
 
             if (associationParameters.contains("repaymentSchedule")) {
                 mandatoryResponseParameters.add("repaymentSchedule");
 
                 final RepaymentScheduleRelatedLoanData repaymentScheduleRelatedData = loanBasicDetails.repaymentScheduleRelatedData();
-                repaymentSchedule = this.loanReadPlatformService.retrieveRepaymentSchedule(loanId, repaymentScheduleRelatedData);
+                repaymentScheduleRead = parallelReads.submit("repaymentSchedule", new Callable<LoanScheduleData>() {
+
+                    @Override
+                    public LoanScheduleData call() {
+                        return loanReadPlatformService.retrieveRepaymentSchedule(loanId, repaymentScheduleRelatedData);
+                    }
+                });
             }
 
             if (associationParameters.contains("charges")) {
                 mandatoryResponseParameters.add("charges");
-                charges = this.loanChargeReadPlatformService.retrieveLoanCharges(loanId);
-                if (CollectionUtils.isEmpty(charges)) {
-                    charges = null;
-                }
+                chargesRead = parallelReads.submit("charges", new Callable<Collection<LoanChargeData>>() {
+
+                    @Override
+                    public Collection<LoanChargeData> call() {
+                        return loanChargeReadPlatformService.retrieveLoanCharges(loanId);
+                    }
+                });
             }
 
             if (associationParameters.contains("collateral")) {
                 mandatoryResponseParameters.add("collateral");
-                collateral = this.loanCollateralReadPlatformService.retrieveCollaterals(loanId);
-                if (CollectionUtils.isEmpty(collateral)) {
-                    collateral = null;
-                }
+                collateralRead = parallelReads.submit("collateral", new Callable<Collection<CollateralData>>() {
+
+                    @Override
+                    public Collection<CollateralData> call() {
+                        return loanCollateralReadPlatformService.retrieveCollaterals(loanId);
+                    }
+                });
             }
 
             if (associationParameters.contains("meeting")) {
                 mandatoryResponseParameters.add("meeting");
-                meeting = this.calendarReadPlatformService.retrieveLoanCalendar(loanId);
+                meetingRead = parallelReads.submit("meeting", new Callable<CalendarData>() {
+
+                    @Override
+                    public CalendarData call() {
+                        return calendarReadPlatformService.retrieveLoanCalendar(loanId);
+                    }
+                });
             }
         }
 
@@ -343,38 +402,140 @@ public class LoansApiResource {
         Collection<CodeValueData> loanCollateralOptions = null;
         Collection<CalendarData> calendarOptions = null;
 
+        Future<Collection<LoanProductData>> productOptionsRead = null;
+        Future<Collection<TransactionProcessingStrategyData>> repaymentStrategyOptionsRead = null;
+        Future<Collection<FundData>> fundOptionsRead = null;
+        Future<Collection<StaffData>> allowedLoanOfficersRead = null;
+        Future<Collection<ChargeData>> chargeOptionsRead = null;
+        Future<ChargeData> chargeTemplateRead = null;
+        Future<Collection<CodeValueData>> loanPurposeOptionsRead = null;
+        Future<Collection<CodeValueData>> loanCollateralOptionsRead = null;
+        Future<Collection<CalendarData>> calendarOptionsRead = null;
+
         final boolean template = ApiParameterHelper.template(uriInfo.getQueryParameters());
         if (template) {
-            productOptions = this.loanProductReadPlatformService.retrieveAllLoanProductsForLookup();
-            loanTermFrequencyTypeOptions = dropdownReadPlatformService.retrieveLoanTermFrequencyTypeOptions();
-            repaymentFrequencyTypeOptions = dropdownReadPlatformService.retrieveRepaymentFrequencyTypeOptions();
-            interestRateFrequencyTypeOptions = dropdownReadPlatformService.retrieveInterestRateFrequencyTypeOptions();
+            productOptionsRead = parallelReads.submit("productOptions", new Callable<Collection<LoanProductData>>() {
 
-            amortizationTypeOptions = dropdownReadPlatformService.retrieveLoanAmortizationTypeOptions();
-            interestTypeOptions = dropdownReadPlatformService.retrieveLoanInterestTypeOptions();
-            interestCalculationPeriodTypeOptions = dropdownReadPlatformService.retrieveLoanInterestRateCalculatedInPeriodOptions();
+                @Override
+                public Collection<LoanProductData> call() {
+                    return loanProductReadPlatformService.retrieveAllLoanProductsForLookup();
+                }
+            });
+            fundOptionsRead = parallelReads.submit("fundOptions", new Callable<Collection<FundData>>() {
 
-            fundOptions = this.fundReadPlatformService.retrieveAllFunds();
-            repaymentStrategyOptions = this.dropdownReadPlatformService.retreiveTransactionProcessingStrategies();
-            final boolean feeChargesOnly = false;
-            chargeOptions = this.chargeReadPlatformService.retrieveLoanApplicableCharges(feeChargesOnly);
-            chargeTemplate = this.loanChargeReadPlatformService.retrieveLoanChargeTemplate();
+                @Override
+                public Collection<FundData> call() {
+                    return fundReadPlatformService.retrieveAllFunds();
+                }
+            });
+            repaymentStrategyOptionsRead = parallelReads.submit("transactionProcessingStrategyOptions",
+                    new Callable<Collection<TransactionProcessingStrategyData>>() {
+
+                        @Override
+                        public Collection<TransactionProcessingStrategyData> call() {
+                            return dropdownReadPlatformService.retreiveTransactionProcessingStrategies();
+                        }
+                    });
+            chargeOptionsRead = parallelReads.submit("chargeOptions", new Callable<Collection<ChargeData>>() {
+
+                @Override
+                public Collection<ChargeData> call() {
+                    final boolean feeChargesOnly = false;
+                    return chargeReadPlatformService.retrieveLoanApplicableCharges(feeChargesOnly);
+                }
+            });
+            chargeTemplateRead = parallelReads.submit("chargeTemplate", new Callable<ChargeData>() {
 
+                @Override
+                public ChargeData call() {
+                    return loanChargeReadPlatformService.retrieveLoanChargeTemplate();
+                }
+            });
+
+            Long loanOfficerOfficeId = null;
             if (loanBasicDetails.officeId() != null) {
-                allowedLoanOfficers = this.staffReadPlatformService.retrieveAllLoanOfficersInOfficeById(loanBasicDetails.officeId());
+                loanOfficerOfficeId = loanBasicDetails.officeId();
             } else if (loanBasicDetails.groupOfficeId() != null) {
-                allowedLoanOfficers = this.staffReadPlatformService.retrieveAllLoanOfficersInOfficeById(loanBasicDetails.groupOfficeId());
+                loanOfficerOfficeId = loanBasicDetails.groupOfficeId();
+            }
+            if (loanOfficerOfficeId != null) {
+                final Long officeId = loanOfficerOfficeId;
+                allowedLoanOfficersRead = parallelReads.submit("loanOfficerOptions", new Callable<Collection<StaffData>>() {
+
+                    @Override
+                    public Collection<StaffData> call() {
+                        return staffReadPlatformService.retrieveAllLoanOfficersInOfficeById(officeId);
+                    }
+                });
             }
 
-            loanPurposeOptions = this.codeValueReadPlatformService.retrieveCodeValuesByCode("LoanPurpose");
-            loanCollateralOptions = this.codeValueReadPlatformService.retrieveCodeValuesByCode("LoanCollateral");
+            loanPurposeOptionsRead = parallelReads.submit("loanPurposeOptions", new Callable<Collection<CodeValueData>>() {
+
+                @Override
+                public Collection<CodeValueData> call() {
+                    return codeValueReadPlatformService.retrieveCodeValuesByCode("LoanPurpose");
+                }
+            });
+            loanCollateralOptionsRead = parallelReads.submit("loanCollateralOptions", new Callable<Collection<CodeValueData>>() {
+
+                @Override
+                public Collection<CodeValueData> call() {
+                    return codeValueReadPlatformService.retrieveCodeValuesByCode("LoanCollateral");
+                }
+            });
 
             if (loanBasicDetails.groupId() != null) {
-                calendarOptions = this.loanReadPlatformService.retrieveCalendars(loanBasicDetails.groupId());
+                final Long groupId = loanBasicDetails.groupId();
+                calendarOptionsRead = parallelReads.submit("calendarOptions", new Callable<Collection<CalendarData>>() {
+
+                    @Override
+                    public Collection<CalendarData> call() {
+                        return loanReadPlatformService.retrieveCalendars(groupId);
+                    }
+                });
+            }
+
+            // enumeration based options need no database access
+            loanTermFrequencyTypeOptions = dropdownReadPlatformService.retrieveLoanTermFrequencyTypeOptions();
+            repaymentFrequencyTypeOptions = dropdownReadPlatformService.retrieveRepaymentFrequencyTypeOptions();
+            interestRateFrequencyTypeOptions = dropdownReadPlatformService.retrieveInterestRateFrequencyTypeOptions();
+
+            amortizationTypeOptions = dropdownReadPlatformService.retrieveLoanAmortizationTypeOptions();
+            interestTypeOptions = dropdownReadPlatformService.retrieveLoanInterestTypeOptions();
+            interestCalculationPeriodTypeOptions = dropdownReadPlatformService.retrieveLoanInterestRateCalculatedInPeriodOptions();
+        }
+
+        Collection<LoanTransactionData> loanRepayments = null;
+        if (loanRepaymentsRead != null) {
+            final Collection<LoanTransactionData> currentLoanRepayments = parallelReads.get(loanRepaymentsRead);
+            if (!CollectionUtils.isEmpty(currentLoanRepayments)) {
+                loanRepayments = currentLoanRepayments;
             }
+        }
+        final LoanScheduleData repaymentSchedule = repaymentScheduleRead == null ? null : parallelReads.get(repaymentScheduleRead);
+        final Collection<LoanChargeData> charges = emptyAsNull(chargesRead == null ? null : parallelReads.get(chargesRead));
+        final Collection<GuarantorData> guarantors = emptyAsNull(guarantorsRead == null ? null : parallelReads.get(guarantorsRead));
+        final Collection<CollateralData> collateral = emptyAsNull(collateralRead == null ? null : parallelReads.get(collateralRead));
+        final CalendarData meeting = meetingRead == null ? null : parallelReads.get(meetingRead);
 
+        if (template) {
+            productOptions = parallelReads.get(productOptionsRead);
+            fundOptions = parallelReads.get(fundOptionsRead);
+            repaymentStrategyOptions = parallelReads.get(repaymentStrategyOptionsRead);
+            chargeOptions = parallelReads.get(chargeOptionsRead);
+            chargeTemplate = parallelReads.get(chargeTemplateRead);
+            if (allowedLoanOfficersRead != null) {
+                allowedLoanOfficers = parallelReads.get(allowedLoanOfficersRead);
+            }
+            loanPurposeOptions = parallelReads.get(loanPurposeOptionsRead);
+            loanCollateralOptions = parallelReads.get(loanCollateralOptionsRead);
+            if (calendarOptionsRead != null) {
+                calendarOptions = parallelReads.get(calendarOptionsRead);
+            }
         }
 
+        response.setHeader(READ_TIMINGS_HEADER, parallelReads.timingsAsHeaderValue());
+
         final LoanAccountData loanAccount = LoanAccountData.associationsAndTemplate(loanBasicDetails, repaymentSchedule, loanRepayments,
                 charges, collateral, guarantors, meeting, productOptions, loanTermFrequencyTypeOptions, repaymentFrequencyTypeOptions,
                 repaymentStrategyOptions, interestRateFrequencyTypeOptions, amortizationTypeOptions, interestTypeOptions,
@@ -383,13 +544,17 @@ public class LoansApiResource {
 
         final ApiRequestJsonSerializationSettings settings = apiRequestParameterHelper.process(uriInfo.getQueryParameters(),
                 mandatoryResponseParameters);
-        return this.toApiJsonSerializer.serialize(settings, loanAccount, LOAN_DATA_PARAMETERS);
+        return ConditionalGetHelper.ok(this.toApiJsonSerializer.serialize(settings, loanAccount, LOAN_DATA_PARAMETERS), version);
+    }
+
+    private static <T> Collection<T> emptyAsNull(final Collection<T> collection) {
+        return CollectionUtils.isEmpty(collection) ? null : collection;
     }
 
     @GET
     @Consumes({ MediaType.APPLICATION_JSON })
     @Produces({ MediaType.APPLICATION_JSON })
-    public String retrieveAll(@Context final UriInfo uriInfo, @QueryParam("sqlSearch") final String sqlSearch,
+    public StreamingOutput retrieveAll(@Context final UriInfo uriInfo, @QueryParam("sqlSearch") final String sqlSearch,
             @QueryParam("externalId") final String externalId, @QueryParam("underHierarchy") final String hierarchy,
             @QueryParam("offset") final Integer offset, @QueryParam("limit") final Integer limit,
             @QueryParam("orderBy") final String orderBy, @QueryParam("sortOrder") final String sortOrder) {
@@ -401,7 +566,7 @@ public class LoansApiResource {
         final Page<LoanAccountData> loanBasicDetails = this.loanReadPlatformService.retrieveAll(searchParameters);
 
         final ApiRequestJsonSerializationSettings settings = apiRequestParameterHelper.process(uriInfo.getQueryParameters());
-        return this.toApiJsonSerializer.serialize(settings, loanBasicDetails, LOAN_DATA_PARAMETERS);
+        return this.toApiJsonSerializer.serializeStreaming(settings, loanBasicDetails, LOAN_DATA_PARAMETERS);
     }
 
     @POST
@@ -34,6 +34,7 @@ import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 import javax.persistence.Transient;
 import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 
 import org.apache.commons.lang.ObjectUtils;
 import org.apache.commons.lang.StringUtils;
@@ -85,6 +86,15 @@ import org.springframework.data.jpa.domain.AbstractPersistable;
         @UniqueConstraint(columnNames = { "external_id" }, name = "loan_externalid_UNIQUE") })
 public class Loan extends AbstractPersistable<Long> {
 
+    /**
+     * Detects concurrent changes to the loan made by writers that could not
+     * lock it before their transaction began.
+     */
+    @SuppressWarnings("unused")
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "account_no", length = 20, unique = true, nullable = false)
     private String accountNumber;
 
@@ -749,20 +759,17 @@ public class Loan extends AbstractPersistable<Long> {
         this.collateral.addAll(associateWithThisLoan(loanCollateral));
     }
 
+    /**
+     * Replaces the repayment schedule with <code>modifiedLoanSchedule</code>.
+     * 
+     * Existing installments are updated in place period by period rather than
+     * being cleared and re-created, so regenerating a schedule only updates the
+     * rows whose amounts or dates actually changed, inserts any additional
+     * periods and deletes (through orphan removal) any surplus ones.
+     */
     public void updateLoanSchedule(final LoanScheduleModel modifiedLoanSchedule) {
-        this.repaymentScheduleInstallments.clear();
-
-        for (LoanScheduleModelPeriod scheduledLoanInstallment : modifiedLoanSchedule.getPeriods()) {
 
-            if (scheduledLoanInstallment.isRepaymentPeriod()) {
-                LoanRepaymentScheduleInstallment installment = new LoanRepaymentScheduleInstallment(this,
-                        scheduledLoanInstallment.periodNumber(), scheduledLoanInstallment.periodFromDate(),
-                        scheduledLoanInstallment.periodDueDate(), scheduledLoanInstallment.principalDue(),
-                        scheduledLoanInstallment.interestDue(), scheduledLoanInstallment.feeChargesDue(),
-                        scheduledLoanInstallment.penaltyChargesDue());
-                this.addRepaymentScheduleInstallment(installment);
-            }
-        }
+        LoanRepaymentScheduleInstallmentMatcher.updateInPlace(this, this.repaymentScheduleInstallments, modifiedLoanSchedule.getPeriods());
 
         updateLoanScheduleDependentDerivedFields();
         updateLoanSummaryDerivedFields();
@@ -2026,11 +2033,6 @@ public class Loan extends AbstractPersistable<Long> {
         return firstRepaymentDate;
     }
 
-    private void addRepaymentScheduleInstallment(final LoanRepaymentScheduleInstallment installment) {
-        installment.updateLoan(this);
-        this.repaymentScheduleInstallments.add(installment);
-    }
-
     private boolean isActualDisbursedOnDateEarlierOrLaterThanExpected(final LocalDate actualDisbursedOnDate) {
         return !new LocalDate(this.expectedDisbursementDate).isEqual(actualDisbursedOnDate);
     }
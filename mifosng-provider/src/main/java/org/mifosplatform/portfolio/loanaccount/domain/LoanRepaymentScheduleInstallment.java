@@ -31,15 +31,15 @@ public final class LoanRepaymentScheduleInstallment extends AbstractAuditableCus
     private Loan loan;
 
     @Column(name = "installment", nullable = false)
-    private final Integer installmentNumber;
+    private Integer installmentNumber;
 
     @Temporal(TemporalType.DATE)
     @Column(name = "fromdate", nullable = true)
-    private final Date fromDate;
+    private Date fromDate;
 
     @Temporal(TemporalType.DATE)
     @Column(name = "duedate", nullable = false)
-    private final Date dueDate;
+    private Date dueDate;
 
     @Column(name = "principal_amount", scale = 6, precision = 19, nullable = true)
     private BigDecimal principal;
@@ -121,6 +121,23 @@ public final class LoanRepaymentScheduleInstallment extends AbstractAuditableCus
         this.obligationsMet = false;
     }
 
+    /**
+     * Brings a persisted installment in line with a regenerated schedule
+     * period. Derived (paid, waived, written off) amounts are reset exactly as
+     * for a newly created installment.
+     */
+    public void updateFromSchedule(final Integer installmentNumber, final LocalDate fromDate, final LocalDate dueDate,
+            final BigDecimal principal, final BigDecimal interest, final BigDecimal feeCharges, final BigDecimal penaltyCharges) {
+        this.installmentNumber = installmentNumber;
+        this.fromDate = fromDate.toDateMidnight().toDate();
+        this.dueDate = dueDate.toDateMidnight().toDate();
+        this.principal = defaultToNullIfZero(principal);
+        this.interestCharged = defaultToNullIfZero(interest);
+        this.feeChargesCharged = defaultToNullIfZero(feeCharges);
+        this.penaltyCharges = defaultToNullIfZero(penaltyCharges);
+        resetDerivedComponents();
+    }
+
     private BigDecimal defaultToNullIfZero(final BigDecimal value) {
         BigDecimal result = value;
         if (BigDecimal.ZERO.compareTo(value) == 0) {
@@ -0,0 +1,58 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.domain;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanScheduleModelPeriod;
+
+/**
+ * Matches the repayment periods of a regenerated schedule against a loan's
+ * persisted installments period by period.
+ */
+public final class LoanRepaymentScheduleInstallmentMatcher {
+
+    private LoanRepaymentScheduleInstallmentMatcher() {
+        //
+    }
+
+    /**
+     * Updates <code>installments</code> in place so they match the repayment
+     * periods in <code>periods</code>: existing installments are reused in
+     * order, additional periods are appended as new installments of
+     * <code>loan</code> and surplus installments are removed from the tail.
+     */
+    public static void updateInPlace(final Loan loan, final List<LoanRepaymentScheduleInstallment> installments,
+            final Collection<LoanScheduleModelPeriod> periods) {
+
+        int installmentIndex = 0;
+        for (final LoanScheduleModelPeriod scheduledLoanInstallment : periods) {
+
+            if (scheduledLoanInstallment.isRepaymentPeriod()) {
+                if (installmentIndex < installments.size()) {
+                    final LoanRepaymentScheduleInstallment existingInstallment = installments.get(installmentIndex);
+                    existingInstallment.updateFromSchedule(scheduledLoanInstallment.periodNumber(),
+                            scheduledLoanInstallment.periodFromDate(), scheduledLoanInstallment.periodDueDate(),
+                            scheduledLoanInstallment.principalDue(), scheduledLoanInstallment.interestDue(),
+                            scheduledLoanInstallment.feeChargesDue(), scheduledLoanInstallment.penaltyChargesDue());
+                } else {
+                    final LoanRepaymentScheduleInstallment installment = new LoanRepaymentScheduleInstallment(loan,
+                            scheduledLoanInstallment.periodNumber(), scheduledLoanInstallment.periodFromDate(),
+                            scheduledLoanInstallment.periodDueDate(), scheduledLoanInstallment.principalDue(),
+                            scheduledLoanInstallment.interestDue(), scheduledLoanInstallment.feeChargesDue(),
+                            scheduledLoanInstallment.penaltyChargesDue());
+                    installments.add(installment);
+                }
+                installmentIndex++;
+            }
+        }
+
+        while (installments.size() > installmentIndex) {
+            installments.remove(installments.size() - 1);
+        }
+    }
+}
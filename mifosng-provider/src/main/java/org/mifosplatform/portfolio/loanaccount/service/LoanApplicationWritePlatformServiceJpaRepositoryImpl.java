@@ -60,6 +60,7 @@ import org.mifosplatform.portfolio.loanproduct.exception.LoanProductNotFoundExce
 import org.mifosplatform.portfolio.loanproduct.serialization.LoanProductDataValidator;
 import org.mifosplatform.portfolio.note.domain.Note;
 import org.mifosplatform.portfolio.note.domain.NoteRepository;
+import org.mifosplatform.portfolio.search.service.SearchIndexWritePlatformService;
 import org.mifosplatform.useradministration.domain.AppUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -94,6 +95,7 @@ public class LoanApplicationWritePlatformServiceJpaRepositoryImpl implements Loa
     private final LoanRepaymentScheduleTransactionProcessorFactory loanRepaymentScheduleTransactionProcessorFactory;
     private final CalendarRepository calendarRepository;
     private final CalendarInstanceRepository calendarInstanceRepository;
+    private final SearchIndexWritePlatformService searchIndexWritePlatformService;
 
     @Autowired
     public LoanApplicationWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context, final FromJsonHelper fromJsonHelper,
@@ -106,7 +108,8 @@ public class LoanApplicationWritePlatformServiceJpaRepositoryImpl implements Loa
             final LoanProductRepository loanProductRepository, final AccountNumberGeneratorFactory accountIdentifierGeneratorFactory,
             final LoanSummaryWrapper loanSummaryWrapper,
             final LoanRepaymentScheduleTransactionProcessorFactory loanRepaymentScheduleTransactionProcessorFactory,
-            final CalendarRepository calendarRepository, final CalendarInstanceRepository calendarInstanceRepository) {
+            final CalendarRepository calendarRepository, final CalendarInstanceRepository calendarInstanceRepository,
+            final SearchIndexWritePlatformService searchIndexWritePlatformService) {
         this.context = context;
         this.fromJsonHelper = fromJsonHelper;
         this.loanApplicationTransitionApiJsonValidator = loanApplicationTransitionApiJsonValidator;
@@ -126,6 +129,7 @@ public class LoanApplicationWritePlatformServiceJpaRepositoryImpl implements Loa
         this.loanRepaymentScheduleTransactionProcessorFactory = loanRepaymentScheduleTransactionProcessorFactory;
         this.calendarRepository = calendarRepository;
         this.calendarInstanceRepository = calendarInstanceRepository;
+        this.searchIndexWritePlatformService = searchIndexWritePlatformService;
     }
 
     private LoanLifecycleStateMachine defaultLoanLifecycleStateMachine() {
@@ -160,9 +164,11 @@ public class LoanApplicationWritePlatformServiceJpaRepositoryImpl implements Loa
             final AccountNumberGenerator accountNoGenerator = this.accountIdentifierGeneratorFactory
                     .determineLoanAccountNoGenerator(newLoanApplication.getId());
             newLoanApplication.updateAccountNo(accountNoGenerator.generate());
-            this.loanRepository.save(newLoanApplication);
+            this.loanRepository.saveAndFlush(newLoanApplication);
         }
 
+        this.searchIndexWritePlatformService.indexLoan(newLoanApplication.getId());
+
         final String submittedOnNote = command.stringValueOfParameterNamed("submittedOnNote");
         if (StringUtils.isNotBlank(submittedOnNote)) {
             Note note = Note.loanNote(newLoanApplication, submittedOnNote);
@@ -287,6 +293,7 @@ public class LoanApplicationWritePlatformServiceJpaRepositoryImpl implements Loa
             }
 
             this.loanRepository.saveAndFlush(existingLoanApplication);
+            this.searchIndexWritePlatformService.indexLoan(loanId);
 
             final String submittedOnNote = command.stringValueOfParameterNamed("submittedOnNote");
             if (StringUtils.isNotBlank(submittedOnNote)) {
@@ -379,6 +386,7 @@ public class LoanApplicationWritePlatformServiceJpaRepositoryImpl implements Loa
         this.noteRepository.deleteInBatch(relatedNotes);
 
         this.loanRepository.delete(loanId);
+        this.searchIndexWritePlatformService.removeLoan(loanId);
 
         return new CommandProcessingResultBuilder() //
                 .withEntityId(loanId) //
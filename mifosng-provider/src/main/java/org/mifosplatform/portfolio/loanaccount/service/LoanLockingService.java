@@ -0,0 +1,164 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.util.concurrent.Striped;
+
+/**
+ * Serialises concurrent writes against the same loan within a tenant.
+ *
+ * Locks are striped by loan id so memory stays bounded regardless of the
+ * number of loans. Commands take them through {@link #lock(Collection)}
+ * before their transaction starts, so the transaction's first read already
+ * sees the previous change to the loan committed. Locks taken again within
+ * the transaction are reentrant; for writers whose loans are only known
+ * inside it, the version column of <code>m_loan</code> turns a lost update
+ * into an optimistic locking failure that the command pipeline retries.
+ */
+@Service
+@ManagedResource(objectName = "org.mifosplatform:type=LoanLocking", description = "Per-loan write locking statistics")
+public class LoanLockingService {
+
+    private static final int STRIPES_PER_TENANT = 1024;
+    private static final long LOCK_TIMEOUT_SECONDS = 30;
+
+    private final ConcurrentMap<Long, Striped<Lock>> locksByTenant = new ConcurrentHashMap<Long, Striped<Lock>>();
+
+    private final AtomicLong lockAcquisitions = new AtomicLong();
+    private final AtomicLong lockTimeouts = new AtomicLong();
+    private final AtomicLong totalLockWaitMillis = new AtomicLong();
+    private final AtomicLong maxLockWaitMillis = new AtomicLong();
+
+    /**
+     * Acquires the locks of all given loans, which the caller must pass to
+     * {@link #unlock(List)} once its transaction has completed. Stripes are
+     * always taken in the same order so two callers locking overlapping sets
+     * of loans cannot deadlock each other.
+     */
+    public List<Lock> lock(final Collection<Long> loanIds) {
+        final List<Lock> acquired = new ArrayList<Lock>();
+        if (loanIds == null || loanIds.isEmpty()) { return acquired; }
+
+        final long startTime = System.currentTimeMillis();
+        try {
+            for (final Lock lock : stripesForTenant().bulkGet(loanIds)) {
+                if (!lock.tryLock(LOCK_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    this.lockTimeouts.incrementAndGet();
+                    throw new PlatformDataIntegrityException("error.msg.loan.locked",
+                            "The loan is being changed by another request, try again later");
+                }
+                acquired.add(lock);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unlock(acquired);
+            throw new PlatformDataIntegrityException("error.msg.loan.locked", "Interrupted while waiting for the loan lock");
+        } catch (final RuntimeException e) {
+            unlock(acquired);
+            throw e;
+        }
+        recordWait(System.currentTimeMillis() - startTime);
+        return acquired;
+    }
+
+    /**
+     * Releases locks returned by {@link #lock(Collection)}.
+     */
+    public void unlock(final List<Lock> acquired) {
+        for (int i = acquired.size() - 1; i >= 0; i--) {
+            acquired.get(i).unlock();
+        }
+        acquired.clear();
+    }
+
+    /**
+     * Acquires the locks of all given loans and releases them once the
+     * current transaction commits or rolls back.
+     */
+    public void lockForCurrentTransaction(final Collection<Long> loanIds) {
+        if (loanIds == null || loanIds.isEmpty()) { return; }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) { throw new IllegalStateException(
+                "Loan locks can only be taken within a transaction."); }
+
+        final List<Lock> acquired = lock(loanIds);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+            @Override
+            public void afterCompletion(final int status) {
+                unlock(acquired);
+            }
+        });
+    }
+
+    public void lockForCurrentTransaction(final Long loanId) {
+        final List<Long> loanIds = new ArrayList<Long>(1);
+        loanIds.add(loanId);
+        lockForCurrentTransaction(loanIds);
+    }
+
+    @ManagedAttribute(description = "Number of times loan locks were acquired")
+    public long getLockAcquisitions() {
+        return this.lockAcquisitions.get();
+    }
+
+    @ManagedAttribute(description = "Number of times waiting for loan locks timed out")
+    public long getLockTimeouts() {
+        return this.lockTimeouts.get();
+    }
+
+    @ManagedAttribute(description = "Total time spent waiting for loan locks in milliseconds")
+    public long getTotalLockWaitMillis() {
+        return this.totalLockWaitMillis.get();
+    }
+
+    @ManagedAttribute(description = "Longest single wait for loan locks in milliseconds")
+    public long getMaxLockWaitMillis() {
+        return this.maxLockWaitMillis.get();
+    }
+
+    private Striped<Lock> stripesForTenant() {
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final Long tenantId = tenant == null ? Long.valueOf(0) : tenant.getId();
+
+        Striped<Lock> stripes = this.locksByTenant.get(tenantId);
+        if (stripes == null) {
+            final Striped<Lock> newStripes = Striped.lock(STRIPES_PER_TENANT);
+            stripes = this.locksByTenant.putIfAbsent(tenantId, newStripes);
+            if (stripes == null) {
+                stripes = newStripes;
+            }
+        }
+        return stripes;
+    }
+
+    private void recordWait(final long waitMillis) {
+        this.lockAcquisitions.incrementAndGet();
+        this.totalLockWaitMillis.addAndGet(waitMillis);
+        long currentMax = this.maxLockWaitMillis.get();
+        while (waitMillis > currentMax && !this.maxLockWaitMillis.compareAndSet(currentMax, waitMillis)) {
+            currentMax = this.maxLockWaitMillis.get();
+        }
+    }
+}
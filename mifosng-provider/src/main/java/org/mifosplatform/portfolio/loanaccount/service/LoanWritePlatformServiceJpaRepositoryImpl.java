@@ -8,11 +8,13 @@ package org.mifosplatform.portfolio.loanaccount.service;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.time.StopWatch;
 import org.joda.time.LocalDate;
 import org.mifosplatform.accounting.journalentry.service.JournalEntryWritePlatformService;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
@@ -69,6 +71,8 @@ import org.mifosplatform.portfolio.note.domain.NoteRepository;
 import org.mifosplatform.portfolio.paymentdetail.domain.PaymentDetail;
 import org.mifosplatform.portfolio.paymentdetail.service.PaymentDetailWritePlatformService;
 import org.mifosplatform.useradministration.domain.AppUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -76,6 +80,8 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatformService {
 
+    private final static Logger logger = LoggerFactory.getLogger(LoanWritePlatformServiceJpaRepositoryImpl.class);
+
     private final PlatformSecurityContext context;
     private final LoanEventApiJsonValidator loanEventApiJsonValidator;
     private final LoanUpdateCommandFromApiJsonDeserializer loanUpdateCommandFromApiJsonDeserializer;
@@ -92,6 +98,7 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
     private final LoanScheduleGeneratorFactory loanScheduleFactory;
     private final CalendarInstanceRepository calendarInstanceRepository;
     private final PaymentDetailWritePlatformService paymentDetailWritePlatformService;
+    private final LoanLockingService loanLockingService;
 
     @Autowired
     public LoanWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
@@ -103,7 +110,7 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
             final JournalEntryWritePlatformService journalEntryWritePlatformService, final LoanSummaryWrapper loanSummaryWrapper,
             final LoanRepaymentScheduleTransactionProcessorFactory loanRepaymentScheduleTransactionProcessorFactory,
             final LoanScheduleGeneratorFactory loanScheduleFactory, final CalendarInstanceRepository calendarInstanceRepository,
-            final PaymentDetailWritePlatformService paymentDetailWritePlatformService) {
+            final PaymentDetailWritePlatformService paymentDetailWritePlatformService, final LoanLockingService loanLockingService) {
         this.context = context;
         this.loanEventApiJsonValidator = loanEventApiJsonValidator;
         this.loanAssembler = loanAssembler;
@@ -120,6 +127,7 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
         this.loanScheduleFactory = loanScheduleFactory;
         this.calendarInstanceRepository = calendarInstanceRepository;
         this.paymentDetailWritePlatformService = paymentDetailWritePlatformService;
+        this.loanLockingService = loanLockingService;
     }
 
     private LoanLifecycleStateMachine defaultLoanLifecycleStateMachine() {
@@ -226,16 +234,25 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
     public Map<String, Object> bulkLoanDisbursal(final JsonCommand command, final CollectionSheetBulkDisbursalCommand bulkDisbursalCommand) {
         final AppUser currentUser = context.authenticatedUser();
 
+        final StopWatch task = new StopWatch();
+        task.start();
+
         SingleDisbursalCommand[] disbursalCommand = bulkDisbursalCommand.getDisburseTransactions();
         Map<String, Object> changes = new LinkedHashMap<String, Object>();
         if (disbursalCommand == null) { return changes; }
 
+        final List<Long> loanIds = new ArrayList<Long>(disbursalCommand.length);
+        for (final SingleDisbursalCommand singleLoanDisbursalCommand : disbursalCommand) {
+            loanIds.add(singleLoanDisbursalCommand.getLoanId());
+        }
+        final Map<Long, Loan> loansById = retrieveLoansBy(loanIds);
+        final Map<String, ApplicationCurrency> applicationCurrencies = new HashMap<String, ApplicationCurrency>();
+
         for (int i = 0; i < disbursalCommand.length; i++) {
             SingleDisbursalCommand singleLoanDisbursalCommand = disbursalCommand[i];
 
-            final Loan loan = retrieveLoanBy(singleLoanDisbursalCommand.getLoanId());
-            final MonetaryCurrency currency = loan.getCurrency();
-            final ApplicationCurrency applicationCurrency = this.applicationCurrencyRepository.findOneWithNotFoundDetection(currency);
+            final Loan loan = loansById.get(singleLoanDisbursalCommand.getLoanId());
+            final ApplicationCurrency applicationCurrency = retrieveApplicationCurrencyFor(loan, applicationCurrencies);
 
             final List<Long> existingTransactionIds = new ArrayList<Long>();
             final List<Long> existingReversedTransactionIds = new ArrayList<Long>();
@@ -258,9 +275,12 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
                     this.noteRepository.save(note);
                 }
 
-                postJournalEntries(loan, existingTransactionIds, existingReversedTransactionIds);
+                postJournalEntries(loan, applicationCurrency, existingTransactionIds, existingReversedTransactionIds);
             }
         }
+
+        task.stop();
+        logger.info("Bulk disbursal of " + loansById.size() + " loans completed in " + task.getTime() + " ms");
         return changes;
     }
 
@@ -386,6 +406,12 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
                 .withGroupId(loan.getGroupId()); //
     }
 
+    /**
+     * Posts all repayments of a collection sheet as one unit of work: the
+     * affected loans are loaded together up front, repayments are applied in
+     * memory and the resulting transactions, loans and journal entries are
+     * written out with a single flush rather than one per loan.
+     */
     @Transactional
     @Override
     public Map<String, Object> makeLoanBulkRepayment(final CollectionSheetBulkRepaymentCommand bulkRepaymentCommand) {
@@ -396,16 +422,74 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
 
         if (repaymentCommand == null) return changes;
 
-        for (SingleRepaymentCommand singleLoanRepaymentCommand : repaymentCommand) {
+        final StopWatch task = new StopWatch();
+        task.start();
+
+        final List<Long> loanIds = new ArrayList<Long>(repaymentCommand.length);
+        for (final SingleRepaymentCommand singleLoanRepaymentCommand : repaymentCommand) {
+            loanIds.add(singleLoanRepaymentCommand.getLoanId());
+        }
+        final Map<Long, Loan> loansById = retrieveLoansBy(loanIds);
+        final Map<String, ApplicationCurrency> applicationCurrencies = new HashMap<String, ApplicationCurrency>();
+
+        final LocalDate transactionDate = bulkRepaymentCommand.getTransactionDate();
+        final String noteText = bulkRepaymentCommand.getNote();
+
+        final Map<Long, List<Long>> existingTransactionIdsByLoan = new LinkedHashMap<Long, List<Long>>();
+        final Map<Long, List<Long>> existingReversedTransactionIdsByLoan = new LinkedHashMap<Long, List<Long>>();
+        final List<LoanTransaction> newTransactions = new ArrayList<LoanTransaction>();
+        final List<Note> notes = new ArrayList<Note>();
+
+        for (final SingleRepaymentCommand singleLoanRepaymentCommand : repaymentCommand) {
+            final Loan loan = loansById.get(singleLoanRepaymentCommand.getLoanId());
+
+            // only the transactions persisted before this sheet count as
+            // existing when deciding what to post to the ledger
+            final List<Long> existingTransactionIds = new ArrayList<Long>();
+            final List<Long> existingReversedTransactionIds = new ArrayList<Long>();
+            if (!existingTransactionIdsByLoan.containsKey(loan.getId())) {
+                existingTransactionIdsByLoan.put(loan.getId(), existingTransactionIds);
+                existingReversedTransactionIdsByLoan.put(loan.getId(), existingReversedTransactionIds);
+            }
+
             /****
              * TODO Vishwas, have a re-look at this implementation, defaulting
              * it to null for now
              ***/
-            PaymentDetail paymentDetail = null;
-            saveLoanRepayment(singleLoanRepaymentCommand.getLoanId(), paymentDetail, singleLoanRepaymentCommand.getTransactionAmount(),
-                    bulkRepaymentCommand.getTransactionDate(), bulkRepaymentCommand.getNote());
+            final PaymentDetail paymentDetail = null;
+            final Money repaymentAmount = Money.of(loan.getCurrency(), singleLoanRepaymentCommand.getTransactionAmount());
+            final LoanTransaction newRepaymentTransaction = LoanTransaction.repayment(repaymentAmount, paymentDetail, transactionDate);
+
+            final ChangedTransactionDetail changedTransactionDetail = loan.makeRepayment(newRepaymentTransaction,
+                    defaultLoanLifecycleStateMachine(), existingTransactionIds, existingReversedTransactionIds);
+
+            newTransactions.add(newRepaymentTransaction);
+            if (changedTransactionDetail != null) {
+                newTransactions.addAll(changedTransactionDetail.getNewTransactions());
+            }
+
+            if (StringUtils.isNotBlank(noteText)) {
+                notes.add(Note.loanTransactionNote(loan, newRepaymentTransaction, noteText));
+            }
             changes.put("bulkTransations", singleLoanRepaymentCommand);
         }
+
+        this.loanTransactionRepository.save(newTransactions);
+        this.loanRepository.save(loansById.values());
+        if (!notes.isEmpty()) {
+            this.noteRepository.save(notes);
+        }
+        this.loanRepository.flush();
+
+        for (final Loan loan : loansById.values()) {
+            final ApplicationCurrency applicationCurrency = retrieveApplicationCurrencyFor(loan, applicationCurrencies);
+            postJournalEntries(loan, applicationCurrency, existingTransactionIdsByLoan.get(loan.getId()),
+                    existingReversedTransactionIdsByLoan.get(loan.getId()));
+        }
+
+        task.stop();
+        logger.info("Bulk repayment of " + repaymentCommand.length + " transactions across " + loansById.size()
+                + " loans completed in " + task.getTime() + " ms");
         return changes;
     }
 
@@ -863,12 +947,44 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
     }
 
     private Loan retrieveLoanBy(final Long loanId) {
+        this.loanLockingService.lockForCurrentTransaction(loanId);
         final Loan loan = this.loanRepository.findOne(loanId);
         if (loan == null) { throw new LoanNotFoundException(loanId); }
         loan.setHelpers(defaultLoanLifecycleStateMachine(), this.loanSummaryWrapper, this.loanRepaymentScheduleTransactionProcessorFactory);
         return loan;
     }
 
+    /**
+     * Locks and loads all loans identified by <code>loanIds</code> with a
+     * single query.
+     * Their schedules, transactions and charges are then initialised in
+     * batches (see <code>hibernate.default_batch_fetch_size</code>) rather
+     * than with a round trip per loan.
+     */
+    private Map<Long, Loan> retrieveLoansBy(final List<Long> loanIds) {
+        this.loanLockingService.lockForCurrentTransaction(loanIds);
+        final Map<Long, Loan> loansById = new LinkedHashMap<Long, Loan>();
+        final List<Loan> loans = this.loanRepository.findAll(loanIds);
+        for (final Loan loan : loans) {
+            loan.setHelpers(defaultLoanLifecycleStateMachine(), this.loanSummaryWrapper, this.loanRepaymentScheduleTransactionProcessorFactory);
+            loansById.put(loan.getId(), loan);
+        }
+        for (final Long loanId : loanIds) {
+            if (!loansById.containsKey(loanId)) { throw new LoanNotFoundException(loanId); }
+        }
+        return loansById;
+    }
+
+    private ApplicationCurrency retrieveApplicationCurrencyFor(final Loan loan, final Map<String, ApplicationCurrency> applicationCurrencies) {
+        final MonetaryCurrency currency = loan.getCurrency();
+        ApplicationCurrency applicationCurrency = applicationCurrencies.get(currency.getCode());
+        if (applicationCurrency == null) {
+            applicationCurrency = this.applicationCurrencyRepository.findOneWithNotFoundDetection(currency);
+            applicationCurrencies.put(currency.getCode(), applicationCurrency);
+        }
+        return applicationCurrency;
+    }
+
     private LoanCharge retrieveLoanChargeBy(final Long loanId, final Long loanChargeId) {
         final LoanCharge loanCharge = this.loanChargeRepository.findOne(loanChargeId);
         if (loanCharge == null) { throw new LoanChargeNotFoundException(loanChargeId); }
@@ -925,6 +1041,12 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
         final Staff fromLoanOfficer = loanAssembler.findLoanOfficerByIdIfProvided(fromLoanOfficerId);
         final Staff toLoanOfficer = loanAssembler.findLoanOfficerByIdIfProvided(toLoanOfficerId);
 
+        final List<Long> loanIdsToLock = new ArrayList<Long>(loanIds.length);
+        for (final String loanIdString : loanIds) {
+            loanIdsToLock.add(Long.valueOf(loanIdString));
+        }
+        this.loanLockingService.lockForCurrentTransaction(loanIdsToLock);
+
         for (final String loanIdString : loanIds) {
             final Long loanId = Long.valueOf(loanIdString);
             final Loan loan = retrieveLoanBy(loanId);
@@ -978,6 +1100,12 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
         final MonetaryCurrency currency = loan.getCurrency();
         final ApplicationCurrency applicationCurrency = this.applicationCurrencyRepository.findOneWithNotFoundDetection(currency);
 
+        postJournalEntries(loan, applicationCurrency, existingTransactionIds, existingReversedTransactionIds);
+    }
+
+    private void postJournalEntries(final Loan loan, final ApplicationCurrency applicationCurrency, final List<Long> existingTransactionIds,
+            final List<Long> existingReversedTransactionIds) {
+
         final Map<String, Object> accountingBridgeData = loan.deriveAccountingBridgeData(applicationCurrency.toData(),
                 existingTransactionIds, existingReversedTransactionIds);
         journalEntryWritePlatformService.createJournalEntriesForLoan(accountingBridgeData);
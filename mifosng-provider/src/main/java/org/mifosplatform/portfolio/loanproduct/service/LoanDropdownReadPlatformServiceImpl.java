@@ -16,8 +16,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import org.mifosplatform.infrastructure.core.data.EnumOptionData;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataCache;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataType;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanTransactionProcessingStrategyRepository;
 import org.mifosplatform.portfolio.loanproduct.data.TransactionProcessingStrategyData;
 import org.mifosplatform.portfolio.loanproduct.domain.AmortizationMethod;
@@ -32,10 +35,13 @@ import org.springframework.stereotype.Service;
 public class LoanDropdownReadPlatformServiceImpl implements LoanDropdownReadPlatformService {
 
     private final LoanTransactionProcessingStrategyRepository loanTransactionProcessingStrategyRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
-    public LoanDropdownReadPlatformServiceImpl(final LoanTransactionProcessingStrategyRepository loanTransactionProcessingStrategyRepository) {
+    public LoanDropdownReadPlatformServiceImpl(final LoanTransactionProcessingStrategyRepository loanTransactionProcessingStrategyRepository,
+            final ReferenceDataCache referenceDataCache) {
         this.loanTransactionProcessingStrategyRepository = loanTransactionProcessingStrategyRepository;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Override
@@ -91,14 +97,22 @@ public class LoanDropdownReadPlatformServiceImpl implements LoanDropdownReadPlat
     @Override
     public Collection<TransactionProcessingStrategyData> retreiveTransactionProcessingStrategies() {
 
-        Collection<TransactionProcessingStrategyData> strategyOptions = new ArrayList<TransactionProcessingStrategyData>();
+        return this.referenceDataCache.retrieve(ReferenceDataType.TRANSACTION_PROCESSING_STRATEGIES, "all",
+                new Callable<Collection<TransactionProcessingStrategyData>>() {
 
-        List<LoanTransactionProcessingStrategy> strategies = this.loanTransactionProcessingStrategyRepository.findAll();
-        for (LoanTransactionProcessingStrategy strategy : strategies) {
-            strategyOptions.add(strategy.toData());
-        }
+                    @Override
+                    public Collection<TransactionProcessingStrategyData> call() {
+                        final Collection<TransactionProcessingStrategyData> strategyOptions = new ArrayList<TransactionProcessingStrategyData>();
 
-        return strategyOptions;
+                        final List<LoanTransactionProcessingStrategy> strategies = LoanDropdownReadPlatformServiceImpl.this.loanTransactionProcessingStrategyRepository
+                                .findAll();
+                        for (final LoanTransactionProcessingStrategy strategy : strategies) {
+                            strategyOptions.add(strategy.toData());
+                        }
+
+                        return strategyOptions;
+                    }
+                });
     }
 
 }
\ No newline at end of file
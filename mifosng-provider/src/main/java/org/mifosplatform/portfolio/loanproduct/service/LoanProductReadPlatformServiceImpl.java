@@ -9,10 +9,13 @@ import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.concurrent.Callable;
 
 import org.mifosplatform.accounting.common.AccountingEnumerations;
 import org.mifosplatform.infrastructure.core.data.EnumOptionData;
 import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataCache;
+import org.mifosplatform.infrastructure.core.service.ReferenceDataType;
 import org.mifosplatform.infrastructure.core.service.TenantAwareRoutingDataSource;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.monetary.data.CurrencyData;
@@ -32,13 +35,16 @@ public class LoanProductReadPlatformServiceImpl implements LoanProductReadPlatfo
     private final PlatformSecurityContext context;
     private final JdbcTemplate jdbcTemplate;
     private final ChargeReadPlatformService chargeReadPlatformService;
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
     public LoanProductReadPlatformServiceImpl(final PlatformSecurityContext context,
-            final ChargeReadPlatformService chargeReadPlatformService, final TenantAwareRoutingDataSource dataSource) {
+            final ChargeReadPlatformService chargeReadPlatformService, final TenantAwareRoutingDataSource dataSource,
+            final ReferenceDataCache referenceDataCache) {
         this.context = context;
         this.chargeReadPlatformService = chargeReadPlatformService;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Override
@@ -74,11 +80,17 @@ public class LoanProductReadPlatformServiceImpl implements LoanProductReadPlatfo
 
         this.context.authenticatedUser();
 
-        final LoanProductLookupMapper rm = new LoanProductLookupMapper();
+        return this.referenceDataCache.retrieve(ReferenceDataType.LOAN_PRODUCTS, "lookup", new Callable<Collection<LoanProductData>>() {
 
-        final String sql = "select " + rm.schema();
+            @Override
+            public Collection<LoanProductData> call() {
+                final LoanProductLookupMapper rm = new LoanProductLookupMapper();
 
-        return this.jdbcTemplate.query(sql, rm, new Object[] {});
+                final String sql = "select " + rm.schema();
+
+                return LoanProductReadPlatformServiceImpl.this.jdbcTemplate.query(sql, rm, new Object[] {});
+            }
+        });
     }
 
     @Override
@@ -16,7 +16,6 @@ import org.mifosplatform.organisation.monetary.domain.Money;
 public class InterestCompoundingPeriodSummary {
 
     private final LocalDateInterval periodInterval;
-    @SuppressWarnings("unused")
     private final BigDecimal openingBalance;
     private final BigDecimal closingBalance;
     private final BigDecimal interestEarnedUnrounded;
@@ -37,6 +36,14 @@ public class InterestCompoundingPeriodSummary {
         this.cumulativeCompoundedInterestToDate = cumulativeCompoundedInterestToDate;
     }
 
+    public LocalDateInterval periodInterval() {
+        return this.periodInterval;
+    }
+
+    public BigDecimal openingBalance() {
+        return this.openingBalance;
+    }
+
     public Money closingBalance(final MonetaryCurrency currency) {
         return Money.of(currency, this.closingBalance);
     }
@@ -38,8 +38,6 @@ import javax.persistence.Transient;
 import javax.persistence.UniqueConstraint;
 
 import org.apache.commons.lang.StringUtils;
-import org.hibernate.annotations.LazyCollection;
-import org.hibernate.annotations.LazyCollectionOption;
 import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
 import org.joda.time.MonthDay;
@@ -173,14 +171,22 @@ public class SavingsAccount extends AbstractPersistable<Long> {
     private SavingsAccountSummary summary;
 
     @OrderBy(value = "dateOf, id")
-    @LazyCollection(LazyCollectionOption.FALSE)
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "savingsAccount", orphanRemoval = true)
     private final List<SavingsAccountTransaction> transactions = new ArrayList<SavingsAccountTransaction>();
 
+    @Embedded
+    private SavingsAccountInterestCheckpoint interestCheckpoint;
+
     @Transient
     private boolean accountNumberRequiresAutoGeneration = false;
     @Transient
     private SavingsAccountTransactionSummaryWrapper savingsAccountTransactionSummaryWrapper;
+    /**
+     * Transactions added in this unit of work through
+     * {@link #appendTransaction} without loading <code>transactions</code>.
+     */
+    @Transient
+    private final List<SavingsAccountTransaction> appendedTransactions = new ArrayList<SavingsAccountTransaction>();
 
     protected SavingsAccount() {
         //
@@ -326,7 +332,7 @@ public class SavingsAccount extends AbstractPersistable<Long> {
              * details (for entering minimum balance)
              **/
             deposit(formatter, activationDate, minRequiredOpeningBalance.getAmount(), existingTransactionIds,
-                    existingReversedTransactionIds, null);
+                    existingReversedTransactionIds, null, null, null, null);
         }
     }
 
@@ -361,7 +367,7 @@ public class SavingsAccount extends AbstractPersistable<Long> {
         final List<LocalDate> postingLocalDates = determineInterestPostingDates(getActivationLocalDate(), interestPostingUpToDate,
                 postingPeriodType);
 
-        final List<InterestCompoundingPeriodSummary> compoundingPeriods = calculateInterest(interestPostingUpToDate);
+        final List<InterestCompoundingPeriodSummary> compoundingPeriods = calculateInterestFromActivation(interestPostingUpToDate);
 
         Money interestPostedToDate = Money.zero(this.currency);
 
@@ -377,7 +383,7 @@ public class SavingsAccount extends AbstractPersistable<Long> {
             if (postingTransaction == null) {
                 final SavingsAccountTransaction newPostingTransaction = SavingsAccountTransaction.interestPosting(this, postingDate,
                         interestEarnedToBePostedForPeriod);
-                this.transactions.add(newPostingTransaction);
+                addTransaction(newPostingTransaction);
                 recalucateDailyBalanceDetails = true;
             } else {
                 boolean correctionRequired = postingTransaction.hasNotAmount(interestEarnedToBePostedForPeriod);
@@ -385,7 +391,7 @@ public class SavingsAccount extends AbstractPersistable<Long> {
                     postingTransaction.reverse();
                     final SavingsAccountTransaction newPostingTransaction = SavingsAccountTransaction.interestPosting(this, postingDate,
                             interestEarnedToBePostedForPeriod);
-                    this.transactions.add(newPostingTransaction);
+                    addTransaction(newPostingTransaction);
                     recalucateDailyBalanceDetails = true;
                 }
             }
@@ -461,41 +467,205 @@ public class SavingsAccount extends AbstractPersistable<Long> {
     /**
      * All interest calculation based on END-OF-DAY-BALANCE.
      * 
-     * Interest calculation is performed on-the-fly over all account
-     * transactions.
+     * Interest calculation resumes from the account's
+     * {@link SavingsAccountInterestCheckpoint} (if usable) so only the
+     * compounding periods after it are recalculated and returned; the last
+     * period returned carries the cumulative interest earned to date.
      */
     public List<InterestCompoundingPeriodSummary> calculateInterest(final LocalDate interestCalculationUpToDate) {
+        return calculateInterest(findInterestCheckpointToResumeFrom(interestCalculationUpToDate), interestCalculationUpToDate);
+    }
+
+    /**
+     * Recalculates interest for every compounding period since activation,
+     * ignoring (and replacing) the checkpoint.
+     */
+    public List<InterestCompoundingPeriodSummary> calculateInterestFromActivation(final LocalDate interestCalculationUpToDate) {
+        return calculateInterest(null, interestCalculationUpToDate);
+    }
+
+    private List<InterestCompoundingPeriodSummary> calculateInterest(final SavingsAccountInterestCheckpoint resumeFrom,
+            final LocalDate interestCalculationUpToDate) {
+
+        final List<SavingsAccountTransaction> periodTransactions;
+        if (resumeFrom == null) {
+            // no openingBalance concept supported yet but probably will to
+            // allow for migrations.
+            final Money openingAccountBalance = Money.zero(this.currency);
 
-        // no openingBalance concept supported yet but probably will to allow
-        // for migrations.
-        final Money openingAccountBalance = Money.zero(this.currency);
+            // update existing transactions so derived balance fields are
+            // correct.
+            recalculateDailyBalances(openingAccountBalance);
+            periodTransactions = retreiveListOfTransactions();
+        } else {
+            final LocalDate checkpointEndDate = resumeFrom.periodEndDate();
+            recalculateDailyBalancesAfter(checkpointEndDate);
+            periodTransactions = retrieveTransactionsAfter(checkpointEndDate);
+        }
 
-        // update existing transactions so derived balance fields are
-        // correct.
-        recalculateDailyBalances(openingAccountBalance);
+        final List<InterestCompoundingPeriodSummary> compoundingPeriods = calculateInterestResumingFrom(resumeFrom,
+                interestCalculationUpToDate, periodTransactions);
+
+        this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
+
+        return compoundingPeriods;
+    }
+
+    /**
+     * The first day of the compounding periods that are recalculated by
+     * {@link #calculateInterest} up to today: the day after the checkpoint, or
+     * <code>null</code> when there is no usable checkpoint and interest has to
+     * be calculated from activation.
+     */
+    public LocalDate openInterestPeriodsStartDate() {
+        final SavingsAccountInterestCheckpoint resumeFrom = findInterestCheckpointToResumeFrom(DateUtils.getLocalDateOfTenant());
+        return resumeFrom == null ? null : resumeFrom.periodEndDate().plusDays(1);
+    }
+
+    /**
+     * Calculates the compounding periods after <code>resumeFrom</code> (or
+     * from activation) from the given transactions, whose balance fields must
+     * already be correct, and updates the interest earned in the summary.
+     */
+    private List<InterestCompoundingPeriodSummary> calculateInterestResumingFrom(final SavingsAccountInterestCheckpoint resumeFrom,
+            final LocalDate interestCalculationUpToDate, final List<SavingsAccountTransaction> periodTransactions) {
 
         final SavingsInterestCalculationDaysInYearType daysInYearType = SavingsInterestCalculationDaysInYearType
                 .fromInt(this.interestCalculationDaysInYearType);
         final SavingsCompoundingInterestPeriodType compoundingPeriodType = SavingsCompoundingInterestPeriodType
                 .fromInt(this.interestCompoundingPeriodType);
-        final List<LocalDateInterval> interestCompoundingPeriods = determineInterestCompoundingPeriods(getActivationLocalDate(),
-                interestCalculationUpToDate, compoundingPeriodType);
 
-        // determine opening balance, daily interest rate to apply, interest
-        // due, interest to compound for each period
-        final List<InterestCompoundingPeriodSummary> compoundingPeriods = determineInterestCompoundingPeriodSummaries(
-                openingAccountBalance, this.nominalAnnualInterestRate, daysInYearType, interestCompoundingPeriods);
+        final List<InterestCompoundingPeriodSummary> compoundingPeriods;
+        if (resumeFrom == null) {
+            final List<LocalDateInterval> interestCompoundingPeriods = determineInterestCompoundingPeriods(getActivationLocalDate(),
+                    interestCalculationUpToDate, compoundingPeriodType);
 
-        this.summary.updateFromInterestPeriodSummaries(currency, compoundingPeriods);
+            // determine opening balance, daily interest rate to apply,
+            // interest due, interest to compound for each period
+            compoundingPeriods = determineInterestCompoundingPeriodSummaries(BigDecimal.ZERO, BigDecimal.ZERO,
+                    this.nominalAnnualInterestRate, daysInYearType, interestCompoundingPeriods, periodTransactions);
+        } else {
+            final List<LocalDateInterval> interestCompoundingPeriods = determineInterestCompoundingPeriods(resumeFrom.periodEndDate()
+                    .plusDays(1), interestCalculationUpToDate, compoundingPeriodType);
 
-        this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
+            compoundingPeriods = determineInterestCompoundingPeriodSummaries(resumeFrom.closingBalance(),
+                    resumeFrom.cumulativeCompoundedInterest(), this.nominalAnnualInterestRate, daysInYearType,
+                    interestCompoundingPeriods, periodTransactions);
+        }
+
+        recordInterestCheckpoint(interestCalculationUpToDate, compoundingPeriods);
+
+        this.summary.updateFromInterestPeriodSummaries(currency, compoundingPeriods);
 
         return compoundingPeriods;
     }
 
-    private List<InterestCompoundingPeriodSummary> determineInterestCompoundingPeriodSummaries(final Money openingAccountBalance,
-            final BigDecimal annualInterestRate, final SavingsInterestCalculationDaysInYearType daysInYearType,
-            final List<LocalDateInterval> interestCompoundingPeriods) {
+    /**
+     * Recalculates interest to today after appending transactions, using
+     * <code>openPeriodTransactions</code> (the stored transactions dated on or
+     * after <code>openPeriodsStartDate</code>) and the appended transactions
+     * instead of the full history. Falls back to {@link #calculateInterest}
+     * when appending discarded the checkpoint those transactions relied on.
+     */
+    private void calculateInterestForAppendedTransactions(final LocalDate openPeriodsStartDate,
+            final List<SavingsAccountTransaction> openPeriodTransactions) {
+
+        final LocalDate today = DateUtils.getLocalDateOfTenant();
+        final SavingsAccountInterestCheckpoint resumeFrom = findInterestCheckpointToResumeFrom(today);
+        final LocalDate startDate = resumeFrom == null ? getActivationLocalDate() : resumeFrom.periodEndDate().plusDays(1);
+
+        if (openPeriodsStartDate == null || startDate.isBefore(openPeriodsStartDate)) {
+            calculateInterest(today);
+            return;
+        }
+
+        final List<SavingsAccountTransaction> periodTransactions = new ArrayList<SavingsAccountTransaction>();
+        for (final SavingsAccountTransaction transaction : openPeriodTransactions) {
+            if (!transaction.transactionLocalDate().isBefore(startDate)) {
+                periodTransactions.add(transaction);
+            }
+        }
+        periodTransactions.addAll(this.appendedTransactions);
+        Collections.sort(periodTransactions, new SavingsAccountTransactionComparator());
+
+        calculateInterestResumingFrom(resumeFrom, today, periodTransactions);
+    }
+
+    /**
+     * Returns the checkpoint when it ends before both
+     * <code>interestCalculationUpToDate</code> and today.
+     */
+    private SavingsAccountInterestCheckpoint findInterestCheckpointToResumeFrom(final LocalDate interestCalculationUpToDate) {
+
+        if (this.interestCheckpoint == null) { return null; }
+
+        if (this.interestCheckpoint.periodEndDate().isBefore(getActivationLocalDate())) {
+            this.interestCheckpoint = null;
+            return null;
+        }
+
+        final LocalDate today = DateUtils.getLocalDateOfTenant();
+        if (this.interestCheckpoint.endsOnOrAfter(interestCalculationUpToDate) || this.interestCheckpoint.endsOnOrAfter(today)) {
+            return null;
+        }
+
+        return this.interestCheckpoint;
+    }
+
+    /**
+     * Replaces the checkpoint with the latest recalculated compounding period
+     * that is closed: ended before today and not cut short by an earlier
+     * calculation date.
+     */
+    private void recordInterestCheckpoint(final LocalDate interestCalculationUpToDate,
+            final List<InterestCompoundingPeriodSummary> compoundingPeriods) {
+
+        final LocalDate today = DateUtils.getLocalDateOfTenant();
+        if (interestCalculationUpToDate.isBefore(today)) { return; }
+
+        InterestCompoundingPeriodSummary latestClosedPeriod = null;
+        for (final InterestCompoundingPeriodSummary compoundingPeriod : compoundingPeriods) {
+            if (!compoundingPeriod.periodInterval().endDate().isBefore(today)) {
+                break;
+            }
+            latestClosedPeriod = compoundingPeriod;
+        }
+
+        if (latestClosedPeriod != null) {
+            this.interestCheckpoint = SavingsAccountInterestCheckpoint.from(latestClosedPeriod);
+        }
+    }
+
+    /**
+     * Removes the checkpoint if its compounding period ends on or after
+     * <code>date</code>; called whenever a transaction on <code>date</code> is
+     * added or reversed.
+     */
+    private void discardInterestCheckpointFrom(final LocalDate date) {
+        if (this.interestCheckpoint != null && this.interestCheckpoint.endsOnOrAfter(date)) {
+            this.interestCheckpoint = null;
+        }
+    }
+
+    private void addTransaction(final SavingsAccountTransaction transaction) {
+        discardInterestCheckpointFrom(transaction.transactionLocalDate());
+        this.transactions.add(transaction);
+    }
+
+    private List<SavingsAccountTransaction> retrieveTransactionsAfter(final LocalDate date) {
+        final List<SavingsAccountTransaction> transactionsAfter = new ArrayList<SavingsAccountTransaction>();
+        for (final SavingsAccountTransaction transaction : retreiveListOfTransactions()) {
+            if (transaction.transactionLocalDate().isAfter(date)) {
+                transactionsAfter.add(transaction);
+            }
+        }
+        return transactionsAfter;
+    }
+
+    private List<InterestCompoundingPeriodSummary> determineInterestCompoundingPeriodSummaries(final BigDecimal openingBalance,
+            final BigDecimal openingCompoundedInterest, final BigDecimal annualInterestRate,
+            final SavingsInterestCalculationDaysInYearType daysInYearType, final List<LocalDateInterval> interestCompoundingPeriods,
+            final List<SavingsAccountTransaction> periodTransactions) {
 
         List<InterestCompoundingPeriodSummary> summaries = new ArrayList<InterestCompoundingPeriodSummary>();
 
@@ -511,12 +681,21 @@ public class SavingsAccount extends AbstractPersistable<Long> {
         final SavingsCompoundInterestCalculator interestCalculator = interestCalculatorFactory.createFrom(interestCalculationType,
                 periodsInOneYearAsFraction, annualInterestRateAsFraction);
 
-        BigDecimal periodOpeningBalance = openingAccountBalance.copy().getAmount();
-        BigDecimal compoundedInterestToDate = BigDecimal.ZERO;
+        final SavingsAccountDailyBalanceSeries balanceSeries = SavingsAccountDailyBalanceSeries.createFrom(this.currency,
+                periodTransactions);
+
+        BigDecimal periodOpeningBalance = openingBalance;
+        BigDecimal compoundedInterestToDate = openingCompoundedInterest;
         for (LocalDateInterval periodInterval : interestCompoundingPeriods) {
 
-            InterestCompoundingPeriodSummary compoundingSummary = calculateInterestCompoundingPeriodSummary(periodInterval,
-                    periodOpeningBalance, compoundedInterestToDate, interestCalculator);
+            InterestCompoundingPeriodSummary compoundingSummary = null;
+            if (balanceSeries.isRepresentable()) {
+                compoundingSummary = calculateInterestCompoundingPeriodSummary(periodInterval, periodOpeningBalance,
+                        compoundedInterestToDate, interestCalculator, balanceSeries);
+            } else {
+                compoundingSummary = calculateInterestCompoundingPeriodSummary(periodInterval, periodOpeningBalance,
+                        compoundedInterestToDate, interestCalculator, periodTransactions);
+            }
 
             periodOpeningBalance = compoundingSummary.closingBalance();
             compoundedInterestToDate = compoundingSummary.compoundedInterest();
@@ -529,11 +708,11 @@ public class SavingsAccount extends AbstractPersistable<Long> {
 
     private InterestCompoundingPeriodSummary calculateInterestCompoundingPeriodSummary(final LocalDateInterval periodInterval,
             final BigDecimal periodOpeningBalance, final BigDecimal compoundedInterestToDate,
-            final SavingsCompoundInterestCalculator interestCalculator) {
+            final SavingsCompoundInterestCalculator interestCalculator, final List<SavingsAccountTransaction> periodTransactions) {
 
         BigDecimal periodClosingBalance = periodOpeningBalance;
         List<SavingsAccountDailyBalance> dailyBalances = new ArrayList<SavingsAccountDailyBalance>();
-        for (SavingsAccountTransaction transaction : this.transactions) {
+        for (SavingsAccountTransaction transaction : periodTransactions) {
 
             if (transaction.isAcceptableForDailyBalance(periodInterval)) {
                 SavingsAccountDailyBalance dailyBalance = transaction.toCompoundedDailyBalance(periodInterval.endDate(),
@@ -560,6 +739,22 @@ public class SavingsAccount extends AbstractPersistable<Long> {
                 totalInterestEarnedUnrounded, cumulativeCompoundedInterestToDate);
     }
 
+    private InterestCompoundingPeriodSummary calculateInterestCompoundingPeriodSummary(final LocalDateInterval periodInterval,
+            final BigDecimal periodOpeningBalance, final BigDecimal compoundedInterestToDate,
+            final SavingsCompoundInterestCalculator interestCalculator, final SavingsAccountDailyBalanceSeries balanceSeries) {
+
+        final SavingsAccountPeriodBalance periodBalance = balanceSeries.balanceFor(periodInterval, periodOpeningBalance);
+
+        final BigDecimal totalInterestEarnedUnrounded = interestCalculator.calculate(periodBalance, compoundedInterestToDate,
+                periodInterval.daysInPeriodInclusiveOfEndDate());
+
+        final MathContext mc = new MathContext(10, RoundingMode.HALF_EVEN);
+        final BigDecimal cumulativeCompoundedInterestToDate = compoundedInterestToDate.add(totalInterestEarnedUnrounded, mc);
+
+        return InterestCompoundingPeriodSummary.create(periodInterval, periodOpeningBalance, periodBalance.closingBalance(),
+                totalInterestEarnedUnrounded, cumulativeCompoundedInterestToDate);
+    }
+
     private List<LocalDateInterval> determineInterestCompoundingPeriods(final LocalDate activationLocalDate,
             final LocalDate interestCalculationEndDate, final SavingsCompoundingInterestPeriodType interestPeriodType) {
         LocalDate periodStartDate = activationLocalDate;
@@ -757,9 +952,61 @@ public class SavingsAccount extends AbstractPersistable<Long> {
         }
     }
 
+    /**
+     * Recalculates derived balance fields only for transactions after
+     * <code>date</code>; earlier transactions are unchanged since the
+     * checkpoint covering <code>date</code> was recorded.
+     */
+    private void recalculateDailyBalancesAfter(final LocalDate date) {
+
+        final List<SavingsAccountTransaction> accountTransactionsSorted = retreiveListOfTransactions();
+
+        int lastIndexOnOrBeforeDate = -1;
+        Money runningBalance = Money.zero(this.currency);
+        for (int i = 0; i < accountTransactionsSorted.size(); i++) {
+            final SavingsAccountTransaction transaction = accountTransactionsSorted.get(i);
+            if (transaction.transactionLocalDate().isAfter(date)) {
+                break;
+            }
+            lastIndexOnOrBeforeDate = i;
+            if (transaction.isNotReversed()) {
+                runningBalance = transaction.getRunningBalance(this.currency);
+            }
+        }
+
+        for (int i = lastIndexOnOrBeforeDate + 1; i < accountTransactionsSorted.size(); i++) {
+            final SavingsAccountTransaction transaction = accountTransactionsSorted.get(i);
+            if (transaction.isReversed()) {
+                transaction.zeroBalanceFields();
+            } else {
+                Money transactionAmount = Money.zero(this.currency);
+                if (transaction.isDeposit()) {
+                    transactionAmount = transactionAmount.plus(transaction.getAmount(this.currency));
+                } else if (transaction.isWithdrawal()) {
+                    transactionAmount = transactionAmount.minus(transaction.getAmount(this.currency));
+                } else if (transaction.isInterestPosting()) {
+                    transactionAmount = transactionAmount.plus(transaction.getAmount(this.currency));
+                }
+
+                runningBalance = runningBalance.plus(transactionAmount);
+                transaction.updateRunningBalance(runningBalance);
+            }
+        }
+
+        // the last transaction on or before date is included as its balance
+        // runs up to the next transaction.
+        LocalDate endOfBalanceDate = DateUtils.getLocalDateOfTenant();
+        for (int i = accountTransactionsSorted.size() - 1; i >= 0 && i >= lastIndexOnOrBeforeDate; i--) {
+            SavingsAccountTransaction transaction = accountTransactionsSorted.get(i);
+            transaction.updateCumulativeBalanceAndDates(this.currency, endOfBalanceDate);
+            endOfBalanceDate = transaction.transactionLocalDate().minusDays(1);
+        }
+    }
+
     public SavingsAccountTransaction deposit(final DateTimeFormatter formatter, final LocalDate transactionDate,
             final BigDecimal transactionAmount, final List<Long> existingTransactionIds, final List<Long> existingReversedTransactionIds,
-            final PaymentDetail paymentDetail) {
+            final PaymentDetail paymentDetail, final SavingsAccountTransaction latestTransaction, final LocalDate openPeriodsStartDate,
+            final List<SavingsAccountTransaction> openPeriodTransactions) {
 
         if (isNotActive()) {
             final String defaultUserMessage = "Transaction is not allowed. Account is not active.";
@@ -796,13 +1043,20 @@ public class SavingsAccount extends AbstractPersistable<Long> {
             throw new PlatformApiDataValidationException(dataValidationErrors);
         }
 
+        final Money amount = Money.of(this.currency, transactionAmount);
+
+        final SavingsAccountTransaction transaction = SavingsAccountTransaction.deposit(this, paymentDetail, transactionDate, amount);
+
+        if (isAppendableAfter(latestTransaction, transactionDate)) {
+            appendTransaction(latestTransaction, transaction);
+            calculateInterestForAppendedTransactions(openPeriodsStartDate, openPeriodTransactions);
+            return transaction;
+        }
+
         existingTransactionIds.addAll(findExistingTransactionIds());
         existingReversedTransactionIds.addAll(findExistingReversedTransactionIds());
 
-        final Money amount = Money.of(this.currency, transactionAmount);
-               
-        final SavingsAccountTransaction transaction = SavingsAccountTransaction.deposit(this, paymentDetail, transactionDate, amount);
-        this.transactions.add(transaction);
+        addTransaction(transaction);
         
         this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
 
@@ -822,7 +1076,8 @@ public class SavingsAccount extends AbstractPersistable<Long> {
 
     public SavingsAccountTransaction withdraw(final DateTimeFormatter formatter, final LocalDate transactionDate,
             final BigDecimal transactionAmount, final List<Long> existingTransactionIds, final List<Long> existingReversedTransactionIds,
-            final PaymentDetail paymentDetail) {
+            final PaymentDetail paymentDetail, final SavingsAccountTransaction latestTransaction, final LocalDate openPeriodsStartDate,
+            final List<SavingsAccountTransaction> openPeriodTransactions) {
 
         if (isNotActive()) {
 
@@ -873,9 +1128,6 @@ public class SavingsAccount extends AbstractPersistable<Long> {
             throw new PlatformApiDataValidationException(dataValidationErrors);
         }
 
-        existingTransactionIds.addAll(findExistingTransactionIds());
-        existingReversedTransactionIds.addAll(findExistingReversedTransactionIds());
-
         final Money transactionAmountMoney = Money.of(this.currency, transactionAmount);
 
         if (this.summary.getAccountBalance(this.currency).isLessThan(transactionAmountMoney.plus(this.withdrawalFeeAmount))) {
@@ -885,28 +1137,23 @@ public class SavingsAccount extends AbstractPersistable<Long> {
 
         final SavingsAccountTransaction transaction = SavingsAccountTransaction.withdrawal(this, paymentDetail, transactionDate,
                 transactionAmountMoney);
-        this.transactions.add(transaction);
-
-        if (isAutomaticWithdrawalFee()) {
+        final SavingsAccountTransaction withdrawalFeeTransaction = withdrawalFeeFor(transactionDate, transactionAmount);
 
-            SavingsAccountTransaction withdrawalFeeTransaction = null;
-            Money feeAmount = null;
-            switch (SavingsWithdrawalFeesType.fromInt(this.withdrawalFeeType)) {
-                case INVALID:
-                break;
-                case FLAT:
-                    feeAmount = Money.of(this.currency, this.withdrawalFeeAmount);
-                    withdrawalFeeTransaction = SavingsAccountTransaction.fee(this, transactionDate, feeAmount);
-                    this.transactions.add(withdrawalFeeTransaction);
-                break;
-                case PERCENT_OF_AMOUNT:
-                    final BigDecimal feeAmountDecimal = transactionAmount.multiply(this.withdrawalFeeAmount).divide(
-                            BigDecimal.valueOf(100l));
-                    feeAmount = Money.of(this.currency, feeAmountDecimal);
-                    withdrawalFeeTransaction = SavingsAccountTransaction.fee(this, transactionDate, feeAmount);
-                    this.transactions.add(withdrawalFeeTransaction);
-                break;
+        if (isAppendableAfter(latestTransaction, transactionDate)) {
+            appendTransaction(latestTransaction, transaction);
+            if (withdrawalFeeTransaction != null) {
+                appendTransaction(transaction, withdrawalFeeTransaction);
             }
+            calculateInterestForAppendedTransactions(openPeriodsStartDate, openPeriodTransactions);
+            return transaction;
+        }
+
+        existingTransactionIds.addAll(findExistingTransactionIds());
+        existingReversedTransactionIds.addAll(findExistingReversedTransactionIds());
+
+        addTransaction(transaction);
+        if (withdrawalFeeTransaction != null) {
+            addTransaction(withdrawalFeeTransaction);
         }
 
         this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
@@ -974,7 +1221,7 @@ public class SavingsAccount extends AbstractPersistable<Long> {
 
         final Money annualFee = Money.of(this.currency, this.annualFeeAmount);
         SavingsAccountTransaction annualFeeTransaction = SavingsAccountTransaction.annualFee(this, transactionDate, annualFee);
-        this.transactions.add(annualFeeTransaction);
+        addTransaction(annualFeeTransaction);
 
         this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
 
@@ -986,6 +1233,66 @@ public class SavingsAccount extends AbstractPersistable<Long> {
         return annualFeeTransaction;
     }
 
+    private SavingsAccountTransaction withdrawalFeeFor(final LocalDate transactionDate, final BigDecimal transactionAmount) {
+
+        SavingsAccountTransaction withdrawalFeeTransaction = null;
+        if (isAutomaticWithdrawalFee()) {
+            Money feeAmount = null;
+            switch (SavingsWithdrawalFeesType.fromInt(this.withdrawalFeeType)) {
+                case INVALID:
+                break;
+                case FLAT:
+                    feeAmount = Money.of(this.currency, this.withdrawalFeeAmount);
+                    withdrawalFeeTransaction = SavingsAccountTransaction.fee(this, transactionDate, feeAmount);
+                break;
+                case PERCENT_OF_AMOUNT:
+                    final BigDecimal feeAmountDecimal = transactionAmount.multiply(this.withdrawalFeeAmount).divide(
+                            BigDecimal.valueOf(100l));
+                    feeAmount = Money.of(this.currency, feeAmountDecimal);
+                    withdrawalFeeTransaction = SavingsAccountTransaction.fee(this, transactionDate, feeAmount);
+                break;
+            }
+        }
+        return withdrawalFeeTransaction;
+    }
+
+    /**
+     * A transaction dated on or after the account's latest transaction only
+     * extends the balance history, so it can be appended using the stored
+     * balances of <code>latestTransaction</code> instead of replaying all
+     * transactions. A reversed latest transaction still bounds the balance
+     * period of the transaction before it, so that case takes the full path.
+     */
+    private boolean isAppendableAfter(final SavingsAccountTransaction latestTransaction, final LocalDate transactionDate) {
+        return latestTransaction != null && latestTransaction.isNotReversed()
+                && !transactionDate.isBefore(latestTransaction.transactionLocalDate());
+    }
+
+    /**
+     * Derives the balance fields of <code>transaction</code> from those of
+     * <code>previousTransaction</code> and updates the summary incrementally.
+     * The interest earned to date is recalculated afterwards by
+     * {@link #calculateInterestForAppendedTransactions}.
+     */
+    private void appendTransaction(final SavingsAccountTransaction previousTransaction, final SavingsAccountTransaction transaction) {
+
+        Money runningBalance = previousTransaction.getRunningBalance(this.currency);
+        if (transaction.isDeposit()) {
+            runningBalance = runningBalance.plus(transaction.getAmount(this.currency));
+        } else if (transaction.isWithdrawal()) {
+            runningBalance = runningBalance.minus(transaction.getAmount(this.currency));
+        }
+        transaction.updateRunningBalance(runningBalance);
+
+        previousTransaction.updateCumulativeBalanceAndDates(this.currency, transaction.transactionLocalDate().minusDays(1));
+        transaction.updateCumulativeBalanceAndDates(this.currency, DateUtils.getLocalDateOfTenant());
+
+        addTransaction(transaction);
+        this.appendedTransactions.add(transaction);
+
+        this.summary.updateSummaryForAppendedTransaction(this.currency, transaction);
+    }
+
     private boolean isAutomaticWithdrawalFee() {
         return this.withdrawalFeeType != null;
     }
@@ -1060,6 +1367,7 @@ public class SavingsAccount extends AbstractPersistable<Long> {
             actualChanges.put(SavingsApiConstants.nominalAnnualInterestRateParamName, newValue);
             actualChanges.put("locale", localeAsInput);
             this.nominalAnnualInterestRate = newValue;
+            this.interestCheckpoint = null;
         }
 
         if (command.isChangeInBigDecimalParameterNamed(SavingsApiConstants.minRequiredOpeningBalanceParamName,
@@ -1140,8 +1448,12 @@ public class SavingsAccount extends AbstractPersistable<Long> {
         accountingBridgeData.put("cashBasedAccountingEnabled", this.isCashBasedAccountingEnabledOnSavingsProduct());
         accountingBridgeData.put("accrualBasedAccountingEnabled", this.isAccrualBasedAccountingEnabledOnSavingsProduct());
 
+        // appended transactions are all new and avoid loading the full history
+        final List<SavingsAccountTransaction> candidateTransactions = this.appendedTransactions.isEmpty() ? this.transactions
+                : this.appendedTransactions;
+
         final List<Map<String, Object>> newLoanTransactions = new ArrayList<Map<String, Object>>();
-        for (SavingsAccountTransaction transaction : this.transactions) {
+        for (SavingsAccountTransaction transaction : candidateTransactions) {
             if (transaction.isReversed() && !existingReversedTransactionIds.contains(transaction.getId())) {
                 newLoanTransactions.add(transaction.toMapData(currencyData));
             } else if (!existingTransactionIds.contains(transaction.getId())) {
@@ -0,0 +1,162 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.savings.domain;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.mifosplatform.infrastructure.core.domain.LocalDateInterval;
+import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
+
+/**
+ * The end of day balances of a {@link SavingsAccount} held as parallel
+ * primitive arrays: one entry per transaction that carries a balance for at
+ * least one day, with epoch-day start and end dates, the balance scaled to a
+ * long and prefix sums of the positive cumulative balances and days.
+ *
+ * The balances of any interest period are then derived with two binary
+ * searches instead of creating a {@link SavingsAccountDailyBalance} for
+ * every transaction in the period. Only the transactions dated within a
+ * period contribute to it, matching
+ * {@link SavingsAccountTransaction#isAcceptableForDailyBalance}.
+ */
+public final class SavingsAccountDailyBalanceSeries {
+
+    private static final int BALANCE_SCALE = 6;
+    private static final LocalDate EPOCH = new LocalDate(1970, 1, 1);
+
+    private final int size;
+    private final int[] startDays;
+    private final int[] endDays;
+    private final long[] balances;
+
+    /**
+     * Sums over the first <code>i</code> entries at index <code>i</code>,
+     * counting only entries with a balance greater than zero.
+     */
+    private final long[] positiveCumulativeBalances;
+    private final long[] positiveDays;
+
+    private final boolean representable;
+
+    public static SavingsAccountDailyBalanceSeries createFrom(final MonetaryCurrency currency,
+            final List<SavingsAccountTransaction> transactionsSorted) {
+        return new SavingsAccountDailyBalanceSeries(currency, transactionsSorted);
+    }
+
+    private SavingsAccountDailyBalanceSeries(final MonetaryCurrency currency, final List<SavingsAccountTransaction> transactionsSorted) {
+
+        final int capacity = transactionsSorted.size();
+        this.startDays = new int[capacity];
+        this.endDays = new int[capacity];
+        this.balances = new long[capacity];
+        this.positiveCumulativeBalances = new long[capacity + 1];
+        this.positiveDays = new long[capacity + 1];
+
+        int count = 0;
+        boolean fitsInLongs = true;
+        for (final SavingsAccountTransaction transaction : transactionsSorted) {
+            if (!transaction.hasBalanceForAtLeastOneDay()) {
+                continue;
+            }
+
+            final int startDay = epochDay(transaction.transactionLocalDate());
+            final int endDay = epochDay(transaction.balanceEndLocalDate());
+            final Long balance = toScaledLong(transaction.getRunningBalance(currency).getAmount());
+            if (balance == null || count > 0 && startDay <= this.endDays[count - 1]) {
+                fitsInLongs = false;
+                break;
+            }
+
+            this.startDays[count] = startDay;
+            this.endDays[count] = endDay;
+            this.balances[count] = balance.longValue();
+
+            long cumulativeBalance = 0;
+            long days = 0;
+            if (balance.longValue() > 0) {
+                days = endDay - startDay + 1;
+                if (balance.longValue() > (Long.MAX_VALUE - this.positiveCumulativeBalances[count]) / days) {
+                    fitsInLongs = false;
+                    break;
+                }
+                cumulativeBalance = balance.longValue() * days;
+            }
+            this.positiveCumulativeBalances[count + 1] = this.positiveCumulativeBalances[count] + cumulativeBalance;
+            this.positiveDays[count + 1] = this.positiveDays[count] + days;
+            count++;
+        }
+
+        this.size = count;
+        this.representable = fitsInLongs;
+    }
+
+    /**
+     * Whether all balances could be held exactly; when not, interest has to
+     * be calculated from {@link SavingsAccountDailyBalance}s instead.
+     */
+    public boolean isRepresentable() {
+        return this.representable;
+    }
+
+    public SavingsAccountPeriodBalance balanceFor(final LocalDateInterval periodInterval, final BigDecimal periodOpeningBalance) {
+
+        final int periodStartDay = epochDay(periodInterval.startDate());
+        final int periodEndDay = epochDay(periodInterval.endDate());
+
+        final int first = indexOfFirstStartingOnOrAfter(periodStartDay);
+        final int last = indexOfFirstStartingOnOrAfter(periodEndDay + 1) - 1;
+
+        if (first > last) {
+            final long days = periodEndDay - periodStartDay + 1;
+            final boolean positive = periodOpeningBalance.compareTo(BigDecimal.ZERO) > 0;
+            final BigDecimal cumulativeBalance = positive ? periodOpeningBalance.multiply(BigDecimal.valueOf(days)) : BigDecimal.ZERO;
+            return new SavingsAccountPeriodBalance(cumulativeBalance, positive ? days : 0, periodOpeningBalance);
+        }
+
+        // all but the last entry starting in the period end before it does
+        long cumulativeBalance = this.positiveCumulativeBalances[last] - this.positiveCumulativeBalances[first];
+        long days = this.positiveDays[last] - this.positiveDays[first];
+
+        final long lastBalance = this.balances[last];
+        if (lastBalance > 0) {
+            final long lastDays = Math.min(this.endDays[last], periodEndDay) - this.startDays[last] + 1;
+            cumulativeBalance += lastBalance * lastDays;
+            days += lastDays;
+        }
+
+        return new SavingsAccountPeriodBalance(BigDecimal.valueOf(cumulativeBalance, BALANCE_SCALE), days, BigDecimal.valueOf(lastBalance,
+                BALANCE_SCALE));
+    }
+
+    private int indexOfFirstStartingOnOrAfter(final int day) {
+        int low = 0;
+        int high = this.size;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (this.startDays[middle] < day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int epochDay(final LocalDate date) {
+        return Days.daysBetween(EPOCH, date).getDays();
+    }
+
+    private static Long toScaledLong(final BigDecimal amount) {
+        try {
+            return Long.valueOf(amount.movePointRight(BALANCE_SCALE).longValueExact());
+        } catch (final ArithmeticException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.savings.domain;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.joda.time.LocalDate;
+
+/**
+ * The persisted outcome of interest calculation up to the end of the latest
+ * closed compounding period of a {@link SavingsAccount}.
+ *
+ * Each account keeps a single rolling checkpoint that is replaced whenever
+ * interest is calculated. It stays valid until a transaction dated on or
+ * before its period end date is added or reversed, so interest calculation can
+ * resume from it instead of replaying the account from activation.
+ */
+@Embeddable
+public final class SavingsAccountInterestCheckpoint {
+
+    @Temporal(TemporalType.DATE)
+    @Column(name = "interest_checkpoint_date")
+    private Date periodEndDate;
+
+    @Column(name = "interest_checkpoint_closing_balance", scale = 6, precision = 19)
+    private BigDecimal closingBalance;
+
+    @Column(name = "interest_checkpoint_compounded_interest", scale = 20, precision = 40)
+    private BigDecimal cumulativeCompoundedInterest;
+
+    protected SavingsAccountInterestCheckpoint() {
+        //
+    }
+
+    public static SavingsAccountInterestCheckpoint from(final InterestCompoundingPeriodSummary compoundingPeriodSummary) {
+        return new SavingsAccountInterestCheckpoint(compoundingPeriodSummary.periodInterval().endDate(),
+                compoundingPeriodSummary.closingBalance(), compoundingPeriodSummary.compoundedInterest());
+    }
+
+    private SavingsAccountInterestCheckpoint(final LocalDate periodEndDate, final BigDecimal closingBalance,
+            final BigDecimal cumulativeCompoundedInterest) {
+        this.periodEndDate = periodEndDate.toDate();
+        this.closingBalance = closingBalance;
+        this.cumulativeCompoundedInterest = cumulativeCompoundedInterest;
+    }
+
+    public LocalDate periodEndDate() {
+        return new LocalDate(this.periodEndDate);
+    }
+
+    public BigDecimal closingBalance() {
+        return this.closingBalance;
+    }
+
+    public BigDecimal cumulativeCompoundedInterest() {
+        return this.cumulativeCompoundedInterest;
+    }
+
+    public boolean endsOnOrAfter(final LocalDate date) {
+        return !periodEndDate().isBefore(date);
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.savings.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * The balances of a {@link SavingsAccount} over one interest period as
+ * derived from a {@link SavingsAccountDailyBalanceSeries}.
+ */
+public final class SavingsAccountPeriodBalance {
+
+    private final BigDecimal cumulativePositiveBalance;
+    private final long numberOfDaysWithPositiveBalance;
+    private final BigDecimal closingBalance;
+
+    public SavingsAccountPeriodBalance(final BigDecimal cumulativePositiveBalance, final long numberOfDaysWithPositiveBalance,
+            final BigDecimal closingBalance) {
+        this.cumulativePositiveBalance = cumulativePositiveBalance;
+        this.numberOfDaysWithPositiveBalance = numberOfDaysWithPositiveBalance;
+        this.closingBalance = closingBalance;
+    }
+
+    /**
+     * The sum of end of day balances over the days on which the balance was
+     * greater than zero.
+     */
+    public BigDecimal cumulativePositiveBalance() {
+        return this.cumulativePositiveBalance;
+    }
+
+    public long numberOfDaysWithPositiveBalance() {
+        return this.numberOfDaysWithPositiveBalance;
+    }
+
+    public BigDecimal closingBalance() {
+        return this.closingBalance;
+    }
+}
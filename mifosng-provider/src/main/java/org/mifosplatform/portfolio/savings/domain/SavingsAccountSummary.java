@@ -60,6 +60,29 @@ public final class SavingsAccountSummary {
                 .minus(this.totalWithdrawalFees).minus(this.totalAnnualFees).getAmount();
     }
 
+    /**
+     * Adds a single transaction dated after all existing transactions to the
+     * totals; equivalent to {@link #updateSummary} for that case.
+     */
+    public void updateSummaryForAppendedTransaction(final MonetaryCurrency currency, final SavingsAccountTransaction transaction) {
+
+        final Money amount = transaction.getAmount(currency);
+        if (transaction.isDeposit()) {
+            this.totalDeposits = Money.of(currency, this.totalDeposits).plus(amount).getAmountDefaultedToNullIfZero();
+        } else if (transaction.isWithdrawal()) {
+            this.totalWithdrawals = Money.of(currency, this.totalWithdrawals).plus(amount).getAmountDefaultedToNullIfZero();
+        } else if (transaction.isInterestPosting()) {
+            this.totalInterestPosted = Money.of(currency, this.totalInterestPosted).plus(amount).getAmountDefaultedToNullIfZero();
+        } else if (transaction.isWithdrawalFee()) {
+            this.totalWithdrawalFees = Money.of(currency, this.totalWithdrawalFees).plus(amount).getAmountDefaultedToNullIfZero();
+        } else if (transaction.isAnnualFee()) {
+            this.totalAnnualFees = Money.of(currency, this.totalAnnualFees).plus(amount).getAmountDefaultedToNullIfZero();
+        }
+
+        this.accountBalance = Money.of(currency, this.totalDeposits).plus(this.totalInterestPosted).minus(this.totalWithdrawals)
+                .minus(this.totalWithdrawalFees).minus(this.totalAnnualFees).getAmount();
+    }
+
     public void updateFromInterestPeriodSummaries(final MonetaryCurrency currency,
             final List<InterestCompoundingPeriodSummary> compoundingPeriods) {
 
@@ -175,6 +175,10 @@ public final class SavingsAccountTransaction extends AbstractPersistable<Long> {
         this.balanceNumberOfDays = null;
     }
 
+    public Money getRunningBalance(final MonetaryCurrency currency) {
+        return Money.of(currency, this.runningBalance);
+    }
+
     public void updateRunningBalance(final Money balance) {
         this.runningBalance = balance.getAmount();
     }
@@ -201,6 +205,14 @@ public final class SavingsAccountTransaction extends AbstractPersistable<Long> {
         return isNotReversed() && interestPeriodInterval.contains(getTransactionLocalDate()) && isABalanceForAtLeastOneDay();
     }
 
+    public boolean hasBalanceForAtLeastOneDay() {
+        return isNotReversed() && isABalanceForAtLeastOneDay();
+    }
+
+    public LocalDate balanceEndLocalDate() {
+        return getEndOfBalanceLocalDate();
+    }
+
     private boolean isABalanceForAtLeastOneDay() {
         return this.balanceNumberOfDays != null && this.balanceNumberOfDays > 0;
     }
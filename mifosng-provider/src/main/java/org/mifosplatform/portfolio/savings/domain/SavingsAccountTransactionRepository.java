@@ -5,10 +5,33 @@
  */
 package org.mifosplatform.portfolio.savings.domain;
 
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface SavingsAccountTransactionRepository extends JpaRepository<SavingsAccountTransaction, Long>,
         JpaSpecificationExecutor<SavingsAccountTransaction> {
 
+    public final static String FIND_LATEST_QUERY = "select t from SavingsAccountTransaction t where t.savingsAccount.id = :savingsId order by t.dateOf desc, t.id desc";
+
+    /**
+     * Find transactions of a savings account, most recent first.
+     */
+    @Query(FIND_LATEST_QUERY)
+    public List<SavingsAccountTransaction> findLatestBySavingsAccount(@Param("savingsId") Long savingsId, Pageable pageable);
+
+    public final static String FIND_FROM_DATE_QUERY = "select t from SavingsAccountTransaction t where t.savingsAccount.id = :savingsId and t.dateOf >= :fromDate order by t.dateOf, t.id";
+
+    /**
+     * Find transactions of a savings account dated on or after
+     * <code>fromDate</code>, oldest first.
+     */
+    @Query(FIND_FROM_DATE_QUERY)
+    public List<SavingsAccountTransaction> findBySavingsAccountFromDate(@Param("savingsId") Long savingsId,
+            @Param("fromDate") Date fromDate);
 }
\ No newline at end of file
@@ -12,4 +12,6 @@ public interface SavingsCompoundInterestCalculator {
 
     BigDecimal calculate(List<SavingsAccountDailyBalance> dailyBalances, Integer numberOfDays);
 
+    BigDecimal calculate(SavingsAccountPeriodBalance periodBalance, BigDecimal compoundedInterestToDate, Integer numberOfDays);
+
 }
\ No newline at end of file
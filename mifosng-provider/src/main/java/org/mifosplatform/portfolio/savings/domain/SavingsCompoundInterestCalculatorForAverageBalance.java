@@ -46,4 +46,18 @@ public class SavingsCompoundInterestCalculatorForAverageBalance implements Savin
 
         return averageDailyBalance.multiply(periodicInterestRate, mc);
     }
+
+    @Override
+    public BigDecimal calculate(final SavingsAccountPeriodBalance periodBalance,
+            @SuppressWarnings("unused") final BigDecimal compoundedInterestToDate, final Integer numberOfDays) {
+
+        final MathContext mc = new MathContext(10, RoundingMode.HALF_EVEN);
+        final BigDecimal dailyInterestRate = annualInterestRateAsFraction.multiply(periodsInOneYearAsFraction, mc);
+        final BigDecimal periodicInterestRate = dailyInterestRate.multiply(BigDecimal.valueOf(numberOfDays.longValue()));
+
+        final BigDecimal numberOfDaysBigDecimal = BigDecimal.valueOf(numberOfDays.longValue());
+        final BigDecimal averageDailyBalance = periodBalance.cumulativePositiveBalance().divide(numberOfDaysBigDecimal, mc);
+
+        return averageDailyBalance.multiply(periodicInterestRate, mc);
+    }
 }
\ No newline at end of file
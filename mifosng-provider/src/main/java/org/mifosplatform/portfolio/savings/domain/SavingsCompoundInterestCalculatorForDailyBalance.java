@@ -41,4 +41,17 @@ public class SavingsCompoundInterestCalculatorForDailyBalance implements Savings
 
         return interestCalculated;
     }
+
+    @Override
+    public BigDecimal calculate(final SavingsAccountPeriodBalance periodBalance, final BigDecimal compoundedInterestToDate,
+            @SuppressWarnings("unused") final Integer numberOfDays) {
+        final MathContext mc = new MathContext(10, RoundingMode.HALF_EVEN);
+        final BigDecimal dailyInterestRate = annualInterestRateAsFraction.multiply(periodsInOneYearAsFraction, mc);
+
+        final BigDecimal compoundedInterestForPositiveDays = compoundedInterestToDate.multiply(BigDecimal.valueOf(periodBalance
+                .numberOfDaysWithPositiveBalance()));
+        final BigDecimal compoundedCumulativeBalance = periodBalance.cumulativePositiveBalance().add(compoundedInterestForPositiveDays, mc);
+
+        return compoundedCumulativeBalance.multiply(dailyInterestRate, mc);
+    }
 }
\ No newline at end of file
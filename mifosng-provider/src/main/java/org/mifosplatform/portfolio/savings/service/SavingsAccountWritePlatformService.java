@@ -27,4 +27,6 @@ public interface SavingsAccountWritePlatformService {
     CommandProcessingResult calculateInterest(Long savingsId, JsonCommand command);
 
     CommandProcessingResult postInterest(Long savingsId, JsonCommand command);
+
+    CommandProcessingResult postInterest(Long savingsId);
 }
\ No newline at end of file
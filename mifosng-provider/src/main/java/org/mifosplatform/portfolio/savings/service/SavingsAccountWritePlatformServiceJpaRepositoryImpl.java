@@ -49,6 +49,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -298,8 +299,15 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         final Map<String, Object> changes = new LinkedHashMap<String, Object>();
         PaymentDetail paymentDetail = paymentDetailWritePlatformService.createAndPersistPaymentDetail(command, changes);
 
+        // read before the new transaction is added so it is not flushed into
+        // the results
+        final LocalDate openPeriodsStartDate = account.openInterestPeriodsStartDate();
+        final List<SavingsAccountTransaction> openPeriodTransactions = retrieveTransactionsFrom(savingsId, openPeriodsStartDate);
+        final SavingsAccountTransaction latestTransaction = retrieveLatestTransaction(savingsId, openPeriodsStartDate,
+                openPeriodTransactions);
+
         final SavingsAccountTransaction deposit = account.deposit(fmt, transactionDate, transactionAmount, existingTransactionIds,
-                existingReversedTransactionIds, paymentDetail);
+                existingReversedTransactionIds, paymentDetail, latestTransaction, openPeriodsStartDate, openPeriodTransactions);
         final Long transactionId = saveTransactionToGenerateTransactionId(deposit);
 
         this.savingAccountRepository.save(account);
@@ -316,6 +324,28 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
                 .build();
     }
 
+    /**
+     * Without an interest checkpoint (<code>openPeriodsStartDate</code> is
+     * null) nothing is read: the transaction then takes a single full
+     * calculation, which writes one. Otherwise the latest transaction is the
+     * last of the open period transactions, and is only queried for when there
+     * are none.
+     */
+    private SavingsAccountTransaction retrieveLatestTransaction(final Long savingsId, final LocalDate openPeriodsStartDate,
+            final List<SavingsAccountTransaction> openPeriodTransactions) {
+        if (openPeriodsStartDate == null) { return null; }
+        if (!openPeriodTransactions.isEmpty()) { return openPeriodTransactions.get(openPeriodTransactions.size() - 1); }
+
+        final List<SavingsAccountTransaction> latestTransactions = this.savingsAccountTransactionRepository.findLatestBySavingsAccount(
+                savingsId, new PageRequest(0, 1));
+        return latestTransactions.isEmpty() ? null : latestTransactions.get(0);
+    }
+
+    private List<SavingsAccountTransaction> retrieveTransactionsFrom(final Long savingsId, final LocalDate fromDate) {
+        if (fromDate == null) { return new ArrayList<SavingsAccountTransaction>(); }
+        return this.savingsAccountTransactionRepository.findBySavingsAccountFromDate(savingsId, fromDate.toDate());
+    }
+
     private Long saveTransactionToGenerateTransactionId(final SavingsAccountTransaction transaction) {
         this.savingsAccountTransactionRepository.save(transaction);
         return transaction.getId();
@@ -342,8 +372,15 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         final Map<String, Object> changes = new LinkedHashMap<String, Object>();
         PaymentDetail paymentDetail = paymentDetailWritePlatformService.createAndPersistPaymentDetail(command, changes);
 
+        // read before the new transaction is added so it is not flushed into
+        // the results
+        final LocalDate openPeriodsStartDate = account.openInterestPeriodsStartDate();
+        final List<SavingsAccountTransaction> openPeriodTransactions = retrieveTransactionsFrom(savingsId, openPeriodsStartDate);
+        final SavingsAccountTransaction latestTransaction = retrieveLatestTransaction(savingsId, openPeriodsStartDate,
+                openPeriodTransactions);
+
         final SavingsAccountTransaction withdrawal = account.withdraw(fmt, transactionDate, transactionAmount, existingTransactionIds,
-                existingReversedTransactionIds, paymentDetail);
+                existingReversedTransactionIds, paymentDetail, latestTransaction, openPeriodsStartDate, openPeriodTransactions);
         final Long transactionId = saveTransactionToGenerateTransactionId(withdrawal);
         this.savingAccountRepository.save(account);
 
@@ -395,7 +432,7 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         final SavingsAccount account = this.savingAccountRepository.findOneWithNotFoundDetection(savingsId);
 
         final LocalDate today = DateUtils.getLocalDateOfTenant();
-        account.calculateInterest(today);
+        account.calculateInterestFromActivation(today);
         this.savingAccountRepository.save(account);
 
         return new CommandProcessingResultBuilder() //
@@ -411,6 +448,16 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
     @Override
     public CommandProcessingResult postInterest(final Long savingsId, final JsonCommand command) {
         this.context.authenticatedUser();
+        return postInterestFor(savingsId);
+    }
+
+    @Transactional
+    @Override
+    public CommandProcessingResult postInterest(final Long savingsId) {
+        return postInterestFor(savingsId);
+    }
+
+    private CommandProcessingResult postInterestFor(final Long savingsId) {
         final List<Long> existingTransactionIds = new ArrayList<Long>();
         final List<Long> existingReversedTransactionIds = new ArrayList<Long>();
 
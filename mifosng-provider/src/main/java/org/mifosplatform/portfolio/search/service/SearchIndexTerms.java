@@ -0,0 +1,45 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalises searchable values and splits them into the trigrams stored in
+ * <code>m_search_index_gram</code>. A value contains a search term only if it
+ * contains every trigram of the term, so candidates are found through the
+ * gram index before being checked with <code>like</code>.
+ */
+public final class SearchIndexTerms {
+
+    public static final int GRAM_LENGTH = 3;
+    public static final int MAX_TERM_LENGTH = 200;
+
+    private SearchIndexTerms() {
+        //
+    }
+
+    public static String normalise(final String value) {
+        if (value == null) { return ""; }
+        String term = value.trim().toLowerCase(Locale.ENGLISH);
+        if (term.length() > MAX_TERM_LENGTH) {
+            term = term.substring(0, MAX_TERM_LENGTH);
+        }
+        return term;
+    }
+
+    public static List<String> gramsOf(final String term) {
+        final Set<String> grams = new LinkedHashSet<String>();
+        for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+            grams.add(term.substring(i, i + GRAM_LENGTH));
+        }
+        return new ArrayList<String>(grams);
+    }
+}
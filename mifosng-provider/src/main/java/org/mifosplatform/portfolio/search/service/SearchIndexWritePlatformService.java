@@ -0,0 +1,36 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import org.mifosplatform.infrastructure.core.api.JsonCommand;
+import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
+
+/**
+ * Maintains the search index used by {@link SearchReadPlatformService}.
+ *
+ * Entries are read back from the entity tables so changes made through JPA
+ * must be flushed before an entity is indexed.
+ */
+public interface SearchIndexWritePlatformService {
+
+    void indexClient(Long clientId);
+
+    void removeClient(Long clientId);
+
+    void indexClientIdentifier(Long clientIdentifierId);
+
+    void removeClientIdentifier(Long clientIdentifierId);
+
+    void indexGroup(Long groupId);
+
+    void removeGroup(Long groupId);
+
+    void indexLoan(Long loanId);
+
+    void removeLoan(Long loanId);
+
+    CommandProcessingResult rebuildIndex(JsonCommand command);
+}
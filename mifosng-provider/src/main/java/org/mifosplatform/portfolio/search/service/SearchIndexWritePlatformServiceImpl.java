@@ -0,0 +1,241 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.mifosplatform.infrastructure.core.api.JsonCommand;
+import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
+import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.service.TenantAwareRoutingDataSource;
+import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class SearchIndexWritePlatformServiceImpl implements SearchIndexWritePlatformService {
+
+    private final static Logger logger = LoggerFactory.getLogger(SearchIndexWritePlatformServiceImpl.class);
+
+    private static final IndexedEntityType CLIENT = new IndexedEntityType("CLIENT", "c.id",
+            "select c.id as entityId, c.office_id as officeId, c.display_name as term1, c.account_no as term2, c.external_id as term3 "
+                    + "from m_client c");
+
+    private static final IndexedEntityType CLIENT_IDENTIFIER = new IndexedEntityType("CLIENTIDENTIFIER", "ci.id",
+            "select ci.id as entityId, c.office_id as officeId, ci.document_key as term1, null as term2, null as term3 "
+                    + "from m_client_identifier ci join m_client c on c.id = ci.client_id");
+
+    private static final IndexedEntityType GROUP = new IndexedEntityType("GROUP", "g.id",
+            "select g.id as entityId, g.office_id as officeId, g.display_name as term1, null as term2, null as term3 from m_group g");
+
+    private static final IndexedEntityType LOAN = new IndexedEntityType("LOAN", "l.id",
+            "select l.id as entityId, c.office_id as officeId, l.account_no as term1, null as term2, null as term3 "
+                    + "from m_loan l join m_client c on c.id = l.client_id");
+
+    private static final IndexedEntityType[] ALL_TYPES = { CLIENT, CLIENT_IDENTIFIER, GROUP, LOAN };
+
+    private final PlatformSecurityContext context;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SearchIndexWritePlatformServiceImpl(final PlatformSecurityContext context, final TenantAwareRoutingDataSource dataSource) {
+        this.context = context;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void indexClient(final Long clientId) {
+        index(CLIENT, clientId);
+    }
+
+    @Override
+    public void removeClient(final Long clientId) {
+        remove(CLIENT, clientId);
+    }
+
+    @Override
+    public void indexClientIdentifier(final Long clientIdentifierId) {
+        index(CLIENT_IDENTIFIER, clientIdentifierId);
+    }
+
+    @Override
+    public void removeClientIdentifier(final Long clientIdentifierId) {
+        remove(CLIENT_IDENTIFIER, clientIdentifierId);
+    }
+
+    @Override
+    public void indexGroup(final Long groupId) {
+        index(GROUP, groupId);
+    }
+
+    @Override
+    public void removeGroup(final Long groupId) {
+        remove(GROUP, groupId);
+    }
+
+    @Override
+    public void indexLoan(final Long loanId) {
+        index(LOAN, loanId);
+    }
+
+    @Override
+    public void removeLoan(final Long loanId) {
+        remove(LOAN, loanId);
+    }
+
+    @Transactional
+    @Override
+    public CommandProcessingResult rebuildIndex(final JsonCommand command) {
+
+        this.context.authenticatedUser();
+
+        this.jdbcTemplate.update("delete from m_search_index_gram");
+        this.jdbcTemplate.update("delete from m_search_index");
+
+        int indexedEntries = 0;
+        for (final IndexedEntityType entityType : ALL_TYPES) {
+            final IndexingRowCallbackHandler handler = new IndexingRowCallbackHandler(entityType);
+            this.jdbcTemplate.query(entityType.schema(), handler);
+            indexedEntries += handler.indexedEntries();
+        }
+
+        // searches only switch to the index once it holds every entity
+        this.jdbcTemplate.update("update m_search_index_status set is_built = 1, lastbuilt_date = now() where id = 1");
+
+        logger.info("Search index rebuilt with " + indexedEntries + " entries.");
+
+        final Map<String, Object> changes = new LinkedHashMap<String, Object>();
+        changes.put("indexedEntries", Integer.valueOf(indexedEntries));
+
+        return new CommandProcessingResultBuilder() //
+                .withCommandId(command.commandId()) //
+                .with(changes) //
+                .build();
+    }
+
+    private void index(final IndexedEntityType entityType, final Long entityId) {
+        remove(entityType, entityId);
+        this.jdbcTemplate.query(entityType.schema() + " where " + entityType.idColumn() + " = ?", new IndexingRowCallbackHandler(
+                entityType), entityId);
+    }
+
+    private void remove(final IndexedEntityType entityType, final Long entityId) {
+        this.jdbcTemplate.update("delete from m_search_index where entity_type = ? and entity_id = ?", entityType.name(), entityId);
+    }
+
+    private void insertEntry(final String entityType, final Long entityId, final Long officeId, final String term) {
+
+        final KeyHolder keyHolder = new GeneratedKeyHolder();
+        this.jdbcTemplate.update(new PreparedStatementCreator() {
+
+            @Override
+            public PreparedStatement createPreparedStatement(final Connection connection) throws SQLException {
+                final PreparedStatement ps = connection.prepareStatement(
+                        "insert into m_search_index (entity_type, entity_id, office_id, term) values (?, ?, ?, ?)",
+                        Statement.RETURN_GENERATED_KEYS);
+                ps.setString(1, entityType);
+                ps.setLong(2, entityId);
+                ps.setLong(3, officeId);
+                ps.setString(4, term);
+                return ps;
+            }
+        }, keyHolder);
+        final long searchIndexId = keyHolder.getKey().longValue();
+
+        final List<String> grams = SearchIndexTerms.gramsOf(term);
+        if (grams.isEmpty()) { return; }
+
+        this.jdbcTemplate.batchUpdate("insert into m_search_index_gram (search_index_id, gram) values (?, ?)",
+                new BatchPreparedStatementSetter() {
+
+                    @Override
+                    public void setValues(final PreparedStatement ps, final int i) throws SQLException {
+                        ps.setLong(1, searchIndexId);
+                        ps.setString(2, grams.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return grams.size();
+                    }
+                });
+    }
+
+    private final class IndexingRowCallbackHandler implements RowCallbackHandler {
+
+        private final IndexedEntityType entityType;
+        private int indexedEntries = 0;
+
+        public IndexingRowCallbackHandler(final IndexedEntityType entityType) {
+            this.entityType = entityType;
+        }
+
+        @Override
+        public void processRow(final ResultSet rs) throws SQLException {
+            final Long entityId = JdbcSupport.getLong(rs, "entityId");
+            final Long officeId = JdbcSupport.getLong(rs, "officeId");
+
+            final Set<String> terms = new LinkedHashSet<String>();
+            terms.add(SearchIndexTerms.normalise(rs.getString("term1")));
+            terms.add(SearchIndexTerms.normalise(rs.getString("term2")));
+            terms.add(SearchIndexTerms.normalise(rs.getString("term3")));
+            terms.remove("");
+
+            for (final String term : terms) {
+                insertEntry(this.entityType.name(), entityId, officeId, term);
+                this.indexedEntries++;
+            }
+        }
+
+        public int indexedEntries() {
+            return this.indexedEntries;
+        }
+    }
+
+    private static final class IndexedEntityType {
+
+        private final String name;
+        private final String idColumn;
+        private final String schema;
+
+        public IndexedEntityType(final String name, final String idColumn, final String schema) {
+            this.name = name;
+            this.idColumn = idColumn;
+            this.schema = schema;
+        }
+
+        public String name() {
+            return this.name;
+        }
+
+        public String idColumn() {
+            return this.idColumn;
+        }
+
+        public String schema() {
+            return this.schema;
+        }
+    }
+}
@@ -7,11 +7,18 @@ package org.mifosplatform.portfolio.search.service;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
 import org.mifosplatform.infrastructure.core.service.TenantAwareRoutingDataSource;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.mifosplatform.organisation.office.service.OfficeHierarchyCache;
+import org.mifosplatform.organisation.office.service.OfficeScope;
 import org.mifosplatform.portfolio.search.data.SearchConditions;
 import org.mifosplatform.portfolio.search.data.SearchData;
 import org.mifosplatform.useradministration.domain.AppUser;
@@ -24,20 +31,132 @@ import org.springframework.stereotype.Service;
 @Service
 public class SearchReadPlatformServiceImpl implements SearchReadPlatformService {
 
+    private static final int MAX_RESULTS = 200;
+
     private final NamedParameterJdbcTemplate namedParameterjdbcTemplate;
     private final PlatformSecurityContext context;
+    private final OfficeHierarchyCache officeHierarchyCache;
 
     @Autowired
-    public SearchReadPlatformServiceImpl(final PlatformSecurityContext context, final TenantAwareRoutingDataSource dataSource) {
+    public SearchReadPlatformServiceImpl(final PlatformSecurityContext context, final TenantAwareRoutingDataSource dataSource,
+            final OfficeHierarchyCache officeHierarchyCache) {
         this.context = context;
+        this.officeHierarchyCache = officeHierarchyCache;
         this.namedParameterjdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
     }
 
+    /**
+     * Searches <code>m_search_index</code> and ranks exact matches before
+     * prefix matches before other matches. Until the index has been rebuilt
+     * for a tenant the entity tables are searched directly, even though
+     * individual writes may already have added entries to it.
+     */
     @Override
     public Collection<SearchData> retriveMatchingData(final SearchConditions searchConditions) {
         AppUser currentUser = context.authenticatedUser();
         String hierarchy = currentUser.getOffice().getHierarchy();
 
+        if (!isSearchIndexBuilt()) { return retrieveMatchingDataFromEntityTables(searchConditions, hierarchy); }
+
+        final String term = SearchIndexTerms.normalise(searchConditions.getSearchQuery());
+        final List<String> entityTypes = searchedEntityTypes(searchConditions);
+        if (term.length() == 0 || entityTypes.isEmpty()) { return new ArrayList<SearchData>(); }
+
+        final OfficeScope scope = this.officeHierarchyCache.scopeOf(hierarchy);
+        final MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("search", term);
+        params.addValue("prefixSearch", term + "%");
+        params.addValue("partialSearch", "%" + term + "%");
+        params.addValue("entityTypes", entityTypes);
+        params.addValue("limit", MAX_RESULTS);
+
+        final String sql;
+        final List<String> grams = SearchIndexTerms.gramsOf(term);
+        if (grams.isEmpty()) {
+            // too short for trigrams so only prefix matches are served
+            sql = "select si.entity_type as entityType, si.entity_id as entityId, "
+                    + " max(case when si.term = :search then 3 else 2 end) as matchRank "
+                    + " from m_search_index si "
+                    + " where " + scope.sqlPredicate("si.office_id") + " and si.entity_type in (:entityTypes) and si.term like :prefixSearch "
+                    + " group by si.entity_type, si.entity_id "
+                    + " order by matchRank desc, field(si.entity_type, 'CLIENT', 'LOAN', 'CLIENTIDENTIFIER', 'GROUP'), si.entity_id "
+                    + " limit :limit";
+        } else {
+            params.addValue("grams", grams);
+            params.addValue("gramCount", grams.size());
+            sql = "select si.entity_type as entityType, si.entity_id as entityId, "
+                    + " max(case when si.term = :search then 3 when si.term like :prefixSearch then 2 else 1 end) as matchRank "
+                    + " from (select g.search_index_id from m_search_index_gram g where g.gram in (:grams) "
+                    + " group by g.search_index_id having count(distinct g.gram) = :gramCount) matched "
+                    + " join m_search_index si on si.id = matched.search_index_id "
+                    + " where " + scope.sqlPredicate("si.office_id") + " and si.entity_type in (:entityTypes) and si.term like :partialSearch "
+                    + " group by si.entity_type, si.entity_id "
+                    + " order by matchRank desc, field(si.entity_type, 'CLIENT', 'LOAN', 'CLIENTIDENTIFIER', 'GROUP'), si.entity_id "
+                    + " limit :limit";
+        }
+
+        final Map<String, List<Long>> matchedIdsByEntityType = new HashMap<String, List<Long>>();
+        final List<String> rankedKeys = new ArrayList<String>();
+        for (final Map<String, Object> match : this.namedParameterjdbcTemplate.queryForList(sql, params)) {
+            final String entityType = (String) match.get("entityType");
+            final Long entityId = ((Number) match.get("entityId")).longValue();
+
+            List<Long> matchedIds = matchedIdsByEntityType.get(entityType);
+            if (matchedIds == null) {
+                matchedIds = new ArrayList<Long>();
+                matchedIdsByEntityType.put(entityType, matchedIds);
+            }
+            matchedIds.add(entityId);
+            rankedKeys.add(entityType + ":" + entityId);
+        }
+
+        if (rankedKeys.isEmpty()) { return new ArrayList<SearchData>(); }
+
+        final SearchMapper rm = new SearchMapper();
+        final MapSqlParameterSource matchParams = new MapSqlParameterSource();
+        final Map<String, SearchData> matches = new LinkedHashMap<String, SearchData>();
+        for (final SearchData searchData : this.namedParameterjdbcTemplate.query(
+                rm.matchedEntitiesSchema(matchedIdsByEntityType, scope, matchParams), matchParams, rm)) {
+            matches.put(searchData.getEntityType() + ":" + searchData.getEntityId(), searchData);
+        }
+
+        // index entries of entities since removed have no match and are
+        // skipped
+        final List<SearchData> results = new ArrayList<SearchData>(rankedKeys.size());
+        for (final String key : rankedKeys) {
+            final SearchData searchData = matches.get(key);
+            if (searchData != null) {
+                results.add(searchData);
+            }
+        }
+        return results;
+    }
+
+    private boolean isSearchIndexBuilt() {
+        final List<Integer> built = this.namedParameterjdbcTemplate.getJdbcOperations().queryForList(
+                "select s.is_built from m_search_index_status s where s.id = 1", Integer.class);
+        return !built.isEmpty() && built.get(0).intValue() == 1;
+    }
+
+    private static List<String> searchedEntityTypes(final SearchConditions searchConditions) {
+        final List<String> entityTypes = new ArrayList<String>();
+        if (searchConditions.isClientSearch()) {
+            entityTypes.add("CLIENT");
+        }
+        if (searchConditions.isLoanSeach()) {
+            entityTypes.add("LOAN");
+        }
+        if (searchConditions.isClientIdentifierSearch()) {
+            entityTypes.add("CLIENTIDENTIFIER");
+        }
+        if (searchConditions.isGroupSearch()) {
+            entityTypes.add("GROUP");
+        }
+        return entityTypes;
+    }
+
+    private Collection<SearchData> retrieveMatchingDataFromEntityTables(final SearchConditions searchConditions, final String hierarchy) {
+
         SearchMapper rm = new SearchMapper();
 
         MapSqlParameterSource params = new MapSqlParameterSource();
@@ -131,6 +250,51 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
             return sql.toString();
         }
 
+        /**
+         * Selects the given entities in the same shape as
+         * {@link #searchSchema}, keeping to the user's office hierarchy.
+         */
+        public String matchedEntitiesSchema(final Map<String, List<Long>> matchedIdsByEntityType, final OfficeScope scope,
+                final MapSqlParameterSource params) {
+
+            final String clientScope = scope.sqlPredicate("c.office_id");
+
+            final Map<String, String> schemaByEntityType = new LinkedHashMap<String, String>();
+            schemaByEntityType.put("CLIENT", " (select 'CLIENT' as entityType, c.id as entityId, c.display_name as entityName, c.external_id as entityExternalId, c.account_no as entityAccountNo "
+                    + " , c.office_id as parentId, o.name as parentName "
+                    + " from m_client c join m_office o on o.id = c.office_id where " + clientScope + " and c.id in (:clientIds)) ");
+            schemaByEntityType.put("LOAN", " (select 'LOAN' as entityType, l.id as entityId, pl.name as entityName, l.external_id as entityExternalId, l.account_no as entityAccountNo "
+                    + " , c.id as parentId, c.display_name as parentName "
+                    + " from m_loan l join m_client c on l.client_id = c.id join m_product_loan pl on pl.id=l.product_id where " + clientScope + " and l.id in (:loanIds)) ");
+            schemaByEntityType.put("CLIENTIDENTIFIER", " (select 'CLIENTIDENTIFIER' as entityType, ci.id as entityId, ci.document_key as entityName, "
+                    + " null as entityExternalId, null as entityAccountNo, c.id as parentId, c.display_name as parentName "
+                    + " from m_client_identifier ci join m_client c on ci.client_id=c.id "
+                    + " where " + clientScope + " and ci.id in (:clientIdentifierIds)) ");
+            schemaByEntityType.put("GROUP", " (select 'GROUP' as entityType, g.id as entityId, g.display_name as entityName, g.external_id as entityExternalId, NULL as entityAccountNo "
+                    + " , g.office_id as parentId, o.name as parentName "
+                    + " from m_group g join m_office o on o.id = g.office_id where " + scope.sqlPredicate("g.office_id") + " and g.id in (:groupIds)) ");
+
+            final Map<String, String> idParamByEntityType = new HashMap<String, String>();
+            idParamByEntityType.put("CLIENT", "clientIds");
+            idParamByEntityType.put("LOAN", "loanIds");
+            idParamByEntityType.put("CLIENTIDENTIFIER", "clientIdentifierIds");
+            idParamByEntityType.put("GROUP", "groupIds");
+
+            final String union = " union all ";
+            final StringBuilder sql = new StringBuilder();
+            for (final Map.Entry<String, String> schema : schemaByEntityType.entrySet()) {
+                final List<Long> matchedIds = matchedIdsByEntityType.get(schema.getKey());
+                if (matchedIds != null) {
+                    if (sql.length() > 0) {
+                        sql.append(union);
+                    }
+                    sql.append(schema.getValue());
+                    params.addValue(idParamByEntityType.get(schema.getKey()), matchedIds);
+                }
+            }
+            return sql.toString();
+        }
+
         @Override
         public SearchData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
             final Long entityId = JdbcSupport.getLong(rs, "entityId");
@@ -12,4 +12,6 @@ public interface ScheduledJobRunnerService {
     void updateLoanArrearsAgeingDetails();
     
     void applyAnnualFeeForSavings(); 
+
+    void postInterestForSavings();
 }
@@ -5,12 +5,24 @@
  */
 package org.mifosplatform.scheduledjobs.service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.joda.time.LocalDate;
 import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
 import org.mifosplatform.infrastructure.core.service.DataSourcePerTenantService;
+import org.mifosplatform.infrastructure.core.service.DateUtils;
+import org.mifosplatform.infrastructure.core.service.EntityVersionService;
 import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.infrastructure.security.service.TenantDetailsService;
+import org.mifosplatform.portfolio.savings.domain.SavingsAccountStatusType;
 import org.mifosplatform.portfolio.savings.service.SavingsAccountWritePlatformService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,16 +36,22 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
 
     private final static Logger logger = LoggerFactory.getLogger(ScheduledJobRunnerServiceImpl.class);
 
+    private static final int INTEREST_POSTING_PAGE_SIZE = 500;
+    private static final int INTEREST_POSTING_THREADS = 4;
+
     private final TenantDetailsService tenantDetailsService;
     private final DataSourcePerTenantService dataSourcePerTenantService;
     private final SavingsAccountWritePlatformService savingsAccountWritePlatformService;
+    private final EntityVersionService entityVersionService;
 
     @Autowired
     public ScheduledJobRunnerServiceImpl(final DataSourcePerTenantService dataSourcePerTenantService,
-            final TenantDetailsService tenantDetailsService, final SavingsAccountWritePlatformService savingsAccountWritePlatformService) {
+            final TenantDetailsService tenantDetailsService, final SavingsAccountWritePlatformService savingsAccountWritePlatformService,
+            final EntityVersionService entityVersionService) {
         this.dataSourcePerTenantService = dataSourcePerTenantService;
         this.tenantDetailsService = tenantDetailsService;
         this.savingsAccountWritePlatformService = savingsAccountWritePlatformService;
+        this.entityVersionService = entityVersionService;
     }
 
     @Transactional
@@ -117,6 +135,9 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
 
             int result = jdbcTemplate.update(updateSqlBuilder.toString());
 
+            // loan reads show the derived figures, so cached responses are stale
+            this.entityVersionService.recordTenantChange();
+
             logger.info(tenant.getName() + ": Results affected by update: " + result);
         }
     }
@@ -161,6 +182,9 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
 
             int result = jdbcTemplate.update(updateSqlBuilder.toString());
 
+            // loan reads show the derived figures, so cached responses are stale
+            this.entityVersionService.recordTenantChange();
+
             logger.info(tenant.getName() + ": Results affected by update: " + result);
         }
     }
@@ -182,7 +206,202 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
                 this.savingsAccountWritePlatformService.applyAnnualFee(savingsId);
             }
 
+            if (!savingsIds.isEmpty()) {
+                this.entityVersionService.recordTenantChange();
+            }
+
             logger.info(tenant.getName() + ": Results affected by update: " + savingsIds.size());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Posts interest to every active savings account of every tenant.
+     * 
+     * Interest posting dates always fall on a month end, so each run works
+     * towards the latest month end that has passed. Accounts are processed in
+     * pages ordered by id, each account in its own transaction on a small pool
+     * of worker threads. Progress is recorded per month end in
+     * m_savings_interest_posting_checkpoint after every page, so the daily run
+     * resumes a pass that stopped part way with the next page. Accounts that
+     * failed are recorded in m_savings_interest_posting_failure and retried by
+     * later runs until they succeed or the next month end is reached. Posting
+     * interest twice for an account and date is harmless as already posted
+     * amounts are left untouched.
+     */
+    @Override
+    public void postInterestForSavings() {
+
+        final ExecutorService workers = Executors.newFixedThreadPool(INTEREST_POSTING_THREADS, new ThreadFactory() {
+
+            private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "savings-interest-posting-" + this.threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        try {
+            List<MifosPlatformTenant> allTenants = this.tenantDetailsService.findAllTenants();
+            for (MifosPlatformTenant tenant : allTenants) {
+                ThreadLocalContextUtil.setTenant(tenant);
+
+                postInterestForSavings(tenant, workers);
+            }
+        } finally {
+            workers.shutdown();
+        }
+    }
+
+    private void postInterestForSavings(final MifosPlatformTenant tenant, final ExecutorService workers) {
+
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSourcePerTenantService.retrieveTenantAwareDataSource());
+        final LocalDate postingDate = DateUtils.getLocalDateOfTenant().dayOfMonth().withMinimumValue().minusDays(1);
+
+        int postedCount = 0;
+        int failedCount = 0;
+        Long lastSavingsId = retrieveInterestPostingResumePoint(jdbcTemplate, postingDate);
+        if (lastSavingsId != null) {
+            final String sql = "SELECT ms.id FROM m_savings_account ms WHERE ms.status_enum = ? and ms.id > ? ORDER BY ms.id LIMIT ?";
+
+            List<Long> savingsIds = jdbcTemplate.queryForList(sql, Long.class, SavingsAccountStatusType.ACTIVE.getValue(),
+                    lastSavingsId, INTEREST_POSTING_PAGE_SIZE);
+            while (!savingsIds.isEmpty()) {
+
+                final List<Long> failedSavingsIds = postInterest(tenant, workers, savingsIds);
+                for (final Long failedSavingsId : failedSavingsIds) {
+                    jdbcTemplate.update("INSERT IGNORE INTO m_savings_interest_posting_failure (posting_date, savings_account_id) "
+                            + "VALUES (?, ?)", postingDate.toDate(), failedSavingsId);
+                }
+
+                final int pagePostedCount = savingsIds.size() - failedSavingsIds.size();
+                postedCount += pagePostedCount;
+                failedCount += failedSavingsIds.size();
+
+                lastSavingsId = savingsIds.get(savingsIds.size() - 1);
+                jdbcTemplate.update("UPDATE m_savings_interest_posting_checkpoint SET last_savings_account_id = ?, "
+                        + "accounts_posted = accounts_posted + ?, accounts_failed = accounts_failed + ? WHERE posting_date = ?",
+                        lastSavingsId, pagePostedCount, failedSavingsIds.size(), postingDate.toDate());
+
+                savingsIds = jdbcTemplate.queryForList(sql, Long.class, SavingsAccountStatusType.ACTIVE.getValue(), lastSavingsId,
+                        INTEREST_POSTING_PAGE_SIZE);
+            }
+
+            jdbcTemplate.update("UPDATE m_savings_interest_posting_checkpoint SET is_completed = 1 WHERE posting_date = ?",
+                    postingDate.toDate());
+
+            logger.info(tenant.getName() + ": Interest posted for " + postingDate + " to " + postedCount + " savings accounts, "
+                    + failedCount + " failed.");
+        }
+
+        final int retriedCount = retryFailedInterestPostings(tenant, workers, jdbcTemplate, postingDate);
+
+        if (postedCount > 0 || retriedCount > 0) {
+            this.entityVersionService.recordTenantChange();
+        }
+    }
+
+    /**
+     * Returns the id of the last savings account processed by an earlier run
+     * for <code>postingDate</code>, or <code>null</code> if that run completed.
+     * Starting the pass for a new posting date discards the failures recorded
+     * for earlier ones, as that pass posts interest to those accounts again.
+     */
+    private Long retrieveInterestPostingResumePoint(final JdbcTemplate jdbcTemplate, final LocalDate postingDate) {
+
+        final List<Long> lastSavingsIds = jdbcTemplate.queryForList(
+                "SELECT last_savings_account_id FROM m_savings_interest_posting_checkpoint WHERE posting_date = ? and is_completed = 0",
+                Long.class, postingDate.toDate());
+        if (!lastSavingsIds.isEmpty()) { return lastSavingsIds.get(0); }
+
+        final int inserted = jdbcTemplate.update("INSERT IGNORE INTO m_savings_interest_posting_checkpoint "
+                + "(posting_date, last_savings_account_id, accounts_posted, accounts_failed, is_completed) VALUES (?, 0, 0, 0, 0)",
+                postingDate.toDate());
+        if (inserted == 0) { return null; }
+
+        jdbcTemplate.update("DELETE FROM m_savings_interest_posting_failure WHERE posting_date < ?", postingDate.toDate());
+
+        return Long.valueOf(0);
+    }
+
+    /**
+     * Posts interest again to the accounts that failed for
+     * <code>postingDate</code> and returns how many succeeded this time.
+     */
+    private int retryFailedInterestPostings(final MifosPlatformTenant tenant, final ExecutorService workers,
+            final JdbcTemplate jdbcTemplate, final LocalDate postingDate) {
+
+        final List<Long> failedSavingsIds = jdbcTemplate.queryForList(
+                "SELECT savings_account_id FROM m_savings_interest_posting_failure WHERE posting_date = ? ORDER BY savings_account_id",
+                Long.class, postingDate.toDate());
+        if (failedSavingsIds.isEmpty()) { return 0; }
+
+        final List<Long> stillFailingSavingsIds = postInterest(tenant, workers, failedSavingsIds);
+
+        int retriedCount = 0;
+        for (final Long savingsId : failedSavingsIds) {
+            if (!stillFailingSavingsIds.contains(savingsId)) {
+                jdbcTemplate.update("DELETE FROM m_savings_interest_posting_failure WHERE posting_date = ? and savings_account_id = ?",
+                        postingDate.toDate(), savingsId);
+                retriedCount++;
+            }
+        }
+
+        jdbcTemplate.update("UPDATE m_savings_interest_posting_checkpoint SET accounts_posted = accounts_posted + ?, "
+                + "accounts_failed = accounts_failed - ? WHERE posting_date = ?", retriedCount, retriedCount, postingDate.toDate());
+
+        logger.info(tenant.getName() + ": Interest posting for " + postingDate + " retried for " + failedSavingsIds.size()
+                + " savings accounts, " + stillFailingSavingsIds.size() + " still failing.");
+
+        return retriedCount;
+    }
+
+    /**
+     * Posts interest to each of <code>savingsIds</code> on the worker threads
+     * and returns the ids of the accounts that failed.
+     */
+    private List<Long> postInterest(final MifosPlatformTenant tenant, final ExecutorService workers, final List<Long> savingsIds) {
+
+        final List<Future<Boolean>> postings = new ArrayList<Future<Boolean>>(savingsIds.size());
+        for (final Long savingsId : savingsIds) {
+            postings.add(workers.submit(new Callable<Boolean>() {
+
+                @Override
+                public Boolean call() {
+                    ThreadLocalContextUtil.setTenant(tenant);
+                    try {
+                        ScheduledJobRunnerServiceImpl.this.savingsAccountWritePlatformService.postInterest(savingsId);
+                        return Boolean.TRUE;
+                    } catch (final RuntimeException e) {
+                        logger.error(tenant.getName() + ": Interest posting failed for savings account " + savingsId, e);
+                        return Boolean.FALSE;
+                    } finally {
+                        ThreadLocalContextUtil.clearTenant();
+                    }
+                }
+            }));
+        }
+
+        final List<Long> failedSavingsIds = new ArrayList<Long>();
+        for (int i = 0; i < postings.size(); i++) {
+            if (!waitFor(postings.get(i))) {
+                failedSavingsIds.add(savingsIds.get(i));
+            }
+        }
+        return failedSavingsIds;
+    }
+
+    private static boolean waitFor(final Future<Boolean> posting) {
+        try {
+            return posting.get().booleanValue();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interest posting was interrupted.", e);
+        } catch (final ExecutionException e) {
+            logger.error("Interest posting failed", e.getCause());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.mifosplatform.infrastructure.dataqueries;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.mifosplatform.infrastructure.dataqueries.service.PdfResultsetWriter;
+
+import com.lowagie.text.pdf.PdfReader;
+
+public class PdfResultsetWriterTest {
+
+    private final List<ResultsetColumnHeaderData> columnHeaders = Arrays.asList(ResultsetColumnHeaderData.basic("id", "BIGINT"),
+            ResultsetColumnHeaderData.basic("name", "VARCHAR"));
+
+    @Test
+    public void writesColumnNamesWhenResultsetHasNoRows() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final PdfResultsetWriter writer = new PdfResultsetWriter(out, 2);
+
+        writer.writeColumnHeaders(this.columnHeaders);
+        writer.finish();
+
+        assertEquals(0, writer.rowsWritten());
+        assertEquals(1, new PdfReader(out.toByteArray()).getNumberOfPages());
+    }
+
+    @Test
+    public void writesEveryRowAcrossFlushes() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final PdfResultsetWriter writer = new PdfResultsetWriter(out, 2);
+
+        writer.writeColumnHeaders(this.columnHeaders);
+        writer.writeRow(Arrays.asList("1", "first"));
+        writer.writeRow(Arrays.asList("2", null));
+        writer.writeRow(Arrays.asList("3", "third"));
+        writer.finish();
+
+        assertEquals(3, writer.rowsWritten());
+        assertTrue(new PdfReader(out.toByteArray()).getNumberOfPages() >= 1);
+    }
+}
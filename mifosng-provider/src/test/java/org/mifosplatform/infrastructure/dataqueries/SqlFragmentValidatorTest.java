@@ -0,0 +1,42 @@
+package org.mifosplatform.infrastructure.dataqueries;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.mifosplatform.infrastructure.dataqueries.service.SqlFragmentValidator;
+
+public class SqlFragmentValidatorTest {
+
+    @Test
+    public void acceptsOrdinarySearchConditions() {
+        assertTrue(SqlFragmentValidator.isSafeSearchCondition("d.amount > 100 and (c.display_name like '%smith%' or d.code = 'A')"));
+        assertTrue(SqlFragmentValidator.isSafeSearchCondition("d.note = 'it''s (open'"));
+        assertTrue(SqlFragmentValidator.isSafeSearchCondition("date(d.created_date) >= '2013-01-01'"));
+    }
+
+    @Test
+    public void rejectsConditionsThatCloseTheEnclosingGroup() {
+        assertFalse(SqlFragmentValidator.isSafeSearchCondition("1=1) or (1=1"));
+        assertFalse(SqlFragmentValidator.isSafeSearchCondition("(1=1"));
+    }
+
+    @Test
+    public void rejectsSubqueriesSeparatorsAndComments() {
+        assertFalse(SqlFragmentValidator.isSafeSearchCondition("d.id in (select id from m_appuser)"));
+        assertFalse(SqlFragmentValidator.isSafeSearchCondition("1=1 UNION ALL SELECT 1"));
+        assertFalse(SqlFragmentValidator.isSafeSearchCondition("1=1; drop table m_client"));
+        assertFalse(SqlFragmentValidator.isSafeSearchCondition("1=1 -- "));
+        assertFalse(SqlFragmentValidator.isSafeSearchCondition("1=1 /* */"));
+        assertFalse(SqlFragmentValidator.isSafeSearchCondition("d.note = 'a\\' or 1=1"));
+        assertFalse(SqlFragmentValidator.isSafeSearchCondition("d.note = 'unterminated"));
+    }
+
+    @Test
+    public void acceptsOnlyColumnListsForOrder() {
+        assertTrue(SqlFragmentValidator.isSafeOrderBy("d.`client_id` desc, d.amount"));
+        assertFalse(SqlFragmentValidator.isSafeOrderBy("d.amount, (select 1)"));
+        assertFalse(SqlFragmentValidator.isSafeOrderBy("d.amount desc; delete from m_client"));
+        assertFalse(SqlFragmentValidator.isSafeOrderBy(""));
+    }
+}
@@ -0,0 +1,62 @@
+package org.mifosplatform.infrastructure.dataqueries;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.mifosplatform.infrastructure.dataqueries.service.SqlTemplate;
+
+public class SqlTemplateTest {
+
+    @Test
+    public void substitutesEveryOccurrenceOfAPlaceholder() {
+        final SqlTemplate template = SqlTemplate.compile("select * from m_office o where o.id = ${officeId} or o.parent_id = ${officeId}");
+
+        final Map<String, String> values = new HashMap<String, String>();
+        values.put("${officeId}", "1");
+
+        assertEquals("select * from m_office o where o.id = 1 or o.parent_id = 1", template.render(values));
+    }
+
+    @Test
+    public void leavesPlaceholdersWithoutValuesAsWritten() {
+        final SqlTemplate template = SqlTemplate.compile("select '${unknown}' as a, ${officeId} as b");
+
+        final Map<String, String> values = new HashMap<String, String>();
+        values.put("${officeId}", "2");
+
+        assertEquals("select '${unknown}' as a, 2 as b", template.render(values));
+    }
+
+    @Test
+    public void doesNotSubstituteIntoValues() {
+        final SqlTemplate template = SqlTemplate.compile("select '${name}', ${currentUserId}");
+
+        final Map<String, String> values = new HashMap<String, String>();
+        values.put("${name}", "${currentUserId}");
+        values.put("${currentUserId}", "5");
+
+        assertEquals("select '${currentUserId}', 5", template.render(values));
+    }
+
+    @Test
+    public void handlesSqlWithoutOrWithUnclosedPlaceholders() {
+        final Map<String, String> values = new HashMap<String, String>();
+        values.put("${a}", "1");
+
+        assertEquals("select 1", SqlTemplate.compile("select 1").render(values));
+        assertEquals("select 1, ${a", SqlTemplate.compile("select ${a}, ${a").render(values));
+    }
+
+    @Test
+    public void reportsWhichPlaceholdersAreUsed() {
+        final SqlTemplate template = SqlTemplate.compile("select * from m_office o where o.id in (${currentUserOfficeIds})");
+
+        assertTrue(template.uses("${currentUserOfficeIds}"));
+        assertFalse(template.uses("${currentUserId}"));
+    }
+}
@@ -0,0 +1,124 @@
+package org.mifosplatform.portfolio.loanaccount;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
+import org.mifosplatform.organisation.monetary.domain.Money;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallmentMatcher;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanScheduleModelPeriod;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanScheduleModelRepaymentPeriod;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LoanRepaymentScheduleInstallmentMatcherTest {
+
+    private final LocalDate june2nd = new LocalDate(2012, 6, 2);
+    private final LocalDate july2nd = new LocalDate(2012, 7, 2);
+    private final MonetaryCurrency usDollars = new MonetaryCurrencyBuilder().withCode("USD").withDigitsAfterDecimal(2).build();
+
+    private List<LoanRepaymentScheduleInstallment> installments;
+    private List<LoanRepaymentScheduleInstallment> originalInstallments;
+
+    @Before
+    public void setUpForEachTestCase() {
+        this.installments = new ArrayList<LoanRepaymentScheduleInstallment>(
+                LoanScheduleTestDataHelper.createSimpleLoanScheduleWithFirstInstallmentFullyPaid(this.july2nd, this.usDollars));
+        this.originalInstallments = new ArrayList<LoanRepaymentScheduleInstallment>(this.installments);
+    }
+
+    @Test
+    public void givenUnchangedNumberOfPeriodsShouldReuseEveryInstallmentAndResetDerivedAmounts() {
+
+        final List<LoanScheduleModelPeriod> periods = schedule(3, "1000.00", "200.00");
+
+        LoanRepaymentScheduleInstallmentMatcher.updateInPlace(null, this.installments, periods);
+
+        assertThat(this.installments.size(), is(3));
+        for (int i = 0; i < 3; i++) {
+            assertThat(this.installments.get(i), is(sameInstance(this.originalInstallments.get(i))));
+        }
+        assertThat(this.installments.get(0).getPrincipalCompleted(this.usDollars).isZero(), is(true));
+        assertThat(this.installments.get(0).isObligationsMet(), is(false));
+    }
+
+    @Test
+    public void givenFewerPeriodsShouldReuseLeadingInstallmentsAndRemoveSurplusOnes() {
+
+        final List<LoanScheduleModelPeriod> periods = schedule(2, "1500.00", "150.00");
+
+        LoanRepaymentScheduleInstallmentMatcher.updateInPlace(null, this.installments, periods);
+
+        assertThat(this.installments.size(), is(2));
+        for (int i = 0; i < 2; i++) {
+            final LoanRepaymentScheduleInstallment installment = this.installments.get(i);
+            assertThat(installment, is(sameInstance(this.originalInstallments.get(i))));
+            assertThat(installment.getInstallmentNumber(), is(i + 1));
+            assertThat(installment.getDueDate(), is(this.july2nd.plusMonths(i)));
+            assertThat(installment.getPrincipal(this.usDollars).isEqualTo(money("1500.00")), is(true));
+            assertThat(installment.getInterestCharged(this.usDollars).isEqualTo(money("150.00")), is(true));
+        }
+    }
+
+    @Test
+    public void givenMorePeriodsShouldReuseExistingInstallmentsAndAppendNewOnes() {
+
+        final List<LoanScheduleModelPeriod> periods = schedule(4, "750.00", "100.00");
+
+        LoanRepaymentScheduleInstallmentMatcher.updateInPlace(null, this.installments, periods);
+
+        assertThat(this.installments.size(), is(4));
+        for (int i = 0; i < 3; i++) {
+            assertThat(this.installments.get(i), is(sameInstance(this.originalInstallments.get(i))));
+        }
+        final LoanRepaymentScheduleInstallment appended = this.installments.get(3);
+        assertThat(appended.getInstallmentNumber(), is(4));
+        assertThat(appended.getDueDate(), is(this.july2nd.plusMonths(3)));
+        assertThat(appended.getPrincipal(this.usDollars).isEqualTo(money("750.00")), is(true));
+        assertThat(appended.getInterestCharged(this.usDollars).isEqualTo(money("100.00")), is(true));
+    }
+
+    @Test
+    public void givenNonRepaymentPeriodsShouldSkipThemWhenMatching() {
+
+        final LoanScheduleModelPeriod disbursement = mock(LoanScheduleModelPeriod.class);
+        when(disbursement.isRepaymentPeriod()).thenReturn(false);
+
+        final List<LoanScheduleModelPeriod> periods = new ArrayList<LoanScheduleModelPeriod>();
+        periods.add(disbursement);
+        periods.addAll(schedule(3, "1000.00", "200.00"));
+
+        LoanRepaymentScheduleInstallmentMatcher.updateInPlace(null, this.installments, periods);
+
+        assertThat(this.installments.size(), is(3));
+        assertThat(this.installments.get(0).getInstallmentNumber(), is(1));
+        assertThat(this.installments.get(0).getDueDate(), is(this.july2nd));
+    }
+
+    private List<LoanScheduleModelPeriod> schedule(final int numberOfRepayments, final String principal, final String interest) {
+        final List<LoanScheduleModelPeriod> periods = new ArrayList<LoanScheduleModelPeriod>();
+        final Money zero = Money.zero(this.usDollars);
+        for (int i = 0; i < numberOfRepayments; i++) {
+            final Money principalDue = money(principal);
+            final Money interestDue = money(interest);
+            periods.add(LoanScheduleModelRepaymentPeriod.repayment(i + 1, this.june2nd.plusMonths(i), this.july2nd.plusMonths(i),
+                    principalDue, zero, interestDue, zero, zero, principalDue.plus(interestDue)));
+        }
+        return periods;
+    }
+
+    private Money money(final String amount) {
+        return new MoneyBuilder().with(this.usDollars).with(amount).build();
+    }
+}
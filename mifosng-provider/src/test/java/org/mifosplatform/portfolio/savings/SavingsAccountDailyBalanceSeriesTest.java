@@ -0,0 +1,198 @@
+package org.mifosplatform.portfolio.savings;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.domain.LocalDateInterval;
+import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
+import org.mifosplatform.organisation.monetary.domain.Money;
+import org.mifosplatform.portfolio.savings.domain.SavingsAccountDailyBalance;
+import org.mifosplatform.portfolio.savings.domain.SavingsAccountDailyBalanceSeries;
+import org.mifosplatform.portfolio.savings.domain.SavingsAccountPeriodBalance;
+import org.mifosplatform.portfolio.savings.domain.SavingsAccountTransaction;
+import org.mifosplatform.portfolio.savings.domain.SavingsCompoundInterestCalculator;
+import org.mifosplatform.portfolio.savings.domain.SavingsCompoundInterestCalculatorForAverageBalance;
+import org.mifosplatform.portfolio.savings.domain.SavingsCompoundInterestCalculatorForDailyBalance;
+
+/**
+ * Checks that interest calculated from a
+ * {@link SavingsAccountDailyBalanceSeries} matches interest calculated from
+ * lists of {@link SavingsAccountDailyBalance}s.
+ */
+public class SavingsAccountDailyBalanceSeriesTest {
+
+    private final MonetaryCurrency usDollars = new MonetaryCurrency("USD", 2);
+    private final LocalDate activationDate = new LocalDate(2010, 1, 4);
+    private final MathContext mc = new MathContext(10, RoundingMode.HALF_EVEN);
+    private final BigDecimal periodsInOneYearAsFraction = BigDecimal.ONE.divide(BigDecimal.valueOf(365), this.mc);
+    private final BigDecimal annualInterestRateAsFraction = new BigDecimal("0.055");
+
+    @Test
+    public void dailyBalanceInterestMatchesForOneYearAccount() {
+        assertEquivalentInterest(dailyBalanceCalculator(), 1);
+    }
+
+    @Test
+    public void dailyBalanceInterestMatchesForFiveYearAccount() {
+        assertEquivalentInterest(dailyBalanceCalculator(), 5);
+    }
+
+    @Test
+    public void dailyBalanceInterestMatchesForTenYearAccount() {
+        assertEquivalentInterest(dailyBalanceCalculator(), 10);
+    }
+
+    @Test
+    public void averageBalanceInterestMatchesForOneYearAccount() {
+        assertEquivalentInterest(averageBalanceCalculator(), 1);
+    }
+
+    @Test
+    public void averageBalanceInterestMatchesForFiveYearAccount() {
+        assertEquivalentInterest(averageBalanceCalculator(), 5);
+    }
+
+    @Test
+    public void averageBalanceInterestMatchesForTenYearAccount() {
+        assertEquivalentInterest(averageBalanceCalculator(), 10);
+    }
+
+    @Test
+    public void periodWithoutTransactionsUsesOpeningBalance() {
+        final List<SavingsAccountTransaction> transactions = new ArrayList<SavingsAccountTransaction>();
+        transactions.add(SavingsAccountTransaction.deposit(null, null, this.activationDate, money("1000.00")));
+        final LocalDate upTo = this.activationDate.plusMonths(3);
+        recalculateDailyBalances(transactions, upTo);
+
+        final SavingsAccountDailyBalanceSeries series = SavingsAccountDailyBalanceSeries.createFrom(this.usDollars, transactions);
+        final LocalDateInterval february = LocalDateInterval.create(new LocalDate(2010, 2, 1), new LocalDate(2010, 2, 28));
+        final SavingsAccountPeriodBalance periodBalance = series.balanceFor(february, new BigDecimal("1000.00"));
+
+        assertEquals(0, new BigDecimal("28000.00").compareTo(periodBalance.cumulativePositiveBalance()));
+        assertEquals(28, periodBalance.numberOfDaysWithPositiveBalance());
+        assertEquals(0, new BigDecimal("1000.00").compareTo(periodBalance.closingBalance()));
+    }
+
+    private void assertEquivalentInterest(final SavingsCompoundInterestCalculator calculator, final int years) {
+
+        final LocalDate upTo = this.activationDate.plusYears(years).minusDays(1);
+        final List<SavingsAccountTransaction> transactions = createTransactionHistory(upTo, years);
+        recalculateDailyBalances(transactions, upTo);
+
+        final SavingsAccountDailyBalanceSeries series = SavingsAccountDailyBalanceSeries.createFrom(this.usDollars, transactions);
+
+        BigDecimal openingBalance = BigDecimal.ZERO;
+        BigDecimal compoundedInterestToDate = BigDecimal.ZERO;
+        for (final LocalDateInterval periodInterval : monthlyPeriods(upTo)) {
+            final Integer numberOfDays = periodInterval.daysInPeriodInclusiveOfEndDate();
+
+            BigDecimal closingBalance = openingBalance;
+            final List<SavingsAccountDailyBalance> dailyBalances = new ArrayList<SavingsAccountDailyBalance>();
+            for (final SavingsAccountTransaction transaction : transactions) {
+                if (transaction.isAcceptableForDailyBalance(periodInterval)) {
+                    final SavingsAccountDailyBalance dailyBalance = transaction.toCompoundedDailyBalance(periodInterval.endDate(),
+                            compoundedInterestToDate);
+                    dailyBalances.add(dailyBalance);
+                    closingBalance = dailyBalance.endOfDayBalance();
+                }
+            }
+            if (dailyBalances.isEmpty()) {
+                dailyBalances.add(SavingsAccountDailyBalance.createFrom(periodInterval, openingBalance, compoundedInterestToDate));
+            }
+            final BigDecimal expectedInterest = calculator.calculate(dailyBalances, numberOfDays);
+
+            final SavingsAccountPeriodBalance periodBalance = series.balanceFor(periodInterval, openingBalance);
+            final BigDecimal actualInterest = calculator.calculate(periodBalance, compoundedInterestToDate, numberOfDays);
+
+            assertEquals(0, closingBalance.compareTo(periodBalance.closingBalance()));
+            assertEquals(expectedInterest.doubleValue(), actualInterest.doubleValue(), 0.000001);
+
+            openingBalance = closingBalance;
+            compoundedInterestToDate = compoundedInterestToDate.add(expectedInterest, this.mc);
+        }
+    }
+
+    /**
+     * Deposits and withdrawals every few days, some on the same day, some
+     * reversed and some taking the balance below zero.
+     */
+    private List<SavingsAccountTransaction> createTransactionHistory(final LocalDate upTo, final int seed) {
+        final Random random = new Random(seed);
+        final List<SavingsAccountTransaction> transactions = new ArrayList<SavingsAccountTransaction>();
+
+        LocalDate transactionDate = this.activationDate;
+        transactions.add(SavingsAccountTransaction.deposit(null, null, transactionDate, money("500.00")));
+        while (!transactionDate.isAfter(upTo)) {
+            final Money amount = money(BigDecimal.valueOf(random.nextInt(100000), 2).toPlainString());
+            final SavingsAccountTransaction transaction = random.nextInt(3) == 0 ? SavingsAccountTransaction.withdrawal(null, null,
+                    transactionDate, amount) : SavingsAccountTransaction.deposit(null, null, transactionDate, amount);
+            if (random.nextInt(20) == 0) {
+                transaction.reverse();
+            }
+            transactions.add(transaction);
+
+            transactionDate = transactionDate.plusDays(random.nextInt(9));
+        }
+        return transactions;
+    }
+
+    /**
+     * Mirrors the derivation of balance fields in <code>SavingsAccount</code>.
+     */
+    private void recalculateDailyBalances(final List<SavingsAccountTransaction> transactions, final LocalDate upTo) {
+        Money runningBalance = Money.zero(this.usDollars);
+        for (final SavingsAccountTransaction transaction : transactions) {
+            if (transaction.isReversed()) {
+                transaction.zeroBalanceFields();
+            } else {
+                if (transaction.isDeposit()) {
+                    runningBalance = runningBalance.plus(transaction.getAmount(this.usDollars));
+                } else if (transaction.isWithdrawal()) {
+                    runningBalance = runningBalance.minus(transaction.getAmount(this.usDollars));
+                }
+                transaction.updateRunningBalance(runningBalance);
+            }
+        }
+
+        LocalDate endOfBalanceDate = upTo;
+        for (int i = transactions.size() - 1; i >= 0; i--) {
+            final SavingsAccountTransaction transaction = transactions.get(i);
+            transaction.updateCumulativeBalanceAndDates(this.usDollars, endOfBalanceDate);
+            endOfBalanceDate = transaction.transactionLocalDate().minusDays(1);
+        }
+    }
+
+    private List<LocalDateInterval> monthlyPeriods(final LocalDate upTo) {
+        final List<LocalDateInterval> periods = new ArrayList<LocalDateInterval>();
+        LocalDate periodStartDate = this.activationDate;
+        while (!periodStartDate.isAfter(upTo)) {
+            LocalDate periodEndDate = periodStartDate.dayOfMonth().withMaximumValue();
+            if (periodEndDate.isAfter(upTo)) {
+                periodEndDate = upTo;
+            }
+            periods.add(LocalDateInterval.create(periodStartDate, periodEndDate));
+            periodStartDate = periodEndDate.plusDays(1);
+        }
+        return periods;
+    }
+
+    private SavingsCompoundInterestCalculator dailyBalanceCalculator() {
+        return new SavingsCompoundInterestCalculatorForDailyBalance(this.periodsInOneYearAsFraction, this.annualInterestRateAsFraction);
+    }
+
+    private SavingsCompoundInterestCalculator averageBalanceCalculator() {
+        return new SavingsCompoundInterestCalculatorForAverageBalance(this.periodsInOneYearAsFraction, this.annualInterestRateAsFraction);
+    }
+
+    private Money money(final String amount) {
+        return Money.of(this.usDollars, new BigDecimal(amount));
+    }
+}
@@ -0,0 +1,124 @@
+package org.mifosplatform.portfolio.savings;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.joda.time.LocalDate;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.api.JsonCommand;
+import org.mifosplatform.infrastructure.core.serialization.FromJsonHelper;
+import org.mifosplatform.infrastructure.core.service.DateUtils;
+import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
+import org.mifosplatform.portfolio.client.domain.Client;
+import org.mifosplatform.portfolio.savings.domain.InterestCompoundingPeriodSummary;
+import org.mifosplatform.portfolio.savings.domain.SavingsAccount;
+import org.mifosplatform.portfolio.savings.domain.SavingsAccountInterestCheckpoint;
+import org.mifosplatform.portfolio.savings.domain.SavingsAccountTransactionSummaryWrapper;
+import org.mifosplatform.portfolio.savings.domain.SavingsCompoundingInterestPeriodType;
+import org.mifosplatform.portfolio.savings.domain.SavingsInterestCalculationDaysInYearType;
+import org.mifosplatform.portfolio.savings.domain.SavingsInterestCalculationType;
+import org.mifosplatform.portfolio.savings.domain.SavingsInterestPostingPeriodType;
+import org.mifosplatform.portfolio.savings.domain.SavingsProduct;
+
+/**
+ * Checks that interest calculated by resuming from a
+ * {@link SavingsAccountInterestCheckpoint} matches interest recalculated from
+ * activation.
+ */
+public class SavingsAccountInterestCheckpointTest {
+
+    private final DateTimeFormatter formatter = DateTimeFormat.forPattern("dd MMMM yyyy").withLocale(Locale.ENGLISH);
+    private final MonetaryCurrency usDollars = new MonetaryCurrency("USD", 2);
+    private final LocalDate today = DateUtils.getLocalDateOfTenant();
+    private final LocalDate activationDate = this.today.minusMonths(14).withDayOfMonth(1);
+
+    @Test
+    public void resumingFromCheckpointMatchesFullRecalculation() {
+        final SavingsAccount account = accountWithDeposits();
+
+        final List<InterestCompoundingPeriodSummary> fullRecalculation = account.calculateInterestFromActivation(this.today);
+        final List<InterestCompoundingPeriodSummary> resumed = account.calculateInterest(this.today);
+
+        assertTrue(resumed.size() < fullRecalculation.size());
+        assertEquivalentInterest(fullRecalculation, resumed);
+    }
+
+    @Test
+    public void checkpointSurvivesDepositAfterIt() {
+        final SavingsAccount account = accountWithDeposits();
+        account.calculateInterestFromActivation(this.today);
+
+        deposit(account, this.today, "300.00");
+
+        final List<InterestCompoundingPeriodSummary> resumed = account.calculateInterest(this.today);
+        final List<InterestCompoundingPeriodSummary> fullRecalculation = account.calculateInterestFromActivation(this.today);
+
+        assertTrue(resumed.size() < fullRecalculation.size());
+        assertEquivalentInterest(fullRecalculation, resumed);
+    }
+
+    @Test
+    public void depositBeforeCheckpointReplacesIt() {
+        final SavingsAccount account = accountWithDeposits();
+        account.calculateInterestFromActivation(this.today);
+
+        deposit(account, this.activationDate.plusDays(10), "300.00");
+
+        final List<InterestCompoundingPeriodSummary> resumed = account.calculateInterest(this.today);
+        final List<InterestCompoundingPeriodSummary> fullRecalculation = account.calculateInterestFromActivation(this.today);
+
+        assertEquivalentInterest(fullRecalculation, resumed);
+    }
+
+    private void assertEquivalentInterest(final List<InterestCompoundingPeriodSummary> expected,
+            final List<InterestCompoundingPeriodSummary> actual) {
+        final InterestCompoundingPeriodSummary expectedLatest = expected.get(expected.size() - 1);
+        final InterestCompoundingPeriodSummary actualLatest = actual.get(actual.size() - 1);
+
+        assertEquals(expectedLatest.periodInterval().endDate(), actualLatest.periodInterval().endDate());
+        assertEquals(0, expectedLatest.closingBalance().compareTo(actualLatest.closingBalance()));
+        assertEquals(0, expectedLatest.compoundedInterest().compareTo(actualLatest.compoundedInterest()));
+    }
+
+    private SavingsAccount accountWithDeposits() {
+        final SavingsProduct product = mock(SavingsProduct.class);
+        when(product.currency()).thenReturn(this.usDollars);
+
+        final SavingsAccount account = SavingsAccount.createNewAccount(activeClient(), null, product, "000000001", null, new BigDecimal(
+                "5.5"), SavingsCompoundingInterestPeriodType.MONTHLY, SavingsInterestPostingPeriodType.MONTHLY,
+                SavingsInterestCalculationType.DAILY_BALANCE, SavingsInterestCalculationDaysInYearType.DAYS_365, BigDecimal.ZERO, null,
+                null, null, null, null, null);
+        account.setHelpers(new SavingsAccountTransactionSummaryWrapper());
+        account.activate(this.formatter, this.activationDate, new ArrayList<Long>(), new ArrayList<Long>());
+
+        deposit(account, this.activationDate, "1000.00");
+        deposit(account, this.activationDate.plusDays(40), "250.00");
+        deposit(account, this.activationDate.plusMonths(6).plusDays(3), "500.00");
+        deposit(account, this.today.minusMonths(1), "125.00");
+
+        return account;
+    }
+
+    private Client activeClient() {
+        final String json = "{\"active\": true, \"activationDate\": \"" + this.activationDate.minusDays(1).toString(this.formatter)
+                + "\", \"dateFormat\": \"dd MMMM yyyy\", \"locale\": \"en\"}";
+        final FromJsonHelper fromJsonHelper = new FromJsonHelper();
+        final JsonCommand command = JsonCommand.from(json, fromJsonHelper.parse(json), fromJsonHelper, null, null, null, null, null,
+                null, null, null, null, null, null, null);
+        return Client.createNew(null, null, null, command);
+    }
+
+    private void deposit(final SavingsAccount account, final LocalDate transactionDate, final String amount) {
+        account.deposit(this.formatter, transactionDate, new BigDecimal(amount), new ArrayList<Long>(), new ArrayList<Long>(), null,
+                null, null, null);
+    }
+}